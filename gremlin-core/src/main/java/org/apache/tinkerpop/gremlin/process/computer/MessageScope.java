@@ -93,6 +93,7 @@ public abstract class MessageScope {
         public final Supplier<? extends Traversal<Vertex, Edge>> incidentTraversal;
         public final BiFunction<M, Edge, M> edgeFunction;
         private final String toStringOfTraversal;
+        private final int hashCode;
 
         private Local(final Supplier<? extends Traversal<Vertex, Edge>> incidentTraversal) {
             this(incidentTraversal, (final M m, final Edge e) -> m); // the default is an identity function
@@ -102,6 +103,8 @@ public abstract class MessageScope {
             this.incidentTraversal = incidentTraversal;
             this.toStringOfTraversal = this.incidentTraversal.get().toString();
             this.edgeFunction = edgeFunction;
+            // message boards key their messages by scope so the traversal is not built again on every lookup
+            this.hashCode = this.edgeFunction.hashCode() + this.toStringOfTraversal.hashCode();
         }
 
         public static <M> Local<M> of(final Supplier<? extends Traversal<Vertex, Edge>> incidentTraversal) {
@@ -122,12 +125,13 @@ public abstract class MessageScope {
 
         @Override
         public int hashCode() {
-            return this.edgeFunction.hashCode() + this.incidentTraversal.get().toString().hashCode();
+            return this.hashCode;
         }
 
         @Override
         public boolean equals(final Object other) {
             return other instanceof Local &&
+                    ((Local<?>) other).hashCode == this.hashCode &&
                     ((Local<?>) other).toStringOfTraversal.equals(this.toStringOfTraversal) &&
                     ((Local<?>) other).edgeFunction == this.edgeFunction;
         }
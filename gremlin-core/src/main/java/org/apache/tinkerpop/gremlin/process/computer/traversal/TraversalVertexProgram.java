@@ -31,13 +31,19 @@ import org.apache.tinkerpop.gremlin.process.computer.traversal.step.map.Computer
 import org.apache.tinkerpop.gremlin.process.computer.traversal.step.sideEffect.mapreduce.TraverserMapReduce;
 import org.apache.tinkerpop.gremlin.process.computer.util.AbstractVertexProgramBuilder;
 import org.apache.tinkerpop.gremlin.process.computer.util.LambdaHolder;
+import org.apache.tinkerpop.gremlin.process.traversal.Step;
 import org.apache.tinkerpop.gremlin.process.traversal.Traversal;
 import org.apache.tinkerpop.gremlin.process.traversal.TraversalSideEffects;
 import org.apache.tinkerpop.gremlin.process.traversal.TraversalSource;
 import org.apache.tinkerpop.gremlin.process.traversal.Traverser;
 import org.apache.tinkerpop.gremlin.process.traversal.TraverserGenerator;
+import org.apache.tinkerpop.gremlin.process.traversal.dsl.graph.__;
 import org.apache.tinkerpop.gremlin.process.traversal.step.MapReducer;
+import org.apache.tinkerpop.gremlin.process.traversal.step.TraversalParent;
+import org.apache.tinkerpop.gremlin.process.traversal.step.map.OrderRangeGlobalStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.map.VertexStep;
 import org.apache.tinkerpop.gremlin.process.traversal.step.sideEffect.GraphStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.sideEffect.ProfileStep;
 import org.apache.tinkerpop.gremlin.process.traversal.step.sideEffect.SideEffectCapStep;
 import org.apache.tinkerpop.gremlin.process.traversal.step.util.ReducingBarrierStep;
 import org.apache.tinkerpop.gremlin.process.traversal.traverser.util.TraverserSet;
@@ -54,8 +60,10 @@ import org.apache.tinkerpop.gremlin.structure.util.StringFactory;
 
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
+import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
 import java.util.function.Supplier;
@@ -69,6 +77,10 @@ import java.util.function.Supplier;
  * then the vertex continues to compute the next traverser. If the traverser references another location in the graph,
  * then the traverser is sent to that location in the graph via a message. The messages of TraversalVertexProgram are traversers.
  * This continues until all traversers in the computation have halted.
+ * <p/>
+ * The traversers at a {@link VertexStep} to adjacent vertices are sent along the edges of the step with a
+ * {@link MessageScope.Local} message rather than being moved to each adjacent vertex and messaged to it, so only the
+ * traversers that jump to non-adjacent elements are sent with {@link MessageScope.Global} messages.
  *
  * @author Marko A. Rodriguez (http://markorodriguez.com)
  */
@@ -77,15 +89,17 @@ public final class TraversalVertexProgram implements VertexProgram<TraverserSet<
     public static final String HALTED_TRAVERSERS = "gremlin.traversalVertexProgram.haltedTraversers";
     private static final String VOTE_TO_HALT = "gremlin.traversalVertexProgram.voteToHalt";
     public static final String TRAVERSAL_SUPPLIER = "gremlin.traversalVertexProgram.traversalSupplier";
+    public static final String DETACH_TRAVERSERS = "gremlin.traversalVertexProgram.detachTraversers";
 
-    // TODO: if not an adjacent traversal, use Local message scope -- a dual messaging system.
-    private static final Set<MessageScope> MESSAGE_SCOPES = new HashSet<>(Collections.singletonList(MessageScope.Global.instance()));
     private static final Set<String> ELEMENT_COMPUTE_KEYS = new HashSet<>(Arrays.asList(HALTED_TRAVERSERS, TraversalSideEffects.SIDE_EFFECTS));
     private static final Set<String> MEMORY_COMPUTE_KEYS = new HashSet<>(Collections.singletonList(VOTE_TO_HALT));
 
     private LambdaHolder<Supplier<Traversal.Admin<?, ?>>> traversalSupplier;
     private Traversal.Admin<?, ?> traversal;
     private TraversalMatrix<?, ?> traversalMatrix;
+    private boolean detachTraversers = true;
+    private final Map<String, MessageScope.Local<TraverserSet<?>>> localHopScopes = new HashMap<>();
+    private final Set<MessageScope> messageScopes = new HashSet<>(Collections.singletonList(MessageScope.Global.instance()));
 
     private final Set<MapReduce> mapReducers = new HashSet<>();
 
@@ -113,21 +127,47 @@ public final class TraversalVertexProgram implements VertexProgram<TraverserSet<
         if (null == this.traversalSupplier) {
             throw new IllegalArgumentException("The configuration does not have a traversal supplier");
         }
+        this.detachTraversers = configuration.getBoolean(DETACH_TRAVERSERS, true);
         this.traversal = this.traversalSupplier.get().get();
         if (!this.traversal.isLocked()) this.traversal.applyStrategies();
         ((ComputerResultStep) this.traversal.getEndStep()).byPass();
         this.traversalMatrix = new TraversalMatrix<>(this.traversal);
+        this.addLocalHopScopes(this.traversal);
+        this.messageScopes.addAll(this.localHopScopes.values());
         for (final MapReducer<?, ?, ?, ?, ?> mapReducer : TraversalHelper.getStepsOfAssignableClassRecursively(MapReducer.class, this.traversal)) {
             this.mapReducers.add(mapReducer.getMapReduce());
         }
-        if (!(this.traversal.getEndStep().getPreviousStep() instanceof SideEffectCapStep) && !(this.traversal.getEndStep().getPreviousStep() instanceof ReducingBarrierStep))
-            this.mapReducers.add(new TraverserMapReduce(this.traversal.getEndStep().getPreviousStep()));
+        final Step<?, ?> endStep = this.traversal.getEndStep().getPreviousStep();
+        // an order-range map reduce generates the traversers itself
+        if (!(endStep instanceof SideEffectCapStep) && !(endStep instanceof ReducingBarrierStep) && !(endStep instanceof OrderRangeGlobalStep))
+            this.mapReducers.add(new TraverserMapReduce(endStep));
+    }
+
+    /**
+     * Give each vertex step to adjacent vertices that is executed by messaging (i.e. that is not within a local child
+     * traversal) the local message scope of its incident edges.  A step that is profiled is left to be executed so
+     * that its metrics are kept.
+     */
+    private void addLocalHopScopes(final Traversal.Admin<?, ?> traversal) {
+        for (final Step<?, ?> step : traversal.getSteps()) {
+            if (step instanceof VertexStep && Vertex.class.isAssignableFrom(((VertexStep<?>) step).getReturnClass()) && !(step.getNextStep() instanceof ProfileStep)) {
+                final Direction direction = ((VertexStep<?>) step).getDirection();
+                final String[] edgeLabels = ((VertexStep<?>) step).getEdgeLabels();
+                this.localHopScopes.put(step.getId(), MessageScope.Local.of(() -> __.<Vertex>toE(direction, edgeLabels)));
+            }
+            if (step instanceof TraversalParent) {
+                for (final Traversal.Admin<?, ?> globalChild : ((TraversalParent) step).getGlobalChildren()) {
+                    this.addLocalHopScopes(globalChild);
+                }
+            }
+        }
     }
 
     @Override
     public void storeState(final Configuration configuration) {
         VertexProgram.super.storeState(configuration);
         this.traversalSupplier.storeState(configuration);
+        configuration.setProperty(DETACH_TRAVERSERS, this.detachTraversers);
     }
 
     @Override
@@ -137,7 +177,7 @@ public final class TraversalVertexProgram implements VertexProgram<TraverserSet<
 
     @Override
     public Set<MessageScope> getMessageScopes(final Memory memory) {
-        return MESSAGE_SCOPES;
+        return this.messageScopes;
     }
 
     @Override
@@ -157,33 +197,38 @@ public final class TraversalVertexProgram implements VertexProgram<TraverserSet<
                 if (ElementHelper.idExists(vertex.id(), graphStep.getIds())) {
                     final Traverser.Admin<Element> traverser = traverserGenerator.generate(vertex, graphStep, 1l);
                     traverser.setStepId(future);
-                    traverser.detach();
+                    if (this.detachTraversers || traverser.isHalted())
+                        traverser.detach();
                     if (traverser.isHalted())
                         haltedTraversers.add((Traverser.Admin) traverser);
                     else
-                        memory.and(VOTE_TO_HALT, TraverserExecutor.execute(vertex, new SingleMessenger<>(messenger, new TraverserSet<>(traverser)), this.traversalMatrix));
+                        memory.and(VOTE_TO_HALT, TraverserExecutor.execute(vertex, new SingleMessenger<>(messenger, new TraverserSet<>(traverser)), this.traversalMatrix, this.detachTraversers, this.localHopScopes));
                 }
             } else {  // EDGES (process the first step via a message pass)
                 boolean voteToHalt = true;
+                final TraverserSet<Object> edgeTraversers = new TraverserSet<>();
                 final Iterator<Edge> starts = vertex.edges(Direction.OUT);
                 while (starts.hasNext()) {
                     final Edge start = starts.next();
                     if (ElementHelper.idExists(start.id(), graphStep.getIds())) {
                         final Traverser.Admin<Element> traverser = traverserGenerator.generate(start, graphStep, 1l);
                         traverser.setStepId(future);
-                        traverser.detach();
+                        if (this.detachTraversers || traverser.isHalted())
+                            traverser.detach();
                         if (traverser.isHalted())
                             haltedTraversers.add((Traverser.Admin) traverser);
                         else {
                             voteToHalt = false;
-                            messenger.sendMessage(MessageScope.Global.of(vertex), new TraverserSet<>(traverser));
+                            edgeTraversers.add((Traverser.Admin) traverser);
                         }
                     }
                 }
+                if (!edgeTraversers.isEmpty())
+                    messenger.sendMessage(MessageScope.Global.of(vertex), edgeTraversers);
                 memory.and(VOTE_TO_HALT, voteToHalt);
             }
         } else {  // ITERATION 1+
-            memory.and(VOTE_TO_HALT, TraverserExecutor.execute(vertex, messenger, this.traversalMatrix));
+            memory.and(VOTE_TO_HALT, TraverserExecutor.execute(vertex, messenger, this.traversalMatrix, this.detachTraversers, this.localHopScopes));
         }
     }
 
@@ -254,6 +299,11 @@ public final class TraversalVertexProgram implements VertexProgram<TraverserSet<
                 return true;
             }
 
+            @Override
+            public boolean requiresLocalMessageScopes() {
+                return !localHopScopes.isEmpty();
+            }
+
             @Override
             public boolean requiresVertexPropertyAddition() {
                 return true;
@@ -288,7 +338,12 @@ public final class TraversalVertexProgram implements VertexProgram<TraverserSet<
             return this.traversal(traversal, true);
         }
 
+        /**
+         * Provide the traversal to execute, where a traversal that is not serialized is also executed without
+         * detaching the traversers that are messaged between vertices.
+         */
         public Builder traversal(final Traversal.Admin<?, ?> traversal, boolean serialize) {
+            this.detachTraversers(serialize);
             if (serialize)
                 LambdaHolder.storeState(this.configuration, LambdaHolder.Type.SERIALIZED_OBJECT, TRAVERSAL_SUPPLIER, new TraversalSupplier<>(traversal, false));
             else
@@ -301,6 +356,15 @@ public final class TraversalVertexProgram implements VertexProgram<TraverserSet<
             return this;
         }
 
+        /**
+         * Set whether the traversers that are messaged between vertices are detached from the graph, which is
+         * required unless the graph computer executes in the same JVM and passes messages as they are.
+         */
+        public Builder detachTraversers(final boolean detachTraversers) {
+            this.configuration.setProperty(DETACH_TRAVERSERS, detachTraversers);
+            return this;
+        }
+
         // TODO Builder resolveElements(boolean) to be fed to ComputerResultStep
     }
 
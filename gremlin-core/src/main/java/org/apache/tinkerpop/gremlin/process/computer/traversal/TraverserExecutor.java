@@ -33,6 +33,9 @@ import org.apache.tinkerpop.gremlin.structure.util.Attachable;
 import org.apache.tinkerpop.gremlin.structure.util.detached.DetachedElement;
 import org.apache.tinkerpop.gremlin.structure.util.detached.DetachedProperty;
 
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
 import java.util.concurrent.atomic.AtomicBoolean;
 
 /**
@@ -40,7 +43,28 @@ import java.util.concurrent.atomic.AtomicBoolean;
  */
 public final class TraverserExecutor {
 
+    /**
+     * The suffix of the step id of a traverser that is messaged along the edges of a vertex step, so that the
+     * receiving vertex knows the traverser has yet to be moved to it by that step.
+     */
+    private static final String LOCAL_HOP = "@localHop";
+
     public static boolean execute(final Vertex vertex, final Messenger<TraverserSet<?>> messenger, final TraversalMatrix<?, ?> traversalMatrix) {
+        return TraverserExecutor.execute(vertex, messenger, traversalMatrix, true, Collections.emptyMap());
+    }
+
+    /**
+     * Process the traversers at the vertex until they halt or leave it.  The traversers leaving the vertex are
+     * gathered into a single {@link TraverserSet} per destination vertex which is sent once all the local traversers
+     * are processed.  If the traversers are not detached (i.e. the messages are not serialized), the traversers that
+     * are sent reference the elements of the computer's graph as they are.
+     * <p/>
+     * A traverser at a vertex step with a {@link MessageScope.Local} in the local hop scopes (keyed by step id) is
+     * not processed by the step.  It is sent as it is in a single local message for all such traversers, and each
+     * vertex receiving the message along the edges of the scope splits the traverser to itself as the step would.
+     */
+    public static boolean execute(final Vertex vertex, final Messenger<TraverserSet<?>> messenger, final TraversalMatrix<?, ?> traversalMatrix,
+                                  final boolean detachTraversers, final Map<String, MessageScope.Local<TraverserSet<?>>> localHopScopes) {
 
         final TraverserSet<Object> haltedTraversers = vertex.value(TraversalVertexProgram.HALTED_TRAVERSERS);
         final AtomicBoolean voteToHalt = new AtomicBoolean(true);
@@ -50,14 +74,26 @@ public final class TraverserExecutor {
         final TraversalSideEffects traversalSideEffects = traversalMatrix.getTraversal().getSideEffects();
         messenger.receiveMessages().forEachRemaining(traverserSet -> {
             traverserSet.forEach(traverser -> {
-                traverser.setSideEffects(traversalSideEffects);
-                traverser.attach(Attachable.Method.get(vertex));
-                aliveTraversers.add((Traverser.Admin) traverser);
+                if (traverser.getStepId().endsWith(LOCAL_HOP)) {
+                    // a local message is received by every adjacent vertex so the traverser is split rather than attached
+                    final String stepId = traverser.getStepId().substring(0, traverser.getStepId().length() - LOCAL_HOP.length());
+                    final Step<Object, Vertex> step = (Step) traversalMatrix.getStepById(stepId);
+                    final Traverser.Admin<Vertex> arrived = ((Traverser.Admin<Object>) traverser).split(vertex, step);
+                    arrived.setStepId(step.getNextStep().getId());
+                    arrived.setSideEffects(traversalSideEffects);
+                    aliveTraversers.add((Traverser.Admin) arrived);
+                } else {
+                    traverser.setSideEffects(traversalSideEffects);
+                    traverser.attach(Attachable.Method.get(vertex));
+                    aliveTraversers.add((Traverser.Admin) traverser);
+                }
             });
         });
 
         // while there are still local traversers, process them until they leave the vertex or halt (i.e. isHalted()).
         final TraverserSet<Object> toProcessTraversers = new TraverserSet<>();
+        final Map<Vertex, TraverserSet<Object>> remoteTraversers = new HashMap<>();
+        final Map<MessageScope, TraverserSet<Object>> localHopTraversers = new HashMap<>();
         while (!aliveTraversers.isEmpty()) {
             // process all the local objects and send messages or store locally again
             aliveTraversers.forEach(traverser -> {
@@ -68,8 +104,9 @@ public final class TraverserExecutor {
                             || traverser.get() instanceof DetachedElement
                             || traverser.get() instanceof DetachedProperty) { // necessary for path access (but why are these not ReferenceXXX?)
                         voteToHalt.set(false);
-                        traverser.detach();
-                        messenger.sendMessage(MessageScope.Global.of(hostingVertex), new TraverserSet<>(traverser));
+                        if (detachTraversers)
+                            traverser.detach();
+                        remoteTraversers.computeIfAbsent(hostingVertex, v -> new TraverserSet<>()).add(traverser);
                     } else
                         toProcessTraversers.add(traverser);
                 } else                                                                              // STANDARD OBJECT
@@ -79,19 +116,30 @@ public final class TraverserExecutor {
             // process local traversers and if alive, repeat, else halt.
             aliveTraversers.clear();
             toProcessTraversers.forEach(start -> {
-                final Step<?, ?> step = traversalMatrix.getStepById(start.getStepId());
-                step.addStart((Traverser.Admin) start);
-                step.forEachRemaining(end -> {
-                    if (end.asAdmin().isHalted()) {
-                        end.asAdmin().detach();
-                        haltedTraversers.add((Traverser.Admin) end);
-                    } else
-                        aliveTraversers.add((Traverser.Admin) end);
-                });
+                final MessageScope.Local<TraverserSet<?>> localHopScope = localHopScopes.get(start.getStepId());
+                if (null != localHopScope) {
+                    voteToHalt.set(false);
+                    if (detachTraversers)
+                        start.detach();
+                    start.setStepId(start.getStepId() + LOCAL_HOP);
+                    localHopTraversers.computeIfAbsent(localHopScope, scope -> new TraverserSet<>()).add(start);
+                } else {
+                    final Step<?, ?> step = traversalMatrix.getStepById(start.getStepId());
+                    step.addStart((Traverser.Admin) start);
+                    step.forEachRemaining(end -> {
+                        if (end.asAdmin().isHalted()) {
+                            end.asAdmin().detach();
+                            haltedTraversers.add((Traverser.Admin) end);
+                        } else
+                            aliveTraversers.add((Traverser.Admin) end);
+                    });
+                }
             });
 
             toProcessTraversers.clear();
         }
+        remoteTraversers.forEach((hostingVertex, traverserSet) -> messenger.sendMessage(MessageScope.Global.of(hostingVertex), traverserSet));
+        localHopTraversers.forEach(messenger::sendMessage);
         return voteToHalt.get();
     }
 
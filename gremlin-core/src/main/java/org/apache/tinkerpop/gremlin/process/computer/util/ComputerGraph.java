@@ -29,6 +29,7 @@ import org.apache.tinkerpop.gremlin.structure.Transaction;
 import org.apache.tinkerpop.gremlin.structure.Vertex;
 import org.apache.tinkerpop.gremlin.structure.VertexProperty;
 import org.apache.tinkerpop.gremlin.structure.util.ElementHelper;
+import org.apache.tinkerpop.gremlin.structure.util.wrapped.WrappedElement;
 import org.apache.tinkerpop.gremlin.util.iterator.IteratorUtils;
 
 import java.util.Iterator;
@@ -109,7 +110,7 @@ public final class ComputerGraph implements Graph {
         this.graph.close();
     }
 
-    private class ComputerElement implements Element {
+    private class ComputerElement implements Element, WrappedElement<Element> {
         private final Element element;
 
         public ComputerElement(final Element element) {
@@ -181,6 +182,11 @@ public final class ComputerGraph implements Graph {
             return ElementHelper.areEqual(this, other);
         }
 
+        @Override
+        public Element getBaseElement() {
+            return this.element;
+        }
+
         protected final Vertex asVertex() {
             return (Vertex) this.element;
         }
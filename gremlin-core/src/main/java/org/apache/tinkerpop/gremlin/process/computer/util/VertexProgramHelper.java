@@ -24,6 +24,9 @@ import org.apache.tinkerpop.gremlin.process.traversal.Step;
 import org.apache.tinkerpop.gremlin.process.traversal.Traversal;
 import org.apache.tinkerpop.gremlin.process.traversal.step.map.EdgeVertexStep;
 import org.apache.tinkerpop.gremlin.process.traversal.step.map.VertexStep;
+import org.apache.tinkerpop.gremlin.structure.Direction;
+import org.apache.tinkerpop.gremlin.structure.Edge;
+import org.apache.tinkerpop.gremlin.structure.Vertex;
 import org.apache.tinkerpop.gremlin.util.Serializer;
 
 import java.io.IOException;
@@ -71,6 +74,17 @@ public final class VertexProgramHelper {
         return traversal;
     }
 
+    /**
+     * Get the vertex that receives a message sent by {@code sender} along an edge that was reached in the provided
+     * direction. For {@link Direction#BOTH} that is whichever end of the edge is not the sender.
+     */
+    public static Vertex getReceivingVertex(final Edge edge, final Vertex sender, final Direction direction) {
+        if (Direction.BOTH != direction)
+            return edge.vertices(direction.opposite()).next();
+        final Vertex outVertex = edge.outVertex();
+        return outVertex.id().equals(sender.id()) ? edge.inVertex() : outVertex;
+    }
+
     public static void legalConfigurationKeyValueArray(final Object... configurationKeyValues) throws IllegalArgumentException {
         if (configurationKeyValues.length % 2 != 0)
             throw new IllegalArgumentException("The provided arguments must have a size that is a factor of 2");
@@ -23,6 +23,8 @@ import org.apache.tinkerpop.gremlin.process.traversal.strategy.optimization.Conj
 import org.apache.tinkerpop.gremlin.process.traversal.strategy.optimization.DedupOptimizerStrategy;
 import org.apache.tinkerpop.gremlin.process.traversal.strategy.optimization.IdentityRemovalStrategy;
 import org.apache.tinkerpop.gremlin.process.traversal.strategy.optimization.MatchWhereStrategy;
+import org.apache.tinkerpop.gremlin.process.traversal.strategy.optimization.OrderRangeStrategy;
+import org.apache.tinkerpop.gremlin.process.traversal.strategy.optimization.PathLabelIndexStrategy;
 import org.apache.tinkerpop.gremlin.process.traversal.strategy.optimization.ProfileStrategy;
 import org.apache.tinkerpop.gremlin.process.traversal.strategy.optimization.RangeByIsCountStrategy;
 import org.apache.tinkerpop.gremlin.process.traversal.strategy.verification.ComparatorHolderRemovalStrategy;
@@ -163,11 +165,13 @@ public interface TraversalStrategies extends Serializable, Cloneable {
                     RangeByIsCountStrategy.instance(),
                     IdentityRemovalStrategy.instance(),
                     MatchWhereStrategy.instance(),
+                    OrderRangeStrategy.instance(),
                     ComparatorHolderRemovalStrategy.instance(),
                     LabeledEndStepStrategy.instance(),
                     //LambdaRestrictionStrategy.instance(),
                     EngineDependentStrategy.instance(),
                     ProfileStrategy.instance(),
+                    PathLabelIndexStrategy.instance(),
                     TraversalVerificationStrategy.instance(),
                     ConjunctionStrategy.instance());
             CACHE.put(Graph.class, coreStrategies.clone());
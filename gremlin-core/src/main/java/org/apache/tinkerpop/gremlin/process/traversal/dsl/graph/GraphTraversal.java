@@ -60,6 +60,8 @@ import org.apache.tinkerpop.gremlin.process.traversal.step.filter.WhereStep;
 import org.apache.tinkerpop.gremlin.process.traversal.step.map.AddEdgeByPathStep;
 import org.apache.tinkerpop.gremlin.process.traversal.step.map.AddEdgeStep;
 import org.apache.tinkerpop.gremlin.process.traversal.step.map.AddVertexStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.map.ApproxDistinctCountStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.map.ApproxGroupCountStep;
 import org.apache.tinkerpop.gremlin.process.traversal.step.map.CoalesceStep;
 import org.apache.tinkerpop.gremlin.process.traversal.step.map.CountGlobalStep;
 import org.apache.tinkerpop.gremlin.process.traversal.step.map.CountLocalStep;
@@ -359,6 +361,18 @@ public interface GraphTraversal<S, E> extends Traversal<S, E> {
         return this.asAdmin().addStep(new GroupCountStep<>(this.asAdmin()));
     }
 
+    public default <E2> GraphTraversal<S, Map<E2, Long>> approxGroupCount(final int capacity) {
+        return this.asAdmin().addStep(new ApproxGroupCountStep<>(this.asAdmin(), capacity));
+    }
+
+    public default GraphTraversal<S, Long> approxDistinctCount() {
+        return this.approxDistinctCount(ApproxDistinctCountStep.DEFAULT_RELATIVE_ERROR);
+    }
+
+    public default GraphTraversal<S, Long> approxDistinctCount(final double relativeError) {
+        return this.asAdmin().addStep(new ApproxDistinctCountStep<>(this.asAdmin(), relativeError));
+    }
+
     public default GraphTraversal<S, Tree> tree() {
         return this.asAdmin().addStep(new TreeStep<>(this.asAdmin()));
     }
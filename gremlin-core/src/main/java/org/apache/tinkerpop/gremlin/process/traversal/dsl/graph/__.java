@@ -250,6 +250,18 @@ public class __ {
         return __.<A>start().<B>groupCount();
     }
 
+    public static <A, B> GraphTraversal<A, Map<B, Long>> approxGroupCount(final int capacity) {
+        return __.<A>start().<B>approxGroupCount(capacity);
+    }
+
+    public static <A> GraphTraversal<A, Long> approxDistinctCount() {
+        return __.<A>start().approxDistinctCount();
+    }
+
+    public static <A> GraphTraversal<A, Long> approxDistinctCount(final double relativeError) {
+        return __.<A>start().approxDistinctCount(relativeError);
+    }
+
     public static <A> GraphTraversal<A, Tree> tree() {
         return __.<A>start().tree();
     }
@@ -18,28 +18,120 @@
  */
 package org.apache.tinkerpop.gremlin.process.traversal.engine;
 
+import org.apache.tinkerpop.gremlin.process.traversal.Step;
 import org.apache.tinkerpop.gremlin.process.traversal.Traversal;
 import org.apache.tinkerpop.gremlin.process.traversal.TraversalEngine;
+import org.apache.tinkerpop.gremlin.process.traversal.TraverserGenerator;
 import org.apache.tinkerpop.gremlin.process.computer.GraphComputer;
+import org.apache.tinkerpop.gremlin.process.traversal.step.LambdaHolder;
+import org.apache.tinkerpop.gremlin.process.traversal.step.Mutating;
+import org.apache.tinkerpop.gremlin.process.traversal.step.Ranging;
+import org.apache.tinkerpop.gremlin.process.traversal.step.SideEffectCapable;
+import org.apache.tinkerpop.gremlin.process.traversal.step.Spilling;
+import org.apache.tinkerpop.gremlin.process.traversal.step.TraversalParent;
+import org.apache.tinkerpop.gremlin.process.traversal.step.filter.FilterStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.map.FlatMapStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.map.MapStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.sideEffect.StartStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.util.AbstractStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.util.EmptyStep;
+import org.apache.tinkerpop.gremlin.process.traversal.traverser.B_O_TraverserGenerator;
+import org.apache.tinkerpop.gremlin.process.traversal.traverser.O_TraverserGenerator;
+import org.apache.tinkerpop.gremlin.process.traversal.traverser.util.TraverserPool;
+import org.apache.tinkerpop.gremlin.process.traversal.util.TraversalHelper;
 import org.apache.tinkerpop.gremlin.structure.Graph;
 import org.apache.tinkerpop.gremlin.structure.util.StringFactory;
 
 import java.util.Optional;
 
 /**
+ * Executes a {@link Traversal} in a single thread by pulling one traverser at a time through its steps.
+ * <p/>
+ * When built with {@link Builder#reuseTraversers(boolean)}, a traversal whose traversers have no path, sack or loops
+ * (i.e. {@link O_TraverserGenerator} and {@link B_O_TraverserGenerator} traversals) reuses its traverser objects: a
+ * map step sets its result on the traverser it consumed rather than cloning it (as does a flatMap step for the last of
+ * its results), and the traversers that filters reject and barriers merge or reduce are pooled in a
+ * {@link TraverserPool} for the traversal to split into.  Traversals with lambdas, which could keep the traversers
+ * they are given, always clone their traversers.
+ * <p/>
+ * When built with a {@link Builder#spillThreshold(long)}, the {@link Spilling} barrier steps of a traversal write what
+ * they hold to temporary files each time they have held that many traversers, and then merge the files into their
+ * results, so that sorting and grouping more traversers than fit in memory does not fail.
+ * <p/>
+ * When built with a {@link Builder#batchSize(int)} greater than one, the leading start, filter, map and flatMap steps
+ * of a traversal exchange arrays of traversers: each reads a batch of its starts from the step before it with one call,
+ * processes the batch in a loop and resolves the step id and labels of its results once per batch, while the steps
+ * after them read from the batch one traverser at a time.  As a batched step runs ahead of what is read from it, the
+ * batched steps stop at the first step with a lambda, a side-effect, a child traversal or a graph mutation, and a
+ * traversal with a range (e.g. a {@code limit()}) is not batched at all.
+ *
  * @author Marko A. Rodriguez (http://markorodriguez.com)
  */
 public final class StandardTraversalEngine implements TraversalEngine {
 
-    private static final StandardTraversalEngine INSTANCE = new StandardTraversalEngine();
+    private static final StandardTraversalEngine INSTANCE = new StandardTraversalEngine(false, 0l, 1);
 
-    private StandardTraversalEngine() {
+    private final boolean reuseTraversers;
+    private final long spillThreshold;
+    private final int batchSize;
 
+    private StandardTraversalEngine(final boolean reuseTraversers, final long spillThreshold, final int batchSize) {
+        this.reuseTraversers = reuseTraversers;
+        this.spillThreshold = spillThreshold;
+        this.batchSize = batchSize;
     }
 
     @Override
     public void processTraversal(final Traversal.Admin<?, ?> traversal) {
+        if (this.reuseTraversers && canReuseTraversers(traversal)) {
+            final TraverserPool traverserPool = new TraverserPool();
+            for (final Step<?, ?> step : traversal.getSteps()) {
+                if (step instanceof AbstractStep)
+                    ((AbstractStep<?, ?>) step).setTraverserPool(traverserPool);
+            }
+        }
+        if (this.spillThreshold > 0) {
+            for (final Step<?, ?> step : traversal.getSteps()) {
+                if (step instanceof Spilling)
+                    ((Spilling) step).setSpillThreshold(this.spillThreshold);
+            }
+        }
+        if (this.batchSize > 1 && canBatch(traversal)) {
+            for (final Step<?, ?> step : traversal.getSteps()) {
+                if (!isBatchable(step))
+                    break;
+                ((AbstractStep<?, ?>) step).setBatchSize(this.batchSize);
+            }
+        }
+    }
+
+    public boolean isReusingTraversers() {
+        return this.reuseTraversers;
+    }
+
+    public long getSpillThreshold() {
+        return this.spillThreshold;
+    }
+
+    public int getBatchSize() {
+        return this.batchSize;
+    }
+
+    private static boolean canReuseTraversers(final Traversal.Admin<?, ?> traversal) {
+        final Traversal.Admin<?, ?> root = TraversalHelper.getRootTraversal(traversal);
+        final TraverserGenerator generator = root.getTraverserGenerator();
+        return (generator instanceof O_TraverserGenerator || generator instanceof B_O_TraverserGenerator) &&
+                TraversalHelper.getStepsOfAssignableClassRecursively(LambdaHolder.class, root).isEmpty();
+    }
+
+    private static boolean canBatch(final Traversal.Admin<?, ?> traversal) {
+        return traversal.getParent() instanceof EmptyStep &&
+                TraversalHelper.getStepsOfAssignableClass(Ranging.class, traversal).isEmpty();
+    }
 
+    private static boolean isBatchable(final Step<?, ?> step) {
+        return (step instanceof StartStep || step instanceof FilterStep || step instanceof MapStep || step instanceof FlatMapStep) &&
+                !(step instanceof LambdaHolder || step instanceof SideEffectCapable || step instanceof TraversalParent || step instanceof Mutating);
     }
 
     @Override
@@ -53,7 +145,7 @@ public final class StandardTraversalEngine implements TraversalEngine {
     }
 
     public static Builder build() {
-        return Builder.INSTANCE;
+        return new Builder();
     }
 
     public static StandardTraversalEngine instance() {
@@ -67,11 +159,46 @@ public final class StandardTraversalEngine implements TraversalEngine {
 
     public static class Builder implements TraversalEngine.Builder {
 
-        private static final Builder INSTANCE = new Builder();
+        private boolean reuseTraversers = false;
+        private long spillThreshold = 0l;
+        private int batchSize = 1;
+
+        /**
+         * Set whether traversals without paths, sacks or loops reuse their traverser objects rather than cloning a
+         * new traverser for every result of every step, where the default is to clone them.
+         */
+        public Builder reuseTraversers(final boolean reuseTraversers) {
+            this.reuseTraversers = reuseTraversers;
+            return this;
+        }
+
+        /**
+         * Set the number of traversers a sorting or grouping barrier step holds in memory before it writes them to a
+         * temporary file, where the default of 0 never writes them.
+         */
+        public Builder spillThreshold(final long spillThreshold) {
+            if (spillThreshold < 0)
+                throw new IllegalArgumentException("The spill threshold can not be negative: " + spillThreshold);
+            this.spillThreshold = spillThreshold;
+            return this;
+        }
+
+        /**
+         * Set the number of traversers the leading steps of a traversal exchange at a time, where the default of 1
+         * pulls a single traverser at a time.
+         */
+        public Builder batchSize(final int batchSize) {
+            if (batchSize < 1)
+                throw new IllegalArgumentException("The batch size must be greater than zero: " + batchSize);
+            this.batchSize = batchSize;
+            return this;
+        }
 
         @Override
         public TraversalEngine create(final Graph graph) {
-            return StandardTraversalEngine.INSTANCE;
+            return !this.reuseTraversers && 0l == this.spillThreshold && 1 == this.batchSize ?
+                    StandardTraversalEngine.INSTANCE :
+                    new StandardTraversalEngine(this.reuseTraversers, this.spillThreshold, this.batchSize);
         }
     }
 }
@@ -0,0 +1,47 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tinkerpop.gremlin.process.traversal.step;
+
+import org.apache.tinkerpop.gremlin.process.traversal.step.util.SpillFile;
+
+/**
+ * A barrier step that can hold a bounded number of objects in memory and write the rest to {@link SpillFile}s.
+ *
+ * @author agent
+ */
+public interface Spilling {
+
+    /**
+     * Set the number of objects the step holds in memory before it spills them to disk, where 0 never spills.
+     */
+    public void setSpillThreshold(final long spillThreshold);
+
+    public long getSpillThreshold();
+
+    /**
+     * Get the number of times the step has spilled the objects it holds to disk.
+     */
+    public long getSpillCount();
+
+    /**
+     * Get the number of bytes the step has spilled to disk.
+     */
+    public long getSpillBytes();
+
+}
@@ -37,8 +37,33 @@ public abstract class FilterStep<S> extends AbstractStep<S, S> {
             final Traverser.Admin<S> traverser = this.starts.next();
             if (this.filter(traverser)) {
                 return traverser;
+            } else if (null != this.traverserPool)
+                this.traverserPool.recycle(traverser);
+        }
+    }
+
+    /**
+     * Read a batch of starts into the array and filter it in place, reading more until the array is full or the
+     * starts are exhausted.
+     */
+    @Override
+    protected int processNextStarts(final Traverser.Admin<S>[] ends, final int from) {
+        int count = from;
+        while (count < ends.length) {
+            final int read = this.starts.next(ends, count);
+            if (read == count)
+                break;
+            final int start = count;
+            for (int i = start; i < read; i++) {
+                final Traverser.Admin<S> traverser = ends[i];
+                ends[i] = null;
+                if (this.filter(traverser))
+                    ends[count++] = traverser;
+                else if (null != this.traverserPool)
+                    this.traverserPool.recycle(traverser);
             }
         }
+        return count;
     }
 
     protected abstract boolean filter(final Traverser.Admin<S> traverser);
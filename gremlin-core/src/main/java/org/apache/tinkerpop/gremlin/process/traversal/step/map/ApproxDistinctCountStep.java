@@ -0,0 +1,187 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tinkerpop.gremlin.process.traversal.step.map;
+
+import org.apache.commons.configuration.Configuration;
+import org.apache.tinkerpop.gremlin.process.computer.KeyValue;
+import org.apache.tinkerpop.gremlin.process.computer.MapReduce;
+import org.apache.tinkerpop.gremlin.process.computer.traversal.TraversalVertexProgram;
+import org.apache.tinkerpop.gremlin.process.computer.util.StaticMapReduce;
+import org.apache.tinkerpop.gremlin.process.traversal.Traversal;
+import org.apache.tinkerpop.gremlin.process.traversal.Traverser;
+import org.apache.tinkerpop.gremlin.process.traversal.step.MapReducer;
+import org.apache.tinkerpop.gremlin.process.traversal.step.util.HyperLogLog;
+import org.apache.tinkerpop.gremlin.process.traversal.step.util.ReducingBarrierStep;
+import org.apache.tinkerpop.gremlin.process.traversal.traverser.TraverserRequirement;
+import org.apache.tinkerpop.gremlin.process.traversal.traverser.util.TraverserSet;
+import org.apache.tinkerpop.gremlin.process.traversal.util.TraversalHelper;
+import org.apache.tinkerpop.gremlin.structure.Vertex;
+import org.apache.tinkerpop.gremlin.util.iterator.IteratorUtils;
+
+import java.io.Serializable;
+import java.util.EnumSet;
+import java.util.Iterator;
+import java.util.Set;
+import java.util.function.BiFunction;
+import java.util.function.Supplier;
+
+/**
+ * Estimates the number of distinct objects, as {@code dedup().count()} would count them, with a {@link HyperLogLog}
+ * sketch whose size depends on the relative error rather than on the number of objects.  On a
+ * {@link org.apache.tinkerpop.gremlin.process.computer.GraphComputer} each worker combines the sketches of its
+ * vertices into one sketch, so only a sketch per worker is reduced.
+ *
+ * @author agent
+ */
+public final class ApproxDistinctCountStep<S> extends ReducingBarrierStep<S, Long> implements MapReducer {
+
+    private static final Set<TraverserRequirement> REQUIREMENTS = EnumSet.of(TraverserRequirement.OBJECT);
+
+    public static final double DEFAULT_RELATIVE_ERROR = 0.01d;
+
+    private final int precision;
+
+    public ApproxDistinctCountStep(final Traversal.Admin traversal, final double relativeError) {
+        super(traversal);
+        this.precision = HyperLogLog.precision(relativeError);
+        this.setSeedSupplier((Supplier) new HyperLogLogSupplier(this.precision));
+        this.setBiFunction((BiFunction) ApproxDistinctCountBiFunction.instance());
+    }
+
+    public int getPrecision() {
+        return this.precision;
+    }
+
+    @Override
+    public Set<TraverserRequirement> getRequirements() {
+        return REQUIREMENTS;
+    }
+
+    @Override
+    public MapReduce<MapReduce.NullObject, HyperLogLog, MapReduce.NullObject, HyperLogLog, Long> getMapReduce() {
+        return new ApproxDistinctCountMapReduce(this.precision);
+    }
+
+    @Override
+    public String toString() {
+        return TraversalHelper.makeStepString(this, this.precision);
+    }
+
+    ///////////
+
+    private static class HyperLogLogSupplier implements Supplier<HyperLogLog>, Serializable {
+
+        private final int precision;
+
+        private HyperLogLogSupplier(final int precision) {
+            this.precision = precision;
+        }
+
+        @Override
+        public HyperLogLog get() {
+            return new HyperLogLog(this.precision);
+        }
+    }
+
+    private static class ApproxDistinctCountBiFunction<S> implements BiFunction<HyperLogLog, Traverser<S>, HyperLogLog>, Serializable {
+
+        private static final ApproxDistinctCountBiFunction INSTANCE = new ApproxDistinctCountBiFunction();
+
+        private ApproxDistinctCountBiFunction() {
+
+        }
+
+        @Override
+        public HyperLogLog apply(final HyperLogLog mutatingSeed, final Traverser<S> traverser) {
+            return mutatingSeed.offer(traverser.get());
+        }
+
+        public final static <S> ApproxDistinctCountBiFunction<S> instance() {
+            return INSTANCE;
+        }
+    }
+
+    ///////////
+
+    public static final class ApproxDistinctCountMapReduce extends StaticMapReduce<MapReduce.NullObject, HyperLogLog, MapReduce.NullObject, HyperLogLog, Long> {
+
+        public static final String APPROX_DISTINCT_COUNT_PRECISION = "gremlin.approxDistinctCountStep.precision";
+
+        private int precision;
+
+        private ApproxDistinctCountMapReduce() {
+
+        }
+
+        public ApproxDistinctCountMapReduce(final int precision) {
+            this.precision = precision;
+        }
+
+        @Override
+        public void storeState(final Configuration configuration) {
+            super.storeState(configuration);
+            configuration.setProperty(APPROX_DISTINCT_COUNT_PRECISION, this.precision);
+        }
+
+        @Override
+        public void loadState(final Configuration configuration) {
+            this.precision = configuration.getInt(APPROX_DISTINCT_COUNT_PRECISION);
+        }
+
+        @Override
+        public boolean doStage(final Stage stage) {
+            return true;
+        }
+
+        @Override
+        public void map(final Vertex vertex, final MapEmitter<NullObject, HyperLogLog> emitter) {
+            vertex.<TraverserSet<?>>property(TraversalVertexProgram.HALTED_TRAVERSERS).ifPresent(traverserSet -> {
+                final HyperLogLog sketch = new HyperLogLog(this.precision);
+                traverserSet.forEach(traverser -> sketch.offer(traverser.get()));
+                emitter.emit(sketch);
+            });
+        }
+
+        @Override
+        public void combine(final NullObject key, final Iterator<HyperLogLog> values, final ReduceEmitter<NullObject, HyperLogLog> emitter) {
+            this.reduce(key, values, emitter);
+        }
+
+        @Override
+        public void reduce(final NullObject key, final Iterator<HyperLogLog> values, final ReduceEmitter<NullObject, HyperLogLog> emitter) {
+            emitter.emit(this.merge(values));
+        }
+
+        @Override
+        public Long generateFinalResult(final Iterator<KeyValue<NullObject, HyperLogLog>> keyValues) {
+            return this.merge(IteratorUtils.map(keyValues, KeyValue::getValue)).cardinality();
+        }
+
+        private HyperLogLog merge(final Iterator<HyperLogLog> sketches) {
+            final HyperLogLog sketch = new HyperLogLog(this.precision);
+            sketches.forEachRemaining(sketch::merge);
+            return sketch;
+        }
+
+        @Override
+        public String getMemoryKey() {
+            return REDUCING;
+        }
+    }
+}
@@ -0,0 +1,214 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tinkerpop.gremlin.process.traversal.step.map;
+
+import org.apache.commons.configuration.Configuration;
+import org.apache.tinkerpop.gremlin.process.computer.KeyValue;
+import org.apache.tinkerpop.gremlin.process.computer.MapReduce;
+import org.apache.tinkerpop.gremlin.process.computer.traversal.TraversalVertexProgram;
+import org.apache.tinkerpop.gremlin.process.computer.util.StaticMapReduce;
+import org.apache.tinkerpop.gremlin.process.traversal.Traversal;
+import org.apache.tinkerpop.gremlin.process.traversal.Traverser;
+import org.apache.tinkerpop.gremlin.process.traversal.step.MapReducer;
+import org.apache.tinkerpop.gremlin.process.traversal.step.TraversalParent;
+import org.apache.tinkerpop.gremlin.process.traversal.step.util.ReducingBarrierStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.util.SpaceSaving;
+import org.apache.tinkerpop.gremlin.process.traversal.traverser.TraverserRequirement;
+import org.apache.tinkerpop.gremlin.process.traversal.traverser.util.TraverserSet;
+import org.apache.tinkerpop.gremlin.process.traversal.util.TraversalHelper;
+import org.apache.tinkerpop.gremlin.process.traversal.util.TraversalUtil;
+import org.apache.tinkerpop.gremlin.structure.Vertex;
+import org.apache.tinkerpop.gremlin.util.iterator.IteratorUtils;
+
+import java.io.Serializable;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.BiFunction;
+import java.util.function.Supplier;
+
+/**
+ * Counts the most frequent objects, as {@code groupCount()} would count them, with a {@link SpaceSaving} sketch of
+ * at most {@code capacity} counters.  The counts of the resulting map, ordered from the most to the least frequent,
+ * are over the true counts by no more than the total count divided by the capacity.  On a
+ * {@link org.apache.tinkerpop.gremlin.process.computer.GraphComputer} each worker combines the sketches of its
+ * vertices into one sketch, so only a sketch per worker is reduced.
+ *
+ * @author agent
+ */
+public final class ApproxGroupCountStep<S, E> extends ReducingBarrierStep<S, Map<E, Long>> implements MapReducer, TraversalParent {
+
+    private final int capacity;
+    private Traversal.Admin<S, E> groupTraversal = null;
+
+    public ApproxGroupCountStep(final Traversal.Admin traversal, final int capacity) {
+        super(traversal);
+        if (capacity < 1)
+            throw new IllegalArgumentException("The capacity must be greater than zero: " + capacity);
+        this.capacity = capacity;
+        this.setSeedSupplier((Supplier) new SpaceSavingSupplier<>(capacity));
+        this.setBiFunction((BiFunction) new ApproxGroupCountBiFunction());
+    }
+
+    public int getCapacity() {
+        return this.capacity;
+    }
+
+    @Override
+    public void addLocalChild(final Traversal.Admin<?, ?> groupTraversal) {
+        this.groupTraversal = this.integrateChild(groupTraversal);
+    }
+
+    @Override
+    public List<Traversal.Admin<S, E>> getLocalChildren() {
+        return null == this.groupTraversal ? Collections.emptyList() : Collections.singletonList(this.groupTraversal);
+    }
+
+    @Override
+    public Set<TraverserRequirement> getRequirements() {
+        return this.getSelfAndChildRequirements(TraverserRequirement.BULK);
+    }
+
+    @Override
+    public MapReduce<MapReduce.NullObject, SpaceSaving<E>, MapReduce.NullObject, SpaceSaving<E>, Map<E, Long>> getMapReduce() {
+        return new ApproxGroupCountMapReduce<>(this.capacity);
+    }
+
+    @Override
+    public ApproxGroupCountStep<S, E> clone() {
+        final ApproxGroupCountStep<S, E> clone = (ApproxGroupCountStep<S, E>) super.clone();
+        if (null != this.groupTraversal)
+            clone.groupTraversal = clone.integrateChild(this.groupTraversal.clone());
+        clone.setBiFunction((BiFunction) clone.new ApproxGroupCountBiFunction());
+        return clone;
+    }
+
+    @Override
+    public Traverser<Map<E, Long>> processNextStart() {
+        if (this.byPass) {
+            final Traverser.Admin<S> traverser = this.starts.next();
+            return traverser.asAdmin().split(TraversalUtil.applyNullable(traverser, (Traversal.Admin<S, Map<E, Long>>) this.groupTraversal), this);
+        } else {
+            return super.processNextStart();
+        }
+    }
+
+    @Override
+    public String toString() {
+        return TraversalHelper.makeStepString(this, this.capacity, this.groupTraversal);
+    }
+
+    ///////////
+
+    private static class SpaceSavingSupplier<E> implements Supplier<SpaceSaving<E>>, Serializable {
+
+        private final int capacity;
+
+        private SpaceSavingSupplier(final int capacity) {
+            this.capacity = capacity;
+        }
+
+        @Override
+        public SpaceSaving<E> get() {
+            return new SpaceSaving<>(this.capacity);
+        }
+    }
+
+    private class ApproxGroupCountBiFunction implements BiFunction<SpaceSaving<E>, Traverser<S>, SpaceSaving<E>>, Serializable {
+
+        private ApproxGroupCountBiFunction() {
+
+        }
+
+        @Override
+        public SpaceSaving<E> apply(final SpaceSaving<E> mutatingSeed, final Traverser<S> traverser) {
+            return mutatingSeed.offer(TraversalUtil.applyNullable(traverser.asAdmin(), ApproxGroupCountStep.this.groupTraversal), traverser.bulk());
+        }
+    }
+
+    ///////////
+
+    public static final class ApproxGroupCountMapReduce<E> extends StaticMapReduce<MapReduce.NullObject, SpaceSaving<E>, MapReduce.NullObject, SpaceSaving<E>, Map<E, Long>> {
+
+        public static final String APPROX_GROUP_COUNT_CAPACITY = "gremlin.approxGroupCountStep.capacity";
+
+        private int capacity;
+
+        private ApproxGroupCountMapReduce() {
+
+        }
+
+        public ApproxGroupCountMapReduce(final int capacity) {
+            this.capacity = capacity;
+        }
+
+        @Override
+        public void storeState(final Configuration configuration) {
+            super.storeState(configuration);
+            configuration.setProperty(APPROX_GROUP_COUNT_CAPACITY, this.capacity);
+        }
+
+        @Override
+        public void loadState(final Configuration configuration) {
+            this.capacity = configuration.getInt(APPROX_GROUP_COUNT_CAPACITY);
+        }
+
+        @Override
+        public boolean doStage(final Stage stage) {
+            return true;
+        }
+
+        @Override
+        public void map(final Vertex vertex, final MapEmitter<NullObject, SpaceSaving<E>> emitter) {
+            vertex.<TraverserSet<E>>property(TraversalVertexProgram.HALTED_TRAVERSERS).ifPresent(traverserSet -> {
+                final SpaceSaving<E> sketch = new SpaceSaving<>(this.capacity);
+                traverserSet.forEach(traverser -> sketch.offer(traverser.get(), traverser.bulk()));
+                emitter.emit(sketch);
+            });
+        }
+
+        @Override
+        public void combine(final NullObject key, final Iterator<SpaceSaving<E>> values, final ReduceEmitter<NullObject, SpaceSaving<E>> emitter) {
+            this.reduce(key, values, emitter);
+        }
+
+        @Override
+        public void reduce(final NullObject key, final Iterator<SpaceSaving<E>> values, final ReduceEmitter<NullObject, SpaceSaving<E>> emitter) {
+            emitter.emit(this.merge(values));
+        }
+
+        @Override
+        public Map<E, Long> generateFinalResult(final Iterator<KeyValue<NullObject, SpaceSaving<E>>> keyValues) {
+            return this.merge(IteratorUtils.map(keyValues, KeyValue::getValue)).getFinal();
+        }
+
+        private SpaceSaving<E> merge(final Iterator<SpaceSaving<E>> sketches) {
+            final SpaceSaving<E> sketch = new SpaceSaving<>(this.capacity);
+            sketches.forEachRemaining(sketch::merge);
+            return sketch;
+        }
+
+        @Override
+        public String getMemoryKey() {
+            return REDUCING;
+        }
+    }
+}
@@ -24,6 +24,7 @@ import org.apache.tinkerpop.gremlin.process.traversal.step.util.AbstractStep;
 import org.apache.tinkerpop.gremlin.util.iterator.EmptyIterator;
 
 import java.util.Iterator;
+import java.util.NoSuchElementException;
 
 /**
  * @author Marko A. Rodriguez (http://markorodriguez.com)
@@ -41,19 +42,65 @@ public abstract class FlatMapStep<S, E> extends AbstractStep<S, E> {
     protected Traverser<E> processNextStart() {
         while (true) {
             if (this.iterator.hasNext()) {
-                return this.head.split(this.iterator.next(), this);
+                return this.splitHead();
             } else {
-                this.head = this.starts.next();
-                this.iterator = this.flatMap(this.head);
+                this.nextHead();
             }
         }
     }
 
+    /**
+     * Split the results of the heads straight into the array, taking the next head whenever the results of the
+     * current one run out.
+     */
+    @Override
+    protected int processNextStarts(final Traverser.Admin<E>[] ends, final int from) {
+        int count = from;
+        try {
+            while (count < ends.length) {
+                if (this.iterator.hasNext())
+                    ends[count++] = (Traverser.Admin<E>) this.splitHead();
+                else
+                    this.nextHead();
+            }
+        } catch (final NoSuchElementException e) {
+            // the starts are exhausted so return the traversers that were split from them
+        }
+        return count;
+    }
+
     protected abstract Iterator<E> flatMap(final Traverser.Admin<S> traverser);
 
+    /**
+     * Split the head for the next result of its iterator.  When the traversal reuses its traverser objects, the last
+     * result is set on the head itself and the results before it are split from pooled traversers.
+     */
+    private Traverser<E> splitHead() {
+        final E end = this.iterator.next();
+        if (null == this.traverserPool)
+            return this.head.split(end, this);
+        if (this.iterator.hasNext())
+            return this.traverserPool.split(this.head, end, this);
+        final Traverser.Admin<E> reused = (Traverser.Admin<E>) this.head;
+        reused.set(end);
+        this.head = null;
+        this.iterator = EmptyIterator.instance();
+        return reused;
+    }
+
+    private void nextHead() {
+        // a head that is still held had no results so nothing else references it
+        if (null != this.traverserPool && null != this.head)
+            this.traverserPool.recycle(this.head);
+        this.head = null;
+        this.head = this.starts.next();
+        this.iterator = this.flatMap(this.head);
+    }
+
     @Override
     public void reset() {
         super.reset();
+        this.head = null;
         this.iterator = EmptyIterator.instance();
     }
 }
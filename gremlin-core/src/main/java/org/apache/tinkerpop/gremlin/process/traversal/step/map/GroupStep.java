@@ -28,14 +28,19 @@ import org.apache.tinkerpop.gremlin.process.computer.traversal.TraversalVertexPr
 import org.apache.tinkerpop.gremlin.process.traversal.step.util.ReducingBarrierStep;
 import org.apache.tinkerpop.gremlin.process.traversal.util.TraversalMatrix;
 import org.apache.tinkerpop.gremlin.process.traversal.step.MapReducer;
+import org.apache.tinkerpop.gremlin.process.traversal.step.Spilling;
 import org.apache.tinkerpop.gremlin.process.traversal.step.TraversalParent;
 import org.apache.tinkerpop.gremlin.process.traversal.util.TraversalHelper;
 import org.apache.tinkerpop.gremlin.process.traversal.util.TraversalUtil;
 import org.apache.tinkerpop.gremlin.process.traversal.traverser.TraverserRequirement;
 import org.apache.tinkerpop.gremlin.process.traversal.step.util.BulkSet;
+import org.apache.tinkerpop.gremlin.process.traversal.step.util.SpillFile;
 import org.apache.tinkerpop.gremlin.process.traversal.traverser.util.TraverserSet;
+import org.apache.tinkerpop.gremlin.structure.Graph;
 import org.apache.tinkerpop.gremlin.structure.Vertex;
+import org.apache.tinkerpop.gremlin.structure.util.Attachable;
 import org.apache.tinkerpop.gremlin.structure.util.StringFactory;
+import org.apache.tinkerpop.gremlin.structure.util.reference.ReferenceFactory;
 
 import java.io.Serializable;
 import java.util.ArrayList;
@@ -44,16 +49,31 @@ import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
 import java.util.Set;
 import java.util.function.BiFunction;
 import java.util.function.Supplier;
 
 /**
+ * With a spill threshold and a reduce traversal, the step writes its groups to {@link SpillFile} partitions by the
+ * hash of their keys each time it has grouped that many traversers.  Each partition is then read back and reduced on
+ * its own (split further first if it holds more values than the threshold), so only the groups of one partition and
+ * the reduced values are held in memory.  Groups that can not be written are kept in memory.  Without a reduce
+ * traversal the grouped values are the result of the step and are never spilled.
+ *
  * @author Marko A. Rodriguez (http://markorodriguez.com)
  */
-public final class GroupStep<S, K, V, R> extends ReducingBarrierStep<S, Map<K, R>> implements MapReducer, TraversalParent {
+public final class GroupStep<S, K, V, R> extends ReducingBarrierStep<S, Map<K, R>> implements MapReducer, TraversalParent, Spilling {
+
+    private static final int SPILL_PARTITION_BITS = 4;
+    private static final int SPILL_PARTITIONS = 1 << SPILL_PARTITION_BITS;
+    private static final int MAX_SPILL_DEPTH = Integer.SIZE / SPILL_PARTITION_BITS;
 
     private char state = 'k';
+    private long spillThreshold = 0l;
+    private long spillCount = 0l;
+    private long spillBytes = 0l;
 
     private Traversal.Admin<S, K> keyTraversal = null;
     private Traversal.Admin<S, V> valueTraversal = null;
@@ -111,9 +131,34 @@ public final class GroupStep<S, K, V, R> extends ReducingBarrierStep<S, Map<K, R
             clone.valueTraversal = clone.integrateChild(this.valueTraversal.clone());
         if (null != this.reduceTraversal)
             clone.reduceTraversal = clone.integrateChild(this.reduceTraversal.clone());
+        // the seed and function must group with the traversals and spill counts of the clone
+        clone.setSeedSupplier((Supplier) clone.new GroupMapSupplier());
+        clone.setBiFunction((BiFunction) clone.new GroupBiFunction());
+        clone.spillCount = 0l;
+        clone.spillBytes = 0l;
         return clone;
     }
 
+    @Override
+    public void setSpillThreshold(final long spillThreshold) {
+        this.spillThreshold = spillThreshold;
+    }
+
+    @Override
+    public long getSpillThreshold() {
+        return this.spillThreshold;
+    }
+
+    @Override
+    public long getSpillCount() {
+        return this.spillCount;
+    }
+
+    @Override
+    public long getSpillBytes() {
+        return this.spillBytes;
+    }
+
     @Override
     public MapReduce<K, Collection<V>, K, R, Map<K, R>> getMapReduce() {
         return new GroupMapReduce<>(this);
@@ -153,6 +198,8 @@ public final class GroupStep<S, K, V, R> extends ReducingBarrierStep<S, Map<K, R
                 mutatingSeed.put(key, values);
             }
             TraversalHelper.addToCollectionUnrollIterator(values, value, traverser.bulk());
+            if (mutatingSeed instanceof GroupStep.GroupMap)
+                ((GroupMap) mutatingSeed).grouped();
             return mutatingSeed;
         }
     }
@@ -161,16 +208,132 @@ public final class GroupStep<S, K, V, R> extends ReducingBarrierStep<S, Map<K, R
 
     private class GroupMap extends HashMap<K, Collection<V>> implements FinalGet<Map<K, R>> {
 
+        private transient long grouped = 0l;
+        private transient boolean unspillable = false;
+        private transient List<SpillFile<Object>> partitions = null;
+
+        private void grouped() {
+            if (++this.grouped >= GroupStep.this.spillThreshold && 0l != GroupStep.this.spillThreshold &&
+                    null != GroupStep.this.reduceTraversal && !this.unspillable)
+                this.spill();
+        }
+
+        // each group is written as its key, the number of its distinct values and then each value and its bulk.  a
+        // group that can not be written is kept in memory, as is every group grouped after it
+        private void spill() {
+            if (null == this.partitions)
+                this.partitions = createPartitions();
+            final long bytes = this.partitions.stream().mapToLong(SpillFile::getBytes).sum();
+            final Iterator<Map.Entry<K, Collection<V>>> groups = this.entrySet().iterator();
+            while (groups.hasNext()) {
+                final Map.Entry<K, Collection<V>> group = groups.next();
+                final BulkSet<V> values = (BulkSet<V>) group.getValue();
+                final List<Object> records = new ArrayList<>(2 + 2 * values.uniqueSize());
+                records.add(ReferenceFactory.detach(group.getKey()));
+                records.add(values.uniqueSize());
+                values.forEach((value, bulk) -> {
+                    records.add(ReferenceFactory.detach(value));
+                    records.add(bulk);
+                });
+                if (!this.partitions.get(partitionOf(group.getKey(), 0)).writeAll(records)) {
+                    this.unspillable = true;
+                    break;
+                }
+                groups.remove();
+            }
+            GroupStep.this.spillCount++;
+            GroupStep.this.spillBytes = GroupStep.this.spillBytes + this.partitions.stream().mapToLong(SpillFile::getBytes).sum() - bytes;
+            this.grouped = 0l;
+        }
+
         @Override
         public Map<K, R> getFinal() {
             if (null == GroupStep.this.reduceTraversal)
                 return (Map<K, R>) this;
             else {
                 final Map<K, R> reduceMap = new HashMap<>();
+                if (null != this.partitions) {
+                    // a key is in a single partition, so the groups of each partition are complete once it is read
+                    // along with the groups of its keys that are still in memory
+                    try {
+                        final Optional<Graph> graph = TraversalHelper.getRootTraversal(GroupStep.this.getTraversal()).getGraph();
+                        for (final SpillFile<Object> partition : this.partitions) {
+                            this.reduce(partition, 1, graph, reduceMap);
+                        }
+                    } finally {
+                        this.partitions.forEach(SpillFile::close);
+                        this.partitions = null;
+                    }
+                }
                 this.forEach((k, vv) -> reduceMap.put(k, TraversalUtil.applyNullable(vv, GroupStep.this.reduceTraversal)));
                 return reduceMap;
             }
         }
+
+        /**
+         * Reduce the groups of a partition.  A partition that holds more than twice as many records as the spill
+         * threshold (i.e. more values than the threshold) is first split by the next bits of the hashes of its keys,
+         * so that only about a threshold of values is held in memory at a time.  A split that leaves all the records
+         * together (e.g. as they are all of the one key) is not split any further.
+         */
+        private void reduce(final SpillFile<Object> partition, final int depth, final Optional<Graph> graph, final Map<K, R> reduceMap) {
+            if (partition.getCount() > 2 * GroupStep.this.spillThreshold && depth < MAX_SPILL_DEPTH) {
+                final List<SpillFile<Object>> split = createPartitions();
+                try {
+                    final Iterator<Object> records = partition.read();
+                    while (records.hasNext()) {
+                        final Object key = records.next();
+                        final int size = (Integer) records.next();
+                        final List<Object> group = new ArrayList<>(2 + 2 * size);
+                        group.add(key);
+                        group.add(size);
+                        for (int i = 0; i < 2 * size; i++) {
+                            group.add(records.next());
+                        }
+                        // the records were read back from a spill file so they can be written again
+                        split.get(partitionOf(key, depth)).writeAll(group);
+                    }
+                    for (final SpillFile<Object> subPartition : split) {
+                        this.reduce(subPartition, subPartition.getCount() == partition.getCount() ? MAX_SPILL_DEPTH : depth + 1, graph, reduceMap);
+                    }
+                } finally {
+                    split.forEach(SpillFile::close);
+                }
+            } else {
+                final Map<K, BulkSet<V>> groups = new HashMap<>();
+                final Iterator<Object> records = partition.read();
+                while (records.hasNext()) {
+                    final BulkSet<V> values = groups.computeIfAbsent(attach(records.next(), graph), k -> new BulkSet<>());
+                    final int size = (Integer) records.next();
+                    for (int i = 0; i < size; i++) {
+                        values.add(attach(records.next(), graph), (Long) records.next());
+                    }
+                }
+                groups.forEach((k, vv) -> {
+                    final Collection<V> unspilled = this.remove(k);
+                    if (null != unspilled)
+                        ((BulkSet<V>) unspilled).forEach((value, bulk) -> vv.add(value, bulk));
+                    reduceMap.put(k, TraversalUtil.applyNullable(vv, GroupStep.this.reduceTraversal));
+                });
+            }
+        }
+    }
+
+    private static List<SpillFile<Object>> createPartitions() {
+        final List<SpillFile<Object>> partitions = new ArrayList<>(SPILL_PARTITIONS);
+        for (int i = 0; i < SPILL_PARTITIONS; i++) {
+            partitions.add(new SpillFile<>());
+        }
+        return partitions;
+    }
+
+    // the partition of a key at each depth is taken from the next bits of its hash
+    private static int partitionOf(final Object key, final int depth) {
+        return (Objects.hashCode(key) >>> (SPILL_PARTITION_BITS * depth)) & (SPILL_PARTITIONS - 1);
+    }
+
+    private static <A> A attach(final Object object, final Optional<Graph> graph) {
+        return graph.isPresent() && object instanceof Attachable ? ((Attachable<A>) object).attach(Attachable.Method.get(graph.get())) : (A) object;
     }
 
     private class GroupMapSupplier implements Supplier<GroupMap>, Serializable {
@@ -39,11 +39,37 @@ public abstract class MapStep<S, E> extends AbstractStep<S, E> {
     protected Traverser<E> processNextStart() {
         while (true) {
             final Traverser.Admin<S> traverser = this.starts.next();
-            return traverser.split(this.map(traverser), this);
+            return this.mapTraverser(traverser);
+        }
+    }
+
+    /**
+     * Read a batch of starts into the array and map it in place.
+     */
+    @Override
+    protected int processNextStarts(final Traverser.Admin<E>[] ends, final int from) {
+        final Traverser.Admin<S>[] starts = (Traverser.Admin[]) ends;
+        final int read = this.starts.next(starts, from);
+        for (int i = from; i < read; i++) {
+            ends[i] = (Traverser.Admin<E>) this.mapTraverser(starts[i]);
         }
+        return read;
     }
 
     protected abstract E map(final Traverser.Admin<S> traverser);
 
+    /**
+     * Map the traverser, setting the result on the traverser itself when the traversal reuses its traverser objects,
+     * as nothing else references a traverser once this step has taken it from its starts.
+     */
+    private Traverser<E> mapTraverser(final Traverser.Admin<S> traverser) {
+        if (null == this.traverserPool)
+            return traverser.split(this.map(traverser), this);
+        final E end = this.map(traverser);
+        final Traverser.Admin<E> reused = (Traverser.Admin<E>) traverser;
+        reused.set(end);
+        return reused;
+    }
+
 }
 
@@ -18,14 +18,19 @@
  */
 package org.apache.tinkerpop.gremlin.process.traversal.step.map;
 
+import org.apache.tinkerpop.gremlin.process.traversal.FastNoSuchElementException;
 import org.apache.tinkerpop.gremlin.process.traversal.Traversal;
 import org.apache.tinkerpop.gremlin.process.traversal.Traverser;
 import org.apache.tinkerpop.gremlin.process.traversal.step.ComparatorHolder;
+import org.apache.tinkerpop.gremlin.process.traversal.step.Spilling;
 import org.apache.tinkerpop.gremlin.process.traversal.step.util.CollectingBarrierStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.util.SpillFile;
 import org.apache.tinkerpop.gremlin.process.traversal.util.TraversalHelper;
 import org.apache.tinkerpop.gremlin.process.traversal.traverser.TraverserRequirement;
 import org.apache.tinkerpop.gremlin.process.traversal.traverser.util.TraverserSet;
+import org.apache.tinkerpop.gremlin.structure.Graph;
 import org.apache.tinkerpop.gremlin.structure.Order;
+import org.apache.tinkerpop.gremlin.structure.util.Attachable;
 import org.apache.tinkerpop.gremlin.util.function.ChainedComparator;
 
 import java.io.Serializable;
@@ -33,16 +38,30 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.Comparator;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Optional;
+import java.util.PriorityQueue;
 import java.util.Set;
 import java.util.stream.Collectors;
 
 /**
+ * With a spill threshold, the step sorts its traversers in runs of at most that many traversers.  Every full run is
+ * written to a {@link SpillFile} and the runs are then merged, so only the head of each run is held in memory.  Once a
+ * run holds a traverser that can not be written, the step stops spilling and keeps the rest of its traversers in
+ * memory.
+ *
  * @author Marko A. Rodriguez (http://markorodriguez.com)
  */
-public final class OrderGlobalStep<S> extends CollectingBarrierStep<S> implements ComparatorHolder<S> {
+public final class OrderGlobalStep<S> extends CollectingBarrierStep<S> implements ComparatorHolder<S>, Spilling {
 
     private final List<Comparator<S>> comparators = new ArrayList<>();
+    private long spillThreshold = 0l;
+    private long spillCount = 0l;
+    private long spillBytes = 0l;
+    private boolean unspillable = false;
+    private Iterator<Traverser.Admin<S>> sorted = null;
+    private List<SpillFile<Traverser.Admin<S>>> runs = new ArrayList<>();
 
     public OrderGlobalStep(final Traversal.Admin traversal) {
         super(traversal);
@@ -50,7 +69,133 @@ public final class OrderGlobalStep<S> extends CollectingBarrierStep<S> implement
 
     @Override
     public void barrierConsumer(final TraverserSet<S> traverserSet) {
-        traverserSet.sort(this.comparators.isEmpty() ? new ComparatorTraverser(Order.incr) : new ChainedComparator(ComparatorTraverser.convertComparator((List) this.comparators)));
+        traverserSet.sort(this.getTraverserComparator());
+    }
+
+    private Comparator<Traverser<S>> getTraverserComparator() {
+        return this.comparators.isEmpty() ? new ComparatorTraverser(Order.incr) : new ChainedComparator(ComparatorTraverser.convertComparator((List) this.comparators));
+    }
+
+    @Override
+    public Traverser<S> processNextStart() {
+        if (0l == this.spillThreshold)
+            return super.processNextStart();
+
+        if (this.starts.hasNext()) {
+            final Comparator<Traverser<S>> comparator = this.getTraverserComparator();
+            final TraverserSet<S> run = new TraverserSet<>();
+            // the traversers left from an earlier barrier are sorted with the new ones
+            if (null != this.sorted)
+                this.sorted.forEachRemaining(run::add);
+            this.deleteRuns();
+            this.starts.forEachRemaining(traverser -> {
+                run.add(traverser);
+                if (run.size() >= this.spillThreshold && !this.unspillable)
+                    this.spill(run, comparator);
+            });
+            run.sort(comparator);
+            this.sorted = this.runs.isEmpty() ? run.iterator() : new MergeIterator<>(this.readRuns(), run.iterator(), comparator);
+        }
+        if (null == this.sorted || !this.sorted.hasNext())
+            throw FastNoSuchElementException.instance();
+        return this.sorted.next();
+    }
+
+    private void spill(final TraverserSet<S> run, final Comparator<Traverser<S>> comparator) {
+        run.sort(comparator);
+        final SpillFile<Traverser.Admin<S>> file = new SpillFile<>();
+        final List<Traverser.Admin<S>> detached = new ArrayList<>();
+        for (final Traverser.Admin<S> traverser : run) {
+            detached.add(traverser);
+            if (!file.write(traverser.detach())) {
+                // the run stays in memory, so the traversers detached for writing it are attached again
+                file.close();
+                final Optional<Graph> graph = this.getGraph();
+                detached.forEach(t -> this.attach(t, graph));
+                this.unspillable = true;
+                return;
+            }
+        }
+        run.clear();
+        this.runs.add(file);
+        this.spillCount++;
+        this.spillBytes = this.spillBytes + file.getBytes();
+    }
+
+    private List<Iterator<Traverser.Admin<S>>> readRuns() {
+        final Optional<Graph> graph = this.getGraph();
+        final List<Iterator<Traverser.Admin<S>>> iterators = new ArrayList<>(this.runs.size());
+        for (final SpillFile<Traverser.Admin<S>> file : this.runs) {
+            final Iterator<Traverser.Admin<S>> iterator = file.read();
+            iterators.add(new Iterator<Traverser.Admin<S>>() {
+                @Override
+                public boolean hasNext() {
+                    return iterator.hasNext();
+                }
+
+                @Override
+                public Traverser.Admin<S> next() {
+                    final Traverser.Admin<S> traverser = iterator.next();
+                    OrderGlobalStep.this.attach(traverser, graph);
+                    return traverser;
+                }
+            });
+        }
+        return iterators;
+    }
+
+    private Optional<Graph> getGraph() {
+        return TraversalHelper.getRootTraversal(this.getTraversal()).getGraph();
+    }
+
+    private void attach(final Traverser.Admin<S> traverser, final Optional<Graph> graph) {
+        traverser.setSideEffects(this.getTraversal().getSideEffects());
+        if (graph.isPresent())
+            traverser.attach(Attachable.Method.get(graph.get()));
+    }
+
+    private void deleteRuns() {
+        this.runs.forEach(SpillFile::close);
+        this.runs.clear();
+    }
+
+    @Override
+    public void setSpillThreshold(final long spillThreshold) {
+        this.spillThreshold = spillThreshold;
+    }
+
+    @Override
+    public long getSpillThreshold() {
+        return this.spillThreshold;
+    }
+
+    @Override
+    public long getSpillCount() {
+        return this.spillCount;
+    }
+
+    @Override
+    public long getSpillBytes() {
+        return this.spillBytes;
+    }
+
+    @Override
+    public void reset() {
+        super.reset();
+        this.sorted = null;
+        this.unspillable = false;
+        this.deleteRuns();
+    }
+
+    @Override
+    public OrderGlobalStep<S> clone() {
+        final OrderGlobalStep<S> clone = (OrderGlobalStep<S>) super.clone();
+        clone.sorted = null;
+        clone.runs = new ArrayList<>();
+        clone.unspillable = false;
+        clone.spillCount = 0l;
+        clone.spillBytes = 0l;
+        return clone;
     }
 
     @Override
@@ -75,6 +220,59 @@ public final class OrderGlobalStep<S> extends CollectingBarrierStep<S> implement
 
     /////
 
+    /**
+     * Merges sorted runs into one sorted iterator.  Of equal traversers, those of an earlier run come first, so the
+     * merge keeps the order in which the traversers arrived as the sort of a single run does.
+     */
+    private static final class MergeIterator<S> implements Iterator<Traverser.Admin<S>> {
+
+        private final List<Iterator<Traverser.Admin<S>>> runs;
+        private final PriorityQueue<Head<S>> heads;
+
+        private MergeIterator(final List<Iterator<Traverser.Admin<S>>> runs, final Iterator<Traverser.Admin<S>> lastRun, final Comparator<Traverser<S>> comparator) {
+            this.runs = runs;
+            this.runs.add(lastRun);
+            this.heads = new PriorityQueue<>(this.runs.size(), (a, b) -> {
+                final int compare = comparator.compare(a.traverser, b.traverser);
+                return 0 != compare ? compare : Integer.compare(a.run, b.run);
+            });
+            for (int i = 0; i < this.runs.size(); i++) {
+                this.advance(i);
+            }
+        }
+
+        private void advance(final int run) {
+            final Iterator<Traverser.Admin<S>> iterator = this.runs.get(run);
+            if (iterator.hasNext())
+                this.heads.add(new Head<>(iterator.next(), run));
+        }
+
+        @Override
+        public boolean hasNext() {
+            return !this.heads.isEmpty();
+        }
+
+        @Override
+        public Traverser.Admin<S> next() {
+            final Head<S> head = this.heads.poll();
+            if (null == head)
+                throw FastNoSuchElementException.instance();
+            this.advance(head.run);
+            return head.traverser;
+        }
+    }
+
+    private static final class Head<S> {
+
+        private final Traverser.Admin<S> traverser;
+        private final int run;
+
+        private Head(final Traverser.Admin<S> traverser, final int run) {
+            this.traverser = traverser;
+            this.run = run;
+        }
+    }
+
     private static class ComparatorTraverser<S> implements Comparator<Traverser<S>>, Serializable {
 
         private final Comparator<S> comparator;
@@ -0,0 +1,299 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tinkerpop.gremlin.process.traversal.step.map;
+
+import org.apache.commons.configuration.Configuration;
+import org.apache.tinkerpop.gremlin.process.computer.KeyValue;
+import org.apache.tinkerpop.gremlin.process.computer.MapReduce;
+import org.apache.tinkerpop.gremlin.process.computer.traversal.TraversalVertexProgram;
+import org.apache.tinkerpop.gremlin.process.computer.traversal.step.sideEffect.mapreduce.TraverserMapReduce;
+import org.apache.tinkerpop.gremlin.process.computer.util.StaticMapReduce;
+import org.apache.tinkerpop.gremlin.process.traversal.FastNoSuchElementException;
+import org.apache.tinkerpop.gremlin.process.traversal.Traversal;
+import org.apache.tinkerpop.gremlin.process.traversal.TraversalEngine;
+import org.apache.tinkerpop.gremlin.process.traversal.Traverser;
+import org.apache.tinkerpop.gremlin.process.traversal.step.ComparatorHolder;
+import org.apache.tinkerpop.gremlin.process.traversal.step.EngineDependent;
+import org.apache.tinkerpop.gremlin.process.traversal.step.MapReducer;
+import org.apache.tinkerpop.gremlin.process.traversal.step.Ranging;
+import org.apache.tinkerpop.gremlin.process.traversal.step.util.AbstractStep;
+import org.apache.tinkerpop.gremlin.process.traversal.traverser.TraverserRequirement;
+import org.apache.tinkerpop.gremlin.process.traversal.traverser.util.TraverserSet;
+import org.apache.tinkerpop.gremlin.process.traversal.util.TraversalHelper;
+import org.apache.tinkerpop.gremlin.structure.Order;
+import org.apache.tinkerpop.gremlin.structure.Vertex;
+import org.apache.tinkerpop.gremlin.util.function.ChainedComparator;
+import org.apache.tinkerpop.gremlin.util.iterator.IteratorUtils;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.EnumSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.Set;
+
+/**
+ * An {@link OrderGlobalStep} fused with the {@link org.apache.tinkerpop.gremlin.process.traversal.step.filter.RangeGlobalStep}
+ * that follows it.  Rather than sorting every traverser, the step keeps the traversers that sort before the high range
+ * in a {@link TopTraversers} queue, so {@code order().by(x).limit(k)} takes O(n log k) time and O(k) memory.  The
+ * results are those of the order and range steps: equal traversers keep the order in which they arrived and the bulk
+ * of a traverser is split over the range boundaries.
+ *
+ * @author agent
+ */
+public final class OrderRangeGlobalStep<S> extends AbstractStep<S, S> implements ComparatorHolder<S>, Ranging, EngineDependent,
+        MapReducer<MapReduce.NullObject, Traverser.Admin<S>, MapReduce.NullObject, Traverser.Admin<S>, Iterator<Traverser.Admin<S>>> {
+
+    private static final Set<TraverserRequirement> REQUIREMENTS = EnumSet.of(TraverserRequirement.OBJECT, TraverserRequirement.BULK);
+
+    private final List<Comparator<S>> comparators = new ArrayList<>();
+    private final long low;
+    private final long high;
+    private Iterator<Traverser.Admin<S>> results = null;
+    private boolean byPass = false;
+
+    public OrderRangeGlobalStep(final Traversal.Admin traversal, final long low, final long high) {
+        super(traversal);
+        if (low < 0 || high < low)
+            throw new IllegalArgumentException("Not a legal top range: [" + low + ", " + high + ']');
+        this.low = low;
+        this.high = high;
+    }
+
+    @Override
+    public Traverser<S> processNextStart() {
+        if (this.byPass)
+            return this.starts.next();
+        if (null == this.results) {
+            final TopTraversers<S> top = new TopTraversers<>(this.getComparator(), this.high);
+            this.starts.forEachRemaining(traverser -> {
+                if (!top.add(traverser) && null != this.traverserPool)
+                    this.traverserPool.recycle(traverser);
+            });
+            this.results = top.range(this.low).iterator();
+        }
+        if (!this.results.hasNext())
+            throw FastNoSuchElementException.instance();
+        return this.results.next();
+    }
+
+    @Override
+    public void onEngine(final TraversalEngine traversalEngine) {
+        this.byPass = traversalEngine.isComputer();
+    }
+
+    @Override
+    public void addComparator(final Comparator<S> comparator) {
+        this.comparators.add(comparator);
+    }
+
+    @Override
+    public List<Comparator<S>> getComparators() {
+        return this.comparators.isEmpty() ? Arrays.asList((Comparator) Order.incr) : this.comparators;
+    }
+
+    private Comparator<S> getComparator() {
+        return new ChainedComparator<>(this.getComparators());
+    }
+
+    @Override
+    public long getLowRange() {
+        return this.low;
+    }
+
+    @Override
+    public long getHighRange() {
+        return this.high;
+    }
+
+    @Override
+    public MapReduce<MapReduce.NullObject, Traverser.Admin<S>, MapReduce.NullObject, Traverser.Admin<S>, Iterator<Traverser.Admin<S>>> getMapReduce() {
+        return new OrderRangeGlobalMapReduce<>(this);
+    }
+
+    @Override
+    public void reset() {
+        super.reset();
+        this.results = null;
+    }
+
+    @Override
+    public OrderRangeGlobalStep<S> clone() {
+        final OrderRangeGlobalStep<S> clone = (OrderRangeGlobalStep<S>) super.clone();
+        clone.results = null;
+        return clone;
+    }
+
+    @Override
+    public String toString() {
+        return TraversalHelper.makeStepString(this, this.comparators, this.low, this.high);
+    }
+
+    @Override
+    public Set<TraverserRequirement> getRequirements() {
+        return REQUIREMENTS;
+    }
+
+    /////
+
+    /**
+     * The traversers that sort before a high range.  The queue is headed by the traverser that sorts last so that it
+     * can be dropped once the traversers before it make up the high range on their own.
+     */
+    public static final class TopTraversers<S> {
+
+        private final Comparator<Ranked<S>> order;
+        private final PriorityQueue<Ranked<S>> queue;
+        private final long high;
+        private long bulk = 0l;
+        private long arrivals = 0l;
+
+        public TopTraversers(final Comparator<S> comparator, final long high) {
+            this.order = (a, b) -> {
+                final int compare = comparator.compare(a.traverser.get(), b.traverser.get());
+                return 0 != compare ? compare : Long.compare(a.arrival, b.arrival);
+            };
+            this.queue = new PriorityQueue<>(this.order.reversed());
+            this.high = high;
+        }
+
+        /**
+         * Returns false if the traverser sorts after the high range and was not kept.
+         */
+        public boolean add(final Traverser.Admin<S> traverser) {
+            final Ranked<S> ranked = new Ranked<>(traverser, this.arrivals++);
+            if (this.bulk >= this.high && (this.queue.isEmpty() || this.order.compare(ranked, this.queue.peek()) > 0))
+                return false;
+            this.queue.add(ranked);
+            this.bulk = this.bulk + traverser.bulk();
+            while (this.bulk - this.queue.peek().traverser.bulk() >= this.high) {
+                this.bulk = this.bulk - this.queue.poll().traverser.bulk();
+            }
+            return true;
+        }
+
+        /**
+         * Empties the queue into a sorted list of the traversers in the range from the low range to the high range.
+         * A traverser whose bulk crosses a range boundary is split and given the bulk within the range.
+         */
+        public List<Traverser.Admin<S>> range(final long low) {
+            final List<Ranked<S>> sorted = new ArrayList<>(this.queue);
+            sorted.sort(this.order);
+            this.queue.clear();
+            this.bulk = 0l;
+            final List<Traverser.Admin<S>> traversers = new ArrayList<>(sorted.size());
+            long counter = 0l;
+            for (final Ranked<S> ranked : sorted) {
+                final long bulk = ranked.traverser.bulk();
+                final long inRange = Math.min(counter + bulk, this.high) - Math.max(counter, low);
+                if (inRange == bulk)
+                    traversers.add(ranked.traverser);
+                else if (inRange > 0) {
+                    final Traverser.Admin<S> split = ranked.traverser.split();
+                    split.setBulk(inRange);
+                    traversers.add(split);
+                }
+                counter = counter + bulk;
+            }
+            return traversers;
+        }
+    }
+
+    private static final class Ranked<S> {
+
+        private final Traverser.Admin<S> traverser;
+        private final long arrival;
+
+        private Ranked(final Traverser.Admin<S> traverser, final long arrival) {
+            this.traverser = traverser;
+            this.arrival = arrival;
+        }
+    }
+
+    /////
+
+    /**
+     * Emits the halted traversers of each vertex, keeps the top traversers of each worker in the combine stage, and
+     * merges those into the range of the step in the reduce stage.  The result takes the place of the result of the
+     * {@link TraverserMapReduce}.
+     */
+    public static final class OrderRangeGlobalMapReduce<S> extends StaticMapReduce<MapReduce.NullObject, Traverser.Admin<S>, MapReduce.NullObject, Traverser.Admin<S>, Iterator<Traverser.Admin<S>>> {
+
+        private Comparator<S> comparator;
+        private long low;
+        private long high;
+
+        private OrderRangeGlobalMapReduce() {
+        }
+
+        public OrderRangeGlobalMapReduce(final OrderRangeGlobalStep<S> step) {
+            this.comparator = step.getComparator();
+            this.low = step.getLowRange();
+            this.high = step.getHighRange();
+        }
+
+        @Override
+        public void loadState(final Configuration configuration) {
+            final Traversal.Admin<?, ?> traversal = TraversalVertexProgram.getTraversalSupplier(configuration).get();
+            final OrderRangeGlobalStep<S> step = (OrderRangeGlobalStep<S>) traversal.getEndStep().getPreviousStep(); // don't get the ComputerResultStep
+            this.comparator = step.getComparator();
+            this.low = step.getLowRange();
+            this.high = step.getHighRange();
+        }
+
+        @Override
+        public boolean doStage(final Stage stage) {
+            return true;
+        }
+
+        @Override
+        public void map(final Vertex vertex, final MapEmitter<NullObject, Traverser.Admin<S>> emitter) {
+            vertex.<TraverserSet<S>>property(TraversalVertexProgram.HALTED_TRAVERSERS).ifPresent(traverserSet -> traverserSet.forEach(emitter::emit));
+        }
+
+        @Override
+        public void combine(final NullObject key, final Iterator<Traverser.Admin<S>> values, final ReduceEmitter<NullObject, Traverser.Admin<S>> emitter) {
+            // the low range is skipped once all the workers are merged
+            this.top(values).range(0l).forEach(emitter::emit);
+        }
+
+        @Override
+        public void reduce(final NullObject key, final Iterator<Traverser.Admin<S>> values, final ReduceEmitter<NullObject, Traverser.Admin<S>> emitter) {
+            this.top(values).range(this.low).forEach(emitter::emit);
+        }
+
+        private TopTraversers<S> top(final Iterator<Traverser.Admin<S>> values) {
+            final TopTraversers<S> top = new TopTraversers<>(this.comparator, this.high);
+            values.forEachRemaining(top::add);
+            return top;
+        }
+
+        @Override
+        public String getMemoryKey() {
+            return TraverserMapReduce.TRAVERSERS;
+        }
+
+        @Override
+        public Iterator<Traverser.Admin<S>> generateFinalResult(final Iterator<KeyValue<NullObject, Traverser.Admin<S>>> keyValues) {
+            return IteratorUtils.map(keyValues, KeyValue::getValue);
+        }
+    }
+}
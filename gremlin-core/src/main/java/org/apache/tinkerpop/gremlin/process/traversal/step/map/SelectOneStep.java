@@ -21,7 +21,9 @@ package org.apache.tinkerpop.gremlin.process.traversal.step.map;
 import org.apache.tinkerpop.gremlin.process.traversal.Traversal;
 import org.apache.tinkerpop.gremlin.process.traversal.Traverser;
 import org.apache.tinkerpop.gremlin.process.traversal.lambda.IdentityTraversal;
+import org.apache.tinkerpop.gremlin.process.traversal.step.PathLabelIndexHolder;
 import org.apache.tinkerpop.gremlin.process.traversal.step.TraversalParent;
+import org.apache.tinkerpop.gremlin.process.traversal.step.util.PathLabelIndex;
 import org.apache.tinkerpop.gremlin.process.traversal.traverser.TraverserRequirement;
 import org.apache.tinkerpop.gremlin.process.traversal.util.TraversalHelper;
 import org.apache.tinkerpop.gremlin.process.traversal.util.TraversalUtil;
@@ -34,10 +36,11 @@ import java.util.Set;
 /**
  * @author Marko A. Rodriguez (http://markorodriguez.com)
  */
-public final class SelectOneStep<S, E> extends MapStep<S, E> implements TraversalParent {
+public final class SelectOneStep<S, E> extends MapStep<S, E> implements TraversalParent, PathLabelIndexHolder {
 
     private final String selectLabel;
     private Traversal.Admin<Object, Object> selectTraversal = new IdentityTraversal<>();
+    private PathLabelIndex pathLabelIndex = null;
 
     public SelectOneStep(final Traversal.Admin traversal, final String selectLabel) {
         super(traversal);
@@ -47,7 +50,12 @@ public final class SelectOneStep<S, E> extends MapStep<S, E> implements Traversa
     @Override
     protected E map(final Traverser.Admin<S> traverser) {
         final S start = traverser.get();
-        return (E) TraversalUtil.apply(start instanceof Map ? ((Map) start).get(this.selectLabel) : traverser.path().<Object>get(this.selectLabel), this.selectTraversal);
+        if (start instanceof Map)
+            return (E) TraversalUtil.apply(((Map) start).get(this.selectLabel), this.selectTraversal);
+        else if (null != this.pathLabelIndex)
+            return (E) TraversalUtil.apply(this.pathLabelIndex.<Object>get(traverser.path(), this.selectLabel), this.selectTraversal);
+        else
+            return (E) TraversalUtil.apply(traverser.path().<Object>get(this.selectLabel), this.selectTraversal);
     }
 
     @Override
@@ -72,6 +80,16 @@ public final class SelectOneStep<S, E> extends MapStep<S, E> implements Traversa
         this.selectTraversal = this.integrateChild(selectTraversal);
     }
 
+    @Override
+    public void setPathLabelIndex(final PathLabelIndex pathLabelIndex) {
+        this.pathLabelIndex = pathLabelIndex;
+    }
+
+    @Override
+    public PathLabelIndex getPathLabelIndex() {
+        return this.pathLabelIndex;
+    }
+
     @Override
     public Set<TraverserRequirement> getRequirements() {
         return this.getSelfAndChildRequirements(TraverserRequirement.OBJECT, TraverserRequirement.PATH);
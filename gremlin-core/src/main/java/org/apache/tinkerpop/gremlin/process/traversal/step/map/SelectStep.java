@@ -21,7 +21,9 @@ package org.apache.tinkerpop.gremlin.process.traversal.step.map;
 import org.apache.tinkerpop.gremlin.process.traversal.Path;
 import org.apache.tinkerpop.gremlin.process.traversal.Traversal;
 import org.apache.tinkerpop.gremlin.process.traversal.Traverser;
+import org.apache.tinkerpop.gremlin.process.traversal.step.PathLabelIndexHolder;
 import org.apache.tinkerpop.gremlin.process.traversal.step.TraversalParent;
+import org.apache.tinkerpop.gremlin.process.traversal.step.util.PathLabelIndex;
 import org.apache.tinkerpop.gremlin.process.traversal.traverser.TraverserRequirement;
 import org.apache.tinkerpop.gremlin.process.traversal.util.TraversalHelper;
 import org.apache.tinkerpop.gremlin.process.traversal.util.TraversalRing;
@@ -36,10 +38,11 @@ import java.util.Set;
 /**
  * @author Marko A. Rodriguez (http://markorodriguez.com)
  */
-public final class SelectStep<S, E> extends MapStep<S, Map<String, E>> implements TraversalParent {
+public final class SelectStep<S, E> extends MapStep<S, Map<String, E>> implements TraversalParent, PathLabelIndexHolder {
 
     protected TraversalRing<Object, Object> traversalRing = new TraversalRing<>();
     private final List<String> selectLabels;
+    private PathLabelIndex pathLabelIndex = null;
 
     public SelectStep(final Traversal.Admin traversal, final String... selectLabels) {
         super(traversal);
@@ -58,7 +61,11 @@ public final class SelectStep<S, E> extends MapStep<S, Map<String, E>> implement
                 this.selectLabels.forEach(label -> bindings.put(label, (E) TraversalUtil.apply(((Map) start).get(label), this.traversalRing.next())));
         } else {
             final Path path = traverser.path();
-            if (this.selectLabels.isEmpty())
+            if (null != this.pathLabelIndex && this.pathLabelIndex.isIndexed(path)) {
+                for (final String label : this.selectLabels.isEmpty() ? this.pathLabelIndex.getLabels() : this.selectLabels) {
+                    bindings.put(label, (E) TraversalUtil.apply(this.pathLabelIndex.<Object>get(path, label), this.traversalRing.next()));
+                }
+            } else if (this.selectLabels.isEmpty())
                 path.labels().stream().flatMap(Set::stream).distinct().forEach(label -> bindings.put(label, (E) TraversalUtil.apply(path.<Object>get(label), this.traversalRing.next())));
             else
                 this.selectLabels.forEach(label -> bindings.put(label, (E) TraversalUtil.apply(path.<Object>get(label), this.traversalRing.next())));
@@ -99,6 +106,16 @@ public final class SelectStep<S, E> extends MapStep<S, Map<String, E>> implement
         this.traversalRing.addTraversal(this.integrateChild(selectTraversal));
     }
 
+    @Override
+    public void setPathLabelIndex(final PathLabelIndex pathLabelIndex) {
+        this.pathLabelIndex = pathLabelIndex;
+    }
+
+    @Override
+    public PathLabelIndex getPathLabelIndex() {
+        return this.pathLabelIndex;
+    }
+
     @Override
     public Set<TraverserRequirement> getRequirements() {
         return this.getSelfAndChildRequirements(TraverserRequirement.OBJECT, TraverserRequirement.PATH);
@@ -0,0 +1,123 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tinkerpop.gremlin.process.traversal.step.map.match;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.BiConsumer;
+
+/**
+ * An Enumerator which joins the solutions of two other Enumerators on their shared variables.
+ * The solutions of the right Enumerator are hashed by the values of the shared variables and probed with the
+ * solutions of the left one, so only the pairs of solutions which agree are visited, rather than every pair of the
+ * Cartesian product as with an InnerJoinEnumerator over a CrossJoinEnumerator.
+ * <p/>
+ * Note: the right Enumerator is read in full the first time a solution is visited, before the left one is read at
+ * all, which keeps one Enumerator from resetting a traversal the other is still reading.  The left Enumerator is
+ * then only read as far as the visited solutions require.
+ *
+ * @author agent
+ */
+public class HashJoinEnumerator<T> implements Enumerator<T> {
+    private Enumerator<T> leftEnum, rightEnum;
+    private final List<String> joinVariables;
+
+    private Map<List<T>, List<Map<String, T>>> buildSolutions;
+    private int probeIndex = 0;
+
+    // the pairs of probe and build solutions found so far
+    private final List<Map<String, T>> probeMatches = new ArrayList<>();
+    private final List<Map<String, T>> buildMatches = new ArrayList<>();
+
+    public HashJoinEnumerator(final Enumerator<T> leftEnum,
+                              final Enumerator<T> rightEnum,
+                              final Set<String> joinVariables) {
+        this.leftEnum = leftEnum;
+        this.rightEnum = rightEnum;
+        this.joinVariables = new ArrayList<>(joinVariables);
+    }
+
+    public int size() {
+        return probeMatches.size();
+    }
+
+    public boolean visitSolution(final int index,
+                                 final BiConsumer<String, T> visitor) {
+        if (null == buildSolutions) {
+            build();
+        }
+
+        while (index >= probeMatches.size()) {
+            if (null == leftEnum) {
+                return false;
+            }
+
+            final Map<String, T> probe = new HashMap<>();
+            if (!leftEnum.visitSolution(probeIndex++, probe::put)) {
+                // free up memory as soon as possible
+                leftEnum = null;
+                return false;
+            }
+
+            for (Map<String, T> build : buildSolutions.getOrDefault(joinKey(probe), Collections.emptyList())) {
+                probeMatches.add(probe);
+                buildMatches.add(build);
+            }
+        }
+
+        probeMatches.get(index).forEach(visitor);
+        buildMatches.get(index).forEach((name, value) -> {
+            if (!joinVariables.contains(name)) {
+                visitor.accept(name, value);
+            }
+        });
+
+        return true;
+    }
+
+    private void build() {
+        buildSolutions = new HashMap<>();
+        int index = 0;
+        while (true) {
+            final Map<String, T> solution = new HashMap<>();
+            if (!rightEnum.visitSolution(index++, solution::put)) {
+                break;
+            }
+            buildSolutions.computeIfAbsent(joinKey(solution), k -> new ArrayList<>(1)).add(solution);
+        }
+        rightEnum = null;
+
+        // nothing can match an empty right side, so the left side is not read at all
+        if (buildSolutions.isEmpty()) {
+            leftEnum = null;
+        }
+    }
+
+    private List<T> joinKey(final Map<String, T> solution) {
+        final List<T> key = new ArrayList<>(joinVariables.size());
+        for (String name : joinVariables) {
+            key.add(solution.get(name));
+        }
+        return key;
+    }
+}
@@ -23,6 +23,7 @@ import org.apache.tinkerpop.gremlin.process.traversal.Step;
 import org.apache.tinkerpop.gremlin.process.traversal.Traversal;
 import org.apache.tinkerpop.gremlin.process.traversal.Traverser;
 import org.apache.tinkerpop.gremlin.process.traversal.step.TraversalParent;
+import org.apache.tinkerpop.gremlin.process.traversal.step.filter.FilterStep;
 import org.apache.tinkerpop.gremlin.process.traversal.step.util.AbstractStep;
 import org.apache.tinkerpop.gremlin.process.traversal.traverser.B_O_S_SE_SL_Traverser;
 import org.apache.tinkerpop.gremlin.process.traversal.traverser.TraverserRequirement;
@@ -294,7 +295,7 @@ public final class MatchStep<S, E> extends AbstractStep<S, Map<String, E>> imple
                     Set<String> rightLabels = new HashSet<>();
                     addVariables(w.endLabel, rightLabels);
                     Enumerator<S> ie = solveFor(w.endLabel, updater);
-                    result = null == result ? ie : crossJoin(result, ie, leftLabels, rightLabels);
+                    result = null == result ? ie : join(result, ie, leftLabels, rightLabels);
                     leftLabels.addAll(rightLabels);
                 }
 
@@ -303,10 +304,11 @@ public final class MatchStep<S, E> extends AbstractStep<S, Map<String, E>> imple
         }
     }
 
-    private static <T> Enumerator<T> crossJoin(final Enumerator<T> left,
-                                               final Enumerator<T> right,
-                                               final Set<String> leftLabels,
-                                               final Set<String> rightLabels) {
+    // hash joins the two enumerators on their shared labels, or takes their cross product if they share none
+    private static <T> Enumerator<T> join(final Enumerator<T> left,
+                                          final Enumerator<T> right,
+                                          final Set<String> leftLabels,
+                                          final Set<String> rightLabels) {
         Set<String> shared = new HashSet<>();
         for (String s : rightLabels) {
             if (leftLabels.contains(s)) {
@@ -314,8 +316,7 @@ public final class MatchStep<S, E> extends AbstractStep<S, Map<String, E>> imple
             }
         }
 
-        Enumerator<T> cj = new CrossJoinEnumerator<>(left, right);
-        return shared.size() > 0 ? new InnerJoinEnumerator<>(cj, shared) : cj;
+        return shared.size() > 0 ? new HashJoinEnumerator<>(left, right, shared) : new CrossJoinEnumerator<>(left, right);
     }
 
     // recursively add all non-anonymous variables from a starting point in the query
@@ -361,6 +362,37 @@ public final class MatchStep<S, E> extends AbstractStep<S, Map<String, E>> imple
                 updateOrderingFactor(t);
             }
             Collections.sort(outs);
+            orderForJoins(outs);
+        }
+    }
+
+    // Siblings are joined in order, so take the cheapest sibling first and then, as long as there is one, the
+    // cheapest sibling which shares a label with those before it. Shared labels are hash joined, whereas siblings
+    // which share none are crossed, and crossing them last keeps the intermediate solutions small.
+    private void orderForJoins(final List<TraversalWrapper<S, S>> outs) {
+        if (outs.size() < 3) {
+            return;
+        }
+
+        final List<TraversalWrapper<S, S>> remaining = new ArrayList<>(outs);
+        final Set<String> joinedLabels = new HashSet<>();
+        outs.clear();
+        while (!remaining.isEmpty()) {
+            TraversalWrapper<S, S> next = remaining.get(0);
+            if (!joinedLabels.isEmpty()) {
+                for (TraversalWrapper<S, S> w : remaining) {
+                    Set<String> labels = new HashSet<>();
+                    addVariables(w.endLabel, labels);
+                    if (!Collections.disjoint(labels, joinedLabels)) {
+                        next = w;
+                        break;
+                    }
+                }
+            }
+
+            remaining.remove(next);
+            outs.add(next);
+            addVariables(next.endLabel, joinedLabels);
         }
     }
 
@@ -416,6 +448,7 @@ public final class MatchStep<S, E> extends AbstractStep<S, Map<String, E>> imple
     public static class TraversalWrapper<A, B> implements Comparable<TraversalWrapper<A, B>> {
         private final Traversal<A, B> traversal;
         private final String startLabel, endLabel;
+        private final double estimatedBranchFactor;
         private int totalInputs = 0;
         private int totalOutputs = 0;
         private double orderingFactor;
@@ -426,6 +459,19 @@ public final class MatchStep<S, E> extends AbstractStep<S, Map<String, E>> imple
             this.traversal = traversal;
             this.startLabel = startLabel;
             this.endLabel = endLabel;
+            this.estimatedBranchFactor = estimateBranchFactor(traversal);
+        }
+
+        // until the traversal has had inputs, take each of its filters (e.g. has()) to let half of its inputs through,
+        // so that the more selective patterns are tried first
+        private static double estimateBranchFactor(final Traversal<?, ?> traversal) {
+            double estimate = 1;
+            for (Step<?, ?> step : traversal.asAdmin().getSteps()) {
+                if (step instanceof FilterStep) {
+                    estimate /= 2;
+                }
+            }
+            return estimate;
         }
 
         public void incrementInputs() {
@@ -439,7 +485,7 @@ public final class MatchStep<S, E> extends AbstractStep<S, Map<String, E>> imple
         // TODO: take variance into account, to avoid penalizing traversals for early encounters with super-inputs,
         // or simply for never having been tried
         public double findBranchFactor() {
-            return 0 == this.totalInputs ? 1 : this.totalOutputs / ((double) this.totalInputs);
+            return 0 == this.totalInputs ? this.estimatedBranchFactor : this.totalOutputs / ((double) this.totalInputs);
         }
 
         @Override
@@ -26,6 +26,7 @@ import org.apache.tinkerpop.gremlin.process.traversal.Step;
 import org.apache.tinkerpop.gremlin.process.traversal.Traversal;
 import org.apache.tinkerpop.gremlin.process.traversal.Traverser;
 import org.apache.tinkerpop.gremlin.process.traversal.step.MapReducer;
+import org.apache.tinkerpop.gremlin.process.traversal.step.Spilling;
 import org.apache.tinkerpop.gremlin.process.traversal.step.TraversalParent;
 import org.apache.tinkerpop.gremlin.process.traversal.step.util.AbstractStep;
 import org.apache.tinkerpop.gremlin.process.traversal.step.util.EmptyStep;
@@ -46,6 +47,9 @@ public final class ProfileStep<S> extends AbstractStep<S, S> implements MapReduc
 
     // Stored in the Traversal sideEffects but kept here as a reference for convenience.
     private StandardTraversalMetrics traversalMetrics;
+    // The spills of the profiled step that have been counted in the metrics.
+    private long spillCount = 0l;
+    private long spillBytes = 0l;
 
     public ProfileStep(final Traversal.Admin traversal) {
         super(traversal);
@@ -71,6 +75,7 @@ public final class ProfileStep<S> extends AbstractStep<S, S> implements MapReduc
             } else {
                 traversalMetrics.stop(this.getId());
             }
+            countSpills();
         }
     }
 
@@ -80,9 +85,23 @@ public final class ProfileStep<S> extends AbstractStep<S, S> implements MapReduc
         traversalMetrics.start(this.getId());
         boolean ret = super.hasNext();
         traversalMetrics.stop(this.getId());
+        countSpills();
         return ret;
     }
 
+    private void countSpills() {
+        if (!(this.getPreviousStep() instanceof Spilling)) {
+            return;
+        }
+        final Spilling spilling = (Spilling) this.getPreviousStep();
+        if (spilling.getSpillCount() != spillCount) {
+            traversalMetrics.incrementCount(this.getId(), TraversalMetrics.SPILL_COUNT_ID, spilling.getSpillCount() - spillCount);
+            traversalMetrics.incrementCount(this.getId(), TraversalMetrics.SPILL_BYTES_ID, spilling.getSpillBytes() - spillBytes);
+            spillCount = spilling.getSpillCount();
+            spillBytes = spilling.getSpillBytes();
+        }
+    }
+
     @Override
     protected Traverser<S> processNextStart() throws NoSuchElementException {
         return this.starts.next();
@@ -148,6 +167,10 @@ public final class ProfileStep<S> extends AbstractStep<S, S> implements MapReduc
             // Initialize counters (necessary because some steps might end up being 0)
             metrics.incrementCount(TraversalMetrics.ELEMENT_COUNT_ID, 0);
             metrics.incrementCount(TraversalMetrics.TRAVERSER_COUNT_ID, 0);
+            if (step instanceof Spilling) {
+                metrics.incrementCount(TraversalMetrics.SPILL_COUNT_ID, 0);
+                metrics.incrementCount(TraversalMetrics.SPILL_BYTES_ID, 0);
+            }
 
             // Add metrics to parent, if necessary
             if (parentMetrics != null) {
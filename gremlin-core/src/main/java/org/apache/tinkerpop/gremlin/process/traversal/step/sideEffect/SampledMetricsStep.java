@@ -0,0 +1,128 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tinkerpop.gremlin.process.traversal.step.sideEffect;
+
+import org.apache.tinkerpop.gremlin.process.traversal.Traversal;
+import org.apache.tinkerpop.gremlin.process.traversal.Traverser;
+import org.apache.tinkerpop.gremlin.process.traversal.step.util.AbstractStep;
+
+import java.util.NoSuchElementException;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Counts the traversers of the step before it and times one in every {@code sampleRate} of the calls for them, so it
+ * can be left in a traversal where a {@link ProfileStep}, which times every call and looks up its metrics for each,
+ * would cost too much.  A timed call includes the time of the steps before the step being measured, as the
+ * traversers are pulled through them.
+ * <p/>
+ * The counts are kept from when the step is created or cloned and are read once the traversal is iterated (see
+ * {@link org.apache.tinkerpop.gremlin.process.traversal.strategy.optimization.SampledMetricsStrategy}).
+ *
+ * @author agent
+ */
+public final class SampledMetricsStep<S> extends AbstractStep<S, S> {
+
+    private final int sampleRate;
+    private int untilSample;
+    private long callCount = 0l;
+    private long traverserCount = 0l;
+    private long sampledCount = 0l;
+    private long sampledNanos = 0l;
+
+    public SampledMetricsStep(final Traversal.Admin traversal, final int sampleRate) {
+        super(traversal);
+        if (sampleRate < 1)
+            throw new IllegalArgumentException("The sample rate must be greater than zero: " + sampleRate);
+        this.sampleRate = sampleRate;
+        this.untilSample = firstSample(sampleRate);
+    }
+
+    // the first timed call is picked at random, else a traversal of fewer calls than the sample rate is never timed
+    private static int firstSample(final int sampleRate) {
+        return 1 + ThreadLocalRandom.current().nextInt(sampleRate);
+    }
+
+    @Override
+    protected Traverser<S> processNextStart() throws NoSuchElementException {
+        this.callCount++;
+        if (0 != --this.untilSample) {
+            final Traverser<S> traverser = this.starts.next();
+            this.traverserCount = this.traverserCount + traverser.bulk();
+            return traverser;
+        }
+
+        this.untilSample = this.sampleRate;
+        final long start = System.nanoTime();
+        try {
+            final Traverser<S> traverser = this.starts.next();
+            this.traverserCount = this.traverserCount + traverser.bulk();
+            return traverser;
+        } finally {
+            this.sampledNanos = this.sampledNanos + (System.nanoTime() - start);
+            this.sampledCount++;
+        }
+    }
+
+    public int getSampleRate() {
+        return this.sampleRate;
+    }
+
+    /**
+     * The number of times a traverser was requested of the step before this one, including the last request that
+     * found there were no more.
+     */
+    public long getCallCount() {
+        return this.callCount;
+    }
+
+    /**
+     * The number of traversers of the step before this one, counting each traverser by its bulk.
+     */
+    public long getTraverserCount() {
+        return this.traverserCount;
+    }
+
+    public long getSampledCount() {
+        return this.sampledCount;
+    }
+
+    public long getSampledNanos() {
+        return this.sampledNanos;
+    }
+
+    /**
+     * The time of all the calls estimated from the time of the timed calls, each of which stands for
+     * {@code sampleRate} calls.  A traversal of fewer calls than that may have none timed, in which case the estimate
+     * is zero, but the estimates average out to the time of the calls over many traversals.
+     */
+    public long getEstimatedNanos() {
+        return this.sampledNanos * this.sampleRate;
+    }
+
+    @Override
+    public SampledMetricsStep<S> clone() {
+        final SampledMetricsStep<S> clone = (SampledMetricsStep<S>) super.clone();
+        clone.untilSample = firstSample(this.sampleRate);
+        clone.callCount = 0l;
+        clone.traverserCount = 0l;
+        clone.sampledCount = 0l;
+        clone.sampledNanos = 0l;
+        return clone;
+    }
+}
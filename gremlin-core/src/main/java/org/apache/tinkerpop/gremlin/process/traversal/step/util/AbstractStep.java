@@ -18,11 +18,14 @@
  */
 package org.apache.tinkerpop.gremlin.process.traversal.step.util;
 
+import org.apache.tinkerpop.gremlin.process.traversal.FastNoSuchElementException;
 import org.apache.tinkerpop.gremlin.process.traversal.Step;
 import org.apache.tinkerpop.gremlin.process.traversal.Traversal;
 import org.apache.tinkerpop.gremlin.process.traversal.Traverser;
+import org.apache.tinkerpop.gremlin.process.traversal.traverser.util.TraverserPool;
 import org.apache.tinkerpop.gremlin.process.traversal.util.TraversalHelper;
 
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.Iterator;
 import java.util.LinkedHashSet;
@@ -41,6 +44,10 @@ public abstract class AbstractStep<S, E> implements Step<S, E> {
     protected ExpandableStepIterator<S> starts;
     protected Traverser<E> nextEnd = null;
     protected boolean traverserStepIdSetByChild = false; // TODO: Step.teleport(traverser, step)
+    protected TraverserPool traverserPool = null;
+    private Traverser.Admin<E>[] batch = null;
+    private int batchHead = 0;
+    private int batchTail = 0;
 
     protected Step<?, S> previousStep = EmptyStep.instance();
     protected Step<E, ?> nextStep = EmptyStep.instance();
@@ -75,6 +82,11 @@ public abstract class AbstractStep<S, E> implements Step<S, E> {
     public void reset() {
         this.starts.clear();
         this.nextEnd = null;
+        if (null != this.batch) {
+            Arrays.fill(this.batch, this.batchHead, this.batchTail, null);
+            this.batchHead = 0;
+            this.batchTail = 0;
+        }
     }
 
     @Override
@@ -109,7 +121,13 @@ public abstract class AbstractStep<S, E> implements Step<S, E> {
 
     @Override
     public Traverser<E> next() {
-        if (null != this.nextEnd) {
+        if (null != this.batch) {
+            if (!this.hasNextInBatch())
+                throw FastNoSuchElementException.instance();
+            final Traverser<E> traverser = this.batch[this.batchHead];
+            this.batch[this.batchHead++] = null;
+            return traverser;
+        } else if (null != this.nextEnd) {
             try {
                 return this.prepareTraversalForNextStep(this.nextEnd);
             } finally {
@@ -127,7 +145,9 @@ public abstract class AbstractStep<S, E> implements Step<S, E> {
 
     @Override
     public boolean hasNext() {
-        if (null != this.nextEnd)
+        if (null != this.batch)
+            return this.hasNextInBatch();
+        else if (null != this.nextEnd)
             return true;
         else {
             try {
@@ -156,6 +176,76 @@ public abstract class AbstractStep<S, E> implements Step<S, E> {
 
     protected abstract Traverser<E> processNextStart() throws NoSuchElementException;
 
+    /**
+     * Fill the array from the provided index with the next traversers of the step, returning the index after the last
+     * one added, where adding none means that the step has no more traversers.  This is only used when the step has
+     * a batch size greater than one, and the default implementation calls {@link #processNextStart()} per traverser.
+     */
+    protected int processNextStarts(final Traverser.Admin<E>[] ends, final int from) {
+        int count = from;
+        try {
+            while (count < ends.length) {
+                ends[count] = (Traverser.Admin<E>) this.processNextStart();
+                count++;
+            }
+        } catch (final NoSuchElementException e) {
+            // the step has no more traversers so return the ones that were processed
+        }
+        return count;
+    }
+
+    /**
+     * Fill the array from the provided index with the next traversers this step passes to the next step, returning
+     * the index after the last one added.  A step with a batch size greater than one hands over the traversers it has
+     * buffered and then processes the rest straight into the array, so a batched step reads a batch of its starts from
+     * a batched previous step with a single call.
+     */
+    public int nextBatch(final Traverser.Admin<E>[] ends, final int from) {
+        int count = from;
+        if (null == this.batch) {
+            while (count < ends.length && this.hasNext()) {
+                ends[count++] = (Traverser.Admin<E>) this.next();
+            }
+            return count;
+        }
+        if (this.batchHead < this.batchTail) {
+            final int length = Math.min(this.batchTail - this.batchHead, ends.length - count);
+            System.arraycopy(this.batch, this.batchHead, ends, count, length);
+            Arrays.fill(this.batch, this.batchHead, this.batchHead + length, null);
+            this.batchHead = this.batchHead + length;
+            count = count + length;
+        }
+        return this.fillBatch(ends, count);
+    }
+
+    /**
+     * Set the number of traversers the step processes at a time (see {@link #processNextStarts(Traverser.Admin[], int)}),
+     * where a batch size of 1 processes a single traverser at a time.
+     */
+    public void setBatchSize(final int batchSize) {
+        if (batchSize < 1)
+            throw new IllegalArgumentException("The batch size must be greater than zero: " + batchSize);
+        this.batch = 1 == batchSize ? null : new Traverser.Admin[batchSize];
+        this.batchHead = 0;
+        this.batchTail = 0;
+    }
+
+    public int getBatchSize() {
+        return null == this.batch ? 1 : this.batch.length;
+    }
+
+    /**
+     * Set the pool the step splits traversers from and recycles the traversers it no longer references into, which
+     * is shared by the steps of the traversal, or {@code null} for the step to clone a new traverser for each result.
+     */
+    public void setTraverserPool(final TraverserPool traverserPool) {
+        this.traverserPool = traverserPool;
+    }
+
+    public TraverserPool getTraverserPool() {
+        return this.traverserPool;
+    }
+
     public String toString() {
         return TraversalHelper.makeStepString(this);
     }
@@ -169,12 +259,53 @@ public abstract class AbstractStep<S, E> implements Step<S, E> {
             clone.previousStep = EmptyStep.instance();
             clone.nextStep = EmptyStep.instance();
             clone.nextEnd = null;
+            if (null != this.batch) {
+                clone.batch = new Traverser.Admin[this.batch.length];
+                clone.batchHead = 0;
+                clone.batchTail = 0;
+            }
+            if (null != this.traverserPool)
+                clone.traverserPool = new TraverserPool();
             return clone;
         } catch (CloneNotSupportedException e) {
             throw new IllegalStateException(e.getMessage(), e);
         }
     }
 
+    private boolean hasNextInBatch() {
+        if (this.batchHead < this.batchTail)
+            return true;
+        this.batchHead = 0;
+        this.batchTail = this.fillBatch(this.batch, 0);
+        return 0 != this.batchTail;
+    }
+
+    /**
+     * Process traversers into the array until it is full or the step has no more traversers, preparing each for the
+     * next step and dropping those with no bulk.  The step id and labels are resolved once for the whole batch.
+     */
+    private int fillBatch(final Traverser.Admin<E>[] ends, final int from) {
+        int count = from;
+        final String nextStepId = this.nextStep.getId();
+        final boolean labeled = !this.labels.isEmpty();
+        while (count < ends.length) {
+            final int processed = this.processNextStarts(ends, count);
+            if (processed == count)
+                break;
+            final int start = count;
+            for (int i = start; i < processed; i++) {
+                final Traverser.Admin<E> traverser = ends[i];
+                ends[i] = null;
+                if (0 == traverser.bulk())
+                    continue;
+                if (!this.traverserStepIdSetByChild) traverser.setStepId(nextStepId);
+                if (labeled) this.labels.forEach(label -> traverser.path().addLabel(label));
+                ends[count++] = traverser;
+            }
+        }
+        return count;
+    }
+
     private final Traverser<E> prepareTraversalForNextStep(final Traverser<E> traverser) {
         if (!this.traverserStepIdSetByChild) ((Traverser.Admin<E>) traverser).setStepId(this.nextStep.getId());
         if (!this.labels.isEmpty()) this.labels.forEach(label -> traverser.path().addLabel(label));
@@ -18,28 +18,30 @@
  */
 package org.apache.tinkerpop.gremlin.process.traversal.step.util;
 
+import org.apache.tinkerpop.gremlin.process.traversal.util.BulkTable;
+
 import java.io.Serializable;
 import java.util.AbstractSet;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Iterator;
-import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.NoSuchElementException;
 import java.util.Objects;
 import java.util.Set;
 import java.util.Spliterator;
 import java.util.function.BiConsumer;
-import java.util.stream.Collectors;
 
 /**
  * BulkSet is a weighted set (i.e. a multi-set). Objects are added along with a bulk counter the denotes how many times the object was added to the set.
  * Given that count-based compression (vs. enumeration) can yield large sets, methods exist that are long-based (2^64).
+ * The objects and their bulks are held in a {@link BulkTable}, which keeps the total bulk of the set as objects are added and removed.
  *
  * @author Marko A. Rodriguez (http://markorodriguez.com)
  */
 public class BulkSet<S> extends AbstractSet<S> implements Set<S>, Serializable {
-    private final Map<S, Long> map = new LinkedHashMap<>();
+    private final BulkTable<S> table = new BulkTable<>();
 
     @Override
     public int size() {
@@ -47,21 +49,21 @@ public class BulkSet<S> extends AbstractSet<S> implements Set<S>, Serializable {
     }
 
     public int uniqueSize() {
-        return this.map.size();
+        return this.table.size();
     }
 
     public long longSize() {
-        return this.map.values().stream().collect(Collectors.summingLong(Long::longValue));
+        return this.table.totalBulk();
     }
 
     @Override
     public boolean isEmpty() {
-        return this.map.isEmpty();
+        return this.table.isEmpty();
     }
 
     @Override
     public boolean contains(final Object s) {
-        return this.map.containsKey(s);
+        return -1 != this.table.indexOf(s);
     }
 
     @Override
@@ -72,7 +74,10 @@ public class BulkSet<S> extends AbstractSet<S> implements Set<S>, Serializable {
     @Override
     public boolean addAll(final Collection<? extends S> collection) {
         if (collection instanceof BulkSet) {
-            ((BulkSet<S>) collection).map.forEach(this::add);
+            final BulkTable<S> table = ((BulkSet<S>) collection).table;
+            for (int index = table.first(); -1 != index; index = table.next(index)) {
+                this.add(table.key(index), table.bulk(index));
+            }
         } else {
             collection.iterator().forEachRemaining(this::add);
         }
@@ -80,38 +85,28 @@ public class BulkSet<S> extends AbstractSet<S> implements Set<S>, Serializable {
     }
 
     public void forEach(final BiConsumer<S, Long> consumer) {
-        this.map.forEach(consumer);
+        for (int index = this.table.first(); -1 != index; index = this.table.next(index)) {
+            consumer.accept(this.table.key(index), this.table.bulk(index));
+        }
     }
 
     public boolean add(final S s, final long bulk) {
-        final Long current = this.map.get(s);
-        if (current != null) {
-            this.map.put(s, current + bulk);
-            return false;
-        } else {
-            this.map.put(s, bulk);
-            return true;
-        }
+        return this.table.add(s, bulk);
     }
 
     public long get(final S s) {
-        final Long bulk = this.map.get(s);
-        return null == bulk ? 0 : bulk;
+        final int index = this.table.indexOf(s);
+        return -1 == index ? 0 : this.table.bulk(index);
     }
 
-    /*public void set(final S s, final long bulk) {
-        this.map.remove(s);
-        this.map.put(s, bulk);
-    }*/
-
     @Override
     public boolean remove(final Object s) {
-        return this.map.remove(s) != null;
+        return this.table.remove(s);
     }
 
     @Override
     public void clear() {
-        this.map.clear();
+        this.table.clear();
     }
 
     @Override
@@ -124,46 +119,87 @@ public class BulkSet<S> extends AbstractSet<S> implements Set<S>, Serializable {
         Objects.requireNonNull(collection);
         boolean modified = false;
         for (final Object object : collection) {
-            if (null != this.map.remove(object))
+            if (this.table.remove(object))
                 modified = true;
         }
         return modified;
     }
 
+    /**
+     * The hash code of a {@link Map} of the objects to their bulks.
+     */
     @Override
     public int hashCode() {
-        return this.map.hashCode();
+        int hashCode = 0;
+        for (int index = this.table.first(); -1 != index; index = this.table.next(index)) {
+            hashCode = hashCode + (Objects.hashCode(this.table.key(index)) ^ Long.hashCode(this.table.bulk(index)));
+        }
+        return hashCode;
     }
 
+    /**
+     * A bulk set is equal to another bulk set, or to a {@link Map} of objects to their bulks, with the same objects
+     * and bulks.
+     */
     @Override
     public boolean equals(final Object object) {
-        return this.map.equals(object);
+        if (this == object)
+            return true;
+        if (object instanceof BulkSet) {
+            final BulkSet<?> other = (BulkSet<?>) object;
+            if (other.table.size() != this.table.size() || other.table.totalBulk() != this.table.totalBulk())
+                return false;
+            for (int index = this.table.first(); -1 != index; index = this.table.next(index)) {
+                final int otherIndex = other.table.indexOf(this.table.key(index));
+                if (-1 == otherIndex || other.table.bulk(otherIndex) != this.table.bulk(index))
+                    return false;
+            }
+            return true;
+        } else if (object instanceof Map) {
+            final Map<?, ?> other = (Map<?, ?>) object;
+            if (other.size() != this.table.size())
+                return false;
+            for (int index = this.table.first(); -1 != index; index = this.table.next(index)) {
+                final Object bulk = other.get(this.table.key(index));
+                if (!(bulk instanceof Long) || (Long) bulk != this.table.bulk(index))
+                    return false;
+            }
+            return true;
+        } else
+            return false;
     }
 
     @Override
     public String toString() {
-        return this.map.toString();
+        final StringBuilder builder = new StringBuilder("{");
+        for (int index = this.table.first(); -1 != index; index = this.table.next(index)) {
+            if (builder.length() > 1)
+                builder.append(", ");
+            builder.append(this.table.key(index)).append('=').append(this.table.bulk(index));
+        }
+        return builder.append('}').toString();
     }
 
     private List<S> toList() {
         final List<S> list = new ArrayList<>();
-        this.map.forEach((k, v) -> {
-            for (long i = 0; i < v; i++) {
-                list.add(k);
+        for (int index = this.table.first(); -1 != index; index = this.table.next(index)) {
+            final S s = this.table.key(index);
+            for (long i = 0; i < this.table.bulk(index); i++) {
+                list.add(s);
             }
-        });
+        }
         return list;
     }
 
     @Override
     public Iterator<S> iterator() {
         return new Iterator<S>() {
-            final Iterator<Map.Entry<S, Long>> entryIterator = map.entrySet().iterator();
+            final BulkTable<S>.IndexIterator indices = table.indices();
             S lastObject = null;
             long lastCount = 0l;
 
             public boolean hasNext() {
-                return this.lastCount > 0l || this.entryIterator.hasNext();
+                return this.lastCount > 0l || this.indices.hasNext();
             }
 
             @Override
@@ -172,12 +208,15 @@ public class BulkSet<S> extends AbstractSet<S> implements Set<S>, Serializable {
                     this.lastCount--;
                     return this.lastObject;
                 }
-                final Map.Entry<S, Long> entry = entryIterator.next();
-                if (entry.getValue() == 1) {
-                    return entry.getKey();
+                if (!this.indices.hasNext())
+                    throw new NoSuchElementException();
+                final int index = this.indices.next();
+                final long bulk = table.bulk(index);
+                if (bulk == 1) {
+                    return table.key(index);
                 } else {
-                    this.lastObject = entry.getKey();
-                    this.lastCount = entry.getValue() - 1;
+                    this.lastObject = table.key(index);
+                    this.lastCount = bulk - 1;
                     return this.lastObject;
                 }
             }
@@ -0,0 +1,311 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tinkerpop.gremlin.process.traversal.step.util;
+
+import org.apache.tinkerpop.gremlin.process.traversal.Path;
+
+import java.io.Serializable;
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * An immutable {@link Path} (like {@link ImmutablePath}) that holds its objects and labels in fixed-size chunks which
+ * are shared with the paths it was extended from and the paths that extend it.  Extending a path writes into the
+ * free slot of its last chunk when no other path has claimed that slot yet, and otherwise copies only the last chunk,
+ * so a path is never copied as a whole and {@link #size()} and {@link #get(int)} are constant time.
+ * <p/>
+ * Steps without labels share a single empty label set and the label sets of steps with labels are interned.  The
+ * hash code of a path is computed once and its objects and labels are exposed as views rather than copies.  A path
+ * that is read by label more than once builds an index of the positions of its labels, which is rebuilt if a label is
+ * later added to one of its chunks.
+ *
+ * @author agent
+ */
+public final class ChunkedPath implements Path, Serializable, Cloneable {
+
+    private static final int CHUNK_SHIFT = 4;
+    private static final int CHUNK_SIZE = 1 << CHUNK_SHIFT;
+    private static final int CHUNK_MASK = CHUNK_SIZE - 1;
+    private static final int MAX_INTERNED_LABELS = 1024;
+    private static final Map<Set<String>, Set<String>> INTERNED_LABELS = new ConcurrentHashMap<>();
+    private static final ChunkedPath EMPTY = new ChunkedPath(new Chunk[0], 0);
+
+    private final Chunk[] chunks;
+    private final int size;
+    private int hashCode = 0;
+    private transient volatile LabelIndex labelIndex = null;
+    private transient boolean readByLabel = false;
+
+    private ChunkedPath(final Chunk[] chunks, final int size) {
+        this.chunks = chunks;
+        this.size = size;
+    }
+
+    public static Path make() {
+        return EMPTY;
+    }
+
+    @SuppressWarnings("CloneDoesntCallSuperClone,CloneDoesntDeclareCloneNotSupportedException")
+    @Override
+    public ChunkedPath clone() {
+        return this;
+    }
+
+    @Override
+    public int size() {
+        return this.size;
+    }
+
+    @Override
+    public Path extend(final Object object, final Set<String> labels) {
+        final Set<String> internedLabels = intern(labels);
+        final int offset = this.size & CHUNK_MASK;
+        final Chunk[] chunks;
+        if (0 == offset) {
+            chunks = Arrays.copyOf(this.chunks, this.chunks.length + 1);
+            chunks[chunks.length - 1] = new Chunk(null, 0);
+        } else if (this.chunks[this.chunks.length - 1].claimed.compareAndSet(offset, offset + 1)) {
+            chunks = this.chunks;
+        } else {
+            // another path already extended this one so copy the last chunk rather than writing over its slot
+            chunks = Arrays.copyOf(this.chunks, this.chunks.length);
+            chunks[chunks.length - 1] = new Chunk(this.chunks[this.chunks.length - 1], offset);
+        }
+        final Chunk chunk = chunks[chunks.length - 1];
+        chunk.objects[offset] = object;
+        chunk.labels[offset] = internedLabels;
+        return new ChunkedPath(chunks, this.size + 1);
+    }
+
+    @Override
+    public <A> A get(final int index) {
+        if (index < 0 || index >= this.size)
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + this.size);
+        return (A) this.chunks[index >>> CHUNK_SHIFT].objects[index & CHUNK_MASK];
+    }
+
+    @Override
+    public <A> A get(final String label) {
+        final Map<String, int[]> positions = this.getLabelPositions();
+        if (null == positions)
+            return Path.super.get(label);
+        final int[] labelPositions = positions.get(label);
+        if (null == labelPositions)
+            throw Path.Exceptions.stepWithProvidedLabelDoesNotExist(label);
+        if (1 == labelPositions.length)
+            return this.get(labelPositions[0]);
+        final List<Object> objects = new ArrayList<>(labelPositions.length);
+        for (final int position : labelPositions) {
+            objects.add(this.get(position));
+        }
+        return (A) objects;
+    }
+
+    @Override
+    public boolean hasLabel(final String label) {
+        final Map<String, int[]> positions = this.getLabelPositions();
+        if (null != positions)
+            return positions.containsKey(label);
+        for (int i = 0; i < this.size; i++) {
+            if (this.getLabels(i).contains(label))
+                return true;
+        }
+        return false;
+    }
+
+    @Override
+    public void addLabel(final String label) {
+        if (0 == this.size)
+            throw new UnsupportedOperationException("An empty path can not have labels added to it");
+        final Set<String> labels = this.getLabels(this.size - 1);
+        if (!labels.contains(label)) {
+            final Set<String> newLabels = new LinkedHashSet<>(labels);
+            newLabels.add(label);
+            final Chunk chunk = this.chunks[(this.size - 1) >>> CHUNK_SHIFT];
+            chunk.labels[(this.size - 1) & CHUNK_MASK] = intern(newLabels);
+            chunk.labelChanges++;
+        }
+    }
+
+    @Override
+    public List<Object> objects() {
+        return new AbstractList<Object>() {
+            @Override
+            public Object get(final int index) {
+                return ChunkedPath.this.get(index);
+            }
+
+            @Override
+            public int size() {
+                return ChunkedPath.this.size;
+            }
+        };
+    }
+
+    @Override
+    public List<Set<String>> labels() {
+        return new AbstractList<Set<String>>() {
+            @Override
+            public Set<String> get(final int index) {
+                if (index < 0 || index >= ChunkedPath.this.size)
+                    throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + ChunkedPath.this.size);
+                return ChunkedPath.this.getLabels(index);
+            }
+
+            @Override
+            public int size() {
+                return ChunkedPath.this.size;
+            }
+        };
+    }
+
+    @Override
+    public boolean isSimple() {
+        for (int i = 0; i < this.size - 1; i++) {
+            final Object object = this.get(i);
+            for (int j = i + 1; j < this.size; j++) {
+                if (object.equals(this.get(j)))
+                    return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public int hashCode() {
+        if (0 == this.hashCode) {
+            int hashCode = 1;
+            for (int i = 0; i < this.size; i++) {
+                hashCode = 31 * hashCode + this.get(i).hashCode();
+            }
+            this.hashCode = hashCode;
+        }
+        return this.hashCode;
+    }
+
+    @Override
+    public boolean equals(final Object other) {
+        if (this == other)
+            return true;
+        if (!(other instanceof ChunkedPath))
+            return false;
+        final ChunkedPath otherPath = (ChunkedPath) other;
+        if (this.size != otherPath.size || this.hashCode() != otherPath.hashCode())
+            return false;
+        for (int i = this.size - 1; i >= 0; i--) {
+            if (!this.get(i).equals(otherPath.get(i)) || !this.getLabels(i).equals(otherPath.getLabels(i)))
+                return false;
+        }
+        return true;
+    }
+
+    @Override
+    public String toString() {
+        return this.objects().toString();
+    }
+
+    private Set<String> getLabels(final int index) {
+        return this.chunks[index >>> CHUNK_SHIFT].labels[index & CHUNK_MASK];
+    }
+
+    /**
+     * Get the positions of the labels of the path, or {@code null} if this is the first time the path is read by
+     * label, in which case reading the labels directly is cheaper than indexing them.
+     */
+    private Map<String, int[]> getLabelPositions() {
+        int labelChanges = 0;
+        for (final Chunk chunk : this.chunks) {
+            labelChanges = labelChanges + chunk.labelChanges;
+        }
+        final LabelIndex labelIndex = this.labelIndex;
+        if (null != labelIndex && labelIndex.labelChanges == labelChanges)
+            return labelIndex.positions;
+        if (!this.readByLabel) {
+            this.readByLabel = true;
+            return null;
+        }
+        final Map<String, int[]> positions = new HashMap<>();
+        for (int i = 0; i < this.size; i++) {
+            for (final String label : this.getLabels(i)) {
+                final int[] labelPositions = positions.get(label);
+                if (null == labelPositions)
+                    positions.put(label, new int[]{i});
+                else {
+                    final int[] morePositions = Arrays.copyOf(labelPositions, labelPositions.length + 1);
+                    morePositions[labelPositions.length] = i;
+                    positions.put(label, morePositions);
+                }
+            }
+        }
+        this.labelIndex = new LabelIndex(positions, labelChanges);
+        return positions;
+    }
+
+    private static Set<String> intern(final Set<String> labels) {
+        if (labels.isEmpty())
+            return Collections.emptySet();
+        final Set<String> interned = INTERNED_LABELS.get(labels);
+        if (null != interned)
+            return interned;
+        final Set<String> copy = Collections.unmodifiableSet(new LinkedHashSet<>(labels));
+        if (INTERNED_LABELS.size() < MAX_INTERNED_LABELS) {
+            final Set<String> existing = INTERNED_LABELS.putIfAbsent(copy, copy);
+            return null == existing ? copy : existing;
+        }
+        return copy;
+    }
+
+    private static final class Chunk implements Serializable {
+        private final Object[] objects = new Object[CHUNK_SIZE];
+        private final Set<String>[] labels = new Set[CHUNK_SIZE];
+        private final AtomicInteger claimed;
+        private volatile int labelChanges = 0;
+
+        /**
+         * Create a chunk with the first slots of another chunk, where the next slot is claimed by the path creating
+         * the chunk.
+         */
+        private Chunk(final Chunk chunk, final int length) {
+            if (null != chunk) {
+                System.arraycopy(chunk.objects, 0, this.objects, 0, length);
+                System.arraycopy(chunk.labels, 0, this.labels, 0, length);
+            }
+            this.claimed = new AtomicInteger(length + 1);
+        }
+    }
+
+    private static final class LabelIndex {
+        private final Map<String, int[]> positions;
+        private final int labelChanges;
+
+        private LabelIndex(final Map<String, int[]> positions, final int labelChanges) {
+            this.positions = positions;
+            this.labelChanges = labelChanges;
+        }
+    }
+}
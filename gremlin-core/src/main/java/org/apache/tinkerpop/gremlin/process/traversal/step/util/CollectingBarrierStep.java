@@ -46,7 +46,10 @@ public abstract class CollectingBarrierStep<S> extends AbstractStep<S, S> {
     @Override
     public Traverser<S> processNextStart() {
         if (this.starts.hasNext()) {
-            this.starts.forEachRemaining(this.traverserSet::add);
+            this.starts.forEachRemaining(traverser -> {
+                if (!this.traverserSet.add(traverser) && null != this.traverserPool)
+                    this.traverserPool.recycle(traverser);
+            });
             this.barrierConsumer(this.traverserSet);
         }
         return this.traverserSet.remove();
@@ -21,6 +21,7 @@ package org.apache.tinkerpop.gremlin.process.traversal.step.util;
 import org.apache.tinkerpop.gremlin.process.traversal.Step;
 import org.apache.tinkerpop.gremlin.process.traversal.Traverser;
 import org.apache.tinkerpop.gremlin.util.iterator.MultiIterator;
+import org.apache.tinkerpop.gremlin.process.traversal.traverser.util.TraverserPool;
 import org.apache.tinkerpop.gremlin.process.traversal.traverser.util.TraverserSet;
 
 import java.io.Serializable;
@@ -57,12 +58,40 @@ public final class ExpandableStepIterator<S> implements Iterator<Traverser.Admin
         return this.traverserSet.remove();
     }
 
+    /**
+     * Fill the array from the provided index with the next starts, returning the index after the last one added.  The
+     * starts of a batched previous step are read from it with a single call.
+     */
+    public int next(final Traverser.Admin<S>[] traversers, final int from) {
+        int count = from;
+        while (count < traversers.length && !this.traverserSet.isEmpty()) {
+            traversers[count++] = this.traverserSet.remove();
+        }
+        while (count < traversers.length && this.traverserIterators.hasNext()) {
+            traversers[count++] = this.traverserIterators.next();
+        }
+        if (count == traversers.length)
+            return count;
+        final Step<?, S> previousStep = this.hostStep.getPreviousStep();
+        if (previousStep instanceof AbstractStep)
+            return ((AbstractStep<?, S>) previousStep).nextBatch(traversers, count);
+        while (count < traversers.length && previousStep.hasNext()) {
+            traversers[count++] = (Traverser.Admin<S>) previousStep.next();
+        }
+        return count;
+    }
+
     public void add(final Iterator<Traverser.Admin<S>> iterator) {
         this.traverserIterators.addIterator(iterator);
     }
 
     public void add(final Traverser.Admin<S> traverser) {
-        this.traverserSet.add(traverser);
+        if (!this.traverserSet.add(traverser) && this.hostStep instanceof AbstractStep) {
+            // the traverser was merged into an equal one
+            final TraverserPool traverserPool = ((AbstractStep) this.hostStep).getTraverserPool();
+            if (null != traverserPool)
+                traverserPool.recycle(traverser);
+        }
     }
 
     @Override
@@ -0,0 +1,246 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tinkerpop.gremlin.process.traversal.step.util;
+
+import org.apache.tinkerpop.gremlin.structure.Element;
+
+import java.io.Serializable;
+import java.util.Arrays;
+import java.util.Objects;
+
+/**
+ * A HyperLogLog sketch that estimates the number of distinct objects it is offered in {@code 2^precision} bytes,
+ * with a relative standard error of {@code 1.04/sqrt(2^precision)}.  Sketches of the same precision merge into the
+ * sketch of the objects offered to either of them.
+ * <p/>
+ * Until it has been offered enough objects to fill its registers, the sketch only keeps the registers that were set,
+ * so the sketches of small sets of objects (e.g. those of a single vertex) stay small.
+ *
+ * @author agent
+ */
+public final class HyperLogLog implements ReducingBarrierStep.FinalGet<Long>, Serializable {
+
+    public static final int MIN_PRECISION = 4;
+    public static final int MAX_PRECISION = 18;
+
+    private static final long LONG_SEED = 1l;
+    private static final long INTEGER_SEED = 2l;
+    private static final long SHORT_SEED = 3l;
+    private static final long BYTE_SEED = 4l;
+    private static final long DOUBLE_SEED = 5l;
+    private static final long FLOAT_SEED = 6l;
+
+    private int precision;
+    private byte[] registers = null;
+    // while sparse, the set registers are kept as (index << 8 | value)
+    private int[] sparse = null;
+    private int sparseSize = 0;
+
+    private HyperLogLog() {
+
+    }
+
+    public HyperLogLog(final int precision) {
+        if (precision < MIN_PRECISION || precision > MAX_PRECISION)
+            throw new IllegalArgumentException("The precision must be between " + MIN_PRECISION + " and " + MAX_PRECISION + ": " + precision);
+        this.precision = precision;
+        this.sparse = new int[Math.min(16, this.maxSparseSize())];
+    }
+
+    /**
+     * The smallest precision whose relative standard error is no greater than the given error.
+     */
+    public static int precision(final double relativeError) {
+        if (relativeError <= 0.0d || relativeError >= 1.0d)
+            throw new IllegalArgumentException("The relative error must be between 0 and 1: " + relativeError);
+        final int precision = (int) Math.ceil(Math.log(Math.pow(1.04d / relativeError, 2)) / Math.log(2));
+        return Math.max(MIN_PRECISION, Math.min(MAX_PRECISION, precision));
+    }
+
+    public int getPrecision() {
+        return this.precision;
+    }
+
+    public double getRelativeError() {
+        return 1.04d / Math.sqrt(1 << this.precision);
+    }
+
+    public HyperLogLog offer(final Object object) {
+        final long hash = hash(object);
+        final int index = (int) (hash >>> (64 - this.precision));
+        final int value = Long.numberOfLeadingZeros((hash << this.precision) | (1l << (this.precision - 1))) + 1;
+        this.offer(index, value);
+        return this;
+    }
+
+    private void offer(final int index, final int value) {
+        if (null == this.registers) {
+            if (this.sparseSize < this.sparse.length || this.growSparse()) {
+                this.sparse[this.sparseSize++] = (index << 8) | value;
+                return;
+            }
+            this.toDense();
+        }
+        if (value > this.registers[index])
+            this.registers[index] = (byte) value;
+    }
+
+    public HyperLogLog merge(final HyperLogLog other) {
+        if (this.precision != other.precision)
+            throw new IllegalArgumentException("Sketches of different precisions can not be merged: " + this.precision + " and " + other.precision);
+        if (null == other.registers) {
+            for (int i = 0; i < other.sparseSize; i++) {
+                this.offer(other.sparse[i] >>> 8, other.sparse[i] & 0xff);
+            }
+        } else {
+            if (null == this.registers)
+                this.toDense();
+            for (int i = 0; i < this.registers.length; i++) {
+                if (other.registers[i] > this.registers[i])
+                    this.registers[i] = other.registers[i];
+            }
+        }
+        return this;
+    }
+
+    public long cardinality() {
+        final int m = 1 << this.precision;
+        final byte[] registers = null == this.registers ? this.sparseRegisters() : this.registers;
+        double sum = 0.0d;
+        int zeros = 0;
+        for (final byte register : registers) {
+            sum = sum + 1.0d / (1l << register);
+            if (0 == register)
+                zeros++;
+        }
+        final double estimate = alpha(m) * m * m / sum;
+        // small cardinalities are better estimated by the number of registers that were never set
+        return Math.round(estimate <= 2.5d * m && zeros > 0 ? m * Math.log((double) m / zeros) : estimate);
+    }
+
+    @Override
+    public Long getFinal() {
+        return this.cardinality();
+    }
+
+    @Override
+    public String toString() {
+        return Long.toString(this.cardinality());
+    }
+
+    ///////////
+
+    private int maxSparseSize() {
+        // the sparse registers take no more memory than the dense registers
+        return (1 << this.precision) / 4;
+    }
+
+    private boolean growSparse() {
+        this.compactSparse();
+        if (this.sparseSize <= this.sparse.length / 2)
+            return true;
+        if (this.sparse.length * 2 > this.maxSparseSize())
+            return false;
+        this.sparse = Arrays.copyOf(this.sparse, this.sparse.length * 2);
+        return true;
+    }
+
+    // sorts the sparse registers by index and keeps the largest value of each
+    private void compactSparse() {
+        Arrays.sort(this.sparse, 0, this.sparseSize);
+        int size = 0;
+        for (int i = 0; i < this.sparseSize; i++) {
+            if (size > 0 && (this.sparse[size - 1] >>> 8) == (this.sparse[i] >>> 8))
+                this.sparse[size - 1] = this.sparse[i];
+            else
+                this.sparse[size++] = this.sparse[i];
+        }
+        this.sparseSize = size;
+    }
+
+    private byte[] sparseRegisters() {
+        final byte[] registers = new byte[1 << this.precision];
+        for (int i = 0; i < this.sparseSize; i++) {
+            final int index = this.sparse[i] >>> 8;
+            registers[index] = (byte) Math.max(registers[index], this.sparse[i] & 0xff);
+        }
+        return registers;
+    }
+
+    private void toDense() {
+        this.registers = this.sparseRegisters();
+        this.sparse = null;
+        this.sparseSize = 0;
+    }
+
+    private static double alpha(final int m) {
+        switch (m) {
+            case 16:
+                return 0.673d;
+            case 32:
+                return 0.697d;
+            case 64:
+                return 0.709d;
+            default:
+                return 0.7213d / (1.0d + 1.079d / m);
+        }
+    }
+
+    /**
+     * A 64-bit hash of the object.  {@link Object#hashCode()} only has 32 bits, which collide too often over hundreds
+     * of millions of objects, so elements are hashed by their ids and strings and numbers by their own values.  Numbers
+     * of different types are not equal even when their values are, so the type of a number is mixed into its hash,
+     * which keeps {@code 1} and {@code 1l} from being counted as one.
+     */
+    public static long hash(final Object object) {
+        if (object instanceof Element)
+            return hash(((Element) object).id());
+        else if (object instanceof CharSequence) {
+            final CharSequence chars = (CharSequence) object;
+            long hash = 0xcbf29ce484222325l;
+            for (int i = 0; i < chars.length(); i++) {
+                hash = (hash ^ chars.charAt(i)) * 0x100000001b3l;
+            }
+            return mix(hash);
+        } else if (object instanceof Long)
+            return mix((Long) object, LONG_SEED);
+        else if (object instanceof Integer)
+            return mix((Integer) object, INTEGER_SEED);
+        else if (object instanceof Short)
+            return mix((Short) object, SHORT_SEED);
+        else if (object instanceof Byte)
+            return mix((Byte) object, BYTE_SEED);
+        else if (object instanceof Double)
+            return mix(Double.doubleToLongBits((Double) object), DOUBLE_SEED);
+        else if (object instanceof Float)
+            return mix(Float.floatToIntBits((Float) object), FLOAT_SEED);
+        else
+            return mix(Objects.hashCode(object));
+    }
+
+    private static long mix(final long value, final long seed) {
+        return mix(mix(value) ^ seed);
+    }
+
+    private static long mix(long hash) {
+        hash = (hash ^ (hash >>> 33)) * 0xff51afd7ed558ccdl;
+        hash = (hash ^ (hash >>> 33)) * 0xc4ceb9fe1a85ec53l;
+        return hash ^ (hash >>> 33);
+    }
+}
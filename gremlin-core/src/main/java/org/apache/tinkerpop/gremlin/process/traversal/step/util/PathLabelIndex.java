@@ -0,0 +1,99 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tinkerpop.gremlin.process.traversal.step.util;
+
+import org.apache.tinkerpop.gremlin.process.traversal.Path;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * The positions of the labels of a path as they are known from the steps of a traversal, for a step which always
+ * receives paths of the same size.  A path of that size is read by position, and any other path (for instance, one
+ * that did not start at the start of the traversal) is read by label as usual.
+ *
+ * @author agent
+ */
+public final class PathLabelIndex implements Serializable {
+
+    private final int pathSize;
+    private final Map<String, int[]> positions;
+
+    /**
+     * @param pathSize  the size of the paths the step receives
+     * @param positions the positions of each label in those paths, in the order the labels first appear
+     */
+    public PathLabelIndex(final int pathSize, final Map<String, int[]> positions) {
+        this.pathSize = pathSize;
+        this.positions = Collections.unmodifiableMap(new LinkedHashMap<>(positions));
+    }
+
+    public int getPathSize() {
+        return this.pathSize;
+    }
+
+    /**
+     * Get the labels of the path in the order they first appear, as {@link Path#labels()} would have them.
+     */
+    public Set<String> getLabels() {
+        return this.positions.keySet();
+    }
+
+    public int[] getPositions(final String label) {
+        return this.positions.get(label);
+    }
+
+    public boolean isIndexed(final Path path) {
+        return this.pathSize == path.size();
+    }
+
+    /**
+     * Get the object (or the {@link List} of objects) with the label, as {@link Path#get(String)} would.
+     */
+    public <A> A get(final Path path, final String label) {
+        final int[] positions = this.isIndexed(path) ? this.positions.get(label) : null;
+        if (null == positions)
+            return path.get(label);
+        if (1 == positions.length)
+            return path.get(positions[0]);
+        final List<Object> objects = new ArrayList<>(positions.length);
+        for (final int position : positions) {
+            objects.add(path.get(position));
+        }
+        return (A) objects;
+    }
+
+    @Override
+    public String toString() {
+        final Map<String, List<Integer>> positions = new LinkedHashMap<>();
+        this.positions.forEach((label, labelPositions) -> {
+            final List<Integer> list = new ArrayList<>(labelPositions.length);
+            for (final int position : labelPositions) {
+                list.add(position);
+            }
+            positions.put(label, list);
+        });
+        return this.pathSize + ":" + positions;
+    }
+}
@@ -83,8 +83,12 @@ public abstract class ReducingBarrierStep<S, E> extends AbstractStep<S, E> imple
             if (this.done)
                 throw FastNoSuchElementException.instance();
             E seed = this.seedSupplier.get();
-            while (this.starts.hasNext())
-                seed = this.reducingBiFunction.apply(seed, this.starts.next());
+            while (this.starts.hasNext()) {
+                final Traverser.Admin<S> traverser = this.starts.next();
+                seed = this.reducingBiFunction.apply(seed, traverser);
+                if (null != this.traverserPool)
+                    this.traverserPool.recycle(traverser);
+            }
             this.done = true;
             return TraversalHelper.getRootTraversal(this.getTraversal()).getTraverserGenerator().generate(FinalGet.tryFinalGet(seed), (Step) this, 1l);
         }
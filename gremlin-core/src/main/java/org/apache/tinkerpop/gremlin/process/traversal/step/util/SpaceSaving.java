@@ -0,0 +1,175 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tinkerpop.gremlin.process.traversal.step.util;
+
+import java.io.Serializable;
+import java.util.AbstractMap;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+
+/**
+ * A Space-Saving sketch that counts the most frequent of the objects it is offered with at most {@code capacity}
+ * counters.  When a new object is offered to a full sketch, the object with the smallest count is dropped and the new
+ * object takes over its count.  Counts are therefore never under the true counts, and over them by no more than the
+ * total count divided by the capacity, so every object whose count is above that is in the sketch.  Sketches of the
+ * same capacity merge into a sketch with the same bounds over the objects offered to either of them.
+ *
+ * @author agent
+ */
+public final class SpaceSaving<E> implements ReducingBarrierStep.FinalGet<Map<E, Long>>, Serializable {
+
+    private static final int COUNT = 0;
+    private static final int ERROR = 1;
+
+    private int capacity;
+    private Map<E, long[]> counters = new HashMap<>();
+    // a counter is re-ranked by its count once it is found stale at the head of the queue
+    private transient PriorityQueue<Ranked<E>> ranks = null;
+
+    private SpaceSaving() {
+
+    }
+
+    public SpaceSaving(final int capacity) {
+        if (capacity < 1)
+            throw new IllegalArgumentException("The capacity must be greater than zero: " + capacity);
+        this.capacity = capacity;
+    }
+
+    public int getCapacity() {
+        return this.capacity;
+    }
+
+    public SpaceSaving<E> offer(final E object, final long count) {
+        final long[] counter = this.counters.get(object);
+        if (null != counter)
+            counter[COUNT] = counter[COUNT] + count;
+        else if (this.counters.size() < this.capacity)
+            this.put(object, count, 0l);
+        else {
+            final long minimum = this.removeMinimum();
+            this.put(object, minimum + count, minimum);
+        }
+        return this;
+    }
+
+    public SpaceSaving<E> merge(final SpaceSaving<E> other) {
+        if (this.capacity != other.capacity)
+            throw new IllegalArgumentException("Sketches of different capacities can not be merged: " + this.capacity + " and " + other.capacity);
+        // an object missing from a full sketch may have had up to that sketch's minimum count
+        final long thisMinimum = this.minimum();
+        final long otherMinimum = other.minimum();
+        final List<Map.Entry<E, long[]>> merged = new ArrayList<>(this.counters.size() + other.counters.size());
+        this.counters.forEach((object, counter) -> {
+            final long[] otherCounter = other.counters.get(object);
+            merged.add(new AbstractMap.SimpleEntry<>(object, null == otherCounter ?
+                    new long[]{counter[COUNT] + otherMinimum, counter[ERROR] + otherMinimum} :
+                    new long[]{counter[COUNT] + otherCounter[COUNT], counter[ERROR] + otherCounter[ERROR]}));
+        });
+        other.counters.forEach((object, otherCounter) -> {
+            if (!this.counters.containsKey(object))
+                merged.add(new AbstractMap.SimpleEntry<>(object, new long[]{otherCounter[COUNT] + thisMinimum, otherCounter[ERROR] + thisMinimum}));
+        });
+        merged.sort((a, b) -> Long.compare(b.getValue()[COUNT], a.getValue()[COUNT]));
+        this.counters = new HashMap<>();
+        this.ranks = null;
+        for (final Map.Entry<E, long[]> entry : merged.subList(0, Math.min(this.capacity, merged.size()))) {
+            this.counters.put(entry.getKey(), entry.getValue());
+        }
+        return this;
+    }
+
+    /**
+     * The most the count of an object in the sketch may be over its true count.
+     */
+    public long getError(final E object) {
+        final long[] counter = this.counters.get(object);
+        return null == counter ? this.minimum() : counter[ERROR];
+    }
+
+    /**
+     * The counted objects, most frequent first.
+     */
+    @Override
+    public Map<E, Long> getFinal() {
+        final List<Map.Entry<E, long[]>> entries = new ArrayList<>(this.counters.entrySet());
+        entries.sort((a, b) -> Long.compare(b.getValue()[COUNT], a.getValue()[COUNT]));
+        final Map<E, Long> counts = new LinkedHashMap<>();
+        entries.forEach(entry -> counts.put(entry.getKey(), entry.getValue()[COUNT]));
+        return counts;
+    }
+
+    @Override
+    public String toString() {
+        return this.getFinal().toString();
+    }
+
+    ///////////
+
+    private void put(final E object, final long count, final long error) {
+        // the ranks are built from the counters the first time, so they are built before the object is counted
+        final PriorityQueue<Ranked<E>> ranks = this.ranks();
+        this.counters.put(object, new long[]{count, error});
+        ranks.add(new Ranked<>(object, count));
+    }
+
+    private long minimum() {
+        return this.counters.size() < this.capacity ? 0l : this.counters.values().stream().mapToLong(counter -> counter[COUNT]).min().orElse(0l);
+    }
+
+    private long removeMinimum() {
+        final PriorityQueue<Ranked<E>> ranks = this.ranks();
+        while (true) {
+            final Ranked<E> ranked = ranks.poll();
+            final long[] counter = this.counters.get(ranked.object);
+            // the rank of an object that was dropped and counted again is stale
+            if (null == counter)
+                continue;
+            final long count = counter[COUNT];
+            if (count == ranked.count) {
+                this.counters.remove(ranked.object);
+                return count;
+            }
+            ranks.add(new Ranked<>(ranked.object, count));
+        }
+    }
+
+    private PriorityQueue<Ranked<E>> ranks() {
+        if (null == this.ranks) {
+            this.ranks = new PriorityQueue<>(Math.max(1, this.counters.size()), (a, b) -> Long.compare(a.count, b.count));
+            this.counters.forEach((object, counter) -> this.ranks.add(new Ranked<>(object, counter[COUNT])));
+        }
+        return this.ranks;
+    }
+
+    private static final class Ranked<E> {
+
+        private final E object;
+        private final long count;
+
+        private Ranked(final E object, final long count) {
+            this.object = object;
+            this.count = count;
+        }
+    }
+}
@@ -0,0 +1,242 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tinkerpop.gremlin.process.traversal.step.util;
+
+import org.apache.tinkerpop.gremlin.process.traversal.FastNoSuchElementException;
+import org.apache.tinkerpop.gremlin.structure.io.gryo.GryoPool;
+import org.apache.tinkerpop.shaded.kryo.KryoException;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.lang.ref.PhantomReference;
+import java.lang.ref.ReferenceQueue;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * A temporary file of objects that a {@link org.apache.tinkerpop.gremlin.process.traversal.step.Spilling} step writes
+ * once it holds more objects than its spill threshold.  Each object is serialized with Gryo and written with its
+ * length, so the objects are read back one at a time in the order they were written.  Elements are not attached to a
+ * graph when written, so a step should detach them first and attach them again when they are read.  Objects that Gryo
+ * can not serialize (i.e. of classes that are not registered with it) are not written, so that the step can keep them
+ * in memory instead.
+ * <p/>
+ * The file is deleted once it is read to the end or closed.  The file of a spill file that is abandoned without
+ * either (e.g. along with a traversal that is not iterated to the end) is deleted once the spill file is garbage
+ * collected, when the next spill file is created, or otherwise when the JVM exits.
+ *
+ * @author agent
+ */
+public final class SpillFile<T> implements AutoCloseable {
+
+    private static final ReferenceQueue<SpillFile<?>> ABANDONED = new ReferenceQueue<>();
+    private static final Set<Resources> OPEN = ConcurrentHashMap.newKeySet();
+
+    static {
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> OPEN.forEach(Resources::close), "gremlin-spill-file-cleanup"));
+    }
+
+    private final Resources resources;
+    private long count = 0l;
+    private long bytes = 0l;
+
+    public SpillFile() {
+        closeAbandoned();
+        try {
+            this.resources = new Resources(this, File.createTempFile("gremlin-spill-", ".gryo"));
+        } catch (final IOException e) {
+            throw new IllegalStateException(e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Write the object, returning {@code false} without writing anything if Gryo can not serialize it.
+     */
+    public boolean write(final T object) {
+        return this.writeAll(Collections.singletonList(object));
+    }
+
+    /**
+     * Write the objects, returning {@code false} without writing any of them if Gryo can not serialize one of them.
+     */
+    public boolean writeAll(final Collection<? extends T> objects) {
+        if (null == this.resources.output)
+            throw new IllegalStateException("The spill file has already been read: " + this.resources.file);
+        final ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        final DataOutputStream dataOutputStream = new DataOutputStream(outputStream);
+        final ByteArrayOutputStream objectStream = new ByteArrayOutputStream();
+        try {
+            for (final T object : objects) {
+                objectStream.reset();
+                Pool.GRYO_POOL.doWithWriter(gryoWriter -> gryoWriter.writeObject(objectStream, object));
+                dataOutputStream.writeInt(objectStream.size());
+                objectStream.writeTo(dataOutputStream);
+            }
+        } catch (final IllegalArgumentException | KryoException e) {
+            // the class of the object (or of one it references) is not registered with gryo
+            return false;
+        } catch (final IOException e) {
+            throw new IllegalStateException(e.getMessage(), e);
+        }
+        try {
+            outputStream.writeTo(this.resources.output);
+        } catch (final IOException e) {
+            this.close();
+            throw new IllegalStateException(e.getMessage(), e);
+        }
+        this.count = this.count + objects.size();
+        this.bytes = this.bytes + outputStream.size();
+        return true;
+    }
+
+    public long getCount() {
+        return this.count;
+    }
+
+    public long getBytes() {
+        return this.bytes;
+    }
+
+    /**
+     * Stop writing and read the objects back in the order they were written.
+     */
+    public Iterator<T> read() {
+        try {
+            this.resources.output.close();
+            this.resources.output = null;
+            this.resources.input = new DataInputStream(new BufferedInputStream(new FileInputStream(this.resources.file)));
+        } catch (final IOException e) {
+            this.close();
+            throw new IllegalStateException(e.getMessage(), e);
+        }
+        return new Iterator<T>() {
+            private long remaining = SpillFile.this.count;
+
+            @Override
+            public boolean hasNext() {
+                if (this.remaining > 0)
+                    return true;
+                SpillFile.this.close();
+                return false;
+            }
+
+            @Override
+            public T next() {
+                if (!this.hasNext())
+                    throw FastNoSuchElementException.instance();
+                this.remaining--;
+                return SpillFile.this.readObject();
+            }
+        };
+    }
+
+    private T readObject() {
+        final byte[] object;
+        try {
+            object = new byte[this.resources.input.readInt()];
+            this.resources.input.readFully(object);
+        } catch (final IOException e) {
+            this.close();
+            throw new IllegalStateException(e.getMessage(), e);
+        }
+        return Pool.GRYO_POOL.doWithReader(gryoReader -> {
+            try {
+                return (T) gryoReader.readObject(new ByteArrayInputStream(object), Object.class);
+            } catch (final IOException e) {
+                throw new IllegalStateException(e.getMessage(), e);
+            }
+        });
+    }
+
+    /**
+     * Close and delete the file whether or not it was read.
+     */
+    @Override
+    public void close() {
+        this.resources.close();
+    }
+
+    @Override
+    public String toString() {
+        return this.resources.file.toString();
+    }
+
+    private static void closeAbandoned() {
+        Resources resources;
+        while (null != (resources = (Resources) ABANDONED.poll())) {
+            resources.close();
+        }
+    }
+
+    /**
+     * The file and streams of a spill file, which are closed once the spill file is closed or garbage collected, so
+     * they must not reference the spill file itself.
+     */
+    private static final class Resources extends PhantomReference<SpillFile<?>> {
+
+        private final File file;
+        private DataOutputStream output;
+        private DataInputStream input = null;
+
+        private Resources(final SpillFile<?> spillFile, final File file) throws IOException {
+            super(spillFile, ABANDONED);
+            this.file = file;
+            OPEN.add(this);
+            try {
+                this.output = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(file)));
+            } catch (final IOException e) {
+                this.close();
+                throw e;
+            }
+        }
+
+        private synchronized void close() {
+            try {
+                if (null != this.output)
+                    this.output.close();
+                if (null != this.input)
+                    this.input.close();
+            } catch (final IOException e) {
+                // the file is deleted regardless
+            } finally {
+                this.output = null;
+                this.input = null;
+                this.file.delete();
+                this.clear();
+                OPEN.remove(this);
+            }
+        }
+    }
+
+    // the pool is only created once a traversal spills
+    private static final class Pool {
+        private static final GryoPool GRYO_POOL = new GryoPool(Runtime.getRuntime().availableProcessors());
+    }
+}
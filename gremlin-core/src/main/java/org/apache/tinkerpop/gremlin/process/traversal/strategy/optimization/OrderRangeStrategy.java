@@ -0,0 +1,106 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tinkerpop.gremlin.process.traversal.strategy.optimization;
+
+import org.apache.tinkerpop.gremlin.process.traversal.Step;
+import org.apache.tinkerpop.gremlin.process.traversal.Traversal;
+import org.apache.tinkerpop.gremlin.process.traversal.TraversalStrategy;
+import org.apache.tinkerpop.gremlin.process.traversal.step.filter.RangeGlobalStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.map.OrderGlobalStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.map.OrderRangeGlobalStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.util.EmptyStep;
+import org.apache.tinkerpop.gremlin.process.traversal.strategy.AbstractTraversalStrategy;
+import org.apache.tinkerpop.gremlin.process.traversal.strategy.verification.ComparatorHolderRemovalStrategy;
+import org.apache.tinkerpop.gremlin.process.traversal.strategy.verification.EngineDependentStrategy;
+import org.apache.tinkerpop.gremlin.process.traversal.util.TraversalHelper;
+
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Replaces an {@link OrderGlobalStep} that is followed by a bounded {@link RangeGlobalStep} with an
+ * {@link OrderRangeGlobalStep}, which keeps only the traversers within the range rather than sorting them all.
+ * <p/>
+ * The step is given its traversers all at once, so only the steps of a root traversal or of a local child traversal
+ * (which is reset for each of its starts) are replaced.  On a {@link org.apache.tinkerpop.gremlin.process.computer.GraphComputer}
+ * the order and range must end the root traversal, where the step takes the place of the traversers' map reduce.
+ *
+ * @author agent
+ */
+public final class OrderRangeStrategy extends AbstractTraversalStrategy implements TraversalStrategy {
+
+    private static final OrderRangeStrategy INSTANCE = new OrderRangeStrategy();
+    private static final Set<Class<? extends TraversalStrategy>> PRIORS = new HashSet<>();
+    private static final Set<Class<? extends TraversalStrategy>> POSTS = new HashSet<>();
+
+    static {
+        // these move or remove the steps between an order and a range
+        PRIORS.add(DedupOptimizerStrategy.class);
+        PRIORS.add(IdentityRemovalStrategy.class);
+        // the new step must be told its engine and must not be taken for a mid-traversal order step
+        POSTS.add(ComparatorHolderRemovalStrategy.class);
+        POSTS.add(EngineDependentStrategy.class);
+    }
+
+    private OrderRangeStrategy() {
+    }
+
+    @Override
+    public void apply(final Traversal.Admin<?, ?> traversal) {
+        if (!TraversalHelper.hasStepOfClass(OrderGlobalStep.class, traversal) || !isRootOrLocalChild(traversal))
+            return;
+
+        for (final OrderGlobalStep<?> orderStep : TraversalHelper.getStepsOfClass(OrderGlobalStep.class, traversal)) {
+            final Step<?, ?> nextStep = orderStep.getNextStep();
+            if (!(nextStep instanceof RangeGlobalStep) || !orderStep.getLabels().isEmpty())
+                continue;
+            final RangeGlobalStep<?> rangeStep = (RangeGlobalStep<?>) nextStep;
+            if (-1 == rangeStep.getHighRange() || (traversal.getEngine().isComputer() && rangeStep != traversal.getEndStep()))
+                continue;
+
+            final OrderRangeGlobalStep orderRangeStep = new OrderRangeGlobalStep<>(traversal, Math.max(0l, rangeStep.getLowRange()), rangeStep.getHighRange());
+            for (final Comparator comparator : orderStep.getComparators()) {
+                orderRangeStep.addComparator(comparator);
+            }
+            rangeStep.getLabels().forEach(orderRangeStep::addLabel);
+            traversal.removeStep(rangeStep);
+            TraversalHelper.replaceStep((Step) orderStep, orderRangeStep, traversal);
+        }
+    }
+
+    private static boolean isRootOrLocalChild(final Traversal.Admin<?, ?> traversal) {
+        return traversal.getParent() instanceof EmptyStep ||
+                traversal.getParent().getLocalChildren().stream().anyMatch(child -> child == traversal);
+    }
+
+    @Override
+    public Set<Class<? extends TraversalStrategy>> applyPrior() {
+        return PRIORS;
+    }
+
+    @Override
+    public Set<Class<? extends TraversalStrategy>> applyPost() {
+        return POSTS;
+    }
+
+    public static OrderRangeStrategy instance() {
+        return INSTANCE;
+    }
+}
@@ -0,0 +1,141 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tinkerpop.gremlin.process.traversal.strategy.optimization;
+
+import org.apache.tinkerpop.gremlin.process.traversal.Step;
+import org.apache.tinkerpop.gremlin.process.traversal.Traversal;
+import org.apache.tinkerpop.gremlin.process.traversal.TraversalStrategy;
+import org.apache.tinkerpop.gremlin.process.traversal.step.PathLabelIndexHolder;
+import org.apache.tinkerpop.gremlin.process.traversal.step.filter.ConjunctionStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.filter.FilterStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.filter.HasTraversalStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.map.FlatMapStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.map.MapStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.map.OrderRangeGlobalStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.sideEffect.GraphStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.sideEffect.IdentityStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.sideEffect.ProfileStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.sideEffect.SideEffectStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.sideEffect.StartStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.util.CollectingBarrierStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.util.EmptyStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.util.MarkerIdentityStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.util.PathIdentityStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.util.PathLabelIndex;
+import org.apache.tinkerpop.gremlin.process.traversal.strategy.AbstractTraversalStrategy;
+import org.apache.tinkerpop.gremlin.process.traversal.strategy.verification.ComparatorHolderRemovalStrategy;
+import org.apache.tinkerpop.gremlin.process.traversal.strategy.verification.EngineDependentStrategy;
+import org.apache.tinkerpop.gremlin.process.traversal.strategy.verification.LabeledEndStepStrategy;
+import org.apache.tinkerpop.gremlin.process.traversal.util.TraversalHelper;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Gives each {@link PathLabelIndexHolder} of a traversal a {@link PathLabelIndex} when the size of the path and the
+ * positions of its labels are the same for every traverser that reaches the step.  That is the case for the steps of
+ * a root traversal that starts its own traversers, up to the first step which does not either extend the path by one
+ * (a {@link MapStep} or {@link FlatMapStep}) or pass the traverser through as it is (such as a {@link FilterStep} or
+ * {@link SideEffectStep}).  Branches, repeats and reducing barriers end the static part of the traversal and the
+ * steps after them read the path by label.
+ *
+ * @author agent
+ */
+public final class PathLabelIndexStrategy extends AbstractTraversalStrategy implements TraversalStrategy {
+
+    private static final PathLabelIndexStrategy INSTANCE = new PathLabelIndexStrategy();
+    private static final Set<Class<? extends TraversalStrategy>> PRIORS = new HashSet<>();
+
+    static {
+        // the index is built from the final steps of the traversal
+        PRIORS.add(ComparatorHolderRemovalStrategy.class);
+        PRIORS.add(ConjunctionStrategy.class);
+        PRIORS.add(DedupOptimizerStrategy.class);
+        PRIORS.add(EngineDependentStrategy.class);
+        PRIORS.add(IdentityRemovalStrategy.class);
+        PRIORS.add(LabeledEndStepStrategy.class);
+        PRIORS.add(MatchWhereStrategy.class);
+        PRIORS.add(OrderRangeStrategy.class);
+        PRIORS.add(ProfileStrategy.class);
+        PRIORS.add(RangeByIsCountStrategy.class);
+    }
+
+    private PathLabelIndexStrategy() {
+    }
+
+    @Override
+    public void apply(final Traversal.Admin<?, ?> traversal) {
+        // child traversals continue the paths of their parent so only the root traversal has a known layout
+        if (!(traversal.getParent() instanceof EmptyStep) || !TraversalHelper.hasStepOfAssignableClass(PathLabelIndexHolder.class, traversal))
+            return;
+
+        // an anonymous start step is given traversers (and their paths) from elsewhere
+        final Step<?, ?> startStep = traversal.getStartStep();
+        if (!(startStep instanceof GraphStep) && !(startStep instanceof StartStep && null != ((StartStep) startStep).getStart()))
+            return;
+
+        final Map<String, int[]> positions = new LinkedHashMap<>();
+        int position = 0;
+        for (final Step<?, ?> step : traversal.getSteps()) {
+            if (step != startStep) {
+                if (step instanceof PathLabelIndexHolder)
+                    ((PathLabelIndexHolder) step).setPathLabelIndex(new PathLabelIndex(position + 1, positions));
+                if (step instanceof MapStep || step instanceof FlatMapStep)
+                    position++;
+                else if (!passesThrough(step))
+                    return;
+            }
+            for (final String label : step.getLabels()) {
+                final int[] labelPositions = positions.get(label);
+                if (null == labelPositions)
+                    positions.put(label, new int[]{position});
+                else if (labelPositions[labelPositions.length - 1] != position) {
+                    final int[] morePositions = Arrays.copyOf(labelPositions, labelPositions.length + 1);
+                    morePositions[labelPositions.length] = position;
+                    positions.put(label, morePositions);
+                }
+            }
+        }
+    }
+
+    private static boolean passesThrough(final Step<?, ?> step) {
+        return step instanceof FilterStep ||
+                step instanceof SideEffectStep ||
+                step instanceof CollectingBarrierStep ||
+                step instanceof OrderRangeGlobalStep ||
+                step instanceof ConjunctionStep ||
+                step instanceof HasTraversalStep ||
+                step instanceof IdentityStep ||
+                step instanceof MarkerIdentityStep ||
+                step instanceof PathIdentityStep ||
+                step instanceof ProfileStep;
+    }
+
+    @Override
+    public Set<Class<? extends TraversalStrategy>> applyPrior() {
+        return PRIORS;
+    }
+
+    public static PathLabelIndexStrategy instance() {
+        return INSTANCE;
+    }
+}
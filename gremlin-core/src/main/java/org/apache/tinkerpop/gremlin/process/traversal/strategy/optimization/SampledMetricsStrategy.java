@@ -0,0 +1,160 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tinkerpop.gremlin.process.traversal.strategy.optimization;
+
+import org.apache.tinkerpop.gremlin.process.traversal.Step;
+import org.apache.tinkerpop.gremlin.process.traversal.Traversal;
+import org.apache.tinkerpop.gremlin.process.traversal.TraversalStrategy;
+import org.apache.tinkerpop.gremlin.process.traversal.step.TraversalParent;
+import org.apache.tinkerpop.gremlin.process.traversal.step.sideEffect.ProfileStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.sideEffect.SampledMetricsStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.util.EmptyStep;
+import org.apache.tinkerpop.gremlin.process.traversal.strategy.AbstractTraversalStrategy;
+import org.apache.tinkerpop.gremlin.process.traversal.strategy.verification.ComparatorHolderRemovalStrategy;
+import org.apache.tinkerpop.gremlin.process.traversal.strategy.verification.EngineDependentStrategy;
+import org.apache.tinkerpop.gremlin.process.traversal.strategy.verification.LabeledEndStepStrategy;
+import org.apache.tinkerpop.gremlin.process.traversal.util.TraversalHelper;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Adds a {@link SampledMetricsStep} after each step of a traversal, so that the traversers of each step are counted
+ * and a sample of them timed whenever the traversal is iterated.  Unlike the {@link ProfileStrategy}, which only
+ * applies to a traversal that asks for its {@code profile()}, this strategy is meant to be added to the strategies of
+ * every traversal, with the metrics read from the steps once the traversal is iterated:
+ * <p/>
+ * <pre>
+ * traversal.setStrategies(traversal.getStrategies().clone().addStrategies(SampledMetricsStrategy.build().sampleRate(1000).create()));
+ * traversal.iterate();
+ * SampledMetricsStrategy.getMetricsSteps(traversal).forEach(step -> ...);
+ * </pre>
+ * Only the steps of the root traversal are measured, as the time of a step includes the time of its child traversals.
+ * Traversals that are profiled or run on a {@link org.apache.tinkerpop.gremlin.process.computer.GraphComputer} are
+ * left as they are.
+ *
+ * @author agent
+ */
+public final class SampledMetricsStrategy extends AbstractTraversalStrategy {
+
+    public static final int DEFAULT_SAMPLE_RATE = 1000;
+
+    private static final Set<Class<? extends TraversalStrategy>> PRIORS = new HashSet<>();
+
+    static {
+        // the steps are measured as they will be executed
+        PRIORS.add(ComparatorHolderRemovalStrategy.class);
+        PRIORS.add(ConjunctionStrategy.class);
+        PRIORS.add(DedupOptimizerStrategy.class);
+        PRIORS.add(EngineDependentStrategy.class);
+        PRIORS.add(IdentityRemovalStrategy.class);
+        PRIORS.add(LabeledEndStepStrategy.class);
+        PRIORS.add(MatchWhereStrategy.class);
+        PRIORS.add(OrderRangeStrategy.class);
+        PRIORS.add(PathLabelIndexStrategy.class);
+        PRIORS.add(RangeByIsCountStrategy.class);
+        PRIORS.add(ProfileStrategy.class);
+    }
+
+    private final int sampleRate;
+
+    private SampledMetricsStrategy(final int sampleRate) {
+        this.sampleRate = sampleRate;
+    }
+
+    @Override
+    public void apply(final Traversal.Admin<?, ?> traversal) {
+        if (!(traversal.getParent() instanceof EmptyStep) || traversal.getEngine().isComputer() ||
+                TraversalHelper.hasStepOfClass(ProfileStep.class, traversal) ||
+                TraversalHelper.hasStepOfClass(SampledMetricsStep.class, traversal))
+            return;
+
+        for (final Step<?, ?> step : new ArrayList<>(traversal.getSteps())) {
+            TraversalHelper.insertAfterStep(new SampledMetricsStep<>(traversal, this.sampleRate), (Step) step, traversal);
+        }
+    }
+
+    public int getSampleRate() {
+        return this.sampleRate;
+    }
+
+    /**
+     * The metrics steps of the traversal, one for each of its other steps and in the same order.
+     */
+    public static List<SampledMetricsStep> getMetricsSteps(final Traversal.Admin<?, ?> traversal) {
+        return TraversalHelper.getStepsOfClass(SampledMetricsStep.class, traversal);
+    }
+
+    /**
+     * The shape of the traversal, which is the class names of its steps without the metrics steps, each followed by
+     * the shapes of its child traversals.  The values that parameterize the steps are left out so that traversals
+     * that only differ by them share a shape.
+     */
+    public static String getShape(final Traversal.Admin<?, ?> traversal) {
+        final List<String> steps = new ArrayList<>();
+        for (final Step<?, ?> step : traversal.getSteps()) {
+            if (step instanceof SampledMetricsStep)
+                continue;
+            if (step instanceof TraversalParent) {
+                final List<String> children = new ArrayList<>();
+                for (final Traversal.Admin<?, ?> local : ((TraversalParent) step).getLocalChildren()) {
+                    children.add(getShape(local));
+                }
+                for (final Traversal.Admin<?, ?> global : ((TraversalParent) step).getGlobalChildren()) {
+                    children.add(getShape(global));
+                }
+                steps.add(step.getClass().getSimpleName() + (children.isEmpty() ? "" : "(" + String.join(",", children) + ")"));
+            } else
+                steps.add(step.getClass().getSimpleName());
+        }
+        return steps.toString();
+    }
+
+    @Override
+    public Set<Class<? extends TraversalStrategy>> applyPrior() {
+        return PRIORS;
+    }
+
+    public static Builder build() {
+        return new Builder();
+    }
+
+    public static class Builder {
+
+        private int sampleRate = DEFAULT_SAMPLE_RATE;
+
+        private Builder() {}
+
+        /**
+         * Time one in every {@code sampleRate} calls for the traversers of a step, where a rate of 1 times every call.
+         */
+        public Builder sampleRate(final int sampleRate) {
+            if (sampleRate < 1)
+                throw new IllegalArgumentException("The sample rate must be greater than zero: " + sampleRate);
+            this.sampleRate = sampleRate;
+            return this;
+        }
+
+        public SampledMetricsStrategy create() {
+            return new SampledMetricsStrategy(this.sampleRate);
+        }
+    }
+}
@@ -0,0 +1,82 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tinkerpop.gremlin.process.traversal.traverser.util;
+
+import org.apache.tinkerpop.gremlin.process.traversal.Step;
+import org.apache.tinkerpop.gremlin.process.traversal.Traverser;
+import org.apache.tinkerpop.gremlin.process.traversal.traverser.B_O_Traverser;
+import org.apache.tinkerpop.gremlin.process.traversal.traverser.O_Traverser;
+
+import java.io.Serializable;
+
+/**
+ * The {@link O_Traverser} and {@link B_O_Traverser} instances that the steps of a single traversal no longer
+ * reference (e.g. those rejected by a filter or merged into another traverser by a barrier), kept to be split into
+ * rather than cloning a new traverser.  Only traversers without a path, sack or loops are pooled, as those are the
+ * only state that a split would otherwise have to copy.  A pool is used by the single thread iterating its traversal.
+ *
+ * @author agent
+ */
+public final class TraverserPool implements Serializable {
+
+    private static final int CAPACITY = 256;
+
+    private transient Traverser.Admin[] traversers = null;
+    private transient int size = 0;
+
+    /**
+     * Keep a traverser that is no longer referenced by the traversal.
+     */
+    public void recycle(final Traverser.Admin<?> traverser) {
+        if (isPoolable(traverser)) {
+            if (null == this.traversers)
+                this.traversers = new Traverser.Admin[CAPACITY];
+            if (this.size < CAPACITY) {
+                traverser.set(null);
+                this.traversers[this.size++] = traverser;
+            }
+        }
+    }
+
+    /**
+     * Split a traverser as {@link Traverser.Admin#split(Object, Step)} does, reusing a pooled traverser of the same
+     * class if there is one.
+     */
+    public <T, R> Traverser.Admin<R> split(final Traverser.Admin<T> traverser, final R r, final Step<T, R> step) {
+        if (0 != this.size && this.traversers[this.size - 1].getClass() == traverser.getClass()) {
+            final Traverser.Admin<R> split = this.traversers[--this.size];
+            this.traversers[this.size] = null;
+            split.set(r);
+            if (traverser instanceof B_O_Traverser) {
+                split.setBulk(traverser.bulk());
+                split.setStepId(traverser.getStepId());
+            }
+            return split;
+        }
+        return traverser.split(r, step);
+    }
+
+    public int size() {
+        return this.size;
+    }
+
+    public static boolean isPoolable(final Traverser<?> traverser) {
+        return traverser.getClass() == O_Traverser.class || traverser.getClass() == B_O_Traverser.class;
+    }
+}
@@ -20,6 +20,7 @@ package org.apache.tinkerpop.gremlin.process.traversal.traverser.util;
 
 import org.apache.tinkerpop.gremlin.process.traversal.FastNoSuchElementException;
 import org.apache.tinkerpop.gremlin.process.traversal.Traverser;
+import org.apache.tinkerpop.gremlin.process.traversal.util.BulkTable;
 
 import java.io.Serializable;
 import java.util.AbstractSet;
@@ -27,64 +28,89 @@ import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Comparator;
 import java.util.Iterator;
-import java.util.LinkedHashMap;
 import java.util.List;
-import java.util.Map;
 import java.util.Queue;
 import java.util.Set;
 import java.util.Spliterator;
+import java.util.Spliterators;
 
 /**
+ * A set of traversers, in the order they were added, where adding a traverser that is equal to one in the set merges
+ * it into that traverser.  The traversers are held in a {@link BulkTable} so the first traverser is removed in
+ * constant time.
+ *
  * @author Marko A. Rodriguez (http://markorodriguez.com)
  */
 public class TraverserSet<S> extends AbstractSet<Traverser.Admin<S>> implements Set<Traverser.Admin<S>>, Queue<Traverser.Admin<S>>, Serializable {
 
-    private final Map<Traverser.Admin<S>, Traverser.Admin<S>> map = new LinkedHashMap<>();
+    private final BulkTable<Traverser.Admin<S>> table = new BulkTable<>();
 
     public TraverserSet() {
 
     }
 
     public TraverserSet(final Traverser.Admin<S> traverser) {
-        this.map.put(traverser, traverser);
+        this.table.append(traverser, 0l);
     }
 
     @Override
     public Iterator<Traverser.Admin<S>> iterator() {
-        return this.map.values().iterator();
+        final BulkTable<Traverser.Admin<S>>.IndexIterator indices = this.table.indices();
+        return new Iterator<Traverser.Admin<S>>() {
+            @Override
+            public boolean hasNext() {
+                return indices.hasNext();
+            }
+
+            @Override
+            public Traverser.Admin<S> next() {
+                return table.key(indices.next());
+            }
+
+            @Override
+            public void remove() {
+                indices.remove();
+            }
+        };
     }
 
     public Traverser.Admin<S> get(final Traverser.Admin<S> traverser) {
-        return this.map.get(traverser);
+        final int index = this.table.indexOf(traverser);
+        return -1 == index ? null : this.table.key(index);
     }
 
     @Override
     public int size() {
-        return this.map.size();
+        return this.table.size();
     }
 
     public long bulkSize() {
-        return this.map.values().stream().map(Traverser::bulk).reduce(0l, (a, b) -> a + b);
+        // the bulk of a traverser may change while it is in the set so it is summed rather than kept by the table
+        long bulkSize = 0l;
+        for (int index = this.table.first(); -1 != index; index = this.table.next(index)) {
+            bulkSize = bulkSize + this.table.key(index).bulk();
+        }
+        return bulkSize;
     }
 
     @Override
     public boolean isEmpty() {
-        return this.map.isEmpty();
+        return this.table.isEmpty();
     }
 
     @Override
     public boolean contains(final Object traverser) {
-        return this.map.containsKey(traverser);
+        return -1 != this.table.indexOf(traverser);
     }
 
     @Override
     public boolean add(final Traverser.Admin<S> traverser) {
-        final Traverser.Admin<S> existing = this.map.get(traverser);
-        if (null == existing) {
-            this.map.put(traverser, traverser);
+        final int index = this.table.indexOf(traverser);
+        if (-1 == index) {
+            this.table.append(traverser, 0l);
             return true;
         } else {
-            existing.merge(traverser);
+            this.table.key(index).merge(traverser);
             return false;
         }
     }
@@ -96,17 +122,17 @@ public class TraverserSet<S> extends AbstractSet<Traverser.Admin<S>> implements
 
     @Override
     public Traverser.Admin<S> remove() {  // pop, exception if empty
-        final Iterator<Traverser.Admin<S>> iterator = this.map.values().iterator();
-        if (!iterator.hasNext())
+        final int index = this.table.first();
+        if (-1 == index)
             throw FastNoSuchElementException.instance();
-        final Traverser.Admin<S> next = iterator.next();
-        iterator.remove();
+        final Traverser.Admin<S> next = this.table.key(index);
+        this.table.removeAt(index);
         return next;
     }
 
     @Override
     public Traverser.Admin<S> poll() {  // pop, null if empty
-        return this.map.isEmpty() ? null : this.remove();
+        return this.table.isEmpty() ? null : this.remove();
     }
 
     @Override
@@ -116,34 +142,37 @@ public class TraverserSet<S> extends AbstractSet<Traverser.Admin<S>> implements
 
     @Override
     public Traverser.Admin<S> peek() { // peek, null if empty
-        return this.map.isEmpty() ? null : this.iterator().next();
+        return this.table.isEmpty() ? null : this.table.key(this.table.first());
     }
 
     @Override
     public boolean remove(final Object traverser) {
-        return this.map.remove(traverser) != null;
+        return this.table.remove(traverser);
     }
 
     @Override
     public void clear() {
-        this.map.clear();
+        this.table.clear();
     }
 
     @Override
     public Spliterator<Traverser.Admin<S>> spliterator() {
-        return this.map.values().spliterator();
+        return Spliterators.spliterator(this, Spliterator.DISTINCT | Spliterator.ORDERED);
     }
 
     @Override
     public String toString() {
-        return this.map.keySet().toString();
+        final List<Traverser.Admin<S>> list = new ArrayList<>(this.table.size());
+        this.forEach(list::add);
+        return list.toString();
     }
 
     public void sort(final Comparator<Traverser<S>> comparator) {
-        final List<Traverser.Admin<S>> list = new ArrayList<>(this.map.values());
+        final List<Traverser.Admin<S>> list = new ArrayList<>(this.table.size());
+        this.forEach(list::add);
         Collections.sort(list, comparator);
-        this.map.clear();
-        list.forEach(traverser -> this.map.put(traverser, traverser));
+        this.table.clear();
+        list.forEach(traverser -> this.table.append(traverser, 0l));
     }
 
 }
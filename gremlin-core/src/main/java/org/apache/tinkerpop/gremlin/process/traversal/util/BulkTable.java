@@ -0,0 +1,299 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tinkerpop.gremlin.process.traversal.util;
+
+import java.io.Serializable;
+import java.util.ConcurrentModificationException;
+import java.util.NoSuchElementException;
+
+/**
+ * An insertion ordered hash table of keys and their {@code long} bulks which backs
+ * {@link org.apache.tinkerpop.gremlin.process.traversal.step.util.BulkSet} and
+ * {@link org.apache.tinkerpop.gremlin.process.traversal.traverser.util.TraverserSet}.  The entries are appended to
+ * arrays in the order they are added and an open addressing (linear probing) table of entry indices finds them by
+ * key, so there is no object per entry and no boxed bulk.  The total bulk of the table is kept as entries are added
+ * and removed.
+ * <p/>
+ * A removed entry leaves a hole in the arrays, which are compacted the next time they are full.  Removing the first
+ * entry only moves the head of the table forward, so the table can be used as a queue.  Entries are addressed by their
+ * index, which is stable until the next entry is added.
+ * <p/>
+ * A {@code null} key is held as a sentinel, as {@code null} in the key array marks a removed entry.
+ *
+ * @author agent
+ */
+public final class BulkTable<K> implements Serializable {
+
+    private static final int MIN_CAPACITY = 4;
+    private static final int SHRINK_CAPACITY = 64;
+    private static final int FREE = 0;
+    private static final int REMOVED = -1;
+
+    /**
+     * Stands in for a {@code null} key.  It is an enum so that it remains the same instance when the table is
+     * deserialized.
+     */
+    private enum NullKey {
+        INSTANCE
+    }
+
+    private Object[] keys;
+    private long[] bulks;
+    private int[] hashes;
+    private int[] table; // the index of the entry plus one, FREE or REMOVED
+    private int head = 0;
+    private int tail = 0;
+    private int size = 0;
+    private long totalBulk = 0l;
+    private int compactions = 0;
+
+    public int size() {
+        return this.size;
+    }
+
+    public boolean isEmpty() {
+        return 0 == this.size;
+    }
+
+    public long totalBulk() {
+        return this.totalBulk;
+    }
+
+    /**
+     * Get the index of the entry of the key, or {@code -1} if the key is not in the table.
+     */
+    public int indexOf(final Object key) {
+        if (0 == this.size)
+            return -1;
+        final int hash = hash(key);
+        final Object maskedKey = mask(key);
+        final int mask = this.table.length - 1;
+        for (int slot = hash & mask; ; slot = (slot + 1) & mask) {
+            final int entry = this.table[slot];
+            if (FREE == entry)
+                return -1;
+            if (REMOVED != entry && this.hashes[entry - 1] == hash && maskedKey.equals(this.keys[entry - 1]))
+                return entry - 1;
+        }
+    }
+
+    public K key(final int index) {
+        final Object key = this.keys[index];
+        return NullKey.INSTANCE == key ? null : (K) key;
+    }
+
+    public long bulk(final int index) {
+        return this.bulks[index];
+    }
+
+    public void addBulk(final int index, final long bulk) {
+        this.bulks[index] = this.bulks[index] + bulk;
+        this.totalBulk = this.totalBulk + bulk;
+    }
+
+    /**
+     * Add the bulk to the entry of the key, appending an entry for the key if it is not in the table.
+     *
+     * @return whether an entry was appended
+     */
+    public boolean add(final K key, final long bulk) {
+        final int index = this.indexOf(key);
+        if (-1 == index) {
+            this.append(key, bulk);
+            return true;
+        } else {
+            this.addBulk(index, bulk);
+            return false;
+        }
+    }
+
+    /**
+     * Append an entry for a key which is not in the table.
+     *
+     * @return the index of the entry
+     */
+    public int append(final K key, final long bulk) {
+        if (null == this.keys)
+            this.resize(MIN_CAPACITY);
+        else if (this.tail == this.keys.length)
+            this.resize(this.size >= this.keys.length / 2 ? this.keys.length * 2 : this.keys.length);
+        final int hash = hash(key);
+        final int index = this.tail++;
+        this.keys[index] = mask(key);
+        this.bulks[index] = bulk;
+        this.hashes[index] = hash;
+        this.place(hash, index);
+        this.size++;
+        this.totalBulk = this.totalBulk + bulk;
+        return index;
+    }
+
+    public boolean remove(final Object key) {
+        final int index = this.indexOf(key);
+        if (-1 == index)
+            return false;
+        this.removeAt(index);
+        return true;
+    }
+
+    public void removeAt(final int index) {
+        final int mask = this.table.length - 1;
+        int slot = this.hashes[index] & mask;
+        while (this.table[slot] != index + 1) {
+            slot = (slot + 1) & mask;
+        }
+        this.table[slot] = REMOVED;
+        this.keys[index] = null;
+        this.totalBulk = this.totalBulk - this.bulks[index];
+        if (0 == --this.size)
+            this.clear();
+        else if (index == this.head) {
+            while (null == this.keys[this.head]) {
+                this.head++;
+            }
+        }
+    }
+
+    /**
+     * Get the index of the first entry, or {@code -1} if the table is empty.
+     */
+    public int first() {
+        return 0 == this.size ? -1 : this.head;
+    }
+
+    /**
+     * Get the index of the entry after the entry at the index, or {@code -1} if it is the last.
+     */
+    public int next(final int index) {
+        for (int i = index + 1; i < this.tail; i++) {
+            if (null != this.keys[i])
+                return i;
+        }
+        return -1;
+    }
+
+    public void clear() {
+        if (null == this.keys)
+            return;
+        if (this.keys.length > SHRINK_CAPACITY) {
+            this.keys = null;
+            this.bulks = null;
+            this.hashes = null;
+            this.table = null;
+        } else {
+            for (int i = this.head; i < this.tail; i++) {
+                this.keys[i] = null;
+            }
+            for (int i = 0; i < this.table.length; i++) {
+                this.table[i] = FREE;
+            }
+        }
+        this.head = 0;
+        this.tail = 0;
+        this.size = 0;
+        this.totalBulk = 0l;
+        this.compactions++;
+    }
+
+    /**
+     * An iterator of the indices of the entries, in the order they were added, which can remove the current entry.
+     */
+    public IndexIterator indices() {
+        return new IndexIterator();
+    }
+
+    private void resize(final int capacity) {
+        final Object[] keys = new Object[capacity];
+        final long[] bulks = new long[capacity];
+        final int[] hashes = new int[capacity];
+        int size = 0;
+        for (int i = this.head; i < this.tail; i++) {
+            if (null != this.keys[i]) {
+                keys[size] = this.keys[i];
+                bulks[size] = this.bulks[i];
+                hashes[size] = this.hashes[i];
+                size++;
+            }
+        }
+        this.keys = keys;
+        this.bulks = bulks;
+        this.hashes = hashes;
+        this.table = new int[capacity * 2];
+        this.head = 0;
+        this.tail = size;
+        for (int i = 0; i < size; i++) {
+            this.place(hashes[i], i);
+        }
+        this.compactions++;
+    }
+
+    private void place(final int hash, final int index) {
+        final int mask = this.table.length - 1;
+        int slot = hash & mask;
+        while (this.table[slot] > FREE) {
+            slot = (slot + 1) & mask;
+        }
+        this.table[slot] = index + 1;
+    }
+
+    private static Object mask(final Object key) {
+        return null == key ? NullKey.INSTANCE : key;
+    }
+
+    private static int hash(final Object key) {
+        final int hash = null == key ? 0 : key.hashCode();
+        return hash ^ (hash >>> 16);
+    }
+
+    public final class IndexIterator {
+
+        private int compactions = BulkTable.this.compactions;
+        private int current = -1;
+        private int next = BulkTable.this.first();
+
+        public boolean hasNext() {
+            this.checkForCompaction();
+            return -1 != this.next;
+        }
+
+        public int next() {
+            this.checkForCompaction();
+            if (-1 == this.next)
+                throw new NoSuchElementException();
+            this.current = this.next;
+            this.next = BulkTable.this.next(this.current);
+            return this.current;
+        }
+
+        public void remove() {
+            this.checkForCompaction();
+            if (-1 == this.current)
+                throw new IllegalStateException();
+            BulkTable.this.removeAt(this.current);
+            this.current = -1;
+            // removing the last entry clears the table
+            this.compactions = BulkTable.this.compactions;
+        }
+
+        private void checkForCompaction() {
+            if (this.compactions != BulkTable.this.compactions)
+                throw new ConcurrentModificationException();
+        }
+    }
+}
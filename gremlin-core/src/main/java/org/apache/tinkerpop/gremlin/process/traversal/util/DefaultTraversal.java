@@ -25,8 +25,10 @@ import org.apache.tinkerpop.gremlin.process.traversal.TraversalSideEffects;
 import org.apache.tinkerpop.gremlin.process.traversal.TraversalStrategies;
 import org.apache.tinkerpop.gremlin.process.traversal.Traverser;
 import org.apache.tinkerpop.gremlin.process.traversal.engine.StandardTraversalEngine;
+import org.apache.tinkerpop.gremlin.process.traversal.step.util.AbstractStep;
 import org.apache.tinkerpop.gremlin.process.traversal.step.util.EmptyStep;
 import org.apache.tinkerpop.gremlin.process.traversal.step.TraversalParent;
+import org.apache.tinkerpop.gremlin.process.traversal.traverser.util.TraverserPool;
 import org.apache.tinkerpop.gremlin.structure.Graph;
 
 import java.util.ArrayList;
@@ -173,9 +175,17 @@ public class DefaultTraversal<S, E> implements Traversal.Admin<S, E> {
             clone.strategies = this.strategies.clone(); // TODO: does this need to be cloned?
             clone.lastEnd = null;
             clone.lastEndCount = 0l;
+            TraverserPool traverserPool = null;
             for (final Step<?, ?> step : this.steps) {
                 final Step<?, ?> clonedStep = step.clone();
                 clonedStep.setTraversal(clone);
+                if (clonedStep instanceof AbstractStep && null != ((AbstractStep) clonedStep).getTraverserPool()) {
+                    // the steps of the clone share a pool of their own
+                    if (null == traverserPool)
+                        traverserPool = ((AbstractStep) clonedStep).getTraverserPool();
+                    else
+                        ((AbstractStep) clonedStep).setTraverserPool(traverserPool);
+                }
                 final Step previousStep = clone.steps.isEmpty() ? EmptyStep.instance() : clone.steps.get(clone.steps.size() - 1);
                 clonedStep.setPreviousStep(previousStep);
                 previousStep.setNextStep(clonedStep);
@@ -66,6 +66,11 @@ public final class StandardTraversalMetrics implements TraversalMetrics, Seriali
         metrics.incrementCount(ELEMENT_COUNT_ID, bulk);
     }
 
+    public void incrementCount(final String metricsId, final String countKey, final long incr) {
+        dirty = true;
+        allMetrics.get(metricsId).incrementCount(countKey, incr);
+    }
+
     @Override
     public long getDuration(final TimeUnit unit) {
         computeTotals();
@@ -44,6 +44,16 @@ public interface TraversalMetrics {
      */
     public static final String TRAVERSER_COUNT_ID = "traverserCount";
 
+    /**
+     * The MetricsId used to obtain the number of times a spilling step wrote to disk via Metrics.getCount(String countKey)
+     */
+    public static final String SPILL_COUNT_ID = "spillCount";
+
+    /**
+     * The MetricsId used to obtain the number of bytes a spilling step wrote to disk via Metrics.getCount(String countKey)
+     */
+    public static final String SPILL_BYTES_ID = "spillBytes";
+
     /**
      * The annotation key used to obtain the percent duration via Metrics.getAnnotation(String key)
      */
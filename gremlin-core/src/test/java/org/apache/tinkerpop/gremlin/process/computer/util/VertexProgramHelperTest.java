@@ -0,0 +1,73 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tinkerpop.gremlin.process.computer.util;
+
+import org.apache.tinkerpop.gremlin.structure.Direction;
+import org.apache.tinkerpop.gremlin.structure.Edge;
+import org.apache.tinkerpop.gremlin.structure.Vertex;
+import org.junit.Test;
+
+import java.util.Collections;
+
+import static org.junit.Assert.assertSame;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * @author agent
+ */
+public class VertexProgramHelperTest {
+
+    private final Vertex a = vertex(1);
+    private final Vertex b = vertex(2);
+
+    @Test
+    public void shouldReceiveAtTheOppositeEndOfAnOutOrInEdge() {
+        final Edge edge = edge(a, b);
+        assertSame(b, VertexProgramHelper.getReceivingVertex(edge, a, Direction.OUT));
+        assertSame(a, VertexProgramHelper.getReceivingVertex(edge, b, Direction.IN));
+    }
+
+    @Test
+    public void shouldReceiveAtTheOtherEndOfABothEdge() {
+        final Edge edge = edge(a, b);
+        assertSame(b, VertexProgramHelper.getReceivingVertex(edge, a, Direction.BOTH));
+        assertSame(a, VertexProgramHelper.getReceivingVertex(edge, b, Direction.BOTH));
+    }
+
+    @Test
+    public void shouldReceiveAtTheSenderOfABothSelfLoop() {
+        assertSame(a, VertexProgramHelper.getReceivingVertex(edge(a, a), a, Direction.BOTH));
+    }
+
+    private static Vertex vertex(final Object id) {
+        final Vertex vertex = mock(Vertex.class);
+        when(vertex.id()).thenReturn(id);
+        return vertex;
+    }
+
+    private static Edge edge(final Vertex outVertex, final Vertex inVertex) {
+        final Edge edge = mock(Edge.class);
+        when(edge.outVertex()).thenReturn(outVertex);
+        when(edge.inVertex()).thenReturn(inVertex);
+        when(edge.vertices(Direction.OUT)).thenAnswer(invocation -> Collections.singletonList(outVertex).iterator());
+        when(edge.vertices(Direction.IN)).thenAnswer(invocation -> Collections.singletonList(inVertex).iterator());
+        return edge;
+    }
+}
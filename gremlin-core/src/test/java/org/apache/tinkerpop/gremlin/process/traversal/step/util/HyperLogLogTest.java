@@ -0,0 +1,100 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tinkerpop.gremlin.process.traversal.step.util;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author agent
+ */
+public class HyperLogLogTest {
+
+    @Test
+    public void shouldChoosePrecisionForRelativeError() {
+        assertEquals(14, HyperLogLog.precision(0.01d));
+        assertEquals(HyperLogLog.MIN_PRECISION, HyperLogLog.precision(0.9d));
+        assertEquals(HyperLogLog.MAX_PRECISION, HyperLogLog.precision(0.0001d));
+        assertTrue(new HyperLogLog(14).getRelativeError() <= 0.01d);
+    }
+
+    @Test
+    public void shouldCountSmallSetsNearlyExactly() {
+        final HyperLogLog sketch = new HyperLogLog(14);
+        assertEquals(0l, sketch.cardinality());
+        for (int i = 0; i < 100; i++) {
+            sketch.offer("name-" + i);
+            sketch.offer("name-" + i);
+        }
+        assertEquals(100l, sketch.cardinality());
+    }
+
+    @Test
+    public void shouldCountEqualValuesOfDifferentNumberTypesApart() {
+        assertNotEquals(HyperLogLog.hash(1), HyperLogLog.hash(1l));
+        assertNotEquals(HyperLogLog.hash(1.0d), HyperLogLog.hash(1.0f));
+        final HyperLogLog sketch = new HyperLogLog(14);
+        for (int i = 0; i < 100; i++) {
+            sketch.offer(i);
+            sketch.offer((long) i);
+            sketch.offer((short) i);
+            sketch.offer((byte) i);
+            sketch.offer((double) i);
+            sketch.offer((float) i);
+            sketch.offer(i);
+        }
+        // all six types of a value would be counted as at most two if they collided
+        assertEquals(600, sketch.cardinality(), 3 * sketch.getRelativeError() * 600);
+    }
+
+    @Test
+    public void shouldEstimateLargeSetsWithinError() {
+        final HyperLogLog sketch = new HyperLogLog(12);
+        final int distinct = 200000;
+        for (long i = 0; i < distinct; i++) {
+            sketch.offer(i);
+            sketch.offer(i);
+        }
+        assertEquals(distinct, sketch.cardinality(), 3 * sketch.getRelativeError() * distinct);
+    }
+
+    @Test
+    public void shouldMergeSketches() {
+        final HyperLogLog sparse = new HyperLogLog(12);
+        final HyperLogLog dense = new HyperLogLog(12);
+        final HyperLogLog all = new HyperLogLog(12);
+        for (long i = 0; i < 50; i++) {
+            sparse.offer(i);
+            all.offer(i);
+        }
+        for (long i = 25; i < 50000; i++) {
+            dense.offer(i);
+            all.offer(i);
+        }
+        assertEquals(all.cardinality(), new HyperLogLog(12).merge(sparse).merge(dense).cardinality());
+        assertEquals(all.cardinality(), new HyperLogLog(12).merge(dense).merge(sparse).cardinality());
+        assertEquals(50l, new HyperLogLog(12).merge(sparse).merge(sparse).cardinality());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void shouldNotMergeSketchesOfDifferentPrecisions() {
+        new HyperLogLog(10).merge(new HyperLogLog(12));
+    }
+}
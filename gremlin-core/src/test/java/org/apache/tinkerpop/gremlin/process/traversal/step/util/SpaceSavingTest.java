@@ -0,0 +1,107 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tinkerpop.gremlin.process.traversal.step.util;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author agent
+ */
+public class SpaceSavingTest {
+
+    @Test
+    public void shouldCountExactlyWithinCapacity() {
+        final SpaceSaving<String> sketch = new SpaceSaving<>(3);
+        sketch.offer("a", 1).offer("b", 3).offer("a", 1).offer("c", 1);
+        final Map<String, Long> expected = new HashMap<>();
+        expected.put("a", 2l);
+        expected.put("b", 3l);
+        expected.put("c", 1l);
+        assertEquals(expected, sketch.getFinal());
+        assertEquals(Arrays.asList("b", "a", "c"), Arrays.asList(sketch.getFinal().keySet().toArray()));
+        assertEquals(0l, sketch.getError("a"));
+    }
+
+    @Test
+    public void shouldKeepFrequentObjectsBeyondCapacity() {
+        final SpaceSaving<Object> sketch = new SpaceSaving<>(10);
+        long total = 0l;
+        for (int i = 0; i < 1000; i++) {
+            sketch.offer("a", 2);
+            sketch.offer("b", 1);
+            sketch.offer(i, 1);
+            total = total + 4;
+        }
+        final Map<Object, Long> counts = sketch.getFinal();
+        assertEquals(10, counts.size());
+        assertEquals(Arrays.asList("a", "b"), Arrays.asList(counts.keySet().toArray()).subList(0, 2));
+        assertTrue(counts.get("a") >= 2000l && counts.get("a") <= 2000l + total / 10);
+        assertTrue(counts.get("b") >= 1000l && counts.get("b") <= 1000l + total / 10);
+        assertTrue(sketch.getError("b") <= total / 10);
+    }
+
+    @Test
+    public void shouldDropTheFirstObjectOffered() {
+        final SpaceSaving<String> sketch = new SpaceSaving<>(2);
+        sketch.offer("a", 1).offer("b", 1).offer("c", 1).offer("d", 1).offer("e", 1);
+        final Map<String, Long> counts = sketch.getFinal();
+        assertEquals(2, counts.size());
+        // an object that is dropped hands its count to the object that takes its place
+        assertEquals(5l, counts.values().stream().mapToLong(Long::longValue).sum());
+        assertEquals(3l, counts.get("e").longValue());
+    }
+
+    @Test
+    public void shouldOfferAfterMerging() {
+        final SpaceSaving<String> a = new SpaceSaving<>(2);
+        final SpaceSaving<String> b = new SpaceSaving<>(2);
+        a.offer("x", 1).offer("y", 1);
+        b.offer("z", 1);
+        a.merge(b);
+        for (final String object : Arrays.asList("p", "q", "r", "s")) {
+            a.offer(object, 1);
+        }
+        assertEquals(2, a.getFinal().size());
+        assertTrue(a.getFinal().containsKey("s"));
+    }
+
+    @Test
+    public void shouldMergeSketches() {
+        final SpaceSaving<String> a = new SpaceSaving<>(2);
+        final SpaceSaving<String> b = new SpaceSaving<>(2);
+        a.offer("x", 5).offer("y", 1);
+        b.offer("x", 2).offer("z", 4);
+        final Map<String, Long> counts = a.merge(b).getFinal();
+        assertEquals(2, counts.size());
+        assertEquals(7l, counts.get("x").longValue());
+        // z may have been counted in the full sketch as often as its least frequent object
+        assertEquals(5l, counts.get("z").longValue());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void shouldNotMergeSketchesOfDifferentCapacities() {
+        new SpaceSaving<String>(2).merge(new SpaceSaving<>(3));
+    }
+}
@@ -0,0 +1,139 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tinkerpop.gremlin.process.traversal.strategy.optimization;
+
+import org.apache.tinkerpop.gremlin.process.traversal.Traversal;
+import org.apache.tinkerpop.gremlin.process.traversal.TraversalEngine;
+import org.apache.tinkerpop.gremlin.process.traversal.TraversalStrategies;
+import org.apache.tinkerpop.gremlin.process.traversal.Traverser;
+import org.apache.tinkerpop.gremlin.process.traversal.dsl.graph.__;
+import org.apache.tinkerpop.gremlin.process.traversal.step.filter.RangeGlobalStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.map.OrderGlobalStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.map.OrderRangeGlobalStep;
+import org.apache.tinkerpop.gremlin.process.traversal.strategy.verification.EngineDependentStrategy;
+import org.apache.tinkerpop.gremlin.process.traversal.traverser.B_O_Traverser;
+import org.apache.tinkerpop.gremlin.process.traversal.util.DefaultTraversalStrategies;
+import org.apache.tinkerpop.gremlin.process.traversal.util.TraversalHelper;
+import org.apache.tinkerpop.gremlin.structure.Order;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * @author agent
+ */
+public class OrderRangeStrategyTest {
+
+    @Test
+    public void shouldReplaceOrderAndLimit() {
+        final Traversal traversal = __.inject(5, 3, 1, 4, 2).order().limit(2);
+        applyOrderRangeStrategy(traversal);
+
+        assertEquals(1, TraversalHelper.getStepsOfClass(OrderRangeGlobalStep.class, traversal.asAdmin()).size());
+        assertFalse(TraversalHelper.hasStepOfClass(OrderGlobalStep.class, traversal.asAdmin()));
+        assertFalse(TraversalHelper.hasStepOfClass(RangeGlobalStep.class, traversal.asAdmin()));
+        assertEquals(Arrays.asList(1, 2), traversal.toList());
+    }
+
+    @Test
+    public void shouldReplaceOrderAndRange() {
+        final Traversal traversal = __.inject(5, 3, 1, 4, 2, 3).order().by(Order.decr).range(1, 4);
+        applyOrderRangeStrategy(traversal);
+
+        assertTrue(TraversalHelper.hasStepOfClass(OrderRangeGlobalStep.class, traversal.asAdmin()));
+        assertEquals(Arrays.asList(4, 3, 3), traversal.toList());
+    }
+
+    @Test
+    public void shouldReplaceOrderAndLimitInLocalChild() {
+        final Traversal traversal = __.inject(Arrays.asList(3, 1, 2)).local(__.unfold().order().limit(1));
+        applyOrderRangeStrategy(traversal);
+
+        assertEquals(1, TraversalHelper.getStepsOfAssignableClassRecursively(OrderRangeGlobalStep.class, traversal.asAdmin()).size());
+        assertEquals(Arrays.asList(1), traversal.toList());
+    }
+
+    @Test
+    public void shouldNotReplaceUnboundedRange() {
+        final Traversal traversal = __.inject(5, 3, 1).order().range(1, -1);
+        applyOrderRangeStrategy(traversal);
+
+        assertFalse(TraversalHelper.hasStepOfClass(OrderRangeGlobalStep.class, traversal.asAdmin()));
+        assertEquals(Arrays.asList(3, 5), traversal.toList());
+    }
+
+    @Test
+    public void shouldNotReplaceLabeledOrder() {
+        final Traversal traversal = __.inject(5, 3, 1).order().as("a").limit(1);
+        applyOrderRangeStrategy(traversal);
+
+        assertFalse(TraversalHelper.hasStepOfClass(OrderRangeGlobalStep.class, traversal.asAdmin()));
+    }
+
+    @Test
+    public void shouldOnlyReplaceEndOfComputerTraversal() {
+        final TraversalEngine computer = mock(TraversalEngine.class);
+        when(computer.getType()).thenReturn(TraversalEngine.Type.COMPUTER);
+        when(computer.isComputer()).thenReturn(true);
+
+        final Traversal end = __.out().order().limit(2);
+        end.asAdmin().setEngine(computer);
+        applyOrderRangeStrategy(end);
+        assertTrue(TraversalHelper.hasStepOfClass(OrderRangeGlobalStep.class, end.asAdmin()));
+
+        final Traversal middle = __.out().order().limit(2).out();
+        middle.asAdmin().setEngine(computer);
+        applyOrderRangeStrategy(middle);
+        assertFalse(TraversalHelper.hasStepOfClass(OrderRangeGlobalStep.class, middle.asAdmin()));
+    }
+
+    @Test
+    public void shouldSplitBulkOverRange() {
+        final OrderRangeGlobalStep.TopTraversers<Integer> top = new OrderRangeGlobalStep.TopTraversers<>((Comparator) Order.incr, 5);
+        assertTrue(top.add(new B_O_Traverser<>(3, 4)));
+        assertTrue(top.add(new B_O_Traverser<>(1, 2)));
+        assertTrue(top.add(new B_O_Traverser<>(2, 2)));
+        assertFalse(top.add(new B_O_Traverser<>(4, 1)));
+        assertTrue(top.add(new B_O_Traverser<>(0, 1)));
+
+        // 3 is dropped once 0, 1 and 2 make up the high range of 5
+        final List<Traverser.Admin<Integer>> traversers = top.range(2);
+        assertEquals(2, traversers.size());
+        assertEquals(1, traversers.get(0).get().intValue());
+        assertEquals(1, traversers.get(0).bulk());
+        assertEquals(2, traversers.get(1).get().intValue());
+        assertEquals(2, traversers.get(1).bulk());
+    }
+
+    private static void applyOrderRangeStrategy(final Traversal traversal) {
+        final TraversalStrategies strategies = new DefaultTraversalStrategies();
+        strategies.addStrategies(OrderRangeStrategy.instance(), EngineDependentStrategy.instance());
+
+        traversal.asAdmin().setStrategies(strategies);
+        traversal.asAdmin().applyStrategies();
+    }
+}
@@ -0,0 +1,110 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tinkerpop.gremlin.process.traversal.strategy.optimization;
+
+import org.apache.tinkerpop.gremlin.process.traversal.Traversal;
+import org.apache.tinkerpop.gremlin.process.traversal.TraversalStrategies;
+import org.apache.tinkerpop.gremlin.process.traversal.dsl.graph.__;
+import org.apache.tinkerpop.gremlin.process.traversal.step.PathLabelIndexHolder;
+import org.apache.tinkerpop.gremlin.process.traversal.step.util.PathLabelIndex;
+import org.apache.tinkerpop.gremlin.process.traversal.util.DefaultTraversalStrategies;
+import org.apache.tinkerpop.gremlin.process.traversal.util.TraversalHelper;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+/**
+ * @author agent
+ */
+public class PathLabelIndexStrategyTest {
+
+    @Test
+    public void shouldIndexLabelsOfStaticLayout() {
+        final Traversal traversal = __.inject(1).as("a").map(t -> 2).as("b").filter(t -> true).as("c").select("a", "b", "c");
+        applyPathLabelIndexStrategy(traversal);
+
+        final PathLabelIndex index = getPathLabelIndex(traversal, 0);
+        assertEquals(2, index.getPathSize());
+        assertEquals(Arrays.asList("a", "b", "c"), Arrays.asList(index.getLabels().toArray()));
+        assertArrayEquals(new int[]{0}, index.getPositions("a"));
+        assertArrayEquals(new int[]{1}, index.getPositions("b"));
+        assertArrayEquals(new int[]{1}, index.getPositions("c"));
+
+        final Map<String, Object> expected = new HashMap<>();
+        expected.put("a", 1);
+        expected.put("b", 2);
+        expected.put("c", 2);
+        assertEquals(expected, traversal.next());
+    }
+
+    @Test
+    public void shouldIndexRepeatedLabels() {
+        final Traversal traversal = __.inject(1).as("a").map(t -> 2).as("a").map(t -> 3).select("a");
+        applyPathLabelIndexStrategy(traversal);
+
+        final PathLabelIndex index = getPathLabelIndex(traversal, 0);
+        assertEquals(3, index.getPathSize());
+        assertArrayEquals(new int[]{0, 1}, index.getPositions("a"));
+        assertEquals(Arrays.asList(1, 2), traversal.next());
+    }
+
+    @Test
+    public void shouldOnlyIndexStepsBeforeBranch() {
+        final Traversal traversal = __.inject(1).as("a").select("a").as("b").local(__.identity()).select("b");
+        applyPathLabelIndexStrategy(traversal);
+
+        assertEquals(1, getPathLabelIndex(traversal, 0).getPathSize());
+        assertNull(getPathLabelIndex(traversal, 1));
+        assertEquals(1, traversal.next());
+    }
+
+    @Test
+    public void shouldNotIndexAnonymousStart() {
+        final Traversal traversal = __.as("a").map(t -> 2).select("a");
+        applyPathLabelIndexStrategy(traversal);
+        assertNull(getPathLabelIndex(traversal, 0));
+    }
+
+    @Test
+    public void shouldNotIndexChildTraversals() {
+        final Traversal traversal = __.inject(1).as("a").local(__.map(t -> 2).select("a")).fold();
+        applyPathLabelIndexStrategy(traversal);
+        assertEquals(0, TraversalHelper.getStepsOfAssignableClassRecursively(PathLabelIndexHolder.class, traversal.asAdmin()).stream()
+                .filter(step -> null != step.getPathLabelIndex()).count());
+        assertEquals(Arrays.asList(1), traversal.next());
+    }
+
+    private static void applyPathLabelIndexStrategy(final Traversal traversal) {
+        final TraversalStrategies strategies = new DefaultTraversalStrategies();
+        strategies.addStrategies(PathLabelIndexStrategy.instance());
+
+        traversal.asAdmin().setStrategies(strategies);
+        traversal.asAdmin().applyStrategies();
+    }
+
+    private static PathLabelIndex getPathLabelIndex(final Traversal traversal, final int index) {
+        return TraversalHelper.getStepsOfAssignableClass(PathLabelIndexHolder.class, traversal.asAdmin()).get(index).getPathLabelIndex();
+    }
+}
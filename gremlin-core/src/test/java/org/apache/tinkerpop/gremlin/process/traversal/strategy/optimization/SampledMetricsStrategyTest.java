@@ -0,0 +1,147 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tinkerpop.gremlin.process.traversal.strategy.optimization;
+
+import org.apache.tinkerpop.gremlin.process.traversal.Traversal;
+import org.apache.tinkerpop.gremlin.process.traversal.TraversalEngine;
+import org.apache.tinkerpop.gremlin.process.traversal.TraversalStrategies;
+import org.apache.tinkerpop.gremlin.process.traversal.dsl.graph.__;
+import org.apache.tinkerpop.gremlin.process.traversal.step.sideEffect.SampledMetricsStep;
+import org.apache.tinkerpop.gremlin.process.traversal.util.DefaultTraversalStrategies;
+import org.apache.tinkerpop.gremlin.process.traversal.util.TraversalHelper;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * @author agent
+ */
+public class SampledMetricsStrategyTest {
+
+    @Test
+    public void shouldCountTraversersOfEachStep() {
+        final Traversal traversal = __.inject(1, 2, 3, 4).is(3).map(t -> t.get());
+        applySampledMetricsStrategy(traversal, 1);
+
+        final List<SampledMetricsStep> steps = SampledMetricsStrategy.getMetricsSteps(traversal.asAdmin());
+        assertEquals(3, steps.size());
+        assertEquals(Arrays.asList(3), traversal.toList());
+
+        assertEquals(4, steps.get(0).getTraverserCount());
+        assertEquals(1, steps.get(1).getTraverserCount());
+        assertEquals(1, steps.get(2).getTraverserCount());
+        steps.forEach(step -> assertEquals(step.getCallCount(), step.getSampledCount()));
+    }
+
+    @Test
+    public void shouldTimeOneInEverySampleRateCalls() {
+        final Traversal traversal = __.inject(1, 2, 3, 4, 5, 6, 7, 8, 9);
+        applySampledMetricsStrategy(traversal, 5);
+        traversal.iterate();
+
+        // the first of the 10 calls timed is one of the first 5
+        final SampledMetricsStep step = SampledMetricsStrategy.getMetricsSteps(traversal.asAdmin()).get(0);
+        assertEquals(9, step.getTraverserCount());
+        assertEquals(10, step.getCallCount());
+        assertEquals(2, step.getSampledCount());
+        assertEquals(step.getSampledNanos() * 5, step.getEstimatedNanos());
+    }
+
+    @Test
+    public void shouldCountBulk() {
+        final Traversal traversal = __.inject(1, 1, 1, 2).barrier();
+        applySampledMetricsStrategy(traversal, 1);
+        traversal.iterate();
+
+        final SampledMetricsStep step = SampledMetricsStrategy.getMetricsSteps(traversal.asAdmin()).get(1);
+        assertEquals(4, step.getTraverserCount());
+        assertEquals(3, step.getCallCount());
+    }
+
+    @Test
+    public void shouldDescribeShapeWithoutMetricsSteps() {
+        final Traversal traversal = __.inject(1).is(1);
+        applySampledMetricsStrategy(traversal, 1);
+
+        assertEquals(2, SampledMetricsStrategy.getMetricsSteps(traversal.asAdmin()).size());
+        assertEquals("[InjectStep, IsStep]", SampledMetricsStrategy.getShape(traversal.asAdmin()));
+    }
+
+    @Test
+    public void shouldDescribeShapeWithoutStepValues() {
+        final Traversal traversal = __.inject(1, 2).union(__.is(1), __.is(2).is(3));
+        applySampledMetricsStrategy(traversal, 1);
+
+        final String shape = SampledMetricsStrategy.getShape(traversal.asAdmin());
+        assertEquals(SampledMetricsStrategy.getShape(__.inject(3).union(__.is(4), __.is(5).is(6)).asAdmin()), shape);
+        assertNotEquals(SampledMetricsStrategy.getShape(__.inject(1, 2).union(__.is(1), __.is(2)).asAdmin()), shape);
+    }
+
+    @Test
+    public void shouldResetCountsOfClones() {
+        final Traversal.Admin traversal = __.inject(1, 2).asAdmin();
+        applySampledMetricsStrategy(traversal, 1);
+        final Traversal.Admin clone = traversal.clone();
+        traversal.iterate();
+
+        assertEquals(2, SampledMetricsStrategy.getMetricsSteps(traversal).get(0).getTraverserCount());
+        assertEquals(0, SampledMetricsStrategy.getMetricsSteps(clone).get(0).getTraverserCount());
+    }
+
+    @Test
+    public void shouldOnlyMeasureRootTraversal() {
+        final Traversal traversal = __.inject(1, 2).union(__.is(1), __.is(2));
+        applySampledMetricsStrategy(traversal, 1);
+
+        assertEquals(2, SampledMetricsStrategy.getMetricsSteps(traversal.asAdmin()).size());
+        assertEquals(2, TraversalHelper.getStepsOfAssignableClassRecursively(SampledMetricsStep.class, traversal.asAdmin()).size());
+    }
+
+    @Test
+    public void shouldNotMeasureComputerTraversal() {
+        final TraversalEngine computer = mock(TraversalEngine.class);
+        when(computer.getType()).thenReturn(TraversalEngine.Type.COMPUTER);
+        when(computer.isComputer()).thenReturn(true);
+
+        final Traversal traversal = __.out();
+        traversal.asAdmin().setEngine(computer);
+        applySampledMetricsStrategy(traversal, 1);
+        assertFalse(TraversalHelper.hasStepOfClass(SampledMetricsStep.class, traversal.asAdmin()));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void shouldNotAllowSampleRateOfZero() {
+        SampledMetricsStrategy.build().sampleRate(0);
+    }
+
+    private static void applySampledMetricsStrategy(final Traversal traversal, final int sampleRate) {
+        final TraversalStrategies strategies = new DefaultTraversalStrategies();
+        strategies.addStrategies(SampledMetricsStrategy.build().sampleRate(sampleRate).create());
+
+        traversal.asAdmin().setStrategies(strategies);
+        traversal.asAdmin().applyStrategies();
+    }
+}
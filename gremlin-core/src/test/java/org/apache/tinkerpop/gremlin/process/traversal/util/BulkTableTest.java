@@ -0,0 +1,142 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tinkerpop.gremlin.process.traversal.util;
+
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.ArrayList;
+import java.util.ConcurrentModificationException;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * @author agent
+ */
+public class BulkTableTest {
+
+    @Test
+    public void shouldKeepInsertionOrderAcrossRemovalsAndCompactions() {
+        final BulkTable<Integer> table = new BulkTable<>();
+        for (int i = 0; i < 1000; i++) {
+            assertTrue(table.add(i, 1l));
+        }
+        for (int i = 0; i < 1000; i++) {
+            if (i % 3 != 0)
+                assertTrue(table.remove(i));
+        }
+        for (int i = 1000; i < 2000; i++) {
+            table.add(i, 2l);
+        }
+        assertFalse(table.add(999, 1l));
+        assertEquals(334 + 1000, table.size());
+        assertEquals(334 + 1 + 2000, table.totalBulk());
+        final List<Integer> keys = new ArrayList<>();
+        for (int index = table.first(); -1 != index; index = table.next(index)) {
+            keys.add(table.key(index));
+        }
+        for (int i = 1; i < keys.size(); i++) {
+            assertTrue(keys.get(i - 1) < keys.get(i));
+        }
+        assertEquals(2l, table.bulk(table.indexOf(999)));
+        assertEquals(-1, table.indexOf(998));
+    }
+
+    @Test
+    public void shouldRemoveFromHeadAsQueue() {
+        final BulkTable<String> table = new BulkTable<>();
+        for (int round = 0; round < 100; round++) {
+            for (int i = 0; i < 10; i++) {
+                table.append(round + ":" + i, 1l);
+            }
+            for (int i = 0; i < 10; i++) {
+                final int first = table.first();
+                assertEquals(round + ":" + i, table.key(first));
+                table.removeAt(first);
+            }
+            assertTrue(table.isEmpty());
+            assertEquals(-1, table.first());
+            assertEquals(0l, table.totalBulk());
+        }
+    }
+
+    @Test
+    public void shouldRemoveWhileIterating() {
+        final BulkTable<Integer> table = new BulkTable<>();
+        for (int i = 0; i < 10; i++) {
+            table.add(i, i);
+        }
+        final BulkTable<Integer>.IndexIterator indices = table.indices();
+        while (indices.hasNext()) {
+            if (table.key(indices.next()) % 2 == 0)
+                indices.remove();
+        }
+        assertEquals(5, table.size());
+        assertEquals(1 + 3 + 5 + 7 + 9, table.totalBulk());
+    }
+
+    @Test(expected = ConcurrentModificationException.class)
+    public void shouldNotIterateAfterCompaction() {
+        final BulkTable<Integer> table = new BulkTable<>();
+        for (int i = 0; i < 4; i++) {
+            table.add(i, 1l);
+        }
+        final BulkTable<Integer>.IndexIterator indices = table.indices();
+        indices.next();
+        table.add(4, 1l);
+        indices.next();
+    }
+
+    @Test
+    public void shouldHoldNullKeyAcrossRemovalsAndCompactions() throws Exception {
+        final BulkTable<Integer> table = new BulkTable<>();
+        table.add(0, 1l);
+        assertTrue(table.add(null, 2l));
+        for (int i = 1; i < 100; i++) {
+            table.add(i, 1l);
+            table.remove(i);
+        }
+        assertFalse(table.add(null, 3l));
+        assertEquals(2, table.size());
+        assertEquals(5l, table.bulk(table.indexOf(null)));
+        assertNull(table.key(table.next(table.first())));
+
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (final ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+            out.writeObject(table);
+        }
+        final BulkTable<Integer> copy;
+        try (final ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray()))) {
+            copy = (BulkTable<Integer>) in.readObject();
+        }
+        assertEquals(5l, copy.bulk(copy.indexOf(null)));
+
+        assertTrue(table.remove(null));
+        assertEquals(-1, table.indexOf(null));
+        assertEquals(1, table.size());
+        assertEquals(1l, table.totalBulk());
+    }
+}
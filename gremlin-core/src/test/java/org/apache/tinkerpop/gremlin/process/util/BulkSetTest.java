@@ -21,11 +21,17 @@ package org.apache.tinkerpop.gremlin.process.util;
 import org.apache.tinkerpop.gremlin.process.traversal.step.util.BulkSet;
 import org.junit.Test;
 
+import java.util.HashMap;
 import java.util.Iterator;
+import java.util.Map;
 import java.util.Random;
 import java.util.Set;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
 
 /**
  * @author Marko A. Rodriguez (http://markorodriguez.com)
@@ -64,4 +70,76 @@ public class BulkSetTest {
         }
         assertEquals(11, set.size());
     }
+
+    @Test
+    public void shouldKeepSizeAsObjectsAreAddedAndRemoved() {
+        final BulkSet<String> set = new BulkSet<>();
+        for (int i = 0; i < 100; i++) {
+            set.add("v" + i, i);
+        }
+        assertEquals(100, set.uniqueSize());
+        assertEquals(4950, set.longSize());
+        for (int i = 0; i < 100; i = i + 2) {
+            set.remove("v" + i);
+        }
+        assertEquals(50, set.uniqueSize());
+        assertEquals(2500, set.longSize());
+        assertEquals(0, set.get("v2"));
+        assertEquals(99, set.get("v99"));
+        set.add("v2");
+        assertEquals(2501, set.longSize());
+        final Iterator<String> iterator = set.iterator();
+        assertEquals("v1", iterator.next());
+        set.clear();
+        assertTrue(set.isEmpty());
+        assertEquals(0, set.longSize());
+    }
+
+    @Test
+    public void shouldBeEqualToBulkSetWithSameBulks() {
+        final BulkSet<String> a = new BulkSet<>();
+        a.add("marko", 2);
+        a.add("stephen");
+        final BulkSet<String> b = new BulkSet<>();
+        b.add("stephen");
+        b.add("marko");
+        assertNotEquals(a, b);
+        b.add("marko");
+        assertEquals(a, b);
+        assertEquals(a.hashCode(), b.hashCode());
+        assertEquals("{marko=2, stephen=1}", a.toString());
+    }
+
+    @Test
+    public void shouldHoldNullObjects() {
+        final BulkSet<String> set = new BulkSet<>();
+        set.add("marko");
+        set.add(null, 3);
+        set.add("stephen");
+        set.add(null);
+        assertTrue(set.contains(null));
+        assertEquals(4, set.get(null));
+        assertEquals(3, set.uniqueSize());
+        assertEquals(6, set.longSize());
+
+        final Map<String, Long> map = new HashMap<>();
+        map.put("marko", 1l);
+        map.put(null, 4l);
+        map.put("stephen", 1l);
+        assertEquals(set, map);
+        assertEquals(map.hashCode(), set.hashCode());
+
+        final Iterator<String> iterator = set.iterator();
+        assertEquals("marko", iterator.next());
+        for (int i = 0; i < 4; i++) {
+            assertNull(iterator.next());
+        }
+        assertEquals("stephen", iterator.next());
+        assertFalse(iterator.hasNext());
+
+        assertTrue(set.remove(null));
+        assertFalse(set.contains(null));
+        assertEquals(0, set.get(null));
+        assertEquals(2, set.longSize());
+    }
 }
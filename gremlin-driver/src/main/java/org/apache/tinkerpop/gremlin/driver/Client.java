@@ -18,7 +18,6 @@
  */
 package org.apache.tinkerpop.gremlin.driver;
 
-import org.apache.tinkerpop.gremlin.driver.exception.ConnectionException;
 import org.apache.tinkerpop.gremlin.driver.message.RequestMessage;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -65,9 +64,9 @@ public abstract class Client {
     protected abstract void initializeImplementation();
 
     /**
-     * Chooses a {@link Connection} to write the message to.
+     * Chooses a {@link Connection} to write the message to, completing the future once one is available.
      */
-    protected abstract Connection chooseConnection(final RequestMessage msg) throws TimeoutException, ConnectionException;
+    protected abstract CompletableFuture<Connection> chooseConnection(final RequestMessage msg);
 
     /**
      * Asynchronous close of the {@code Client}.
@@ -117,23 +116,27 @@ public abstract class Client {
             init();
 
         final CompletableFuture<ResultSet> future = new CompletableFuture<>();
-        Connection connection = null;
-        try {
-            // the connection is returned to the pool once the response has been completed...see Connection.write()
-            // the connection may be returned to the pool with the host being marked as "unavailable"
-            connection = chooseConnection(msg);
-            connection.write(msg, future);
-            return future;
-        } catch (TimeoutException toe) {
-            // there was a timeout borrowing a connection
-            throw new RuntimeException(toe);
-        } catch (ConnectionException ce) {
-            throw new RuntimeException(ce);
-        } catch (Exception ex) {
-            throw new RuntimeException(ex);
-        } finally {
-            logger.debug("Submitted {} to - {}", msg, null == connection ? "connection not initialized" : connection.toString());
-        }
+
+        // the connection is returned to the pool once the response has been completed...see Connection.write()
+        // the connection may be returned to the pool with the host being marked as "unavailable".  the caller does
+        // not wait for a connection to be borrowed as the message is written once one is available.
+        chooseConnection(msg).whenComplete((connection, t) -> {
+            if (t != null) {
+                // there was a timeout borrowing a connection or the pool was closed
+                logger.debug("Submitted {} to - connection not initialized", msg);
+                future.completeExceptionally(t);
+            } else {
+                try {
+                    connection.write(msg, future);
+                } catch (Exception ex) {
+                    future.completeExceptionally(ex);
+                } finally {
+                    logger.debug("Submitted {} to - {}", msg, connection);
+                }
+            }
+        });
+
+        return future;
     }
 
     public void close() {
@@ -154,9 +157,13 @@ public abstract class Client {
         }
 
         @Override
-        protected Connection chooseConnection(final RequestMessage msg) throws TimeoutException, ConnectionException {
+        protected CompletableFuture<Connection> chooseConnection(final RequestMessage msg) {
             final Iterator<Host> possibleHosts = this.cluster.loadBalancingStrategy().select(msg);
-            if (!possibleHosts.hasNext()) throw new TimeoutException("Timed out waiting for an available host.");
+            if (!possibleHosts.hasNext()) {
+                final CompletableFuture<Connection> noHost = new CompletableFuture<>();
+                noHost.completeExceptionally(new TimeoutException("Timed out waiting for an available host."));
+                return noHost;
+            }
 
             final Host bestHost = this.cluster.loadBalancingStrategy().select(msg).next();
             final ConnectionPool pool = hostConnectionPools.get(bestHost);
@@ -210,7 +217,7 @@ public abstract class Client {
         }
 
         @Override
-        protected Connection chooseConnection(final RequestMessage msg) throws TimeoutException, ConnectionException {
+        protected CompletableFuture<Connection> chooseConnection(final RequestMessage msg) {
             return connectionPool.borrowConnection(cluster.connectionPoolSettings().maxWaitForConnection, TimeUnit.MILLISECONDS);
         }
 
@@ -148,32 +148,30 @@ class Connection {
     }
 
     public ChannelPromise write(final RequestMessage requestMessage, final CompletableFuture<ResultSet> future) {
-        // once there is a completed write, then create a traverser for the result set and complete
-        // the promise so that the client knows that that it can start checking for results.
+        // the response queue is pending before the request is written as the response can arrive before the
+        // listener on the write is notified.  once there is a completed write, then create a traverser for the
+        // result set and complete the promise so that the client knows that that it can start checking for results.
         final Connection thisConnection = this;
+        final LinkedBlockingQueue<ResponseMessage> responseQueue = new LinkedBlockingQueue<>();
+        final CompletableFuture<Void> readCompleted = new CompletableFuture<>();
+        readCompleted.thenAcceptAsync(v -> {
+            thisConnection.returnToPool();
+            if (isClosed() && pending.isEmpty())
+                shutdown(closeFuture.get());
+        });
+        final ResponseQueue handler = new ResponseQueue(responseQueue, readCompleted);
+        pending.put(requestMessage.getRequestId(), handler);
+
         final ChannelPromise promise = channel.newPromise()
                 .addListener(f -> {
                     if (!f.isSuccess()) {
                         logger.debug(String.format("Write on connection %s failed", thisConnection), f.cause());
+                        pending.remove(requestMessage.getRequestId());
                         thisConnection.isDead = true;
                         thisConnection.returnToPool();
                         future.completeExceptionally(f.cause());
                     } else {
-                        final LinkedBlockingQueue<ResponseMessage> responseQueue = new LinkedBlockingQueue<>();
-                        final CompletableFuture<Void> readCompleted = new CompletableFuture<>();
-                        readCompleted.thenAcceptAsync(v -> {
-                            thisConnection.returnToPool();
-                            if (isClosed() && pending.isEmpty())
-                                shutdown(closeFuture.get());
-                        });
-                        final ResponseQueue handler = new ResponseQueue(responseQueue, readCompleted);
-                        pending.put(requestMessage.getRequestId(), handler);
-                        final ResultSet resultSet = new ResultSet(handler, cluster.executor(), channel,
-                                () -> {
-                                    pending.remove(requestMessage.getRequestId());
-                                    return null;
-                                });
-                        future.complete(resultSet);
+                        future.complete(new ResultSet(handler, cluster.executor()));
                     }
                 });
         channel.writeAndFlush(requestMessage, promise);
@@ -19,25 +19,31 @@
 package org.apache.tinkerpop.gremlin.driver;
 
 import org.apache.tinkerpop.gremlin.driver.exception.ConnectionException;
-import org.apache.tinkerpop.gremlin.util.TimeUtil;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Queue;
 import java.util.Set;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.CopyOnWriteArraySet;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicReference;
-import java.util.concurrent.locks.Condition;
-import java.util.concurrent.locks.Lock;
-import java.util.concurrent.locks.ReentrantLock;
 
 /**
+ * A pool of {@link Connection} objects to a {@link Host}.  Connections are borrowed without locking: each borrower
+ * takes the least used connection, starting its search at a connection chosen by its thread so that concurrent
+ * borrowers spread over the pool rather than contending for the in flight count of the same connection.  When no
+ * connection has capacity, the borrower receives a future that is queued and completed with a connection as one is
+ * returned or added to the pool, or failed once the wait times out.
+ *
  * @author Stephen Mallette (http://stephen.genoprime.com)
  */
 class ConnectionPool {
@@ -63,9 +69,7 @@ class ConnectionPool {
 
     private final AtomicReference<CompletableFuture<Void>> closeFuture = new AtomicReference<>();
 
-    private volatile int waiter = 0;
-    private final Lock waitLock = new ReentrantLock(true);
-    private final Condition hasAvailableConnection = waitLock.newCondition();
+    private final Queue<Waiter> waiters = new ConcurrentLinkedQueue<>();
 
     public ConnectionPool(final Host host, final Cluster cluster) {
         this.host = host;
@@ -100,12 +104,15 @@ class ConnectionPool {
         return cluster.connectionPoolSettings();
     }
 
-    public Connection borrowConnection(final long timeout, final TimeUnit unit) throws TimeoutException, ConnectionException {
+    /**
+     * Borrows a connection from the pool without blocking.  The future completes immediately if a connection has
+     * capacity for another request and otherwise once one does, failing with a {@link TimeoutException} if that
+     * takes longer than the timeout or with a {@link ConnectionException} if the pool is closed.
+     */
+    public CompletableFuture<Connection> borrowConnection(final long timeout, final TimeUnit unit) {
         logger.debug("Borrowing connection from pool on {} - timeout in {} {}", host, timeout, unit);
 
-        if (isClosed()) throw new ConnectionException(host.getHostUri(), host.getAddress(), "Pool is shutdown");
-
-        final Connection leastUsedConn = selectLeastUsed();
+        if (isClosed()) return failed(new ConnectionException(host.getHostUri(), host.getAddress(), "Pool is shutdown"));
 
         if (connections.isEmpty()) {
             logger.debug("Tried to borrow connection but the pool was empty for {} - scheduling pool creation and waiting for connection", host);
@@ -117,39 +124,23 @@ class ConnectionPool {
             return waitForConnection(timeout, unit);
         }
 
+        final Connection leastUsedConn = tryBorrowLeastUsed();
         if (null == leastUsedConn) {
-            if (isClosed())
-                throw new ConnectionException(host.getHostUri(), host.getAddress(), "Pool is shutdown");
-            logger.debug("Pool was initialized but a connection could not be selected earlier - waiting for connection on {}", host);
+            logger.debug("Connections in pool for {} are busy or dead - waiting for connection", host);
             return waitForConnection(timeout, unit);
         }
 
         // if the number in flight on the least used connection exceeds the max allowed and the pool size is
         // not at maximum then consider opening a connection
         final int currentPoolSize = connections.size();
-        if (leastUsedConn.inFlight.get() >= maxSimultaneousRequestsPerConnection && currentPoolSize < maxPoolSize) {
+        if (leastUsedConn.inFlight.get() > maxSimultaneousRequestsPerConnection && currentPoolSize < maxPoolSize) {
             logger.debug("Least used {} on {} exceeds maxSimultaneousRequestsPerConnection but pool size {} < maxPoolSize - consider new connection",
                     leastUsedConn, host, currentPoolSize);
             considerNewConnection();
         }
 
-        while (true) {
-            final int inFlight = leastUsedConn.inFlight.get();
-            final int availableInProcess = leastUsedConn.availableInProcess();
-
-            // if the number in flight starts to exceed what's available for this connection, then we need
-            // to wait for a connection to become available.
-            if (inFlight >= leastUsedConn.availableInProcess()) {
-                logger.debug("Least used connection selected from pool for {} but inFlight [{}] >= availableInProcess [{}] - wait",
-                        host, inFlight, availableInProcess);
-                return waitForConnection(timeout, unit);
-            }
-
-            if (leastUsedConn.inFlight.compareAndSet(inFlight, inFlight + 1)) {
-                logger.debug("Return least used {} on {}", leastUsedConn, host);
-                return leastUsedConn;
-            }
-        }
+        logger.debug("Return least used {} on {}", leastUsedConn, host);
+        return CompletableFuture.completedFuture(leastUsedConn);
     }
 
     public void returnConnection(final Connection connection) throws ConnectionException {
@@ -304,50 +295,33 @@ class ConnectionPool {
         logger.debug("{} destroyed", connection);
     }
 
-    private Connection waitForConnection(final long timeout, final TimeUnit unit) throws TimeoutException, ConnectionException {
-        long start = System.nanoTime();
-        long remaining = timeout;
-        long to = timeout;
-        do {
-            try {
-                awaitAvailableConnection(remaining, unit);
-            } catch (InterruptedException e) {
-                Thread.currentThread().interrupt();
-                to = 0;
-            }
-
-            if (isClosed())
-                throw new ConnectionException(host.getHostUri(), host.getAddress(), "Pool is shutdown");
-
-            final Connection leastUsed = selectLeastUsed();
-            if (leastUsed != null) {
-                while (true) {
-                    final int inFlight = leastUsed.inFlight.get();
-                    final int availableInProcess = leastUsed.availableInProcess();
-                    if (inFlight >= availableInProcess) {
-                        logger.debug("Least used {} on {} has requests inFlight [{}] >= availableInProcess [{}] - may timeout waiting for connection",
-                                leastUsed, host, inFlight, availableInProcess);
-                        break;
-                    }
-
-                    if (leastUsed.inFlight.compareAndSet(inFlight, inFlight + 1)) {
-                        logger.debug("Return least used {} on {} after waiting", leastUsed, host);
-                        return leastUsed;
-                    }
+    private CompletableFuture<Connection> waitForConnection(final long timeout, final TimeUnit unit) {
+        final Waiter waiter = new Waiter();
+        waiters.offer(waiter);
+        try {
+            waiter.timeout = cluster.executor().schedule(() -> {
+                // only the one who removes the waiter from the queue may complete it
+                if (waiters.remove(waiter)) {
+                    logger.debug("Timed-out waiting for connection on {} - possibly unavailable", host);
+
+                    // if we timeout borrowing a connection that might mean the host is dead (or the timeout was super
+                    // short). either way supply a function to reconnect
+                    considerUnavailable();
+                    waiter.future.completeExceptionally(new TimeoutException());
                 }
-            }
-
-            remaining = to - TimeUtil.timeSince(start, unit);
-            logger.debug("Continue to wait for connection on {} if {} > 0", remaining);
-        } while (remaining > 0);
-
-        logger.debug("Timed-out waiting for connection on {} - possibly unavailable", host);
+            }, timeout, unit);
+        } catch (RejectedExecutionException ree) {
+            if (waiters.remove(waiter))
+                waiter.future.completeExceptionally(new ConnectionException(host.getHostUri(), host.getAddress(), "Pool is shutdown"));
+        }
 
-        // if we timeout borrowing a connection that might mean the host is dead (or the timeout was super short).
-        // either way supply a function to reconnect
-        this.considerUnavailable();
+        // a connection may have been returned between trying to borrow it and joining the queue
+        if (isClosed())
+            announceAllAvailableConnection();
+        else
+            announceAvailableConnection();
 
-        throw new TimeoutException();
+        return waiter.future;
     }
 
     private void considerUnavailable() {
@@ -379,22 +353,63 @@ class ConnectionPool {
     private void announceAvailableConnection() {
         logger.debug("Announce connection available on {}", host);
 
-        if (waiter == 0)
-            return;
+        Waiter waiter;
+        while ((waiter = waiters.peek()) != null) {
+            final Connection connection = tryBorrowLeastUsed();
+            if (null == connection)
+                return;
 
-        waitLock.lock();
-        try {
-            hasAvailableConnection.signal();
-        } finally {
-            waitLock.unlock();
+            if (waiters.remove(waiter)) {
+                logger.debug("Return least used {} on {} after waiting", connection, host);
+                if (waiter.timeout != null) waiter.timeout.cancel(false);
+                waiter.future.complete(connection);
+            } else {
+                // the waiter timed out or was served by another thread so give up the connection and try the next one
+                connection.inFlight.decrementAndGet();
+            }
+        }
+    }
+
+    /**
+     * Increments the in flight count of the least used connection that has capacity for another request, returning
+     * {@code null} if there is no such connection.
+     */
+    private Connection tryBorrowLeastUsed() {
+        while (true) {
+            final Connection leastUsed = selectLeastUsed();
+            if (null == leastUsed)
+                return null;
+
+            final int inFlight = leastUsed.inFlight.get();
+            final int availableInProcess = leastUsed.availableInProcess();
+
+            // if the number in flight starts to exceed what's available for this connection, then we need
+            // to wait for a connection to become available.
+            if (inFlight >= availableInProcess) {
+                logger.debug("Least used {} on {} has requests inFlight [{}] >= availableInProcess [{}] - wait",
+                        leastUsed, host, inFlight, availableInProcess);
+                return null;
+            }
+
+            // another borrower took the connection first, so select again as it may no longer be the least used
+            if (leastUsed.inFlight.compareAndSet(inFlight, inFlight + 1))
+                return leastUsed;
         }
     }
 
     private Connection selectLeastUsed() {
+        final Object[] snapshot = connections.toArray();
+        if (snapshot.length == 0)
+            return null;
+
+        // start from a connection chosen by the thread so that ties between borrowers on different threads are
+        // broken toward different connections
+        final int offset = (int) (Thread.currentThread().getId() % snapshot.length);
         int minInFlight = Integer.MAX_VALUE;
         Connection leastBusy = null;
-        for (Connection connection : connections) {
-            int inFlight = connection.inFlight.get();
+        for (int i = 0; i < snapshot.length; i++) {
+            final Connection connection = (Connection) snapshot[(offset + i) % snapshot.length];
+            final int inFlight = connection.inFlight.get();
             if (!connection.isDead() && inFlight < minInFlight) {
                 minInFlight = inFlight;
                 leastBusy = connection;
@@ -403,29 +418,18 @@ class ConnectionPool {
         return leastBusy;
     }
 
-    private void awaitAvailableConnection(long timeout, TimeUnit unit) throws InterruptedException {
-        logger.debug("Wait {} {} for an available connection on {} with {}", timeout, unit, host, Thread.currentThread());
-
-        waitLock.lock();
-        waiter++;
-        try {
-            hasAvailableConnection.await(timeout, unit);
-        } finally {
-            waiter--;
-            waitLock.unlock();
+    private void announceAllAvailableConnection() {
+        Waiter waiter;
+        while ((waiter = waiters.poll()) != null) {
+            if (waiter.timeout != null) waiter.timeout.cancel(false);
+            waiter.future.completeExceptionally(new ConnectionException(host.getHostUri(), host.getAddress(), "Pool is shutdown"));
         }
     }
 
-    private void announceAllAvailableConnection() {
-        if (waiter == 0)
-            return;
-
-        waitLock.lock();
-        try {
-            hasAvailableConnection.signalAll();
-        } finally {
-            waitLock.unlock();
-        }
+    private static <T> CompletableFuture<T> failed(final Throwable t) {
+        final CompletableFuture<T> future = new CompletableFuture<>();
+        future.completeExceptionally(t);
+        return future;
     }
 
     @Override
@@ -439,4 +443,9 @@ class ConnectionPool {
         });
         return sb.toString().trim();
     }
+
+    private static final class Waiter {
+        private final CompletableFuture<Connection> future = new CompletableFuture<>();
+        private volatile ScheduledFuture<?> timeout;
+    }
 }
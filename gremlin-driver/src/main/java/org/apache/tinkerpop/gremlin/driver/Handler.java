@@ -62,11 +62,21 @@ class Handler {
                 } else if (response.getStatus().getCode() == ResponseStatusCode.SUCCESS_TERMINATOR)
                     pending.remove(response.getRequestId()).markComplete();
                 else
-                    pending.get(response.getRequestId()).markError(new ResponseException(response.getStatus().getCode(), response.getStatus().getMessage()));
+                    pending.remove(response.getRequestId()).markError(new ResponseException(response.getStatus().getCode(), response.getStatus().getMessage()));
             } finally {
                 ReferenceCountUtil.release(response);
             }
         }
+
+        @Override
+        public void channelInactive(final ChannelHandlerContext ctx) throws Exception {
+            // fail the requests still waiting on results as nothing further will be read for them
+            pending.keySet().forEach(requestId -> {
+                final ResponseQueue queue = pending.remove(requestId);
+                if (queue != null) queue.markChannelClosed();
+            });
+            super.channelInactive(ctx);
+        }
     }
 
 }
@@ -20,15 +20,20 @@ package org.apache.tinkerpop.gremlin.driver;
 
 import org.apache.tinkerpop.gremlin.driver.message.ResponseMessage;
 
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.LinkedBlockingQueue;
-import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicReference;
 
 /**
  * A queue of incoming {@link ResponseMessage} objects.  The queue is updated by the
  * {@link org.apache.tinkerpop.gremlin.driver.Handler.GremlinResponseHandler} until a response terminator is identified.  At that point the fetch
  * status is changed to {@link Status#COMPLETE} and all results have made it client side.
+ * <p/>
+ * Those waiting on results are not polling the queue.  The futures returned from {@link #await(int)} are completed by
+ * the thread that updates the queue once enough results have arrived, the results are complete or an error occurred.
  *
  * @author Stephen Mallette (http://stephen.genoprime.com)
  */
@@ -46,6 +51,11 @@ class ResponseQueue {
 
     private final CompletableFuture<Void> readComplete;
 
+    /**
+     * The futures awaiting some number of items in the queue, guarded by the list itself.
+     */
+    private final List<Waiting> waiting = new ArrayList<>();
+
     public ResponseQueue(final LinkedBlockingQueue<ResponseMessage> responseQueue, final CompletableFuture<Void> readComplete) {
         this.responseQueue = responseQueue;
         this.readComplete = readComplete;
@@ -53,32 +63,39 @@ class ResponseQueue {
 
     public void add(final ResponseMessage msg) {
         this.responseQueue.offer(msg);
+        notifyWaiting();
     }
 
     public int size() {
-        if (error.get() != null) throw new RuntimeException(error.get());
         return this.responseQueue.size();
     }
 
     public boolean isEmpty() {
         if (error.get() != null) throw new RuntimeException(error.get());
-        return this.size() == 0;
+        return this.responseQueue.isEmpty();
     }
 
+    /**
+     * Gets the next message in the queue without waiting for one to arrive, returning {@code null} if there is none.
+     */
     public ResponseMessage poll() {
-        ResponseMessage msg = null;
-        do {
-            if (error.get() != null) throw new RuntimeException(error.get());
-            try {
-                msg = responseQueue.poll(10, TimeUnit.MILLISECONDS);
-            } catch (InterruptedException ie) {
-                error.set(new RuntimeException(ie));
-            }
-        } while (null == msg && status == Status.FETCHING);
-
         if (error.get() != null) throw new RuntimeException(error.get());
+        return responseQueue.poll();
+    }
 
-        return msg;
+    /**
+     * Gets a future that completes with the number of items in the queue once there are at least that many items or
+     * once all items have arrived, and that completes exceptionally if an error occurs first.
+     */
+    public CompletableFuture<Integer> await(final int items) {
+        final Waiting await = new Waiting(items);
+        synchronized (waiting) {
+            waiting.add(await);
+        }
+
+        // the queue may have been updated before the future was added so check it now that it is
+        notifyWaiting();
+        return await.future;
     }
 
     public Status getStatus() {
@@ -88,10 +105,54 @@ class ResponseQueue {
     void markComplete() {
         this.status = Status.COMPLETE;
         this.readComplete.complete(null);
+        notifyWaiting();
     }
 
     void markError(final Throwable throwable) {
         error.set(throwable);
         this.readComplete.complete(null);
+        notifyWaiting();
+    }
+
+    /**
+     * Fails the request as its channel closed before all results arrived, without completing the read as the
+     * connection will not read anything further.
+     */
+    void markChannelClosed() {
+        error.compareAndSet(null, new RuntimeException("Error while processing results from channel - check client and server logs for more information"));
+        notifyWaiting();
+    }
+
+    private void notifyWaiting() {
+        final Throwable t = error.get();
+        final List<Waiting> ready = new ArrayList<>();
+        synchronized (waiting) {
+            if (waiting.isEmpty()) return;
+            final Iterator<Waiting> itty = waiting.iterator();
+            while (itty.hasNext()) {
+                final Waiting await = itty.next();
+                if (t != null || status == Status.COMPLETE || responseQueue.size() >= await.items) {
+                    itty.remove();
+                    ready.add(await);
+                }
+            }
+        }
+
+        // complete outside of the lock as dependent stages may run on this thread
+        for (final Waiting await : ready) {
+            if (t != null)
+                await.future.completeExceptionally(t instanceof RuntimeException ? t : new RuntimeException(t));
+            else
+                await.future.complete(responseQueue.size());
+        }
+    }
+
+    private static final class Waiting {
+        private final int items;
+        private final CompletableFuture<Integer> future = new CompletableFuture<>();
+
+        private Waiting(final int items) {
+            this.items = items;
+        }
     }
 }
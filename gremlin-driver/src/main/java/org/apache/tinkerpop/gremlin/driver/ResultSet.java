@@ -19,8 +19,6 @@
 package org.apache.tinkerpop.gremlin.driver;
 
 import org.apache.tinkerpop.gremlin.driver.message.ResponseMessage;
-import org.apache.tinkerpop.gremlin.util.StreamFactory;
-import io.netty.channel.Channel;
 
 import java.util.ArrayList;
 import java.util.Iterator;
@@ -28,8 +26,12 @@ import java.util.List;
 import java.util.Spliterator;
 import java.util.Spliterators;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.concurrent.ExecutorService;
-import java.util.function.Supplier;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
 import java.util.stream.Stream;
 import java.util.stream.StreamSupport;
 
@@ -39,21 +41,20 @@ import java.util.stream.StreamSupport;
  * therefore may not be available immediately.  As such, {@code ResultSet} provides access to a a number
  * of functions that help to work with the asynchronous nature of the data streaming back.  Data from results
  * is stored in an {@link Result} which can be used to retrieve the item once it is on the client side.
+ * <p/>
+ * The futures returned from {@link #awaitItems(int)} and {@link #all()} are completed as results arrive rather than
+ * by a thread waiting on them, and results can be pushed to a {@link Subscriber} as it signals demand for them
+ * with {@link #subscribe(Subscriber)}.  A {@code ResultSet} should be consumed in only one of these ways.
  *
  * @author Stephen Mallette (http://stephen.genoprime.com)
  */
 public class ResultSet implements Iterable<Result> {
     private final ResponseQueue responseQueue;
     private final ExecutorService executor;
-    private final Channel channel;
-    private final Supplier<Void> onChannelError;
 
-    public ResultSet(final ResponseQueue responseQueue, final ExecutorService executor,
-                     final Channel channel, final Supplier<Void> onChannelError) {
+    public ResultSet(final ResponseQueue responseQueue, final ExecutorService executor) {
         this.executor = executor;
         this.responseQueue = responseQueue;
-        this.channel = channel;
-        this.onChannelError = onChannelError;
     }
 
     /**
@@ -105,27 +106,32 @@ public class ResultSet implements Iterable<Result> {
      * available which may or may not be the number the caller was waiting for.
      */
     public CompletableFuture<Integer> awaitItems(final int items) {
-        if (allItemsAvailable())
-            CompletableFuture.completedFuture(getAvailableItemCount());
-
-        return CompletableFuture.supplyAsync(() -> internalAwaitItems(items), executor);
+        // dependent stages run on the executor rather than the thread reading from the server
+        return responseQueue.await(items).thenApplyAsync(Function.identity(), executor);
     }
 
     /**
      * Wait for all items to be available on the client exhausting the stream.
      */
     public CompletableFuture<List<Result>> all() {
-        return CompletableFuture.supplyAsync(() -> {
-            final List<Result> list = new ArrayList<>();
-            while (!isExhausted()) {
-                final ResponseMessage msg = responseQueue.poll();
-                if (msg != null)
-                    list.add(new Result(msg));
+        return responseQueue.await(Integer.MAX_VALUE).thenApplyAsync(available -> {
+            final List<Result> list = new ArrayList<>(available);
+            ResponseMessage msg;
+            while ((msg = responseQueue.poll()) != null) {
+                list.add(new Result(msg));
             }
             return list;
         }, executor);
     }
 
+    /**
+     * Pushes the results to the {@link Subscriber} as it requests them, calling it on the executor of the
+     * {@link Cluster} and never from more than one thread at a time.
+     */
+    public void subscribe(final Subscriber subscriber) {
+        subscriber.onSubscribe(new ResultSubscription(subscriber));
+    }
+
     /**
      * Stream items with a blocking iterator.
      */
@@ -155,13 +161,123 @@ public class ResultSet implements Iterable<Result> {
     }
 
     private int internalAwaitItems(final int items) {
-        while (!allItemsAvailable() && getAvailableItemCount() < items) {
-            if (!channel.isOpen()) {
-                onChannelError.get();
-                throw new RuntimeException("Error while processing results from channel - check client and server logs for more information");
+        try {
+            return responseQueue.await(items).join();
+        } catch (CompletionException ce) {
+            throw ce.getCause() instanceof RuntimeException ? (RuntimeException) ce.getCause() : new RuntimeException(ce.getCause());
+        }
+    }
+
+    /**
+     * Receives the results of a {@code ResultSet} as it signals demand for them through its {@link Subscription},
+     * following the protocol of a reactive streams subscriber.
+     */
+    public interface Subscriber {
+
+        /**
+         * Called once with the {@link Subscription} through which results are requested before any other method.
+         */
+        public void onSubscribe(final Subscription subscription);
+
+        /**
+         * Called with each result requested.
+         */
+        public void onNext(final Result result);
+
+        /**
+         * Called once if the request failed, after which no other method is called.
+         */
+        public void onError(final Throwable throwable);
+
+        /**
+         * Called once after the last result, after which no other method is called.
+         */
+        public void onComplete();
+    }
+
+    /**
+     * Signals the demand of a {@link Subscriber} for results.
+     */
+    public interface Subscription {
+
+        /**
+         * Requests that up to {@code n} more results be pushed to the {@link Subscriber}.
+         */
+        public void request(final long n);
+
+        /**
+         * Requests that no further results be pushed to the {@link Subscriber}.
+         */
+        public void cancel();
+    }
+
+    /**
+     * Drains the results to a {@link Subscriber} on the executor for as long as there is demand for them, waiting on
+     * the {@link ResponseQueue} once it runs out of results rather than polling it.
+     */
+    private final class ResultSubscription implements Subscription {
+        private final Subscriber subscriber;
+        private final AtomicLong requested = new AtomicLong(0);
+        private final AtomicInteger wip = new AtomicInteger(0);
+        private final AtomicBoolean awaiting = new AtomicBoolean(false);
+        private volatile boolean done = false;
+
+        private ResultSubscription(final Subscriber subscriber) {
+            this.subscriber = subscriber;
+        }
+
+        @Override
+        public void request(final long n) {
+            if (n <= 0) {
+                cancel();
+                subscriber.onError(new IllegalArgumentException("The number of results requested must be positive but was " + n));
+                return;
             }
+
+            requested.accumulateAndGet(n, (r, m) -> r + m < 0 ? Long.MAX_VALUE : r + m);
+            signal();
+        }
+
+        @Override
+        public void cancel() {
+            done = true;
+        }
+
+        private void signal() {
+            if (wip.getAndIncrement() == 0)
+                executor.execute(this::drain);
         }
 
-        return getAvailableItemCount();
+        private void drain() {
+            int missed = 1;
+            do {
+                try {
+                    ResponseMessage msg;
+                    while (!done && requested.get() > 0 && (msg = responseQueue.poll()) != null) {
+                        requested.decrementAndGet();
+                        subscriber.onNext(new Result(msg));
+                    }
+
+                    if (!done && allItemsAvailable() && responseQueue.isEmpty()) {
+                        done = true;
+                        subscriber.onComplete();
+                    } else if (!done && (requested.get() > 0 || responseQueue.isEmpty()) && awaiting.compareAndSet(false, true)) {
+                        // drain again once another result arrives or the results are complete, so that completion
+                        // is signalled even without demand
+                        responseQueue.await(1).whenComplete((items, t) -> {
+                            awaiting.set(false);
+                            signal();
+                        });
+                    }
+                } catch (Exception ex) {
+                    if (!done) {
+                        done = true;
+                        subscriber.onError(ex);
+                    }
+                }
+
+                missed = wip.addAndGet(-missed);
+            } while (missed != 0);
+        }
     }
 }
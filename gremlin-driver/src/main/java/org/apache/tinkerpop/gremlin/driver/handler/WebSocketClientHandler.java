@@ -63,6 +63,9 @@ public class WebSocketClientHandler extends SimpleChannelInboundHandler<Object>
     @Override
     public void channelInactive(final ChannelHandlerContext ctx) throws Exception {
         //System.out.println("WebSocket Client disconnected!");
+
+        // the response handler fails any requests still waiting on results when it sees the channel go inactive
+        super.channelInactive(ctx);
     }
 
     @Override
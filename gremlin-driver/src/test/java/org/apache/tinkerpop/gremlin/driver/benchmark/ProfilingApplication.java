@@ -21,9 +21,11 @@ package org.apache.tinkerpop.gremlin.driver.benchmark;
 import org.apache.tinkerpop.gremlin.driver.Client;
 import org.apache.tinkerpop.gremlin.driver.Cluster;
 
+import java.util.Arrays;
 import java.util.List;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.Semaphore;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
 import java.util.concurrent.atomic.AtomicInteger;
@@ -31,6 +33,13 @@ import java.util.stream.Collectors;
 import java.util.stream.IntStream;
 
 /**
+ * Issues requests from several clients on a single {@link Cluster} against a running Gremlin Server and reports the
+ * throughput and the latency percentiles of the requests, as measured from their submission until all of their
+ * results arrive.  Each client keeps a bounded number of requests outstanding so that the latencies reflect the time
+ * spent borrowing connections rather than the length of the backlog.  The host, the number of clients, the number of
+ * requests per client, the size of the connection pool and the number of outstanding requests per client may be given
+ * as arguments in that order.
+ *
  * @author Stephen Mallette (http://stephen.genoprime.com)
  */
 public class ProfilingApplication {
@@ -40,11 +49,14 @@ public class ProfilingApplication {
 
             final String host = args.length == 0 ? "localhost" : args[0];
 
-            final int clients = 1;
-            final int requests = 10000;
+            final int clients = args.length < 2 ? 1 : Integer.parseInt(args[1]);
+            final int requests = args.length < 3 ? 10000 : Integer.parseInt(args[2]);
+            final int poolSize = args.length < 4 ? 256 : Integer.parseInt(args[3]);
+            final int outstanding = args.length < 5 ? 64 : Integer.parseInt(args[4]);
             final Cluster cluster = Cluster.build(host)
-                    .minConnectionPoolSize(256)
-                    .maxConnectionPoolSize(256)
+                    .minConnectionPoolSize(poolSize)
+                    .maxConnectionPoolSize(poolSize)
+                    .maxWaitForConnection(30000)
                     .nioPoolSize(clients)
                     .workerPoolSize(clients * 2).create();
 
@@ -56,6 +68,8 @@ public class ProfilingApplication {
             final List<Thread> threads = IntStream.range(0, clients).mapToObj(t -> new Thread(() -> {
                 try {
                     final CountDownLatch latch = new CountDownLatch(requests);
+                    final long[] latencies = new long[requests];
+                    final Semaphore permits = new Semaphore(outstanding);
 
                     final Client client = cluster.connect();
                     client.init();
@@ -66,14 +80,19 @@ public class ProfilingApplication {
                     System.out.println("Executing at [" + t + "]:" + start);
 
                     IntStream.range(0, requests).forEach(i -> {
-                        client.submitAsync("1+1").thenAcceptAsync(r -> {
+                        permits.acquireUninterruptibly();
+                        final long submitted = System.nanoTime();
+                        client.submitAsync("1+1").whenCompleteAsync((r, th) -> {
                             try {
+                                if (th != null) throw new RuntimeException(th);
                                 r.all().get(100, TimeUnit.MILLISECONDS);
                             } catch (TimeoutException ex) {
                                 tooSlow.incrementAndGet();
                             } catch (Exception ex) {
                                 ex.printStackTrace();
                             } finally {
+                                latencies[i] = System.nanoTime() - submitted;
+                                permits.release();
                                 latch.countDown();
                             }
                         });
@@ -86,10 +105,15 @@ public class ProfilingApplication {
 
                     System.out.println("All responses for [" + t + "] are accounted for at: " + end);
 
-                    final long totalSeconds = Math.round(total / 1000000000d);
+                    final double totalSeconds = total / 1000000000d;
                     final long requestCount = requests;
                     final long reqSec = Math.round(requestCount / totalSeconds);
-                    System.out.println(String.format("[" + t + "] clients: %s | requests: %s | time(s): %s | req/sec: %s | too slow: %s", clients, requestCount, totalSeconds, reqSec, tooSlow.get()));
+
+                    // the latch has been counted down by every request so all of the latencies are visible here
+                    Arrays.sort(latencies);
+                    System.out.println(String.format("[" + t + "] clients: %s | requests: %s | time(s): %.2f | req/sec: %s | too slow: %s | p50(ms): %.2f | p99(ms): %.2f | max(ms): %.2f",
+                            clients, requestCount, totalSeconds, reqSec, tooSlow.get(),
+                            percentile(latencies, 0.50), percentile(latencies, 0.99), latencies[requests - 1] / 1000000d));
                 } catch (Exception ex) {
                     ex.printStackTrace();
                     throw new RuntimeException(ex);
@@ -120,4 +144,9 @@ public class ProfilingApplication {
             System.exit(0);
         }
     }
+
+    private static double percentile(final long[] sortedLatencies, final double percentile) {
+        final int index = (int) Math.ceil(percentile * sortedLatencies.length) - 1;
+        return sortedLatencies[Math.max(index, 0)] / 1000000d;
+    }
 }
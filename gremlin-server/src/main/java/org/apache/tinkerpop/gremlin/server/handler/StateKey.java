@@ -22,6 +22,8 @@ import org.apache.tinkerpop.gremlin.driver.MessageSerializer;
 import org.apache.tinkerpop.gremlin.server.op.session.Session;
 import io.netty.util.AttributeKey;
 
+import java.util.Queue;
+
 /**
  * @author Stephen Mallette (http://stephen.genoprime.com)
  */
@@ -29,4 +31,9 @@ public class StateKey {
     public static final AttributeKey<MessageSerializer> SERIALIZER = AttributeKey.valueOf("serializer");
     public static final AttributeKey<Boolean> USE_BINARY = AttributeKey.valueOf("useBinary");
     public static final AttributeKey<Session> SESSION = AttributeKey.valueOf("session");
+
+    /**
+     * The actions that resume result iterations paused because the channel stopped being writable.
+     */
+    public static final AttributeKey<Queue<Runnable>> PAUSED_WRITES = AttributeKey.valueOf("pausedWrites");
 }
@@ -0,0 +1,58 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tinkerpop.gremlin.server.handler;
+
+import io.netty.channel.ChannelHandler;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.ChannelInboundHandlerAdapter;
+
+import java.util.Queue;
+
+/**
+ * Resumes the result iterations that paused because the channel went over its {@code writeBufferHighWaterMark}
+ * once the channel is writable again, so that a lagging client does not hold a worker thread while it catches up.
+ * Paused iterations are also resumed when the channel closes so that they can complete.
+ *
+ * @author agent
+ */
+@ChannelHandler.Sharable
+public class WritabilityHandler extends ChannelInboundHandlerAdapter {
+
+    @Override
+    public void channelWritabilityChanged(final ChannelHandlerContext ctx) throws Exception {
+        if (ctx.channel().isWritable()) resume(ctx);
+        super.channelWritabilityChanged(ctx);
+    }
+
+    @Override
+    public void channelInactive(final ChannelHandlerContext ctx) throws Exception {
+        resume(ctx);
+        super.channelInactive(ctx);
+    }
+
+    private static void resume(final ChannelHandlerContext ctx) {
+        final Queue<Runnable> pausedWrites = ctx.channel().attr(StateKey.PAUSED_WRITES).get();
+        if (null == pausedWrites) return;
+
+        Runnable resume;
+        while ((resume = pausedWrites.poll()) != null) {
+            resume.run();
+        }
+    }
+}
@@ -25,16 +25,19 @@ import org.apache.tinkerpop.gremlin.driver.message.RequestMessage;
 import org.apache.tinkerpop.gremlin.driver.message.ResponseMessage;
 import org.apache.tinkerpop.gremlin.driver.message.ResponseStatusCode;
 import org.apache.tinkerpop.gremlin.groovy.engine.GremlinExecutor;
+import org.apache.tinkerpop.gremlin.process.traversal.Traversal;
 import org.apache.tinkerpop.gremlin.structure.T;
 import org.apache.tinkerpop.gremlin.server.Context;
 import org.apache.tinkerpop.gremlin.server.GremlinServer;
 import org.apache.tinkerpop.gremlin.server.OpProcessor;
 import org.apache.tinkerpop.gremlin.server.Settings;
+import org.apache.tinkerpop.gremlin.server.handler.StateKey;
+import org.apache.tinkerpop.gremlin.server.handler.WritabilityHandler;
 import org.apache.tinkerpop.gremlin.server.util.MetricManager;
 import org.apache.tinkerpop.gremlin.util.function.ThrowingConsumer;
 import org.apache.tinkerpop.gremlin.util.iterator.IteratorUtils;
 import io.netty.channel.ChannelHandlerContext;
-import org.apache.commons.lang.time.StopWatch;
+import io.netty.util.Attribute;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -45,10 +48,20 @@ import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Queue;
+import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
 import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Supplier;
 
 import static com.codahale.metrics.MetricRegistry.name;
@@ -73,6 +86,13 @@ public abstract class AbstractEvalOpProcessor implements OpProcessor {
             T.label.getAccessor(), T.value.getAccessor());
     private static final String invalidBindingKeysJoined = String.join(",", invalidBindingsKeys);
 
+    /**
+     * The number of batches that an iteration hands to the event loop before it waits for them to be flushed.
+     */
+    private static final int MAX_PENDING_BATCHES = 8;
+
+    private final boolean handleIteratorOverridden = overridesHandleIterator(getClass());
+
     /**
      * Provides an operation for evaluating a Gremlin script.
      */
@@ -116,12 +136,31 @@ public abstract class AbstractEvalOpProcessor implements OpProcessor {
         return Optional.empty();
     }
 
+    /**
+     * Gets the {@link TraversalCache} of the traversals returned by scripts evaluated by this processor or an empty
+     * {@link Optional} if the processor does not cache them, which is the default.
+     */
+    protected Optional<TraversalCache> getTraversalCache(final Context context) {
+        return Optional.empty();
+    }
+
+    /**
+     * Gets the {@link SampledTraversalMetrics} that records the metrics of the traversals returned by scripts
+     * evaluated by this processor or an empty {@link Optional} if the processor does not record them, which is the
+     * default.
+     */
+    protected Optional<SampledTraversalMetrics> getSampledTraversalMetrics(final Context context) {
+        return Optional.empty();
+    }
+
     /**
      * A generalized implementation of the "eval" operation.  It handles script evaluation and iteration of results
      * so as to write {@link ResponseMessage} objects down the Netty pipeline.  It also handles script timeouts,
-     * iteration timeouts, metrics and building bindings.  Note that result iteration is delegated to the
-     * {@link #handleIterator} method, so those extending this class could override that method for better control
-     * over result iteration.
+     * iteration timeouts, metrics, building bindings, the {@link TraversalCache} and the
+     * {@link SampledTraversalMetrics}.  Note that result iteration is delegated to the {@link #handleIteratorAsync}
+     * method, so those extending this class could override that method for better control over result iteration.
+     * Those that already override {@link #handleIterator} have it called in its place, as it was before iteration
+     * stopped holding a thread while writes are paused.
      *
      * @param context The current Gremlin Server {@link Context}
      * @param gremlinExecutorSupplier A function that returns the {@link GremlinExecutor} to use in executing the
@@ -141,9 +180,15 @@ public abstract class AbstractEvalOpProcessor implements OpProcessor {
 
         final String script = (String) args.get(Tokens.ARGS_GREMLIN);
         final String language = args.containsKey(Tokens.ARGS_LANGUAGE) ? (String) args.get(Tokens.ARGS_LANGUAGE) : null;
-        final Bindings bindings = bindingsSupplier.get();
+        final Map<String, Object> requestBindings = (Map<String, Object>) args.get(Tokens.ARGS_BINDINGS);
+
+        // a script that returned a traversal for the same bindings before need not be evaluated again
+        final Optional<TraversalCache> traversalCache = TraversalCache.isCacheable(script) ? getTraversalCache(context) : Optional.empty();
+        final Traversal.Admin<?, ?> cachedTraversal = traversalCache.map(cache -> cache.get(script, language, requestBindings)).orElse(null);
+        final Optional<SampledTraversalMetrics> traversalMetrics = getSampledTraversalMetrics(context);
 
-        final CompletableFuture<Object> evalFuture = gremlinExecutor.eval(script, language, bindings);
+        final CompletableFuture<Object> evalFuture = null == cachedTraversal ?
+                gremlinExecutor.eval(script, language, bindingsSupplier.get()) : CompletableFuture.completedFuture(cachedTraversal);
         evalFuture.handle((v, t) -> timerContext.stop());
         evalFuture.exceptionally(se -> {
             logger.warn(String.format("Exception processing a script on request [%s].", msg), se);
@@ -151,16 +196,31 @@ public abstract class AbstractEvalOpProcessor implements OpProcessor {
             return null;
         });
 
-        final CompletableFuture<Void> iterationFuture = evalFuture.thenAcceptAsync(o -> {
+        final CompletableFuture<Void> iterationFuture = evalFuture.thenComposeAsync(o -> {
+            // a cached traversal was instrumented before it was cached
+            if (null == cachedTraversal && o instanceof Traversal) {
+                traversalMetrics.ifPresent(metrics -> metrics.instrument(((Traversal) o).asAdmin()));
+                traversalCache.ifPresent(cache -> cache.put(script, language, requestBindings, ((Traversal) o).asAdmin()));
+            }
+
             final Iterator itty = IteratorUtils.asIterator(o);
 
             logger.debug("Preparing to iterate results from - {} - in thread [{}]", msg, Thread.currentThread().getName());
 
-            try {
-                handleIterator(context, itty);
-            } catch (Exception te) {
-                throw new RuntimeException(te);
+            final CompletableFuture<Void> iterated;
+            if (handleIteratorOverridden) {
+                try {
+                    handleIterator(context, itty);
+                } catch (Exception te) {
+                    throw new RuntimeException(te);
+                }
+                iterated = CompletableFuture.completedFuture(null);
+            } else {
+                iterated = handleIteratorAsync(context, itty, executor);
             }
+            if (o instanceof Traversal)
+                traversalMetrics.ifPresent(metrics -> iterated.thenRunAsync(() -> metrics.record(((Traversal) o).asAdmin()), executor));
+            return iterated;
         }, executor);
 
         iterationFuture.handleAsync((r, ex) -> {
@@ -185,70 +245,234 @@ public abstract class AbstractEvalOpProcessor implements OpProcessor {
     }
 
     /**
-     * Called by {@link #evalOpInternal} when iterating a result set. Implementers should respect the
-     * {@link Settings#serializedResponseTimeout} configuration and break the serialization process if
-     * it begins to take too long to do so, throwing a {@link java.util.concurrent.TimeoutException} in such
-     * cases.
+     * Called by {@link #evalOpInternal} when iterating a result set, in place of {@link #handleIteratorAsync}, if it
+     * is overridden. Implementers should respect the {@link Settings#serializedResponseTimeout} configuration and
+     * break the serialization process if it begins to take too long to do so, throwing a
+     * {@link java.util.concurrent.TimeoutException} in such cases.
+     * <p/>
+     * By default it holds the calling thread until {@link #handleIteratorAsync} has written all the results, running
+     * a paused iteration on that thread when it is resumed.
      *
      * @param context The Gremlin Server {@link Context} object containing settings, request message, etc.
      * @param itty The result to iterator
      * @throws TimeoutException if the time taken to serialize the entire result set exceeds the allowable time.
+     * @throws InterruptedException if the thread is interrupted while iterating.
      */
     protected void handleIterator(final Context context, final Iterator itty) throws TimeoutException, InterruptedException {
-        final ChannelHandlerContext ctx = context.getChannelHandlerContext();
-        final RequestMessage msg = context.getRequestMessage();
-        final Settings settings = context.getSettings();
-        boolean warnOnce = false;
-
-        // timer for the total serialization time
-        final StopWatch stopWatch = new StopWatch();
-        stopWatch.start();
-
-        // the batch size can be overridden by the request
-        final int resultIterationBatchSize = (Integer) msg.optionalArgs(Tokens.ARGS_BATCH_SIZE)
-                .orElse(settings.resultIterationBatchSize);
-        List<Object> aggregate = new ArrayList<>(resultIterationBatchSize);
-        while (itty.hasNext()) {
-            if (Thread.interrupted()) throw new InterruptedException();
-
-            // have to check the aggregate size because it is possible that the channel is not writeable (below)
-            // so iterating next() if the message is not written and flushed would bump the aggregate size beyond
-            // the expected resultIterationBatchSize.  Total serialization time for the response remains in
-            // effect so if the client is "slow" it may simply timeout.
-            if (aggregate.size() < resultIterationBatchSize) aggregate.add(itty.next());
-
-            // send back a page of results if batch size is met or if it's the end of the results being iterated.
-            // also check writeability of the channel to prevent OOME for slow clients.
-            if (ctx.channel().isWritable()) {
-                if  (aggregate.size() == resultIterationBatchSize || !itty.hasNext()) {
-                    ctx.writeAndFlush(ResponseMessage.build(msg)
-                            .code(ResponseStatusCode.SUCCESS)
-                            .result(aggregate).create());
-
-                    aggregate = new ArrayList<>(resultIterationBatchSize);
-                }
-            } else {
-                // don't keep triggering this warning over and over again for the same request
-                if (!warnOnce) {
-                    logger.warn("Pausing response writing as writeBufferHighWaterMark exceeded on {} - writing will continue once client has caught up", msg);
-                    warnOnce = true;
+        final BlockingQueue<Runnable> resumed = new LinkedBlockingQueue<>();
+        final CompletableFuture<Void> future = handleIteratorAsync(context, itty, resumed::offer);
+        future.whenComplete((v, t) -> resumed.offer(() -> {}));
+        while (!future.isDone()) {
+            resumed.take().run();
+        }
+
+        try {
+            future.join();
+        } catch (CompletionException ce) {
+            if (ce.getCause() instanceof TimeoutException)
+                throw (TimeoutException) ce.getCause();
+            if (ce.getCause() instanceof InterruptedException)
+                throw (InterruptedException) ce.getCause();
+            throw ce;
+        }
+    }
+
+    /**
+     * Called by {@link #evalOpInternal} when iterating a result set. Implementers should respect the
+     * {@link Settings#serializedResponseTimeout} configuration and break the serialization process if
+     * it begins to take too long to do so, completing the returned future with a
+     * {@link java.util.concurrent.TimeoutException} in such cases.
+     * <p/>
+     * Iteration pauses when the channel is no longer writable and returns its thread to the executor.  It is resumed
+     * on the executor when the {@link WritabilityHandler} sees the channel become writable again, so a slow client
+     * does not hold a worker thread while it catches up.  It also waits for the event loop to flush once it has
+     * handed it {@link #MAX_PENDING_BATCHES} batches, so that a fast iterator cannot queue up the entire result set.
+     *
+     * @param context The Gremlin Server {@link Context} object containing settings, request message, etc.
+     * @param itty The result to iterator
+     * @param executor The executor on which to resume a paused iteration
+     * @return a future that completes when all results are written, or completes exceptionally with a
+     * {@link TimeoutException} if the time taken to serialize the entire result set exceeds the allowable time.
+     */
+    protected CompletableFuture<Void> handleIteratorAsync(final Context context, final Iterator itty, final Executor executor) {
+        final ResultIteration iteration = new ResultIteration(context, itty, executor);
+        iteration.run();
+        return iteration.future;
+    }
+
+    /**
+     * Determines if a class extending this one overrides {@link #handleIterator}.
+     */
+    private static boolean overridesHandleIterator(final Class<?> clazz) {
+        for (Class<?> c = clazz; c != AbstractEvalOpProcessor.class; c = c.getSuperclass()) {
+            try {
+                c.getDeclaredMethod("handleIterator", Context.class, Iterator.class);
+                return true;
+            } catch (NoSuchMethodException nsme) {
+                // keep looking up the hierarchy
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Writes the results of an {@link Iterator} in batches until the channel stops being writable, at which point it
+     * queues itself on the channel to be resumed by the {@link WritabilityHandler}.  Batches are handed to the event
+     * loop, which writes all the batches handed to it since it last wrote and then flushes them once.  The iteration
+     * stops once {@link #MAX_PENDING_BATCHES} batches wait on the event loop and is resumed by the flush that clears
+     * them.
+     */
+    private static class ResultIteration implements Runnable {
+        private final ChannelHandlerContext ctx;
+        private final RequestMessage msg;
+        private final Iterator itty;
+        private final Executor executor;
+        private final int resultIterationBatchSize;
+        private final Queue<Runnable> pausedWrites;
+        private final CompletableFuture<Void> future = new CompletableFuture<>();
+        private final Queue<ResponseMessage> pendingBatches = new ConcurrentLinkedQueue<>();
+        private final AtomicInteger pendingCount = new AtomicInteger(0);
+        private final AtomicBoolean flushPending = new AtomicBoolean(false);
+        private final AtomicBoolean awaitingFlush = new AtomicBoolean(false);
+        private final Runnable resume = this::resume;
+        private volatile ResponseMessage lastBatch = null;
+        private volatile boolean paused = false;
+
+        private ResultIteration(final Context context, final Iterator itty, final Executor executor) {
+            final Settings settings = context.getSettings();
+            this.ctx = context.getChannelHandlerContext();
+            this.msg = context.getRequestMessage();
+            this.itty = itty;
+            this.executor = executor;
+
+            // the batch size can be overridden by the request
+            this.resultIterationBatchSize = (Integer) this.msg.optionalArgs(Tokens.ARGS_BATCH_SIZE)
+                    .orElse(settings.resultIterationBatchSize);
+
+            final Attribute<Queue<Runnable>> attribute = this.ctx.channel().attr(StateKey.PAUSED_WRITES);
+            final Queue<Runnable> pausedWrites = attribute.setIfAbsent(new ConcurrentLinkedQueue<>());
+            this.pausedWrites = null == pausedWrites ? attribute.get() : pausedWrites;
+
+            // timer for the total serialization time which holds whether or not the iteration is paused
+            final ScheduledFuture<?> timeout = context.getScheduledExecutorService().schedule(
+                    this::timeout, settings.serializedResponseTimeout, TimeUnit.MILLISECONDS);
+            this.future.whenComplete((v, t) -> timeout.cancel(false));
+        }
+
+        @Override
+        public void run() {
+            try {
+                while (!this.future.isDone()) {
+                    if (!this.ctx.channel().isActive()) {
+                        this.future.complete(null);
+                        return;
+                    }
+
+                    // check writeability of the channel to prevent OOME for slow clients
+                    if (!this.ctx.channel().isWritable() && !this.pause())
+                        return;
+
+                    // don't get further ahead of the event loop than the batches it has yet to flush
+                    if (this.pendingCount.get() >= MAX_PENDING_BATCHES && !this.awaitFlush())
+                        return;
+
+                    final List<Object> aggregate = new ArrayList<>(this.resultIterationBatchSize);
+                    while (aggregate.size() < this.resultIterationBatchSize && this.itty.hasNext()) {
+                        if (Thread.interrupted()) throw new InterruptedException();
+                        if (this.future.isDone()) return;
+                        aggregate.add(this.itty.next());
+                    }
+
+                    // the iteration completes once its last batch is written so that the terminator follows it
+                    final boolean last = !this.itty.hasNext();
+                    if (!aggregate.isEmpty())
+                        this.write(aggregate, last);
+                    else if (last)
+                        this.future.complete(null);
+
+                    if (last) return;
                 }
+            } catch (Exception ex) {
+                this.future.completeExceptionally(ex);
+            }
+        }
 
-                // since the client is lagging we can hold here for a period of time for the client to catch up.
-                // this isn't blocking the IO thread - just a worker.
-                TimeUnit.MILLISECONDS.sleep(10);
+        /**
+         * Queues the iteration to be resumed once the channel is writable and returns {@code true} if the channel
+         * became writable before it was queued, in which case the iteration should carry on.
+         */
+        private boolean pause() {
+            // don't keep triggering this warning over and over again for the same request
+            if (!this.paused) {
+                logger.warn("Pausing response writing as writeBufferHighWaterMark exceeded on {} - writing will continue once client has caught up", this.msg);
+                this.paused = true;
             }
 
-            stopWatch.split();
-            if (stopWatch.getSplitTime() > settings.serializedResponseTimeout) {
-                final String timeoutMsg = String.format("Serialization of the entire response exceeded the serializeResponseTimeout setting %s",
-                        warnOnce ? "[Gremlin Server paused writes to client as messages were not being consumed quickly enough]" : "");
-                throw new TimeoutException(timeoutMsg.trim());
+            this.pausedWrites.offer(this.resume);
+
+            // the channel may have become writable or closed before the iteration was queued, so nothing would
+            // resume it
+            return (this.ctx.channel().isWritable() || !this.ctx.channel().isActive()) && this.pausedWrites.remove(this.resume);
+        }
+
+        /**
+         * Leaves the iteration to be resumed by the next flush and returns {@code true} if that flush cleared the
+         * pending batches before it could see that, in which case the iteration should carry on.
+         */
+        private boolean awaitFlush() {
+            this.awaitingFlush.set(true);
+            return this.pendingCount.get() < MAX_PENDING_BATCHES && this.awaitingFlush.compareAndSet(true, false);
+        }
+
+        private void resume() {
+            try {
+                this.executor.execute(this);
+            } catch (RejectedExecutionException ree) {
+                this.future.completeExceptionally(ree);
             }
+        }
+
+        private void write(final List<Object> aggregate, final boolean last) {
+            final ResponseMessage batch = ResponseMessage.build(this.msg)
+                    .code(ResponseStatusCode.SUCCESS)
+                    .result(aggregate).create();
+            if (last) this.lastBatch = batch;
+            this.pendingBatches.offer(batch);
+            this.pendingCount.incrementAndGet();
 
-            stopWatch.unsplit();
+            // batches are written on the event loop so that the one flush that follows them cannot run ahead of any
+            // batch queued before it was cleared
+            if (this.flushPending.compareAndSet(false, true))
+                this.ctx.channel().eventLoop().execute(this::flush);
         }
 
-        stopWatch.stop();
+        private void flush() {
+            this.flushPending.set(false);
+
+            // results are not written once the iteration has timed out as the timeout error is written instead
+            final boolean timedOut = this.future.isCompletedExceptionally();
+            ResponseMessage batch;
+            while ((batch = this.pendingBatches.poll()) != null) {
+                this.pendingCount.decrementAndGet();
+                if (timedOut)
+                    continue;
+                if (batch == this.lastBatch)
+                    this.ctx.write(batch).addListener(f -> this.future.complete(null));
+                else
+                    this.ctx.write(batch);
+            }
+
+            if (!timedOut) this.ctx.flush();
+
+            if (this.awaitingFlush.compareAndSet(true, false))
+                this.resume();
+        }
+
+        private void timeout() {
+            this.pausedWrites.remove(this.resume);
+            final String timeoutMsg = String.format("Serialization of the entire response exceeded the serializeResponseTimeout setting %s",
+                    this.paused ? "[Gremlin Server paused writes to client as messages were not being consumed quickly enough]" : "");
+            this.future.completeExceptionally(new TimeoutException(timeoutMsg.trim()));
+        }
     }
 }
@@ -0,0 +1,127 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tinkerpop.gremlin.server.op;
+
+import com.codahale.metrics.Counter;
+import org.apache.tinkerpop.gremlin.process.traversal.Traversal;
+import org.apache.tinkerpop.gremlin.process.traversal.step.sideEffect.SampledMetricsStep;
+import org.apache.tinkerpop.gremlin.process.traversal.strategy.optimization.SampledMetricsStrategy;
+import org.apache.tinkerpop.gremlin.server.GremlinServer;
+import org.apache.tinkerpop.gremlin.server.util.MetricManager;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static com.codahale.metrics.MetricRegistry.name;
+
+/**
+ * Records the {@link SampledMetricsStep} metrics of the traversals returned by scripts in {@link MetricManager}
+ * histograms, aggregated by the shape of the traversal, so that the patterns of slow traversals are reported without
+ * their clients asking for a {@code profile()}.  For each step of a shape, the number of its traversers and the
+ * estimated time in nanoseconds to get them are recorded for every iteration of a traversal of that shape under
+ * {@code GremlinServer.traversal.<shape>.<index>_<step>}.
+ * <p/>
+ * The shape is the class names of the traversal's steps, so traversals that only differ by the values in their steps
+ * share a shape.  As metric names may be exposed as JMX object names, the shape in a name is reduced to the characters
+ * {@code [A-Za-z0-9_.-]} and suffixed with the hash of the full shape, and the full shape is logged the first time
+ * its name is used.  Only so many shapes are recorded, so the histograms of the shape that was recorded least recently
+ * are removed to make room for a new one and the eviction counted.
+ *
+ * @author agent
+ */
+public final class SampledTraversalMetrics {
+    private static final Logger logger = LoggerFactory.getLogger(SampledTraversalMetrics.class);
+    static final Counter evictedCounter = MetricManager.INSTANCE.getCounter(name(GremlinServer.class, "traversal", "evicted"));
+
+    private final SampledMetricsStrategy strategy;
+    private final int maxShapes;
+
+    /**
+     * The recorded shapes in the order they were last recorded, which is guarded by its own lock so that a shape is
+     * not recorded while its histograms are removed.
+     */
+    private final Map<String, String> shapes;
+
+    /**
+     * @param sampleRate the number of calls for the traversers of a step for each one that is timed
+     * @param maxShapes the maximum number of traversal shapes to record metrics for
+     */
+    public SampledTraversalMetrics(final int sampleRate, final int maxShapes) {
+        this.strategy = SampledMetricsStrategy.build().sampleRate(sampleRate).create();
+        this.maxShapes = maxShapes;
+        this.shapes = new LinkedHashMap<String, String>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(final Map.Entry<String, String> eldest) {
+                if (size() <= maxShapes) return false;
+                final String prefix = eldest.getValue() + ".";
+                MetricManager.INSTANCE.getRegistry().removeMatching((metricName, metric) -> metricName.startsWith(prefix));
+                evictedCounter.inc();
+                return true;
+            }
+        };
+    }
+
+    /**
+     * Adds the {@link SampledMetricsStrategy} to the strategies of the traversal, unless its strategies have already
+     * been applied.  The strategies are cloned first as they are shared by the traversals of a graph.
+     */
+    public void instrument(final Traversal.Admin<?, ?> traversal) {
+        if (traversal.isLocked()) return;
+        traversal.setStrategies(traversal.getStrategies().clone().addStrategies(this.strategy));
+    }
+
+    /**
+     * Records the metrics of a traversal once it is iterated.  Traversals that were not instrumented are ignored.
+     */
+    public void record(final Traversal.Admin<?, ?> traversal) {
+        final List<SampledMetricsStep> steps = SampledMetricsStrategy.getMetricsSteps(traversal);
+        if (steps.isEmpty() || this.maxShapes < 1) return;
+
+        final String shape = SampledMetricsStrategy.getShape(traversal);
+        synchronized (this.shapes) {
+            final String prefix = this.shapes.computeIfAbsent(shape, SampledTraversalMetrics::getPrefix);
+            for (int i = 0; i < steps.size(); i++) {
+                final SampledMetricsStep<?> step = steps.get(i);
+                final String stepName = toMetricName(i + "_" + step.getPreviousStep().getClass().getSimpleName());
+                MetricManager.INSTANCE.getHistogram(prefix, stepName, "traversers").update(step.getTraverserCount());
+                MetricManager.INSTANCE.getHistogram(prefix, stepName, "nanos").update(step.getEstimatedNanos());
+            }
+        }
+    }
+
+    private static String getPrefix(final String shape) {
+        final String prefix = name(GremlinServer.class, "traversal", toMetricName(shape) + "-" + Integer.toHexString(shape.hashCode()));
+        logger.info("Recording the sampled metrics of traversals of shape {} under {}", shape, prefix);
+        return prefix;
+    }
+
+    /**
+     * Replaces each run of characters that are not allowed in an unquoted JMX object name value with an underscore.
+     */
+    static String toMetricName(final String value) {
+        return value.replaceAll("[^A-Za-z0-9_.-]+", "_");
+    }
+
+    public int getSampleRate() {
+        return this.strategy.getSampleRate();
+    }
+}
@@ -0,0 +1,227 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tinkerpop.gremlin.server.op;
+
+import com.codahale.metrics.Meter;
+import org.apache.tinkerpop.gremlin.process.traversal.Traversal;
+import org.apache.tinkerpop.gremlin.server.GremlinServer;
+import org.apache.tinkerpop.gremlin.server.util.MetricManager;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+
+import static com.codahale.metrics.MetricRegistry.name;
+
+/**
+ * A bounded, least-recently-used cache of the {@link Traversal} instances returned by scripts, so that a script that
+ * is evaluated again with the same bindings gets a clone of a traversal that already has its strategies applied
+ * rather than evaluating the script and applying the strategies again.  Traversals are keyed by the script, its
+ * language and the values of the request bindings, as the values of the bindings are folded into the steps of the
+ * traversal when the script is evaluated.  Entries are evicted when the cache is over its maximum size and when
+ * they are older than the time to live.
+ * <p/>
+ * As the values of the bindings are part of the key, a script that is sent with different binding values each time
+ * would never be hit, so a traversal is only cached once the script has been missed with the same bindings before,
+ * among the last misses of as many distinct scripts and bindings as the maximum size of the cache.  Only the hashes of
+ * those keys are held, so a script that is sent once costs the cache neither a clone of its traversal nor a copy of
+ * its bindings.
+ * <p/>
+ * Only scripts made of a single statement are cached, as the other statements of a script would not be evaluated on
+ * a cache hit.
+ * <p/>
+ * A cache hit does not evaluate the script at all, so any value the script computes rather than takes from its
+ * bindings, such as {@code new Date()}, a random number or the result of a nested {@code next()}, is frozen at what
+ * it was when the traversal was cached.  The cache should therefore only be enabled for scripts whose only varying
+ * inputs are their bindings.
+ *
+ * @author agent
+ */
+public final class TraversalCache {
+    static final Meter hitMeter = MetricManager.INSTANCE.getMeter(name(GremlinServer.class, "op", "eval", "traversalCache", "hits"));
+    static final Meter missMeter = MetricManager.INSTANCE.getMeter(name(GremlinServer.class, "op", "eval", "traversalCache", "misses"));
+    static final Meter evictionMeter = MetricManager.INSTANCE.getMeter(name(GremlinServer.class, "op", "eval", "traversalCache", "evictions"));
+
+    private final int maxSize;
+    private final long timeToLive;
+    private final LinkedHashMap<Key, Entry> entries;
+    private final LinkedHashMap<Integer, Boolean> missed;
+
+    /**
+     * @param maxSize the maximum number of traversals held by the cache
+     * @param timeToLive the time in milliseconds a traversal is held by the cache after it was added to it
+     */
+    public TraversalCache(final int maxSize, final long timeToLive) {
+        this.maxSize = maxSize;
+        this.timeToLive = timeToLive;
+        this.entries = new LinkedHashMap<Key, Entry>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(final Map.Entry<Key, Entry> eldest) {
+                if (this.size() <= TraversalCache.this.maxSize)
+                    return false;
+                evictionMeter.mark();
+                return true;
+            }
+        };
+        this.missed = new LinkedHashMap<Integer, Boolean>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(final Map.Entry<Integer, Boolean> eldest) {
+                return this.size() > TraversalCache.this.maxSize;
+            }
+        };
+    }
+
+    /**
+     * Determines if the script can be cached, which is the case for a script of a single statement.
+     */
+    public static boolean isCacheable(final String script) {
+        final String trimmed = script.trim();
+        return !trimmed.isEmpty() && trimmed.indexOf(';') < 0 && trimmed.indexOf('\n') < 0;
+    }
+
+    /**
+     * Gets a clone of the traversal cached for the script and bindings or {@code null} if there is none.
+     */
+    public Traversal.Admin<?, ?> get(final String script, final String language, final Map<String, Object> bindings) {
+        final Key key = new Key(script, language, bindings);
+        final Traversal.Admin<?, ?> prototype;
+        synchronized (this.entries) {
+            final Entry entry = this.entries.get(key);
+            if (null != entry && entry.isExpired()) {
+                this.entries.remove(key);
+                evictionMeter.mark();
+                prototype = null;
+            } else
+                prototype = null == entry ? null : entry.prototype;
+        }
+
+        if (null == prototype) {
+            missMeter.mark();
+            return null;
+        }
+
+        hitMeter.mark();
+        return prototype.clone();
+    }
+
+    /**
+     * Caches a clone of a traversal returned by the script for the bindings if the script was missed with the same
+     * bindings before (see above).  The strategies of the traversal are applied first if they have not been, as they
+     * would be on its first iteration.  Traversals that were already iterated by the script are not cached.
+     */
+    public void put(final String script, final String language, final Map<String, Object> bindings,
+                    final Traversal.Admin<?, ?> traversal) {
+        if (traversal.isLocked() || this.maxSize <= 0) return;
+        final Key key = new Key(script, language, bindings);
+        synchronized (this.entries) {
+            if (null == this.missed.remove(key.hashCode)) {
+                this.missed.put(key.hashCode, Boolean.TRUE);
+                return;
+            }
+        }
+        traversal.applyStrategies();
+
+        final Entry entry = new Entry(traversal.clone(), System.currentTimeMillis() + this.timeToLive);
+        final Key copiedKey = key.copy();
+        synchronized (this.entries) {
+            this.entries.put(copiedKey, entry);
+        }
+    }
+
+    /**
+     * Removes the traversals that are older than the time to live.
+     */
+    public void evictExpired() {
+        synchronized (this.entries) {
+            final Iterator<Entry> itty = this.entries.values().iterator();
+            while (itty.hasNext()) {
+                if (itty.next().isExpired()) {
+                    itty.remove();
+                    evictionMeter.mark();
+                }
+            }
+        }
+    }
+
+    public int size() {
+        synchronized (this.entries) {
+            return this.entries.size();
+        }
+    }
+
+    private static final class Entry {
+        private final Traversal.Admin<?, ?> prototype;
+        private final long expiresAt;
+
+        private Entry(final Traversal.Admin<?, ?> prototype, final long expiresAt) {
+            this.prototype = prototype;
+            this.expiresAt = expiresAt;
+        }
+
+        private boolean isExpired() {
+            return System.currentTimeMillis() >= this.expiresAt;
+        }
+    }
+
+    private static final class Key {
+        private final String script;
+        private final String language;
+        private final Map<String, Object> bindings;
+        private final int hashCode;
+
+        /**
+         * The key is only used to look up a traversal, so it shares the bindings of the request.
+         */
+        private Key(final String script, final String language, final Map<String, Object> bindings) {
+            this(script, language, null == bindings ? Collections.emptyMap() : bindings,
+                    Objects.hash(script, language, null == bindings ? Collections.emptyMap() : bindings));
+        }
+
+        private Key(final String script, final String language, final Map<String, Object> bindings, final int hashCode) {
+            this.script = script;
+            this.language = language;
+            this.bindings = bindings;
+            this.hashCode = hashCode;
+        }
+
+        /**
+         * Copies the key to hold in the cache, so that it does not change with the bindings of the request.
+         */
+        private Key copy() {
+            return new Key(this.script, this.language, new HashMap<>(this.bindings), this.hashCode);
+        }
+
+        @Override
+        public int hashCode() {
+            return this.hashCode;
+        }
+
+        @Override
+        public boolean equals(final Object other) {
+            if (!(other instanceof Key))
+                return false;
+            final Key otherKey = (Key) other;
+            return this.hashCode == otherKey.hashCode && this.script.equals(otherKey.script) &&
+                    Objects.equals(this.language, otherKey.language) && this.bindings.equals(otherKey.bindings);
+        }
+    }
+}
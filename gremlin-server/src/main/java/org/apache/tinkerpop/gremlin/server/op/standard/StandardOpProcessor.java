@@ -20,18 +20,25 @@ package org.apache.tinkerpop.gremlin.server.op.standard;
 
 import org.apache.tinkerpop.gremlin.driver.Tokens;
 import org.apache.tinkerpop.gremlin.driver.message.RequestMessage;
+import org.apache.tinkerpop.gremlin.groovy.engine.GremlinExecutor;
 import org.apache.tinkerpop.gremlin.server.Context;
 import org.apache.tinkerpop.gremlin.server.OpProcessor;
+import org.apache.tinkerpop.gremlin.server.Settings;
 import org.apache.tinkerpop.gremlin.server.op.AbstractEvalOpProcessor;
 import org.apache.tinkerpop.gremlin.server.op.OpProcessorException;
+import org.apache.tinkerpop.gremlin.server.op.SampledTraversalMetrics;
+import org.apache.tinkerpop.gremlin.server.op.TraversalCache;
 import org.apache.tinkerpop.gremlin.util.function.ThrowingConsumer;
+import org.javatuples.Pair;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import javax.script.Bindings;
 import javax.script.SimpleBindings;
+import java.util.HashMap;
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.TimeUnit;
 
 /**
  * Simple {@link OpProcessor} implementation that handles {@code ScriptEngine} script evaluation outside the context
@@ -43,6 +50,74 @@ public class StandardOpProcessor extends AbstractEvalOpProcessor {
     private static final Logger logger = LoggerFactory.getLogger(StandardOpProcessor.class);
     public static final String OP_PROCESSOR_NAME = "";
 
+    /**
+     * Configuration setting for the maximum number of traversals held by the {@link TraversalCache}, where a size of
+     * zero disables the cache.  Only enable the cache when the scripts sent to the server vary by their bindings
+     * alone: a cached traversal keeps the values the script computed when it was first evaluated, so a script like
+     * {@code g.V().has('created', new Date())} or one that nests a {@code next()} would keep returning the results
+     * for the values it computed then, until the traversal is evicted.
+     */
+    public static final String CONFIG_TRAVERSAL_CACHE_MAX_SIZE = "traversalCacheMaxSize";
+
+    /**
+     * Configuration setting for how long in milliseconds a traversal is held by the {@link TraversalCache}.
+     */
+    public static final String CONFIG_TRAVERSAL_CACHE_TIME_TO_LIVE = "traversalCacheTimeToLive";
+
+    /**
+     * Default maximum size of the {@link TraversalCache} is zero so that traversals are not cached.
+     */
+    public static final int DEFAULT_TRAVERSAL_CACHE_MAX_SIZE = 0;
+
+    /**
+     * Default time to live of a cached traversal is ten minutes.
+     */
+    public static final long DEFAULT_TRAVERSAL_CACHE_TIME_TO_LIVE = 600000l;
+
+    /**
+     * Configuration setting for the number of calls for the traversers of a step for each one that is timed by the
+     * {@link SampledTraversalMetrics}, where a rate of zero records no metrics.
+     */
+    public static final String CONFIG_TRAVERSAL_METRICS_SAMPLE_RATE = "traversalMetricsSampleRate";
+
+    /**
+     * Configuration setting for the maximum number of traversal shapes the {@link SampledTraversalMetrics} records.
+     */
+    public static final String CONFIG_TRAVERSAL_METRICS_MAX_SHAPES = "traversalMetricsMaxShapes";
+
+    /**
+     * Default sample rate of the {@link SampledTraversalMetrics} is zero so that no metrics are recorded.
+     */
+    public static final int DEFAULT_TRAVERSAL_METRICS_SAMPLE_RATE = 0;
+
+    /**
+     * Default maximum number of traversal shapes the {@link SampledTraversalMetrics} records.
+     */
+    public static final int DEFAULT_TRAVERSAL_METRICS_MAX_SHAPES = 1000;
+
+    static final Settings.ProcessorSettings DEFAULT_SETTINGS = new Settings.ProcessorSettings();
+
+    static {
+        DEFAULT_SETTINGS.className = StandardOpProcessor.class.getCanonicalName();
+        DEFAULT_SETTINGS.config = new HashMap<String, Object>() {{
+            put(CONFIG_TRAVERSAL_CACHE_MAX_SIZE, DEFAULT_TRAVERSAL_CACHE_MAX_SIZE);
+            put(CONFIG_TRAVERSAL_CACHE_TIME_TO_LIVE, DEFAULT_TRAVERSAL_CACHE_TIME_TO_LIVE);
+            put(CONFIG_TRAVERSAL_METRICS_SAMPLE_RATE, DEFAULT_TRAVERSAL_METRICS_SAMPLE_RATE);
+            put(CONFIG_TRAVERSAL_METRICS_MAX_SHAPES, DEFAULT_TRAVERSAL_METRICS_MAX_SHAPES);
+        }};
+    }
+
+    /**
+     * The processor outlives the server that started it, so the cache is rebuilt for the {@link GremlinExecutor} of
+     * each server as its traversals are bound to the graphs of that server.
+     */
+    private volatile Pair<GremlinExecutor, Optional<TraversalCache>> traversalCache = Pair.with(null, Optional.empty());
+
+    /**
+     * The metrics are configured by the {@link Settings} of each server that starts the processor.
+     */
+    private volatile Pair<Settings, Optional<SampledTraversalMetrics>> traversalMetrics = Pair.with(null, Optional.empty());
+
     @Override
     public String getName() {
         return OP_PROCESSOR_NAME;
@@ -53,6 +128,63 @@ public class StandardOpProcessor extends AbstractEvalOpProcessor {
         return this::evalOp;
     }
 
+    @Override
+    protected Optional<TraversalCache> getTraversalCache(final Context context) {
+        final Pair<GremlinExecutor, Optional<TraversalCache>> traversalCache = this.traversalCache;
+        if (traversalCache.getValue0() == context.getGremlinExecutor())
+            return traversalCache.getValue1();
+
+        synchronized (this) {
+            if (this.traversalCache.getValue0() != context.getGremlinExecutor())
+                this.traversalCache = Pair.with(context.getGremlinExecutor(), createTraversalCache(context));
+            return this.traversalCache.getValue1();
+        }
+    }
+
+    @Override
+    protected Optional<SampledTraversalMetrics> getSampledTraversalMetrics(final Context context) {
+        final Pair<Settings, Optional<SampledTraversalMetrics>> traversalMetrics = this.traversalMetrics;
+        if (traversalMetrics.getValue0() == context.getSettings())
+            return traversalMetrics.getValue1();
+
+        synchronized (this) {
+            if (this.traversalMetrics.getValue0() != context.getSettings())
+                this.traversalMetrics = Pair.with(context.getSettings(), createSampledTraversalMetrics(context));
+            return this.traversalMetrics.getValue1();
+        }
+    }
+
+    private static Map<String, Object> getConfig(final Context context) {
+        final Settings.ProcessorSettings processorSettings = context.getSettings().processors.stream()
+                .filter(p -> p.className.equals(StandardOpProcessor.class.getCanonicalName()))
+                .findAny().orElse(DEFAULT_SETTINGS);
+        return null == processorSettings.config ? DEFAULT_SETTINGS.config : processorSettings.config;
+    }
+
+    private static Optional<SampledTraversalMetrics> createSampledTraversalMetrics(final Context context) {
+        final Map<String, Object> config = getConfig(context);
+        final int sampleRate = Integer.parseInt(config.getOrDefault(CONFIG_TRAVERSAL_METRICS_SAMPLE_RATE, DEFAULT_TRAVERSAL_METRICS_SAMPLE_RATE).toString());
+        final int maxShapes = Integer.parseInt(config.getOrDefault(CONFIG_TRAVERSAL_METRICS_MAX_SHAPES, DEFAULT_TRAVERSAL_METRICS_MAX_SHAPES).toString());
+        if (sampleRate <= 0) return Optional.empty();
+
+        logger.info("Recording the metrics of up to {} traversal shapes, timing 1 in {} calls of each step", maxShapes, sampleRate);
+        return Optional.of(new SampledTraversalMetrics(sampleRate, maxShapes));
+    }
+
+    private static Optional<TraversalCache> createTraversalCache(final Context context) {
+        final Map<String, Object> config = getConfig(context);
+        final int maxSize = Integer.parseInt(config.getOrDefault(CONFIG_TRAVERSAL_CACHE_MAX_SIZE, DEFAULT_TRAVERSAL_CACHE_MAX_SIZE).toString());
+        final long timeToLive = Long.parseLong(config.getOrDefault(CONFIG_TRAVERSAL_CACHE_TIME_TO_LIVE, DEFAULT_TRAVERSAL_CACHE_TIME_TO_LIVE).toString());
+        if (maxSize <= 0) return Optional.empty();
+
+        logger.info("Caching up to {} traversals returned by sessionless scripts for {} ms", maxSize, timeToLive);
+        final TraversalCache cache = new TraversalCache(maxSize, timeToLive);
+
+        // expired traversals are otherwise only evicted when they are requested again or pushed out by newer ones
+        context.getScheduledExecutorService().scheduleAtFixedRate(cache::evictExpired, timeToLive, timeToLive, TimeUnit.MILLISECONDS);
+        return Optional.of(cache);
+    }
+
     private void evalOp(final Context context) throws OpProcessorException {
         final RequestMessage msg = context.getRequestMessage();
 
@@ -40,6 +40,7 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
@@ -132,6 +133,75 @@ public class GremlinDriverIntegrateTest extends AbstractGremlinServerIntegration
         cluster.close();
     }
 
+    @Test
+    public void shouldPushResultsToSubscriberOnDemand() throws Exception {
+        final Cluster cluster = Cluster.open();
+        final Client client = cluster.connect();
+
+        final ResultSet results = client.submit("Thread.sleep(1000);[1,2,3,4,5,6,7,8,9]");
+        final List<Integer> received = new CopyOnWriteArrayList<>();
+        final CountDownLatch latch = new CountDownLatch(1);
+        final AtomicReference<Throwable> error = new AtomicReference<>();
+        results.subscribe(new ResultSet.Subscriber() {
+            private ResultSet.Subscription subscription;
+
+            @Override
+            public void onSubscribe(final ResultSet.Subscription subscription) {
+                this.subscription = subscription;
+                subscription.request(2);
+            }
+
+            @Override
+            public void onNext(final Result result) {
+                received.add(result.getInt());
+
+                // ask for two more once both of the previous two have arrived
+                if (received.size() % 2 == 0) subscription.request(2);
+            }
+
+            @Override
+            public void onError(final Throwable throwable) {
+                error.set(throwable);
+                latch.countDown();
+            }
+
+            @Override
+            public void onComplete() {
+                latch.countDown();
+            }
+        });
+
+        assertTrue(latch.await(10, TimeUnit.SECONDS));
+        assertNull(error.get());
+        assertEquals(IntStream.range(1, 10).boxed().collect(Collectors.toList()), received);
+
+        cluster.close();
+    }
+
+    @Test
+    public void shouldNotBlockSubmitWhileWaitingForConnection() throws Exception {
+        final Cluster cluster = Cluster.build()
+                .minConnectionPoolSize(1)
+                .maxConnectionPoolSize(1)
+                .maxInProcessPerConnection(1)
+                .maxWaitForConnection(10000)
+                .create();
+        final Client client = cluster.connect();
+
+        final CompletableFuture<ResultSet> first = client.submitAsync("Thread.sleep(2000);'first'");
+
+        // the only connection is busy with the first request so the second waits for it without blocking the caller
+        final long start = System.nanoTime();
+        final CompletableFuture<ResultSet> second = client.submitAsync("'second'");
+        assertTrue(TimeUtil.millisSince(start) < 1000);
+        assertFalse(second.isDone());
+
+        assertEquals("first", first.get().all().get().get(0).getString());
+        assertEquals("second", second.get(10, TimeUnit.SECONDS).all().get().get(0).getString());
+
+        cluster.close();
+    }
+
     /**
      * This test arose from this issue: https://github.org/apache/tinkerpop/tinkerpop3/issues/515
      * <p/>
@@ -18,6 +18,8 @@
  */
 package org.apache.tinkerpop.gremlin.server;
 
+import com.codahale.metrics.Histogram;
+import com.codahale.metrics.Meter;
 import org.apache.log4j.Logger;
 import org.apache.tinkerpop.gremlin.driver.Client;
 import org.apache.tinkerpop.gremlin.driver.Cluster;
@@ -34,6 +36,8 @@ import org.apache.tinkerpop.gremlin.groovy.jsr223.GremlinGroovyScriptEngine;
 import org.apache.tinkerpop.gremlin.structure.T;
 import org.apache.tinkerpop.gremlin.server.channel.NioChannelizer;
 import org.apache.tinkerpop.gremlin.server.op.session.SessionOpProcessor;
+import org.apache.tinkerpop.gremlin.server.op.standard.StandardOpProcessor;
+import org.apache.tinkerpop.gremlin.server.util.MetricManager;
 import org.apache.tinkerpop.gremlin.util.Log4jRecordingAppender;
 import org.junit.After;
 import org.junit.Before;
@@ -42,9 +46,11 @@ import org.junit.Test;
 import org.junit.rules.TestName;
 
 import java.nio.channels.ClosedChannelException;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.SortedMap;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.TimeUnit;
@@ -53,6 +59,7 @@ import java.util.concurrent.atomic.AtomicInteger;
 import java.util.stream.Collectors;
 import java.util.stream.IntStream;
 
+import static com.codahale.metrics.MetricRegistry.name;
 import static org.junit.Assert.*;
 
 /**
@@ -114,6 +121,20 @@ public class GremlinServerIntegrateTest extends AbstractGremlinServerIntegration
                 processorSettings.config.put(SessionOpProcessor.CONFIG_SESSION_TIMEOUT, 3000l);
                 settings.processors.add(processorSettings);
                 break;
+            case "shouldCacheTraversalsReturnedBySingleStatementScripts":
+                final Settings.ProcessorSettings standardProcessorSettings = new Settings.ProcessorSettings();
+                standardProcessorSettings.className = StandardOpProcessor.class.getCanonicalName();
+                standardProcessorSettings.config = new HashMap<>();
+                standardProcessorSettings.config.put(StandardOpProcessor.CONFIG_TRAVERSAL_CACHE_MAX_SIZE, 2);
+                settings.processors.add(standardProcessorSettings);
+                break;
+            case "shouldRecordSampledMetricsOfTraversals":
+                final Settings.ProcessorSettings metricsProcessorSettings = new Settings.ProcessorSettings();
+                metricsProcessorSettings.className = StandardOpProcessor.class.getCanonicalName();
+                metricsProcessorSettings.config = new HashMap<>();
+                metricsProcessorSettings.config.put(StandardOpProcessor.CONFIG_TRAVERSAL_METRICS_SAMPLE_RATE, 1);
+                settings.processors.add(metricsProcessorSettings);
+                break;
         }
 
         return settings;
@@ -285,6 +306,85 @@ public class GremlinServerIntegrateTest extends AbstractGremlinServerIntegration
         }
     }
 
+    @Test
+    public void shouldCacheTraversalsReturnedBySingleStatementScripts() throws Exception {
+        final Meter hits = MetricManager.INSTANCE.getMeter(name(GremlinServer.class, "op", "eval", "traversalCache", "hits"));
+        final Meter misses = MetricManager.INSTANCE.getMeter(name(GremlinServer.class, "op", "eval", "traversalCache", "misses"));
+        final Meter evictions = MetricManager.INSTANCE.getMeter(name(GremlinServer.class, "op", "eval", "traversalCache", "evictions"));
+        final long hitsBefore = hits.getCount();
+        final long missesBefore = misses.getCount();
+        final long evictionsBefore = evictions.getCount();
+
+        final Cluster cluster = Cluster.open();
+        final Client client = cluster.connect();
+
+        try {
+            final Map<String, Object> marko = new HashMap<>();
+            marko.put("x", "marko");
+            final Map<String, Object> vadas = new HashMap<>();
+            vadas.put("x", "vadas");
+
+            // a traversal is cached once it is missed for the second time and then adds a vertex each time it is
+            // cloned and iterated
+            for (int i = 0; i < 3; i++) {
+                assertEquals("marko", client.submit("g.addV('name',x).values('name')", marko).all().join().get(0).getString());
+            }
+            assertEquals("vadas", client.submit("g.addV('name',x).values('name')", vadas).all().join().get(0).getString());
+
+            // the cached traversal sees the vertices added since it was cached
+            assertEquals(3, client.submit("g.V().has('name',x).count()", marko).all().join().get(0).getLong());
+            assertEquals("marko", client.submit("g.addV('name',x).values('name')", marko).all().join().get(0).getString());
+            assertEquals(4, client.submit("g.V().has('name',x).count()", marko).all().join().get(0).getLong());
+
+            // caching a third traversal evicts the least recently used one
+            assertEquals(1, client.submit("g.V().has('name',x).count()", vadas).all().join().get(0).getLong());
+            assertEquals(1, client.submit("g.V().has('name',x).count()", vadas).all().join().get(0).getLong());
+            assertEquals(4, client.submit("g.V().has('name',x).count()", marko).all().join().get(0).getLong());
+
+            // scripts of more than one statement are not cached as the other statements would not be evaluated
+            assertEquals(4, client.submit("y = x;g.V().has('name',y).count()", marko).all().join().get(0).getLong());
+        } finally {
+            cluster.close();
+        }
+
+        assertEquals(3, hits.getCount() - hitsBefore);
+        assertEquals(7, misses.getCount() - missesBefore);
+        assertEquals(1, evictions.getCount() - evictionsBefore);
+    }
+
+    @Test
+    public void shouldRecordSampledMetricsOfTraversals() throws Exception {
+        final Cluster cluster = Cluster.open();
+        final Client client = cluster.connect();
+
+        try {
+            client.submit("g.addV('name','marko')").all().join();
+            client.submit("g.addV('name','vadas')").all().join();
+            for (int i = 0; i < 3; i++) {
+                assertEquals(2, client.submit("g.V().values('name')").all().join().size());
+            }
+        } finally {
+            cluster.close();
+        }
+
+        // the metrics of a traversal are recorded after its results are written
+        final String prefix = name(GremlinServer.class, "traversal");
+        SortedMap<String, Histogram> histograms = Collections.emptySortedMap();
+        for (int i = 0; i < 50 && (histograms.size() < 2 || histograms.values().stream().anyMatch(h -> h.getCount() < 3)); i++) {
+            Thread.sleep(100);
+            histograms = MetricManager.INSTANCE.getRegistry().getHistograms((n, m) -> n.startsWith(prefix) && n.contains("1_PropertiesStep"));
+        }
+
+        assertEquals(2, histograms.size());
+        histograms.forEach((n, histogram) -> {
+            assertEquals(3, histogram.getCount());
+            if (n.endsWith("traversers"))
+                assertEquals(2, histogram.getSnapshot().getMax());
+            else
+                assertTrue(histogram.getSnapshot().getMax() > 0);
+        });
+    }
+
     @Test
     public void shouldLoadInitScript() throws Exception {
         final Cluster cluster = Cluster.open();
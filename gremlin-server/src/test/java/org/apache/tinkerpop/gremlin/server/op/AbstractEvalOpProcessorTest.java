@@ -0,0 +1,200 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tinkerpop.gremlin.server.op;
+
+import io.netty.channel.ChannelHandler;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.ChannelOutboundHandlerAdapter;
+import io.netty.channel.embedded.EmbeddedChannel;
+import org.apache.tinkerpop.gremlin.driver.Tokens;
+import org.apache.tinkerpop.gremlin.driver.message.RequestMessage;
+import org.apache.tinkerpop.gremlin.driver.message.ResponseMessage;
+import org.apache.tinkerpop.gremlin.server.Context;
+import org.apache.tinkerpop.gremlin.server.Settings;
+import org.apache.tinkerpop.gremlin.server.handler.StateKey;
+import org.apache.tinkerpop.gremlin.server.handler.WritabilityHandler;
+import org.apache.tinkerpop.gremlin.util.function.ThrowingConsumer;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * Drives result iteration on an {@link EmbeddedChannel}, whose event loop only runs tasks when the test asks it to,
+ * with an executor that runs the iteration on the test thread.
+ *
+ * @author agent
+ */
+public class AbstractEvalOpProcessorTest {
+    private final AbstractEvalOpProcessor processor = new AbstractEvalOpProcessor() {
+        @Override
+        public ThrowingConsumer<Context> getEvalOp() {
+            return context -> {};
+        }
+
+        @Override
+        public String getName() {
+            return "test";
+        }
+    };
+
+    private final AtomicInteger flushes = new AtomicInteger(0);
+    private final Settings settings = new Settings();
+    private ScheduledExecutorService scheduledExecutorService;
+    private TogglingChannel channel;
+    private Context context;
+
+    @Before
+    public void setUp() {
+        scheduledExecutorService = Executors.newSingleThreadScheduledExecutor();
+        channel = new TogglingChannel(new ChannelOutboundHandlerAdapter() {
+            @Override
+            public void flush(final ChannelHandlerContext ctx) throws Exception {
+                flushes.incrementAndGet();
+                super.flush(ctx);
+            }
+        }, new WritabilityHandler());
+        context = new Context(RequestMessage.build(Tokens.OPS_EVAL).create(),
+                channel.pipeline().context(WritabilityHandler.class), settings, null, null, scheduledExecutorService);
+    }
+
+    @After
+    public void tearDown() {
+        scheduledExecutorService.shutdownNow();
+        channel.close();
+    }
+
+    @Test
+    public void shouldWriteBatchesWithOneFlush() throws Exception {
+        settings.resultIterationBatchSize = 2;
+        final CompletableFuture<Void> future = processor.handleIteratorAsync(context, range(5).iterator(), Runnable::run);
+
+        // the last batch completes the iteration once it is written by the event loop
+        assertFalse(future.isDone());
+        assertEquals(0, flushes.get());
+
+        channel.runPendingTasks();
+
+        assertTrue(future.isDone());
+        assertEquals(1, flushes.get());
+        assertEquals(Arrays.asList(Arrays.asList(0, 1), Arrays.asList(2, 3), Arrays.asList(4)), readBatches());
+    }
+
+    @Test
+    public void shouldWaitForFlushWhenTooManyBatchesArePending() throws Exception {
+        settings.resultIterationBatchSize = 1;
+        final CompletableFuture<Void> future = processor.handleIteratorAsync(context, range(40).iterator(), Runnable::run);
+        assertFalse(future.isDone());
+
+        // each flush resumes the iteration which then hands the event loop as many batches as it may before the
+        // next one
+        channel.runPendingTasks();
+
+        assertTrue(future.isDone());
+        assertEquals(5, flushes.get());
+        assertEquals(range(40).stream().map(Arrays::asList).collect(Collectors.toList()), readBatches());
+    }
+
+    @Test
+    public void shouldPauseUntilChannelIsWritable() throws Exception {
+        settings.resultIterationBatchSize = 2;
+        channel.writable = false;
+        final CompletableFuture<Void> future = processor.handleIteratorAsync(context, range(5).iterator(), Runnable::run);
+
+        channel.runPendingTasks();
+        assertFalse(future.isDone());
+        assertEquals(0, flushes.get());
+        assertEquals(1, channel.attr(StateKey.PAUSED_WRITES).get().size());
+
+        channel.writable = true;
+        channel.pipeline().fireChannelWritabilityChanged();
+        channel.runPendingTasks();
+
+        assertTrue(future.isDone());
+        assertTrue(channel.attr(StateKey.PAUSED_WRITES).get().isEmpty());
+        assertEquals(Arrays.asList(Arrays.asList(0, 1), Arrays.asList(2, 3), Arrays.asList(4)), readBatches());
+    }
+
+    @Test
+    public void shouldTimeoutWhilePaused() throws Exception {
+        settings.serializedResponseTimeout = 100;
+        channel.writable = false;
+        final CompletableFuture<Void> future = processor.handleIteratorAsync(context, range(5).iterator(), Runnable::run);
+
+        try {
+            future.get(30, TimeUnit.SECONDS);
+            fail("The iteration should have timed out");
+        } catch (ExecutionException ee) {
+            assertTrue(ee.getCause() instanceof TimeoutException);
+            assertEquals("Serialization of the entire response exceeded the serializeResponseTimeout setting [Gremlin Server paused writes to client as messages were not being consumed quickly enough]",
+                    ee.getCause().getMessage());
+        }
+
+        // nothing is left to resume an iteration that has already timed out
+        assertTrue(channel.attr(StateKey.PAUSED_WRITES).get().isEmpty());
+        channel.runPendingTasks();
+        assertTrue(readBatches().isEmpty());
+    }
+
+    private List<Object> readBatches() {
+        final List<Object> batches = new ArrayList<>();
+        Object msg;
+        while ((msg = channel.readOutbound()) != null) {
+            batches.add(((ResponseMessage) msg).getResult().getData());
+        }
+        return batches;
+    }
+
+    private static List<Integer> range(final int size) {
+        return IntStream.range(0, size).boxed().collect(Collectors.toList());
+    }
+
+    /**
+     * An {@link EmbeddedChannel} whose writability is set by the test rather than by its outbound buffer.
+     */
+    private static class TogglingChannel extends EmbeddedChannel {
+        private volatile boolean writable = true;
+
+        private TogglingChannel(final ChannelHandler... handlers) {
+            super(handlers);
+        }
+
+        @Override
+        public boolean isWritable() {
+            return writable;
+        }
+    }
+}
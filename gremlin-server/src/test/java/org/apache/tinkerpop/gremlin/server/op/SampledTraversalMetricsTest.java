@@ -0,0 +1,57 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tinkerpop.gremlin.server.op;
+
+import org.apache.tinkerpop.gremlin.process.traversal.Traversal;
+import org.apache.tinkerpop.gremlin.process.traversal.dsl.graph.__;
+import org.apache.tinkerpop.gremlin.server.GremlinServer;
+import org.apache.tinkerpop.gremlin.server.util.MetricManager;
+import org.junit.Test;
+
+import java.util.Set;
+
+import static com.codahale.metrics.MetricRegistry.name;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * @author agent
+ */
+public class SampledTraversalMetricsTest {
+
+    @Test
+    public void shouldRecordUnderNamesThatAreValidJmxValues() {
+        final SampledTraversalMetrics metrics = new SampledTraversalMetrics(1, 10);
+        final Traversal.Admin<Integer, Integer> traversal = __.inject(1, 2).union(__.is(1), __.is(2).is(2)).asAdmin();
+        metrics.instrument(traversal);
+        traversal.iterate();
+        metrics.record(traversal);
+
+        final String prefix = name(GremlinServer.class, "traversal");
+        final Set<String> names = MetricManager.INSTANCE.getRegistry().getHistograms((n, m) -> n.startsWith(prefix) && n.contains("InjectStep_UnionStep")).keySet();
+        assertEquals(4, names.size());
+        names.forEach(n -> assertTrue(n, n.matches("[A-Za-z0-9_.-]+")));
+    }
+
+    @Test
+    public void shouldReplaceCharactersThatAreNotValidJmxValues() {
+        assertEquals("_InjectStep_UnionStep_IsStep_IsStep_IsStep_", SampledTraversalMetrics.toMetricName("[InjectStep, UnionStep([IsStep],[IsStep, IsStep])]"));
+        assertEquals("0_InjectStep", SampledTraversalMetrics.toMetricName("0_InjectStep"));
+    }
+}
@@ -29,6 +29,7 @@ import org.apache.tinkerpop.gremlin.process.traversal.dsl.graph.__;
 import org.apache.tinkerpop.gremlin.process.traversal.step.map.match.Bindings;
 import org.apache.tinkerpop.gremlin.process.traversal.step.map.match.CrossJoinEnumerator;
 import org.apache.tinkerpop.gremlin.process.traversal.step.map.match.Enumerator;
+import org.apache.tinkerpop.gremlin.process.traversal.step.map.match.HashJoinEnumerator;
 import org.apache.tinkerpop.gremlin.process.traversal.step.map.match.InnerJoinEnumerator;
 import org.apache.tinkerpop.gremlin.process.traversal.step.map.match.IteratorEnumerator;
 import org.apache.tinkerpop.gremlin.process.traversal.step.map.match.MatchStep;
@@ -36,6 +37,7 @@ import org.apache.tinkerpop.gremlin.process.traversal.traverser.B_O_S_SE_SL_Trav
 import org.apache.tinkerpop.gremlin.process.traversal.step.util.MapHelper;
 import static org.apache.tinkerpop.gremlin.structure.P.*;
 import org.apache.tinkerpop.gremlin.structure.Vertex;
+import org.apache.tinkerpop.gremlin.util.iterator.IteratorUtils;
 import org.junit.Test;
 
 import java.util.Arrays;
@@ -48,6 +50,7 @@ import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.BiConsumer;
 import java.util.function.Function;
 
@@ -648,6 +651,32 @@ public abstract class MatchTest extends AbstractGremlinProcessTest {
                 new Bindings<String>().put("letter", "c").put("number", "4"));
     }
 
+    @Test
+    public void testHashJoinReadsTheLeftEnumeratorLazily() throws Exception {
+        String[] a1 = new String[]{"1", "2", "3", "4"};
+        String[] a2 = new String[]{"2", "4", "6", "8", "10"};
+
+        final AtomicInteger leftReads = new AtomicInteger(0);
+        Enumerator<String> left = new IteratorEnumerator<>("number", IteratorUtils.map(Arrays.asList(a1).iterator(), n -> {
+            leftReads.incrementAndGet();
+            return n;
+        }));
+        Enumerator<String> right = new IteratorEnumerator<>("number", Arrays.asList(a2).iterator());
+        Enumerator<String> join = new HashJoinEnumerator<>(left, right, new HashSet<String>() {{
+            add("number");
+        }});
+
+        // the right enumerator is hashed in full but the left one is only read up to its first match
+        assertTrue(join.visitSolution(0, (name, value) -> assertEquals("2", value)));
+        assertEquals(2, leftReads.get());
+        assertEquals(5, right.size());
+
+        assertResults(join,
+                new Bindings<String>().put("number", "2"),
+                new Bindings<String>().put("number", "4"));
+        assertEquals(4, leftReads.get());
+    }
+
     @UseEngine(TraversalEngine.Type.STANDARD)
     public static class Traversals extends MatchTest {
         @Override
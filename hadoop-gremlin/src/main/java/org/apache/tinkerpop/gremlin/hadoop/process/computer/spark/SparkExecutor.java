@@ -50,8 +50,11 @@ import org.apache.tinkerpop.gremlin.util.iterator.IteratorUtils;
 import scala.Tuple2;
 
 import java.io.IOException;
+import java.util.ArrayList;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 
 /**
@@ -61,6 +64,11 @@ public final class SparkExecutor {
 
     private static final String[] EMPTY_ARRAY = new String[0];
 
+    /**
+     * The number of values a key collects in the combine stage of a map reduce job before they are combined.
+     */
+    private static final int COMBINE_BATCH_SIZE = 16;
+
     private SparkExecutor() {
     }
 
@@ -176,7 +184,28 @@ public final class SparkExecutor {
         return mapRDD;
     }
 
-    // TODO: public static executeCombine()  is this necessary?  YES --- we groupByKey in reduce() where we want to combine first.
+    public static <K, V> JavaPairRDD<K, V> executeCombine(final JavaPairRDD<K, V> mapRDD, final Configuration apacheConfiguration) {
+        return mapRDD.mapPartitionsToPair(partitionIterator -> {
+            final MapReduce<K, V, K, V, ?> workerMapReduce = MapReduce.<MapReduce<K, V, K, V, ?>>createMapReduce(apacheConfiguration);
+            workerMapReduce.workerStart(MapReduce.Stage.COMBINE);
+            // as with the map side of a combineByKey(), each key only holds its values since they were last combined,
+            // so the partition is combined as it is read rather than gathered whole before it is combined
+            final Map<K, List<V>> keyValues = new HashMap<>();
+            final SparkReduceEmitter<K, V> combineEmitter = new SparkReduceEmitter<>();
+            partitionIterator.forEachRemaining(keyValue -> {
+                final List<V> values = keyValues.computeIfAbsent(keyValue._1(), key -> new ArrayList<>());
+                values.add(keyValue._2());
+                if (values.size() >= COMBINE_BATCH_SIZE) {
+                    workerMapReduce.combine(keyValue._1(), values.iterator(), combineEmitter);
+                    values.clear();
+                    combineEmitter.getEmissions().forEachRemaining(emission -> keyValues.computeIfAbsent(emission._1(), key -> new ArrayList<>()).add(emission._2()));
+                }
+            });
+            keyValues.forEach((key, values) -> workerMapReduce.combine(key, values.iterator(), combineEmitter));
+            workerMapReduce.workerEnd(MapReduce.Stage.COMBINE);
+            return () -> combineEmitter.getEmissions();
+        });
+    }
 
     public static <K, V, OK, OV> JavaPairRDD<OK, OV> executeReduce(final JavaPairRDD<K, V> mapRDD, final MapReduce<K, V, OK, OV, ?> mapReduce, final Configuration apacheConfiguration) {
         JavaPairRDD<OK, OV> reduceRDD = mapRDD.groupByKey().mapPartitionsToPair(partitionIterator -> {
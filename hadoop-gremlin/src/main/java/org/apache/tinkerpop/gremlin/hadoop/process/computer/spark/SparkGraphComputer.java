@@ -145,9 +145,10 @@ public final class SparkGraphComputer extends AbstractHadoopGraphComputer {
                                 mapReduce.storeState(newApacheConfiguration);
                                 // map
                                 final JavaPairRDD mapRDD = SparkExecutor.executeMap((JavaPairRDD) mapReduceGraphRDD, mapReduce, newApacheConfiguration).setName("mapRDD");
-                                // combine TODO? is this really needed
+                                // combine
+                                final JavaPairRDD combineRDD = (mapReduce.doStage(MapReduce.Stage.COMBINE)) ? SparkExecutor.executeCombine(mapRDD, newApacheConfiguration).setName("combineRDD") : mapRDD;
                                 // reduce
-                                final JavaPairRDD reduceRDD = (mapReduce.doStage(MapReduce.Stage.REDUCE)) ? SparkExecutor.executeReduce(mapRDD, mapReduce, newApacheConfiguration).setName("reduceRDD") : null;
+                                final JavaPairRDD reduceRDD = (mapReduce.doStage(MapReduce.Stage.REDUCE)) ? SparkExecutor.executeReduce(combineRDD, mapReduce, newApacheConfiguration).setName("reduceRDD") : null;
                                 // write the map reduce output back to disk (memory)
                                 SparkExecutor.saveMapReduceRDD(null == reduceRDD ? mapRDD : reduceRDD, mapReduce, finalMemory, hadoopConfiguration);
                             }
@@ -53,19 +53,33 @@ public class TinkerGraphComputer implements GraphComputer {
     private VertexProgram<?> vertexProgram;
     private final TinkerGraph graph;
     private TinkerMemory memory;
-    private final TinkerMessageBoard messageBoard = new TinkerMessageBoard();
+    private TinkerMessageBoard messageBoard;
     private boolean executed = false;
     private final Set<MapReduce> mapReducers = new HashSet<>();
+    private int workers;
 
 
     public TinkerGraphComputer(final TinkerGraph graph) {
         this.graph = graph;
+        this.workers = graph.configuration().getInt(TinkerGraph.CONFIG_COMPUTER_WORKERS, Runtime.getRuntime().availableProcessors());
     }
 
     public static TraversalEngine engine() {
         return null;
     }
 
+    /**
+     * Set the number of workers that execute the {@link VertexProgram} and {@link MapReduce} jobs in parallel.  By
+     * default, this value is taken from {@link TinkerGraph#CONFIG_COMPUTER_WORKERS} and otherwise is the number of
+     * available processors.
+     */
+    public TinkerGraphComputer workers(final int workers) {
+        if (workers < 1)
+            throw new IllegalArgumentException("The number of workers must be greater than zero: " + workers);
+        this.workers = workers;
+        return this;
+    }
+
     @Override
     public GraphComputer isolation(final Isolation isolation) {
         this.isolation = isolation;
@@ -125,9 +139,10 @@ public class TinkerGraphComputer implements GraphComputer {
         this.memory = new TinkerMemory(this.vertexProgram, this.mapReducers);
         return CompletableFuture.<ComputerResult>supplyAsync(() -> {
             final long time = System.currentTimeMillis();
-            try (final TinkerWorkerPool workers = new TinkerWorkerPool(Runtime.getRuntime().availableProcessors())) {
+            try (final TinkerWorkerPool workers = new TinkerWorkerPool(this.workers)) {
                 if (null != this.vertexProgram) {
-                    TinkerHelper.createGraphView(this.graph, this.isolation, this.vertexProgram.getElementComputeKeys());
+                    final TinkerGraphView graphView = TinkerHelper.createGraphView(this.graph, this.isolation, this.vertexProgram.getElementComputeKeys());
+                    this.messageBoard = new TinkerMessageBoard<>(this.graph, graphView.getVertexCount(), this.vertexProgram.getMessageCombiner());
                     computeGraph.setState(ComputerGraph.State.VERTEX_PROGRAM);
                     // execute the vertex program
                     this.vertexProgram.setup(this.memory);
@@ -140,7 +155,7 @@ public class TinkerGraphComputer implements GraphComputer {
                             while (true) {
                                 final Vertex vertex = vertices.next();
                                 if (null == vertex) return;
-                                vertexProgram.execute(vertex, new TinkerMessenger<>(vertex, this.messageBoard, vertexProgram.getMessageCombiner()), this.memory);
+                                vertexProgram.execute(vertex, new TinkerMessenger<>(vertex, this.messageBoard), this.memory);
                             }
                         });
                         workers.vertexProgramWorkerIterationEnd(this.memory.asImmutable());
@@ -19,9 +19,7 @@
 package org.apache.tinkerpop.gremlin.tinkergraph.process.computer;
 
 import org.apache.tinkerpop.gremlin.process.computer.GraphComputer;
-import org.apache.tinkerpop.gremlin.structure.Element;
 import org.apache.tinkerpop.gremlin.structure.Property;
-import org.apache.tinkerpop.gremlin.structure.Vertex;
 import org.apache.tinkerpop.gremlin.structure.VertexProperty;
 import org.apache.tinkerpop.gremlin.structure.util.ElementHelper;
 import org.apache.tinkerpop.gremlin.tinkergraph.structure.TinkerHelper;
@@ -30,39 +28,76 @@ import org.apache.tinkerpop.gremlin.tinkergraph.structure.TinkerVertexProperty;
 
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
-import java.util.concurrent.ConcurrentHashMap;
-import java.util.stream.Collectors;
-import java.util.stream.Stream;
 
 /**
+ * Holds the element compute keys of a {@link TinkerGraphComputer} run.  Each compute key is a column indexed by the
+ * dense ordinal that every vertex is given when the view is created.  {@code Double} and {@code Long} values are
+ * stored in primitive arrays and all other values in an object array, and a {@link VertexProperty} is only created
+ * when a value is asked for, as a snapshot of the value at that time.  A single value is written over in place.  A
+ * vertex with multiple values for a compute key, or with properties on its compute property, has its properties kept
+ * as they are.
+ * <p/>
+ * A vertex is only ever written by the worker executing it, so the columns need no locking, and the barrier at the
+ * end of each iteration makes the writes visible to all workers in the next one.
+ *
  * @author Marko A. Rodriguez (http://markorodriguez.com)
  */
 public class TinkerGraphView {
 
+    private static final byte ABSENT = 0;
+    private static final byte DOUBLE = 1;
+    private static final byte LONG = 2;
+    private static final byte OBJECT = 3;
+
     protected final Set<String> computeKeys;
     protected final GraphComputer.Isolation isolation;
-    private Map<Element, Map<String, List<VertexProperty>>> computeProperties;
+    private final Map<String, Column> columns = new HashMap<>();
+    private final int vertexCount;
 
-    public TinkerGraphView(final GraphComputer.Isolation isolation, final Set<String> computeKeys) {
+    public TinkerGraphView(final GraphComputer.Isolation isolation, final Set<String> computeKeys, final int vertexCount) {
         this.isolation = isolation;
         this.computeKeys = computeKeys;
-        this.computeProperties = new ConcurrentHashMap<>();
+        this.vertexCount = vertexCount;
+        for (final String computeKey : computeKeys) {
+            this.columns.put(computeKey, new Column(computeKey, this.columns.size(), vertexCount));
+        }
     }
 
-    public <V> Property<V> addProperty(final TinkerVertex vertex, final String key, final V value) {
+    public <V> Property<V> addProperty(final TinkerVertex vertex, final String key, final V value, final Object... keyValues) {
         ElementHelper.validateProperty(key, value);
         if (isComputeKey(key)) {
-            final TinkerVertexProperty<V> property = new TinkerVertexProperty<V>((TinkerVertex) vertex, key, value) {
-                @Override
-                public void remove() {
-                    removeProperty(vertex, key, this);
-                }
-            };
-            this.addValue(vertex, key, property);
-            return property;
+            final Column column = this.columns.get(key);
+            final int ordinal = this.getOrdinal(vertex, true);
+            if (ABSENT == column.states[ordinal] && 0 == keyValues.length) {
+                column.set(ordinal, value);
+                return column.wrap(ordinal, vertex, value);
+            } else {
+                // multiple values or properties on the property so keep the properties themselves
+                final ComputeProperty<V> property = new ComputeProperty<>(vertex, key, value);
+                ElementHelper.attachProperties(property, keyValues);
+                column.materialize(ordinal, vertex).add(property);
+                return property;
+            }
+        } else {
+            throw GraphComputer.Exceptions.providedKeyIsNotAnElementComputeKey(key);
+        }
+    }
+
+    /**
+     * Set the single value of a compute key without properties on it, replacing whatever the vertex held for the key
+     * in place rather than removing its properties and adding a new one.
+     */
+    public <V> VertexProperty<V> setProperty(final TinkerVertex vertex, final String key, final V value) {
+        ElementHelper.validateProperty(key, value);
+        if (isComputeKey(key)) {
+            final Column column = this.columns.get(key);
+            final int ordinal = this.getOrdinal(vertex, true);
+            column.set(ordinal, value);
+            return column.wrap(ordinal, vertex, value);
         } else {
             throw GraphComputer.Exceptions.providedKeyIsNotAnElementComputeKey(key);
         }
@@ -73,16 +108,22 @@ public class TinkerGraphView {
     }
 
     public List<Property> getProperties(final TinkerVertex vertex) {
-        final Stream<Property> a = TinkerHelper.getProperties(vertex).values().stream().flatMap(list -> list.stream());
-        final Stream<Property> b = this.computeProperties.containsKey(vertex) ?
-                this.computeProperties.get(vertex).values().stream().flatMap(list -> list.stream()) :
-                Stream.empty();
-        return Stream.concat(a, b).collect(Collectors.toList());
+        final List<Property> properties = new ArrayList<>();
+        TinkerHelper.getProperties(vertex).values().forEach(properties::addAll);
+        final int ordinal = this.getOrdinal(vertex, false);
+        if (ordinal >= 0) {
+            for (final Column column : this.columns.values()) {
+                column.addProperties(ordinal, vertex, properties);
+            }
+        }
+        return properties;
     }
 
     public void removeProperty(final TinkerVertex vertex, final String key, final VertexProperty property) {
         if (isComputeKey(key)) {
-            this.removeValue(vertex, key, property);
+            final int ordinal = this.getOrdinal(vertex, false);
+            if (ordinal >= 0)
+                this.columns.get(key).remove(ordinal, property);
         } else {
             throw GraphComputer.Exceptions.providedKeyIsNotAnElementComputeKey(key);
         }
@@ -90,37 +131,190 @@ public class TinkerGraphView {
 
     //////////////////////
 
-    private void addValue(final Vertex vertex, final String key, final VertexProperty property) {
-        final Map<String, List<VertexProperty>> elementProperties = this.computeProperties.computeIfAbsent(vertex, k -> new ConcurrentHashMap<>());
-        elementProperties.compute(key, (k, v) -> {
-            if (null == v) v = Collections.synchronizedList(new ArrayList<>());
-            v.add(property);
-            return v;
-        });
+    private List<VertexProperty> getValue(final TinkerVertex vertex, final String key) {
+        final int ordinal = this.getOrdinal(vertex, false);
+        if (ordinal < 0)
+            return Collections.emptyList();
+        final List<Property> properties = new ArrayList<>(1);
+        this.columns.get(key).addProperties(ordinal, vertex, properties);
+        return (List) properties;
     }
 
-    private void removeValue(final Vertex vertex, final String key) {
-        this.computeProperties.computeIfPresent(vertex, (k, v) -> {
-            v.remove(key);
-            return v;
-        });
+    private int getOrdinal(final TinkerVertex vertex, final boolean write) {
+        final int ordinal = TinkerHelper.getComputeOrdinal(vertex);
+        if (ordinal >= 0 && ordinal < this.vertexCount)
+            return ordinal;
+        else if (write)
+            throw new IllegalStateException("The vertex was not in the graph when the computation started: " + vertex);
+        else
+            return -1;
     }
 
-    private void removeValue(final Vertex vertex, final String key, final VertexProperty property) {
-        this.computeProperties.computeIfPresent(vertex, (k, v) -> {
-            v.computeIfPresent(key, (k1, v1) -> {
-                v1.remove(property);
-                return v1;
-            });
-            return v;
-        });
-    }
-
-    private List<VertexProperty> getValue(final Vertex vertex, final String key) {
-        return this.computeProperties.getOrDefault(vertex, Collections.emptyMap()).getOrDefault(key, Collections.emptyList());
+    int getVertexCount() {
+        return this.vertexCount;
     }
 
     public boolean isComputeKey(final String key) {
         return this.computeKeys.contains(key);
     }
-}
\ No newline at end of file
+
+    /**
+     * The values of a single compute key.  The state of each ordinal says which array holds its value, where an
+     * {@code OBJECT} value that is a {@link MaterializedProperties} holds the properties of the vertex as they are.
+     * The primitive arrays are only allocated once a value of their type is written.
+     * <p/>
+     * A single value is returned as a {@link ComputeProperty} of the value at the time it is asked for.  Its id is
+     * derived from the ordinal of the vertex and the slot of the column (as a negative number that can not clash with
+     * the ids of the id manager), so every snapshot of the value has the same id, which is also kept when the value is
+     * turned into a property of its own.
+     */
+    private final class Column {
+
+        private final String key;
+        private final int slot;
+        private final byte[] states;
+        private volatile double[] doubles;
+        private volatile long[] longs;
+        private volatile Object[] objects;
+
+        private Column(final String key, final int slot, final int vertexCount) {
+            this.key = key;
+            this.slot = slot;
+            this.states = new byte[vertexCount];
+        }
+
+        private void set(final int ordinal, final Object value) {
+            if (OBJECT == this.states[ordinal])
+                this.objects[ordinal] = null;
+            if (value instanceof Double) {
+                this.doubles()[ordinal] = (Double) value;
+                this.states[ordinal] = DOUBLE;
+            } else if (value instanceof Long) {
+                this.longs()[ordinal] = (Long) value;
+                this.states[ordinal] = LONG;
+            } else {
+                this.objects()[ordinal] = value;
+                this.states[ordinal] = OBJECT;
+            }
+        }
+
+        private Object get(final int ordinal) {
+            switch (this.states[ordinal]) {
+                case DOUBLE:
+                    return this.doubles[ordinal];
+                case LONG:
+                    return this.longs[ordinal];
+                case OBJECT:
+                    return this.objects[ordinal];
+                default:
+                    return null;
+            }
+        }
+
+        private void clear(final int ordinal) {
+            if (OBJECT == this.states[ordinal])
+                this.objects[ordinal] = null;
+            this.states[ordinal] = ABSENT;
+        }
+
+        private void addProperties(final int ordinal, final TinkerVertex vertex, final List<Property> properties) {
+            final Object value = this.get(ordinal);
+            if (value instanceof MaterializedProperties) {
+                synchronized (value) {
+                    properties.addAll((MaterializedProperties) value);
+                }
+            } else if (null != value)
+                properties.add(this.wrap(ordinal, vertex, value));
+        }
+
+        private <V> ComputeProperty<V> wrap(final int ordinal, final TinkerVertex vertex, final V value) {
+            return new ComputeProperty<>(this.id(ordinal), vertex, this.key, value);
+        }
+
+        private long id(final int ordinal) {
+            return -1l - ((long) ordinal * columns.size() + this.slot);
+        }
+
+        /**
+         * Get the properties of the vertex as they are, turning its current value (if any) into a property first.
+         */
+        private MaterializedProperties materialize(final int ordinal, final TinkerVertex vertex) {
+            final Object value = this.get(ordinal);
+            if (value instanceof MaterializedProperties)
+                return (MaterializedProperties) value;
+            final MaterializedProperties materialized = new MaterializedProperties();
+            if (null != value)
+                materialized.add(this.wrap(ordinal, vertex, value));
+            this.set(ordinal, materialized);
+            return materialized;
+        }
+
+        private void remove(final int ordinal, final VertexProperty property) {
+            final Object value = this.get(ordinal);
+            if (value instanceof MaterializedProperties) {
+                synchronized (value) {
+                    ((MaterializedProperties) value).remove(property);
+                    if (((MaterializedProperties) value).isEmpty())
+                        this.clear(ordinal);
+                }
+            } else if (null != value && value.equals(property.value()))
+                this.clear(ordinal);
+        }
+
+        private double[] doubles() {
+            if (null == this.doubles) {
+                synchronized (this) {
+                    if (null == this.doubles) this.doubles = new double[this.states.length];
+                }
+            }
+            return this.doubles;
+        }
+
+        private long[] longs() {
+            if (null == this.longs) {
+                synchronized (this) {
+                    if (null == this.longs) this.longs = new long[this.states.length];
+                }
+            }
+            return this.longs;
+        }
+
+        private Object[] objects() {
+            if (null == this.objects) {
+                synchronized (this) {
+                    if (null == this.objects) this.objects = new Object[this.states.length];
+                }
+            }
+            return this.objects;
+        }
+    }
+
+    /**
+     * The properties of a vertex for a compute key that can not be held as a single value.
+     */
+    private static final class MaterializedProperties extends ArrayList<VertexProperty> {
+        @Override
+        public synchronized boolean add(final VertexProperty property) {
+            return super.add(property);
+        }
+    }
+
+    /**
+     * A compute property which is removed from the view rather than from the vertex.
+     */
+    private final class ComputeProperty<V> extends TinkerVertexProperty<V> {
+
+        private ComputeProperty(final TinkerVertex vertex, final String key, final V value) {
+            super(vertex, key, value);
+        }
+
+        private ComputeProperty(final Object id, final TinkerVertex vertex, final String key, final V value) {
+            super(id, vertex, key, value);
+        }
+
+        @Override
+        public void remove() {
+            removeProperty((TinkerVertex) this.element(), this.key(), this);
+        }
+    }
+}
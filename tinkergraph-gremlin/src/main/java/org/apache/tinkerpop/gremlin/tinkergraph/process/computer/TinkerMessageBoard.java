@@ -18,29 +18,368 @@
  */
 package org.apache.tinkerpop.gremlin.tinkergraph.process.computer;
 
+import org.apache.tinkerpop.gremlin.process.computer.MessageCombiner;
 import org.apache.tinkerpop.gremlin.process.computer.MessageScope;
+import org.apache.tinkerpop.gremlin.process.computer.util.VertexProgramHelper;
+import org.apache.tinkerpop.gremlin.process.traversal.Step;
+import org.apache.tinkerpop.gremlin.process.traversal.Traversal;
+import org.apache.tinkerpop.gremlin.process.traversal.step.map.VertexStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.sideEffect.StartStep;
+import org.apache.tinkerpop.gremlin.process.traversal.util.TraversalHelper;
+import org.apache.tinkerpop.gremlin.structure.Direction;
+import org.apache.tinkerpop.gremlin.structure.Edge;
+import org.apache.tinkerpop.gremlin.structure.Element;
 import org.apache.tinkerpop.gremlin.structure.Vertex;
+import org.apache.tinkerpop.gremlin.structure.util.wrapped.WrappedElement;
+import org.apache.tinkerpop.gremlin.tinkergraph.structure.TinkerGraph;
+import org.apache.tinkerpop.gremlin.tinkergraph.structure.TinkerHelper;
+import org.apache.tinkerpop.gremlin.tinkergraph.structure.TinkerVertex;
+import org.apache.tinkerpop.gremlin.util.iterator.IteratorUtils;
 
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.List;
 import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Optional;
 import java.util.Queue;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.BiFunction;
 
 /**
+ * Holds the messages sent in the current iteration of a {@link TinkerGraphComputer} and the messages to be received
+ * in it.  The messages of a vertex are kept in the slot of its ordinal in the {@link TinkerGraphView}, so no vertex
+ * is ever hashed and sending a message takes no lock.  Without a {@link MessageCombiner} a slot holds a queue of
+ * messages.  With one, {@code Double} and {@code Long} messages are combined in place in a primitive array, and any
+ * other message is combined into the single message of its slot.
+ * <p/>
+ * The messages of each {@link MessageScope.Local} are held apart from the {@link MessageScope.Global} messages and from
+ * those of the other local scopes, in the slot of the sending vertex, so a vertex only receives the local messages of
+ * a scope along the edges of that scope.  The reversed incident traversal of each local scope is prepared once,
+ * between iterations, rather than for every receiving vertex.  When it is a single edge step (e.g. {@code inE()}) the
+ * incident edges are read straight off the vertex.
+ *
  * @author Marko A. Rodriguez (http://markorodriguez.com)
  */
 class TinkerMessageBoard<M> {
 
-    public Map<Vertex, Queue<M>> sendMessages = new ConcurrentHashMap<>();
-    public Map<Vertex, Queue<M>> receiveMessages = new ConcurrentHashMap<>();
-    public Set<MessageScope> previousMessageScopes = new HashSet<>();
-    public Set<MessageScope> currentMessageScopes = new HashSet<>();
+    private final TinkerGraph graph;
+    private final int vertexCount;
+    private final MessageCombiner<M> combiner;
+    private final Map<MessageScope, LocalScope<M>> localScopes = new IdentityHashMap<>();
+
+    private Messages<M> sendMessages;
+    private Messages<M> receiveMessages;
+    private Map<MessageScope, Messages<M>> sendLocalMessages = new ConcurrentHashMap<>();
+    private Set<MessageScope> previousMessageScopes = new HashSet<>();
+    private Set<MessageScope> currentMessageScopes = ConcurrentHashMap.newKeySet();
+    private List<Object> receiveScopes = Collections.emptyList();
+
+    public TinkerMessageBoard(final TinkerGraph graph, final int vertexCount, final Optional<MessageCombiner<M>> combiner) {
+        this.graph = graph;
+        this.vertexCount = vertexCount;
+        this.combiner = combiner.orElse(null);
+        this.sendMessages = new Messages<>(vertexCount, this.combiner);
+        this.receiveMessages = new Messages<>(vertexCount, this.combiner);
+    }
 
     public void completeIteration() {
         this.receiveMessages = this.sendMessages;
-        this.sendMessages = new ConcurrentHashMap<>();
+        this.sendMessages = new Messages<>(this.vertexCount, this.combiner);
+        final Map<MessageScope, Messages<M>> receiveLocalMessages = this.sendLocalMessages;
+        this.sendLocalMessages = new ConcurrentHashMap<>();
         this.previousMessageScopes = this.currentMessageScopes;
-        this.currentMessageScopes = new HashSet<>();
+        this.currentMessageScopes = ConcurrentHashMap.newKeySet();
+        // the scopes are prepared here so that the workers only ever read them
+        final List<Object> receiveScopes = new ArrayList<>(this.previousMessageScopes.size());
+        for (final MessageScope messageScope : this.previousMessageScopes) {
+            if (messageScope instanceof MessageScope.Local) {
+                final LocalScope<M> localScope = this.localScopes.computeIfAbsent(messageScope, scope -> new LocalScope<>((MessageScope.Local<M>) scope));
+                localScope.messages = receiveLocalMessages.get(messageScope);
+                receiveScopes.add(localScope);
+            } else
+                receiveScopes.add(messageScope);
+        }
+        this.receiveScopes = receiveScopes;
+    }
+
+    public void sendMessage(final Vertex vertex, final MessageScope messageScope, final M message) {
+        this.currentMessageScopes.add(messageScope);
+        if (messageScope instanceof MessageScope.Local) {
+            final int ordinal = this.getOrdinal(vertex);
+            if (ordinal >= 0)
+                this.sendLocalMessages.computeIfAbsent(messageScope, scope -> new Messages<>(this.vertexCount, this.combiner)).add(ordinal, message);
+        } else {
+            for (final Vertex target : ((MessageScope.Global) messageScope).vertices()) {
+                final int ordinal = this.getOrdinal(target);
+                if (ordinal >= 0)
+                    this.sendMessages.add(ordinal, message);
+            }
+        }
+    }
+
+    public Iterator<M> receiveMessages(final Vertex vertex) {
+        if (this.receiveScopes.isEmpty())
+            return Collections.emptyIterator();
+        else if (this.receiveScopes.size() == 1)
+            return this.receiveMessages(vertex, this.receiveScopes.get(0));
+        else
+            return IteratorUtils.flatMap(this.receiveScopes.iterator(), scope -> this.receiveMessages(vertex, scope));
+    }
+
+    private Iterator<M> receiveMessages(final Vertex vertex, final Object scope) {
+        if (scope instanceof LocalScope)
+            return new LocalMessageIterator((LocalScope<M>) scope, vertex);
+        final int ordinal = this.getOrdinal(vertex);
+        return ordinal >= 0 ? this.receiveMessages.get(ordinal) : Collections.emptyIterator();
+    }
+
+    /**
+     * Get the ordinal of the vertex in the {@link TinkerGraphView}, where a vertex that is not a vertex of the graph
+     * being computed (e.g. one that was detached) is looked up by its id, and -1 is returned if there is no such
+     * vertex.
+     */
+    private int getOrdinal(final Vertex vertex) {
+        Element element = vertex;
+        while (element instanceof WrappedElement)
+            element = (Element) ((WrappedElement) element).getBaseElement();
+        if (!(element instanceof TinkerVertex) || element.graph() != this.graph) {
+            final Iterator<Vertex> vertices = this.graph.vertices(vertex.id());
+            if (!vertices.hasNext())
+                return -1;
+            element = vertices.next();
+        }
+        final int ordinal = TinkerHelper.getComputeOrdinal((TinkerVertex) element);
+        return ordinal < this.vertexCount ? ordinal : -1;
+    }
+
+    /**
+     * Walks the edges of the reversed incident traversal of a vertex and the messages that the vertex at the other
+     * end of each edge sent, applying the edge function of the {@link MessageScope.Local} to each message.
+     */
+    private final class LocalMessageIterator implements Iterator<M> {
+
+        private final LocalScope<M> scope;
+        private final Vertex vertex;
+        private final Iterator<Edge> edges;
+        private Iterator<M> messages = Collections.emptyIterator();
+        private Edge edge;
+
+        private LocalMessageIterator(final LocalScope<M> scope, final Vertex vertex) {
+            this.scope = scope;
+            this.vertex = vertex;
+            this.edges = scope.edges(vertex);
+        }
+
+        @Override
+        public boolean hasNext() {
+            while (!this.messages.hasNext()) {
+                if (!this.edges.hasNext())
+                    return false;
+                this.edge = this.edges.next();
+                final int ordinal = getOrdinal(this.scope.sender(this.edge, this.vertex));
+                if (ordinal >= 0)
+                    this.messages = this.scope.messages.get(ordinal);
+            }
+            return true;
+        }
+
+        @Override
+        public M next() {
+            if (!this.hasNext())
+                throw new NoSuchElementException();
+            return this.scope.edgeFunction.apply(this.messages.next(), this.edge);
+        }
+    }
+
+    /**
+     * A {@link MessageScope.Local} prepared for receiving messages, where the messages of the scope are set between
+     * iterations.
+     */
+    private static final class LocalScope<M> {
+
+        private final Direction direction;
+        private final BiFunction<M, Edge, M> edgeFunction;
+        private final Traversal.Admin<Vertex, Edge> reversedTraversal;
+        private final Direction reversedDirection;
+        private final String[] edgeLabels;
+        private Messages<M> messages;
+
+        private LocalScope(final MessageScope.Local<M> messageScope) {
+            final Traversal.Admin<Vertex, Edge> incidentTraversal = messageScope.getIncidentTraversal().get().asAdmin();
+            this.direction = TraversalHelper.getLastStepOfAssignableClass(VertexStep.class, incidentTraversal).get().getDirection();
+            this.edgeFunction = messageScope.getEdgeFunction();
+            this.reversedTraversal = VertexProgramHelper.reverse(incidentTraversal);
+            final List<Step> steps = this.reversedTraversal.getSteps();
+            if (steps.size() == 1 && steps.get(0) instanceof VertexStep && Edge.class.equals(((VertexStep) steps.get(0)).getReturnClass())) {
+                this.reversedDirection = ((VertexStep) steps.get(0)).getDirection();
+                this.edgeLabels = ((VertexStep) steps.get(0)).getEdgeLabels();
+            } else {
+                this.reversedDirection = null;
+                this.edgeLabels = null;
+            }
+        }
+
+        private Iterator<Edge> edges(final Vertex vertex) {
+            if (null != this.reversedDirection)
+                return vertex.edges(this.reversedDirection, this.edgeLabels);
+            final Traversal.Admin<Vertex, Edge> traversal = this.reversedTraversal.clone();
+            traversal.addStep(0, new StartStep<>(traversal, vertex));
+            return traversal;
+        }
+
+        /**
+         * Get the vertex that sent the messages received along the edge, which for a scope in both directions is the
+         * end of the edge that is not the receiving vertex (or the receiving vertex itself for a self-loop).
+         */
+        private Vertex sender(final Edge edge, final Vertex vertex) {
+            if (Direction.BOTH != this.direction)
+                return edge.vertices(this.direction).next();
+            final Vertex outVertex = edge.outVertex();
+            return outVertex.id().equals(vertex.id()) ? edge.inVertex() : outVertex;
+        }
+    }
+
+    /**
+     * The messages of a single iteration, held in the slots of the vertex ordinals.  When a combiner is used and the
+     * first message is a {@link Double} or a {@link Long}, the combined messages are held as primitives for as long as
+     * the messages sent to a slot are of that class.  A slot is moved to hold its combined message as an object once
+     * a message of any other class is sent to it, so that each slot only ever has one combined message.
+     */
+    private static final class Messages<M> {
+
+        private static final int EMPTY = 0;
+        private static final int WRITING = 1;
+        private static final int NUMBER = 2;
+        private static final int OBJECT = 3;
+
+        private final int vertexCount;
+        private final MessageCombiner<M> combiner;
+        private final AtomicReferenceArray<Object> objects;
+        private volatile Class<?> numberClass;
+        private AtomicIntegerArray states;
+        private AtomicLongArray numbers;
+
+        private Messages(final int vertexCount, final MessageCombiner<M> combiner) {
+            this.vertexCount = vertexCount;
+            this.combiner = combiner;
+            this.objects = new AtomicReferenceArray<>(vertexCount);
+        }
+
+        private void add(final int ordinal, final M message) {
+            if (null == this.combiner) {
+                Queue<M> queue = (Queue<M>) this.objects.get(ordinal);
+                if (null == queue && !this.objects.compareAndSet(ordinal, null, queue = new ConcurrentLinkedQueue<>()))
+                    queue = (Queue<M>) this.objects.get(ordinal);
+                queue.add(message);
+            } else if (Void.class.equals(this.numberClass(message))) {
+                this.addObject(ordinal, message);
+            } else {
+                this.addToSlot(ordinal, message, message.getClass().equals(this.numberClass));
+            }
+        }
+
+        /**
+         * Combine the message into the slot, where the slot is held while its number is combined or moved to an
+         * object.  Combiners only ever see the messages of a slot in one representation.
+         */
+        private void addToSlot(final int ordinal, final M message, final boolean number) {
+            while (true) {
+                final int state = this.states.get(ordinal);
+                if (OBJECT == state) {
+                    this.addObject(ordinal, message);
+                    return;
+                } else if (WRITING == state) {
+                    Thread.yield();
+                } else if (EMPTY == state) {
+                    if (!number && this.states.compareAndSet(ordinal, EMPTY, OBJECT)) {
+                        this.addObject(ordinal, message);
+                        return;
+                    } else if (number && this.states.compareAndSet(ordinal, EMPTY, WRITING)) {
+                        this.numbers.set(ordinal, this.toBits(message));
+                        this.states.set(ordinal, NUMBER);
+                        return;
+                    }
+                } else if (this.states.compareAndSet(ordinal, NUMBER, WRITING)) {
+                    int written = NUMBER;
+                    try {
+                        final M combined = this.combiner.combine(this.fromBits(this.numbers.get(ordinal)), message);
+                        if (number && null != combined && combined.getClass().equals(this.numberClass)) {
+                            this.numbers.set(ordinal, this.toBits(combined));
+                        } else {
+                            this.objects.set(ordinal, new Combined<>(combined));
+                            written = OBJECT;
+                        }
+                    } finally {
+                        this.states.set(ordinal, written);
+                    }
+                    return;
+                }
+            }
+        }
+
+        private void addObject(final int ordinal, final M message) {
+            Combined<M> combined = (Combined<M>) this.objects.get(ordinal);
+            if (null == combined && this.objects.compareAndSet(ordinal, null, new Combined<>(message)))
+                return;
+            combined = (Combined<M>) this.objects.get(ordinal);
+            // combiners are free to merge into the first message so combining can not be retried
+            synchronized (combined) {
+                combined.message = this.combiner.combine(combined.message, message);
+            }
+        }
+
+        private Iterator<M> get(final int ordinal) {
+            final Object object = this.objects.get(ordinal);
+            if (null == this.combiner)
+                return null == object ? Collections.emptyIterator() : ((Queue<M>) object).iterator();
+            if (null != this.numberClass && !Void.class.equals(this.numberClass) && NUMBER == this.states.get(ordinal))
+                return IteratorUtils.of(this.fromBits(this.numbers.get(ordinal)));
+            return null == object ? Collections.emptyIterator() : IteratorUtils.of(((Combined<M>) object).message);
+        }
+
+        /**
+         * Get the class of the numbers held in the primitive array, which is the class of the first message sent if
+         * that is a {@link Double} or a {@link Long}, and otherwise {@link Void} as no message is held as a primitive.
+         */
+        private Class<?> numberClass(final M message) {
+            if (null == this.numberClass) {
+                synchronized (this) {
+                    if (null == this.numberClass) {
+                        if (message instanceof Double || message instanceof Long) {
+                            this.states = new AtomicIntegerArray(this.vertexCount);
+                            this.numbers = new AtomicLongArray(this.vertexCount);
+                            this.numberClass = message.getClass();
+                        } else
+                            this.numberClass = Void.class;
+                    }
+                }
+            }
+            return this.numberClass;
+        }
+
+        private long toBits(final M message) {
+            return Double.class.equals(this.numberClass) ? Double.doubleToRawLongBits((Double) message) : (Long) message;
+        }
+
+        private M fromBits(final long bits) {
+            return (M) (Double.class.equals(this.numberClass) ? (Object) Double.longBitsToDouble(bits) : (Object) bits);
+        }
+    }
+
+    private static final class Combined<M> {
+        private M message;
+
+        private Combined(final M message) {
+            this.message = message;
+        }
     }
 }
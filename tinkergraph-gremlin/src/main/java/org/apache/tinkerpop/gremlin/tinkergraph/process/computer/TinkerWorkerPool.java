@@ -25,11 +25,19 @@ import org.apache.tinkerpop.gremlin.process.computer.VertexProgram;
 import org.apache.tinkerpop.gremlin.process.computer.util.MapReducePool;
 import org.apache.tinkerpop.gremlin.process.computer.util.VertexProgramPool;
 
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.function.Consumer;
 
 /**
+ * Executes {@link VertexProgram} and {@link MapReduce} workers in parallel.  Each call to
+ * {@link #executeVertexProgram(Consumer)} or {@link #executeMapReduce(Consumer)} submits one task per worker, where
+ * each task is handed its own clone of the program from the respective pool, and then blocks until every worker has
+ * completed.  That final wait acts as the barrier at the end of a BSP iteration (or map/reduce stage).
+ *
  * @author Marko A. Rodriguez (http://markorodriguez.com)
  * @author Stephen Mallette (http://stephen.genoprime.com)
  */
@@ -39,13 +47,21 @@ public class TinkerWorkerPool implements AutoCloseable {
 
     private final int numberOfWorkers;
     private final ExecutorService workerPool;
+    private final CompletionService<Object> completionService;
 
     private VertexProgramPool vertexProgramPool;
     private MapReducePool mapReducePool;
 
     public TinkerWorkerPool(final int numberOfWorkers) {
+        if (numberOfWorkers < 1)
+            throw new IllegalArgumentException("The number of workers must be greater than zero: " + numberOfWorkers);
         this.numberOfWorkers = numberOfWorkers;
-        workerPool = Executors.newFixedThreadPool(numberOfWorkers, threadFactoryWorker);
+        this.workerPool = Executors.newFixedThreadPool(numberOfWorkers, threadFactoryWorker);
+        this.completionService = new ExecutorCompletionService<>(this.workerPool);
+    }
+
+    public int getNumberOfWorkers() {
+        return this.numberOfWorkers;
     }
 
     public void setVertexProgram(final VertexProgram vertexProgram) {
@@ -67,15 +83,18 @@ public class TinkerWorkerPool implements AutoCloseable {
     }
 
     public void executeVertexProgram(final Consumer<VertexProgram> worker) {
-        try {
-            this.workerPool.submit(() -> {
+        for (int i = 0; i < this.numberOfWorkers; i++) {
+            this.completionService.submit(() -> {
                 final VertexProgram vp = this.vertexProgramPool.take();
-                worker.accept(vp);
-                this.vertexProgramPool.offer(vp);
-            }).get();
-        } catch (final Exception e) {
-            throw new IllegalStateException(e.getMessage(), e);
+                try {
+                    worker.accept(vp);
+                } finally {
+                    this.vertexProgramPool.offer(vp);
+                }
+                return null;
+            });
         }
+        this.awaitWorkers();
     }
 
     ///
@@ -90,15 +109,38 @@ public class TinkerWorkerPool implements AutoCloseable {
 
 
     public void executeMapReduce(final Consumer<MapReduce> worker) {
-        try {
-            this.workerPool.submit(() -> {
+        for (int i = 0; i < this.numberOfWorkers; i++) {
+            this.completionService.submit(() -> {
                 final MapReduce mr = this.mapReducePool.take();
-                worker.accept(mr);
-                this.mapReducePool.offer(mr);
-            }).get();
-        } catch (final Exception e) {
-            throw new IllegalStateException(e.getMessage(), e);
+                try {
+                    worker.accept(mr);
+                } finally {
+                    this.mapReducePool.offer(mr);
+                }
+                return null;
+            });
+        }
+        this.awaitWorkers();
+    }
+
+    /**
+     * Blocks until all submitted workers have completed.  All workers are always waited on, even when one fails, so
+     * that no worker is still running against the shared state when the failure is rethrown.
+     */
+    private void awaitWorkers() {
+        Throwable failure = null;
+        for (int i = 0; i < this.numberOfWorkers; i++) {
+            try {
+                this.completionService.take().get();
+            } catch (final InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException(e.getMessage(), e);
+            } catch (final ExecutionException e) {
+                if (null == failure) failure = e.getCause();
+            }
         }
+        if (null != failure)
+            throw failure instanceof RuntimeException ? (RuntimeException) failure : new IllegalStateException(failure.getMessage(), failure);
     }
 
     @Override
@@ -20,21 +20,30 @@ package org.apache.tinkerpop.gremlin.tinkergraph.process.traversal.step.sideEffe
 
 import org.apache.tinkerpop.gremlin.process.traversal.step.HasContainerHolder;
 import org.apache.tinkerpop.gremlin.process.traversal.step.sideEffect.GraphStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.util.ElementValueComparator;
 import org.apache.tinkerpop.gremlin.process.traversal.step.util.HasContainer;
 import org.apache.tinkerpop.gremlin.process.traversal.util.TraversalHelper;
 import org.apache.tinkerpop.gremlin.structure.Compare;
+import org.apache.tinkerpop.gremlin.structure.Contains;
 import org.apache.tinkerpop.gremlin.structure.Edge;
 import org.apache.tinkerpop.gremlin.structure.Element;
+import org.apache.tinkerpop.gremlin.structure.Order;
 import org.apache.tinkerpop.gremlin.structure.Vertex;
 import org.apache.tinkerpop.gremlin.tinkergraph.structure.TinkerGraph;
 import org.apache.tinkerpop.gremlin.tinkergraph.structure.TinkerHelper;
+import org.apache.tinkerpop.gremlin.util.iterator.IteratorUtils;
 
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.Iterator;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
-import java.util.stream.Collectors;
 
 /**
  * @author Marko A. Rodriguez (http://markorodriguez.com)
@@ -43,57 +52,172 @@ import java.util.stream.Collectors;
 public class TinkerGraphStep<S extends Element> extends GraphStep<S> implements HasContainerHolder {
 
     public final List<HasContainer> hasContainers = new ArrayList<>();
+    private ElementValueComparator orderComparator = null;
 
     public TinkerGraphStep(final GraphStep<S> originalGraphStep) {
         super(originalGraphStep.getTraversal(), originalGraphStep.getReturnClass(), originalGraphStep.getIds());
         originalGraphStep.getLabels().forEach(this::addLabel);
         //No need to do anything if the first element is an Element, all elements are guaranteed to be an element and will be return as is
         if ((this.ids.length == 0 || !(this.ids[0] instanceof Element)))
-            this.setIteratorSupplier(() -> (Iterator<S>) (Vertex.class.isAssignableFrom(this.returnClass) ? this.vertices() : this.edges()));
+            this.setIteratorSupplier(() -> (Iterator<S>) (Vertex.class.isAssignableFrom(this.returnClass) ? this.elements(Vertex.class) : this.elements(Edge.class)));
     }
 
-    private Iterator<? extends Edge> edges() {
+    private <E extends Element> Iterator<E> elements(final Class<E> elementClass) {
         final TinkerGraph graph = (TinkerGraph) this.getTraversal().getGraph().get();
-        final HasContainer indexedContainer = getIndexKey(Edge.class);
         // ids are present, filter on them first
         if (this.ids != null && this.ids.length > 0)
-            return this.iteratorList(graph.edges(this.ids));
-        else
-            return null == indexedContainer ?
-                    this.iteratorList(graph.edges()) :
-                    TinkerHelper.queryEdgeIndex(graph, indexedContainer.key, indexedContainer.value).stream()
-                            .filter(edge -> HasContainer.testAll(edge, this.hasContainers))
-                            .collect(Collectors.<Edge>toList()).iterator();
+            return this.iteratorList((Iterator<E>) (Vertex.class.isAssignableFrom(elementClass) ? graph.vertices(this.ids) : graph.edges(this.ids)));
+
+        final Collection<E> indexed = this.queryIndex(graph, elementClass);
+        if (null == this.orderComparator) {
+            // index results are filtered lazily rather than copied as the index iterators are weakly consistent
+            return null == indexed ?
+                    this.iteratorList((Iterator<E>) (Vertex.class.isAssignableFrom(elementClass) ? graph.vertices() : graph.edges())) :
+                    IteratorUtils.filter(indexed.iterator(), e -> HasContainer.testAll(e, this.hasContainers));
+        } else if (null == indexed && TinkerHelper.isTotalOrderIndex(graph, elementClass, this.orderComparator.getPropertyKey())) {
+            // walk the sorted index lazily so that the limit() that follows can stop the walk early
+            final Set<E> seen = new HashSet<>();
+            return IteratorUtils.filter(TinkerHelper.queryIndexOrdered(graph, elementClass, this.orderComparator.getPropertyKey(),
+                    Order.decr == this.orderComparator.getValueComparator()),
+                    e -> HasContainer.testAll(e, this.hasContainers) && seen.add(e));
+        } else {
+            // a selective index was used (or the sorted index no longer orders every element) so sort the results as
+            // order() would have
+            final List<E> list = IteratorUtils.list(null == indexed ?
+                    this.iteratorList((Iterator<E>) (Vertex.class.isAssignableFrom(elementClass) ? graph.vertices() : graph.edges())) :
+                    this.iteratorList(indexed.iterator()));
+            Collections.sort(list, this.orderComparator);
+            return list.iterator();
+        }
     }
 
-    private Iterator<? extends Vertex> vertices() {
-        final TinkerGraph graph = (TinkerGraph) this.getTraversal().getGraph().get();
-        final HasContainer indexedContainer = getIndexKey(Vertex.class);
-        // ids are present, filter on them first
-        if (this.ids != null && this.ids.length > 0)
-            return this.iteratorList(graph.vertices(this.ids));
-        else
-            return null == indexedContainer ?
-                    this.iteratorList(graph.vertices()) :
-                    TinkerHelper.queryVertexIndex(graph, indexedContainer.key, indexedContainer.value).stream()
-                            .filter(vertex -> HasContainer.testAll(vertex, this.hasContainers))
-                            .collect(Collectors.<Vertex>toList()).iterator();
+    /**
+     * Query the most selective index for the has containers, or return {@code null} if no index can be used.  The
+     * candidates are the composite indices whose keys are all tested for equality, the single key indices tested
+     * for equality or {@code within}, and the {@link TinkerGraph.IndexType#SORTED} indices tested with a range.  The
+     * cardinality of an equality lookup is the size of its index bucket, which is free to read, while a range is only
+     * counted until it exceeds the best candidate found so far.  The results of the index are always filtered against
+     * all of the has containers.
+     */
+    private <E extends Element> Collection<E> queryIndex(final TinkerGraph graph, final Class<E> elementClass) {
+        final Set<String> indexedKeys = graph.getIndexedKeys(elementClass);
+        final Set<List<String>> compositeIndexedKeys = graph.getCompositeIndexedKeys(elementClass);
+        if (indexedKeys.isEmpty() && compositeIndexedKeys.isEmpty())
+            return null;
+
+        // the first equality on each key is what the composite indices are looked up with
+        final Map<String, Object> equalities = new HashMap<>();
+        for (final HasContainer hasContainer : this.hasContainers) {
+            if (hasContainer.predicate.equals(Compare.eq) && null != hasContainer.value)
+                equalities.putIfAbsent(hasContainer.key, hasContainer.value);
+        }
+
+        Collection<E> best = null;
+        for (final List<String> keys : compositeIndexedKeys) {
+            if (equalities.keySet().containsAll(keys)) {
+                final List<Object> values = new ArrayList<>(keys.size());
+                keys.forEach(key -> values.add(equalities.get(key)));
+                best = smallest(best, TinkerHelper.queryCompositeIndex(graph, elementClass, keys, values));
+            }
+        }
+        for (final Map.Entry<String, Object> equality : equalities.entrySet()) {
+            if (indexedKeys.contains(equality.getKey()))
+                best = smallest(best, (Collection<E>) (Vertex.class.isAssignableFrom(elementClass) ?
+                        TinkerHelper.queryVertexIndex(graph, equality.getKey(), equality.getValue()) :
+                        TinkerHelper.queryEdgeIndex(graph, equality.getKey(), equality.getValue())));
+        }
+
+        HasContainer withinContainer = null;
+        long withinCount = Long.MAX_VALUE;
+        HasContainer rangeContainer = null;
+        for (final HasContainer hasContainer : this.hasContainers) {
+            if (!indexedKeys.contains(hasContainer.key) || null == hasContainer.value)
+                continue;
+            if (hasContainer.predicate.equals(Contains.within) && hasContainer.value instanceof Collection) {
+                long count = 0;
+                for (final Object value : (Collection) hasContainer.value) {
+                    count = count + (Vertex.class.isAssignableFrom(elementClass) ?
+                            TinkerHelper.queryVertexIndex(graph, hasContainer.key, value) :
+                            TinkerHelper.queryEdgeIndex(graph, hasContainer.key, value)).size();
+                }
+                if (count < withinCount) {
+                    withinContainer = hasContainer;
+                    withinCount = count;
+                }
+            } else if (null == rangeContainer && isRange(hasContainer) && TinkerHelper.isSortedIndex(graph, elementClass, hasContainer.key))
+                rangeContainer = hasContainer;
+        }
+
+        final long bestCount = null == best ? Long.MAX_VALUE : best.size();
+        if (null != rangeContainer) {
+            final Object[] range = this.getRange(rangeContainer.key);
+            final long rangeCount = TinkerHelper.countIndexRange(graph, elementClass, rangeContainer.key,
+                    range[0], (boolean) range[1], range[2], (boolean) range[3], Math.min(bestCount, withinCount));
+            if (rangeCount < Math.min(bestCount, withinCount))
+                return TinkerHelper.queryIndexRange(graph, elementClass, rangeContainer.key,
+                        range[0], (boolean) range[1], range[2], (boolean) range[3]);
+        }
+        if (null != withinContainer && withinCount < bestCount) {
+            final Set<E> elements = new LinkedHashSet<>();
+            for (final Object value : (Collection) withinContainer.value) {
+                elements.addAll((Collection<E>) (Vertex.class.isAssignableFrom(elementClass) ?
+                        TinkerHelper.queryVertexIndex(graph, withinContainer.key, value) :
+                        TinkerHelper.queryEdgeIndex(graph, withinContainer.key, value)));
+            }
+            return elements;
+        }
+        return best;
+    }
+
+    /**
+     * Fold the lower and upper bounds on the key (e.g. from a {@code between()} or {@code inside()}) into a single
+     * range of {@code [from, fromInclusive, to, toInclusive]}.
+     */
+    private Object[] getRange(final String key) {
+        HasContainer lower = null;
+        HasContainer upper = null;
+        for (final HasContainer hasContainer : this.hasContainers) {
+            if (!hasContainer.key.equals(key) || !isRange(hasContainer))
+                continue;
+            if (null == lower && (hasContainer.predicate.equals(Compare.gt) || hasContainer.predicate.equals(Compare.gte)))
+                lower = hasContainer;
+            else if (null == upper && (hasContainer.predicate.equals(Compare.lt) || hasContainer.predicate.equals(Compare.lte)))
+                upper = hasContainer;
+        }
+        return new Object[]{null == lower ? null : lower.value, null != lower && lower.predicate.equals(Compare.gte),
+                null == upper ? null : upper.value, null != upper && upper.predicate.equals(Compare.lte)};
+    }
+
+    private static <E> Collection<E> smallest(final Collection<E> best, final Collection<E> candidate) {
+        return null == best || candidate.size() < best.size() ? candidate : best;
+    }
+
+    private static boolean isRange(final HasContainer hasContainer) {
+        return null != hasContainer.value && (hasContainer.predicate.equals(Compare.gt) || hasContainer.predicate.equals(Compare.gte) ||
+                hasContainer.predicate.equals(Compare.lt) || hasContainer.predicate.equals(Compare.lte));
+    }
+
+    /**
+     * Have this step emit its elements in the order of the comparator, which must be an {@link Order} on a property
+     * key.  This is used by {@code TinkerGraphStepStrategy} to fold an {@code order().by(key)} into this step when
+     * the key has a {@link TinkerGraph.IndexType#SORTED} index that orders every element.
+     */
+    public void setOrderComparator(final ElementValueComparator orderComparator) {
+        this.orderComparator = orderComparator;
     }
 
-    private HasContainer getIndexKey(final Class<? extends Element> indexedClass) {
-        final Set<String> indexedKeys = ((TinkerGraph) this.getTraversal().getGraph().get()).getIndexedKeys(indexedClass);
-        return this.hasContainers.stream()
-                .filter(c -> indexedKeys.contains(c.key) && c.predicate.equals(Compare.eq))
-                .findAny()
-                .orElseGet(() -> null);
+    public ElementValueComparator getOrderComparator() {
+        return this.orderComparator;
     }
 
     public String toString() {
-        if (this.hasContainers.isEmpty())
+        if (this.hasContainers.isEmpty() && null == this.orderComparator)
             return super.toString();
         else
             return 0 == this.ids.length ?
-                    TraversalHelper.makeStepString(this, this.returnClass.getSimpleName().toLowerCase(), this.hasContainers) :
+                    (null == this.orderComparator ?
+                            TraversalHelper.makeStepString(this, this.returnClass.getSimpleName().toLowerCase(), this.hasContainers) :
+                            TraversalHelper.makeStepString(this, this.returnClass.getSimpleName().toLowerCase(), this.hasContainers, this.orderComparator)) :
                     TraversalHelper.makeStepString(this, this.returnClass.getSimpleName().toLowerCase(), Arrays.toString(this.ids), this.hasContainers);
     }
 
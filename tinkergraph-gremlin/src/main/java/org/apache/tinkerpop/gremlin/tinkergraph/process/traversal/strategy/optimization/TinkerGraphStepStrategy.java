@@ -20,12 +20,25 @@ package org.apache.tinkerpop.gremlin.tinkergraph.process.traversal.strategy.opti
 
 import org.apache.tinkerpop.gremlin.process.traversal.Step;
 import org.apache.tinkerpop.gremlin.process.traversal.Traversal;
+import org.apache.tinkerpop.gremlin.process.traversal.TraversalStrategy;
 import org.apache.tinkerpop.gremlin.process.traversal.step.HasContainerHolder;
+import org.apache.tinkerpop.gremlin.process.traversal.step.filter.RangeGlobalStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.map.OrderGlobalStep;
 import org.apache.tinkerpop.gremlin.process.traversal.step.sideEffect.GraphStep;
 import org.apache.tinkerpop.gremlin.process.traversal.step.sideEffect.IdentityStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.util.ElementValueComparator;
 import org.apache.tinkerpop.gremlin.process.traversal.strategy.AbstractTraversalStrategy;
+import org.apache.tinkerpop.gremlin.process.traversal.strategy.optimization.OrderRangeStrategy;
 import org.apache.tinkerpop.gremlin.process.traversal.util.TraversalHelper;
+import org.apache.tinkerpop.gremlin.structure.Order;
 import org.apache.tinkerpop.gremlin.tinkergraph.process.traversal.step.sideEffect.TinkerGraphStep;
+import org.apache.tinkerpop.gremlin.tinkergraph.structure.TinkerGraph;
+import org.apache.tinkerpop.gremlin.tinkergraph.structure.TinkerHelper;
+
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Set;
 
 /**
  * @author Marko A. Rodriguez (http://markorodriguez.com)
@@ -33,6 +46,8 @@ import org.apache.tinkerpop.gremlin.tinkergraph.process.traversal.step.sideEffec
 public class TinkerGraphStepStrategy extends AbstractTraversalStrategy {
 
     private static final TinkerGraphStepStrategy INSTANCE = new TinkerGraphStepStrategy();
+    // an ordered walk of a sorted index is cheaper still than a top-k of all the elements
+    private static final Set<Class<? extends TraversalStrategy>> POSTS = Collections.singleton(OrderRangeStrategy.class);
 
     private TinkerGraphStepStrategy() {
     }
@@ -61,9 +76,31 @@ public class TinkerGraphStepStrategy extends AbstractTraversalStrategy {
                 }
                 currentStep = currentStep.getNextStep();
             }
+
+            // an order().by(key).limit(n) on a key with a sorted index can be answered by walking the index in order,
+            // but only if the walk gives what order() would, as order() fails on elements without a single value for
+            // the key and on values that cannot be compared to each other
+            if (currentStep instanceof OrderGlobalStep && currentStep.getNextStep() instanceof RangeGlobalStep &&
+                    0 == tinkerGraphStep.getIds().length && traversal.getGraph().isPresent()) {
+                final List<Comparator> comparators = ((OrderGlobalStep) currentStep).getComparators();
+                if (1 == comparators.size() && comparators.get(0) instanceof ElementValueComparator) {
+                    final ElementValueComparator comparator = (ElementValueComparator) comparators.get(0);
+                    if ((Order.incr == comparator.getValueComparator() || Order.decr == comparator.getValueComparator()) &&
+                            TinkerHelper.isTotalOrderIndex((TinkerGraph) traversal.getGraph().get(), tinkerGraphStep.getReturnClass(), comparator.getPropertyKey())) {
+                        tinkerGraphStep.setOrderComparator(comparator);
+                        currentStep.getLabels().forEach(tinkerGraphStep::addLabel);
+                        traversal.removeStep(currentStep);
+                    }
+                }
+            }
         }
     }
 
+    @Override
+    public Set<Class<? extends TraversalStrategy>> applyPost() {
+        return POSTS;
+    }
+
     public static TinkerGraphStepStrategy instance() {
         return INSTANCE;
     }
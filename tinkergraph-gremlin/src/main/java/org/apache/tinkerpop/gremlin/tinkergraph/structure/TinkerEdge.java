@@ -45,6 +45,10 @@ public class TinkerEdge extends TinkerElement implements Edge {
     protected final Vertex inVertex;
     protected final Vertex outVertex;
 
+    // the slots of this edge in the adjacency arrays of its vertices when using compact adjacency
+    protected int outIndex = -1;
+    protected int inIndex = -1;
+
     protected TinkerEdge(final Object id, final Vertex outVertex, final String label, final Vertex inVertex) {
         super(id, label);
         this.outVertex = outVertex;
@@ -82,21 +86,16 @@ public class TinkerEdge extends TinkerElement implements Edge {
         final TinkerVertex outVertex = (TinkerVertex) this.outVertex;
         final TinkerVertex inVertex = (TinkerVertex) this.inVertex;
 
-        if (null != outVertex && null != outVertex.outEdges) {
-            final Set<Edge> edges = outVertex.outEdges.get(this.label());
-            if (null != edges)
-                edges.remove(this);
-        }
-        if (null != inVertex && null != inVertex.inEdges) {
-            final Set<Edge> edges = inVertex.inEdges.get(this.label());
-            if (null != edges)
-                edges.remove(this);
-        }
+        if (null != outVertex)
+            TinkerHelper.removeOutEdge(outVertex, this.label(), this);
+        if (null != inVertex)
+            TinkerHelper.removeInEdge(inVertex, this.label(), this);
 
+        // marked removed before its properties are cleared so that an index build can tell why reading them failed
+        this.removed = true;
         TinkerHelper.removeElementIndex(this);
         ((TinkerGraph) this.graph()).edges.remove(this.id());
         this.properties = null;
-        this.removed = true;
     }
 
     @Override
@@ -0,0 +1,190 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tinkerpop.gremlin.tinkergraph.structure;
+
+import org.apache.tinkerpop.gremlin.structure.Direction;
+import org.apache.tinkerpop.gremlin.structure.Edge;
+
+import java.util.AbstractCollection;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * A compact, array-backed adjacency list for the edges of a single label in a single direction of a
+ * {@link TinkerVertex}.  It is used in place of a {@code HashSet} when {@link TinkerGraph#CONFIG_COMPACT_ADJACENCY}
+ * is enabled.  Each {@link TinkerEdge} records its slot in the array of its out-vertex and in-vertex so that adds
+ * and removes are both O(1). A remove leaves a tombstone behind and the array is compacted once more than half of
+ * its slots are tombstones.
+ * <p/>
+ * Iterators work against the array as it was when they were created and skip tombstones and removed edges, which
+ * means that edges may be added and removed while an iterator is in use without copying the array.
+ *
+ * @author agent
+ */
+class TinkerEdgeArray extends AbstractCollection<Edge> {
+
+    private static final Edge[] EMPTY_EDGES = new Edge[0];
+    private static final int DEFAULT_CAPACITY = 4;
+
+    private final boolean out;
+    private Edge[] edges = EMPTY_EDGES;
+    private int next = 0;
+    private int tombstones = 0;
+
+    public TinkerEdgeArray(final Direction direction) {
+        if (direction.equals(Direction.BOTH))
+            throw new IllegalArgumentException("An edge array can only hold the edges of a single direction");
+        this.out = direction.equals(Direction.OUT);
+    }
+
+    /**
+     * For subclasses that keep the slot of an edge themselves (see {@link #getIndex(TinkerEdge)}).
+     */
+    protected TinkerEdgeArray() {
+        this.out = true;
+    }
+
+    @Override
+    public boolean add(final Edge edge) {
+        if (this.next == this.edges.length) {
+            if (this.tombstones > 0)
+                this.compact(this.size() + (this.size() >> 1) + 1);
+            else
+                this.edges = Arrays.copyOf(this.edges, Math.max(DEFAULT_CAPACITY, this.edges.length + (this.edges.length >> 1)));
+        }
+        this.setIndex((TinkerEdge) edge, this.next);
+        this.edges[this.next++] = edge;
+        return true;
+    }
+
+    @Override
+    public boolean remove(final Object object) {
+        if (!this.contains(object))
+            return false;
+        final TinkerEdge edge = (TinkerEdge) object;
+        this.edges[this.getIndex(edge)] = null;
+        this.setIndex(edge, -1);
+        if (++this.tombstones > (this.next >> 1))
+            this.compact(this.size() + (this.size() >> 1));
+        return true;
+    }
+
+    @Override
+    public boolean contains(final Object object) {
+        if (!(object instanceof TinkerEdge))
+            return false;
+        final int index = this.getIndex((TinkerEdge) object);
+        return index >= 0 && index < this.next && this.edges[index] == object;
+    }
+
+    @Override
+    public int size() {
+        return this.next - this.tombstones;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return this.next == this.tombstones;
+    }
+
+    @Override
+    public void clear() {
+        for (int i = 0; i < this.next; i++) {
+            if (null != this.edges[i])
+                this.setIndex((TinkerEdge) this.edges[i], -1);
+        }
+        this.edges = EMPTY_EDGES;
+        this.next = 0;
+        this.tombstones = 0;
+    }
+
+    @Override
+    public Iterator<Edge> iterator() {
+        return new EdgeArrayIterator(this.edges, this.next);
+    }
+
+    /**
+     * Copies the live edges into a new array of the requested capacity.  A new array is always allocated (rather
+     * than compacting in place) so that iterators created before the compaction still see a consistent array.
+     */
+    private void compact(final int capacity) {
+        final Edge[] compacted = capacity == 0 ? EMPTY_EDGES : new Edge[Math.max(DEFAULT_CAPACITY, capacity)];
+        int live = 0;
+        for (int i = 0; i < this.next; i++) {
+            final Edge edge = this.edges[i];
+            if (null != edge) {
+                this.setIndex((TinkerEdge) edge, live);
+                compacted[live++] = edge;
+            }
+        }
+        this.edges = compacted;
+        this.next = live;
+        this.tombstones = 0;
+    }
+
+    /**
+     * Get the slot of the edge in the array, or -1 if it is not in the array.
+     */
+    protected int getIndex(final TinkerEdge edge) {
+        return this.out ? edge.outIndex : edge.inIndex;
+    }
+
+    /**
+     * Set the slot of the edge in the array, where -1 means that it was removed from the array.
+     */
+    protected void setIndex(final TinkerEdge edge, final int index) {
+        if (this.out)
+            edge.outIndex = index;
+        else
+            edge.inIndex = index;
+    }
+
+    private static final class EdgeArrayIterator implements Iterator<Edge> {
+
+        private final Edge[] edges;
+        private final int limit;
+        private int current = 0;
+        private Edge nextEdge = null;
+
+        private EdgeArrayIterator(final Edge[] edges, final int limit) {
+            this.edges = edges;
+            this.limit = limit;
+        }
+
+        @Override
+        public boolean hasNext() {
+            while (null == this.nextEdge && this.current < this.limit) {
+                final Edge edge = this.edges[this.current++];
+                if (null != edge && !((TinkerEdge) edge).removed)
+                    this.nextEdge = edge;
+            }
+            return null != this.nextEdge;
+        }
+
+        @Override
+        public Edge next() {
+            if (!this.hasNext())
+                throw new NoSuchElementException();
+            final Edge edge = this.nextEdge;
+            this.nextEdge = null;
+            return edge;
+        }
+    }
+}
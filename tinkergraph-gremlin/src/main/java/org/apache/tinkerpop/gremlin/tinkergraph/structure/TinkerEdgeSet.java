@@ -0,0 +1,51 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tinkerpop.gremlin.tinkergraph.structure;
+
+import org.apache.tinkerpop.gremlin.structure.Edge;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * The default adjacency for the edges of a single label in a single direction of a {@link TinkerVertex}.  It is a
+ * {@link TinkerEdgeArray} that keeps the slot of each edge in a hash map rather than on the edge, so iterators read
+ * the array as it was when they were created and the set is always mutated in place, whether or not an iterator on
+ * it was abandoned part way through.
+ *
+ * @author agent
+ */
+final class TinkerEdgeSet extends TinkerEdgeArray {
+
+    private final Map<Edge, Integer> indices = new HashMap<>();
+
+    @Override
+    protected int getIndex(final TinkerEdge edge) {
+        final Integer index = this.indices.get(edge);
+        return null == index ? -1 : index;
+    }
+
+    @Override
+    protected void setIndex(final TinkerEdge edge, final int index) {
+        if (-1 == index)
+            this.indices.remove(edge);
+        else
+            this.indices.put(edge, index);
+    }
+}
@@ -28,7 +28,8 @@ public abstract class TinkerElement implements Element {
 
     protected final Object id;
     protected final String label;
-    protected boolean removed = false;
+    // volatile as an index build reads it to tell the reads that fail as the element is removed
+    protected volatile boolean removed = false;
 
     protected TinkerElement(final Object id, final String label) {
         this.id = id;
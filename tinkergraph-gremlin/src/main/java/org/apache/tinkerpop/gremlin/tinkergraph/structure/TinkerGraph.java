@@ -38,6 +38,7 @@ import org.apache.tinkerpop.gremlin.util.iterator.IteratorUtils;
 
 import java.util.Collections;
 import java.util.Iterator;
+import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
@@ -75,6 +76,8 @@ public class TinkerGraph implements Graph {
     public static final String CONFIG_VERTEX_ID = "gremlin.tinkergraph.vertexIdManager";
     public static final String CONFIG_EDGE_ID = "gremlin.tinkergraph.edgeIdManager";
     public static final String CONFIG_VERTEX_PROPERTY_ID = "gremlin.tinkergraph.vertexPropertyIdManager";
+    public static final String CONFIG_COMPUTER_WORKERS = "gremlin.tinkergraph.graphComputer.workers";
+    public static final String CONFIG_COMPACT_ADJACENCY = "gremlin.tinkergraph.compactAdjacency";
 
     protected AtomicLong currentId = new AtomicLong(-1l);
     protected Map<Object, Vertex> vertices = new ConcurrentHashMap<>();
@@ -90,6 +93,7 @@ public class TinkerGraph implements Graph {
     protected final IdManager<?> vertexIdManager;
     protected final IdManager<?> edgeIdManager;
     protected final IdManager<?> vertexPropertyIdManager;
+    protected final boolean compactAdjacency;
 
     private final Configuration configuration;
 
@@ -101,6 +105,7 @@ public class TinkerGraph implements Graph {
         vertexIdManager = selectIdManager(configuration, CONFIG_VERTEX_ID, Vertex.class);
         edgeIdManager = selectIdManager(configuration, CONFIG_EDGE_ID, Edge.class);
         vertexPropertyIdManager = selectIdManager(configuration, CONFIG_VERTEX_PROPERTY_ID, VertexProperty.class);
+        compactAdjacency = configuration.getBoolean(CONFIG_COMPACT_ADJACENCY, false);
     }
 
     public static TinkerGraph empty() {
@@ -350,12 +355,50 @@ public class TinkerGraph implements Graph {
      * @param <E>          The type of the element class
      */
     public <E extends Element> void createIndex(final String key, final Class<E> elementClass) {
+        this.createIndex(key, elementClass, IndexType.HASH);
+    }
+
+    /**
+     * Create an index of the specified {@link IndexType} for said element class ({@link Vertex} or {@link Edge}) and
+     * said property key.  If the key is already indexed with a different type, the existing index is dropped and
+     * rebuilt with the new type.
+     *
+     * @param key          the property key to index
+     * @param elementClass the element class to index
+     * @param indexType    the type of index to create
+     * @param <E>          The type of the element class
+     */
+    public <E extends Element> void createIndex(final String key, final Class<E> elementClass, final IndexType indexType) {
+        if (null == indexType)
+            throw Graph.Exceptions.argumentCanNotBeNull("indexType");
+        this.getOrCreateIndex(elementClass).createKeyIndex(key, indexType, false);
+    }
+
+    /**
+     * Create an index of the specified {@link IndexType} for said element class ({@link Vertex} or {@link Edge}) and
+     * said property key on a background thread.  Mutations made to the graph while the index is built are captured
+     * by it, and the index is only used once it has caught up with them, so the graph remains writable and queries
+     * keep returning correct answers throughout.
+     *
+     * @param key          the property key to index
+     * @param elementClass the element class to index
+     * @param indexType    the type of index to create
+     * @param <E>          The type of the element class
+     * @return the progress of the build, which also completes when the index is in use
+     */
+    public <E extends Element> TinkerIndexBuild createIndexInBackground(final String key, final Class<E> elementClass, final IndexType indexType) {
+        if (null == indexType)
+            throw Graph.Exceptions.argumentCanNotBeNull("indexType");
+        return this.getOrCreateIndex(elementClass).createKeyIndex(key, indexType, true);
+    }
+
+    private <E extends Element> TinkerIndex<?> getOrCreateIndex(final Class<E> elementClass) {
         if (Vertex.class.isAssignableFrom(elementClass)) {
             if (null == this.vertexIndex) this.vertexIndex = new TinkerIndex<>(this, TinkerVertex.class);
-            this.vertexIndex.createKeyIndex(key);
+            return this.vertexIndex;
         } else if (Edge.class.isAssignableFrom(elementClass)) {
             if (null == this.edgeIndex) this.edgeIndex = new TinkerIndex<>(this, TinkerEdge.class);
-            this.edgeIndex.createKeyIndex(key);
+            return this.edgeIndex;
         } else {
             throw new IllegalArgumentException("Class is not indexable: " + elementClass);
         }
@@ -395,6 +438,84 @@ public class TinkerGraph implements Graph {
         }
     }
 
+    /**
+     * Create a composite index for said element class ({@link Vertex} or {@link Edge}) over the ordered list of
+     * property keys, which answers lookups that test all of the keys for equality at once.  The label of the element
+     * can be part of the index by way of {@code T.label.getAccessor()}.  Only elements that have a value for every
+     * key are indexed.
+     *
+     * @param keys         the property keys to index together
+     * @param elementClass the element class to index
+     * @param <E>          The type of the element class
+     */
+    public <E extends Element> void createCompositeIndex(final List<String> keys, final Class<E> elementClass) {
+        this.getOrCreateIndex(elementClass).createCompositeKeyIndex(keys, false);
+    }
+
+    /**
+     * Create a composite index for said element class ({@link Vertex} or {@link Edge}) over the ordered list of
+     * property keys on a background thread, in the same way as {@link #createIndexInBackground(String, Class, IndexType)}.
+     *
+     * @param keys         the property keys to index together
+     * @param elementClass the element class to index
+     * @param <E>          The type of the element class
+     * @return the progress of the build, which also completes when the index is in use
+     */
+    public <E extends Element> TinkerIndexBuild createCompositeIndexInBackground(final List<String> keys, final Class<E> elementClass) {
+        return this.getOrCreateIndex(elementClass).createCompositeKeyIndex(keys, true);
+    }
+
+    /**
+     * Drop the composite index for the specified element class ({@link Vertex} or {@link Edge}) and keys.
+     *
+     * @param keys         the property keys of the composite index to drop
+     * @param elementClass the element class of the index to drop
+     * @param <E>          The type of the element class
+     */
+    public <E extends Element> void dropCompositeIndex(final List<String> keys, final Class<E> elementClass) {
+        if (Vertex.class.isAssignableFrom(elementClass)) {
+            if (null != this.vertexIndex) this.vertexIndex.dropCompositeKeyIndex(keys);
+        } else if (Edge.class.isAssignableFrom(elementClass)) {
+            if (null != this.edgeIndex) this.edgeIndex.dropCompositeKeyIndex(keys);
+        } else {
+            throw new IllegalArgumentException("Class is not indexable: " + elementClass);
+        }
+    }
+
+    /**
+     * Return the keys of all the composite indices of said element class ({@link Vertex} or {@link Edge}).
+     *
+     * @param elementClass the element class to get the composite indices for
+     * @param <E>          The type of the element class
+     * @return the set of key lists currently being indexed together
+     */
+    public <E extends Element> Set<List<String>> getCompositeIndexedKeys(final Class<E> elementClass) {
+        if (Vertex.class.isAssignableFrom(elementClass)) {
+            return null == this.vertexIndex ? Collections.emptySet() : this.vertexIndex.getCompositeIndexedKeys();
+        } else if (Edge.class.isAssignableFrom(elementClass)) {
+            return null == this.edgeIndex ? Collections.emptySet() : this.edgeIndex.getCompositeIndexedKeys();
+        } else {
+            throw new IllegalArgumentException("Class is not indexable: " + elementClass);
+        }
+    }
+
+    /**
+     * The types of index that can be created with {@link TinkerGraph#createIndex(String, Class, IndexType)}.
+     */
+    public enum IndexType {
+        /**
+         * A hash index which answers equality lookups on the indexed key.
+         */
+        HASH,
+        /**
+         * An index that keeps the values of the indexed key in order so that, in addition to equality lookups, it
+         * can answer range lookups (e.g. {@code gt}, {@code lte}, {@code between}) and walk the elements in the
+         * order of their values (e.g. {@code order().by(key).limit(n)}).  Numbers of different types are ordered by
+         * their numeric value.
+         */
+        SORTED
+    }
+
     /**
      * Construct an {@link TinkerGraph.IdManager} from the TinkerGraph {@code Configuration}.
      */
@@ -19,30 +19,31 @@
 package org.apache.tinkerpop.gremlin.tinkergraph.structure;
 
 import org.apache.tinkerpop.gremlin.process.computer.GraphComputer;
+import org.apache.tinkerpop.gremlin.process.traversal.FastNoSuchElementException;
 import org.apache.tinkerpop.gremlin.structure.Direction;
 import org.apache.tinkerpop.gremlin.structure.Edge;
+import org.apache.tinkerpop.gremlin.structure.Element;
 import org.apache.tinkerpop.gremlin.structure.Graph;
 import org.apache.tinkerpop.gremlin.structure.Vertex;
 import org.apache.tinkerpop.gremlin.structure.VertexProperty;
 import org.apache.tinkerpop.gremlin.structure.util.ElementHelper;
 import org.apache.tinkerpop.gremlin.tinkergraph.process.computer.TinkerGraphView;
 
-import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
-import java.util.HashSet;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
-import java.util.Objects;
 import java.util.Set;
-import java.util.stream.Stream;
 
 /**
  * @author Marko A. Rodriguez (http://markorodriguez.com)
  */
 public final class TinkerHelper {
 
+    private static final Object[] EMPTY_LABEL_EDGES = new Object[0];
+
     private TinkerHelper() {
     }
 
@@ -71,38 +72,126 @@ public final class TinkerHelper {
 
     protected static void addOutEdge(final TinkerVertex vertex, final String label, final Edge edge) {
         if (null == vertex.outEdges) vertex.outEdges = new HashMap<>();
-        Set<Edge> edges = vertex.outEdges.get(label);
-        if (null == edges) {
-            edges = new HashSet<>();
-            vertex.outEdges.put(label, edges);
-        }
-        edges.add(edge);
+        getWritableAdjacency(vertex, vertex.outEdges, Direction.OUT, label).add(edge);
     }
 
     protected static void addInEdge(final TinkerVertex vertex, final String label, final Edge edge) {
         if (null == vertex.inEdges) vertex.inEdges = new HashMap<>();
-        Set<Edge> edges = vertex.inEdges.get(label);
+        getWritableAdjacency(vertex, vertex.inEdges, Direction.IN, label).add(edge);
+    }
+
+    protected static void removeOutEdge(final TinkerVertex vertex, final String label, final Edge edge) {
+        if (null != vertex.outEdges && vertex.outEdges.containsKey(label))
+            getWritableAdjacency(vertex, vertex.outEdges, Direction.OUT, label).remove(edge);
+    }
+
+    protected static void removeInEdge(final TinkerVertex vertex, final String label, final Edge edge) {
+        if (null != vertex.inEdges && vertex.inEdges.containsKey(label))
+            getWritableAdjacency(vertex, vertex.inEdges, Direction.IN, label).remove(edge);
+    }
+
+    /**
+     * Get the edges of the label, creating them if the vertex has none yet.  Both {@link TinkerEdgeSet} and
+     * {@link TinkerEdgeArray} can be mutated in place while iterators are open on them.
+     */
+    private static Collection<Edge> getWritableAdjacency(final TinkerVertex vertex, final Map<String, Collection<Edge>> adjacency,
+                                                         final Direction direction, final String label) {
+        Collection<Edge> edges = adjacency.get(label);
         if (null == edges) {
-            edges = new HashSet<>();
-            vertex.inEdges.put(label, edges);
+            edges = ((TinkerGraph) vertex.graph()).compactAdjacency ? new TinkerEdgeArray(direction) : new TinkerEdgeSet();
+            adjacency.put(label, edges);
         }
-        edges.add(edge);
+        return edges;
     }
 
-    public static List<TinkerVertex> queryVertexIndex(final TinkerGraph graph, final String key, final Object value) {
+    public static Collection<TinkerVertex> queryVertexIndex(final TinkerGraph graph, final String key, final Object value) {
         return null == graph.vertexIndex ? Collections.emptyList() : graph.vertexIndex.get(key, value);
     }
 
-    public static List<TinkerEdge> queryEdgeIndex(final TinkerGraph graph, final String key, final Object value) {
+    public static Collection<TinkerEdge> queryEdgeIndex(final TinkerGraph graph, final String key, final Object value) {
         return null == graph.edgeIndex ? Collections.emptyList() : graph.edgeIndex.get(key, value);
     }
 
+    /**
+     * Get the elements that have the values for the keys of a composite index as a live view of the index.
+     */
+    public static <E extends Element> Collection<E> queryCompositeIndex(final TinkerGraph graph, final Class<E> elementClass,
+                                                                        final List<String> keys, final List<Object> values) {
+        final TinkerIndex<?> index = getIndex(graph, elementClass);
+        return null == index ? Collections.emptyList() : (Collection<E>) index.get(keys, values);
+    }
+
+    /**
+     * Count the elements in the range of a {@link TinkerGraph.IndexType#SORTED} index, giving up once the count
+     * exceeds the limit.
+     */
+    public static long countIndexRange(final TinkerGraph graph, final Class<? extends Element> elementClass, final String key,
+                                       final Object from, final boolean fromInclusive,
+                                       final Object to, final boolean toInclusive, final long limit) {
+        final TinkerIndex<?> index = getIndex(graph, elementClass);
+        return null == index ? 0 : index.countRange(key, from, fromInclusive, to, toInclusive, limit);
+    }
+
+    /**
+     * Determines if the key has a {@link TinkerGraph.IndexType#SORTED} index for the element class.
+     */
+    public static boolean isSortedIndex(final TinkerGraph graph, final Class<? extends Element> elementClass, final String key) {
+        final TinkerIndex<?> index = getIndex(graph, elementClass);
+        return null != index && index.isSorted(key);
+    }
+
+    /**
+     * Determines if walking the {@link TinkerGraph.IndexType#SORTED} index of the key for the element class gives the
+     * elements in the order of their value for the key, without leaving any out.
+     */
+    public static boolean isTotalOrderIndex(final TinkerGraph graph, final Class<? extends Element> elementClass, final String key) {
+        final TinkerIndex<?> index = getIndex(graph, elementClass);
+        return null != index && index.isTotalOrder(key);
+    }
+
+    /**
+     * Get the elements whose value for the key falls in the range, where a {@code null} bound leaves that end of the
+     * range open.  The key must have a {@link TinkerGraph.IndexType#SORTED} index.
+     */
+    public static <E extends Element> Collection<E> queryIndexRange(final TinkerGraph graph, final Class<E> elementClass, final String key,
+                                                                    final Object from, final boolean fromInclusive,
+                                                                    final Object to, final boolean toInclusive) {
+        final TinkerIndex<?> index = getIndex(graph, elementClass);
+        return null == index ? Collections.emptyList() : (Collection<E>) index.getRange(key, from, fromInclusive, to, toInclusive);
+    }
+
+    /**
+     * Walk the elements that have a value for the key in the order of that value.  The key must have a
+     * {@link TinkerGraph.IndexType#SORTED} index.
+     */
+    public static <E extends Element> Iterator<E> queryIndexOrdered(final TinkerGraph graph, final Class<E> elementClass, final String key,
+                                                                    final boolean descending) {
+        final TinkerIndex<?> index = getIndex(graph, elementClass);
+        return null == index ? Collections.emptyIterator() : (Iterator<E>) index.getOrdered(key, descending);
+    }
+
+    private static TinkerIndex<?> getIndex(final TinkerGraph graph, final Class<? extends Element> elementClass) {
+        return Vertex.class.isAssignableFrom(elementClass) ? graph.vertexIndex : graph.edgeIndex;
+    }
+
     public static boolean inComputerMode(final TinkerGraph graph) {
         return null != graph.graphView;
     }
 
+    /**
+     * Creates the {@link TinkerGraphView} of a computation, first numbering the vertices of the graph so that their
+     * compute keys can be held in arrays.
+     */
     public static TinkerGraphView createGraphView(final TinkerGraph graph, final GraphComputer.Isolation isolation, final Set<String> computeKeys) {
-        return graph.graphView = new TinkerGraphView(isolation, computeKeys);
+        int ordinal = 0;
+        for (final Vertex vertex : graph.vertices.values()) {
+            ((TinkerVertex) vertex).computeOrdinal = ordinal++;
+        }
+        return graph.graphView = new TinkerGraphView(isolation, computeKeys, ordinal);
+    }
+
+    public static int getComputeOrdinal(final TinkerVertex vertex) {
+        return vertex.computeOrdinal;
     }
 
     public static Map<String, List<VertexProperty>> getProperties(final TinkerVertex vertex) {
@@ -136,62 +225,106 @@ public final class TinkerHelper {
     public static void removeIndex(final TinkerVertex vertex, final String key, final Object value) {
         final TinkerGraph graph = (TinkerGraph) vertex.graph();
         if (graph.vertexIndex != null)
-            graph.vertexIndex.remove(key, value, vertex);
+            graph.vertexIndex.autoRemove(key, value, vertex);
     }
 
     public static void removeIndex(final TinkerEdge edge, final String key, final Object value) {
         final TinkerGraph graph = (TinkerGraph) edge.graph();
         if (graph.edgeIndex != null)
-            graph.edgeIndex.remove(key, value, edge);
+            graph.edgeIndex.autoRemove(key, value, edge);
     }
 
     public static Iterator<TinkerEdge> getEdges(final TinkerVertex vertex, final Direction direction, final String... edgeLabels) {
-        final List<Edge> edges = new ArrayList<>();
-        if (direction.equals(Direction.OUT) || direction.equals(Direction.BOTH)) {
-            if (vertex.outEdges != null) {
-                if (edgeLabels.length == 0)
-                    vertex.outEdges.values().forEach(edges::addAll);
-                else if (edgeLabels.length == 1)
-                    edges.addAll(vertex.outEdges.getOrDefault(edgeLabels[0], Collections.emptySet()));
-                else
-                    Stream.of(edgeLabels).map(vertex.outEdges::get).filter(Objects::nonNull).forEach(edges::addAll);
-            }
+        return new AdjacencyIterator<>(vertex, direction, edgeLabels, false);
+    }
+
+    public static Iterator<TinkerVertex> getVertices(final TinkerVertex vertex, final Direction direction, final String... edgeLabels) {
+        return new AdjacencyIterator<>(vertex, direction, edgeLabels, true);
+    }
+
+    /**
+     * Lazily walks the adjacent edges of a vertex, label by label, emitting either the edges or the vertices at the
+     * other end of them.  Nothing is copied, so a traversal that stops early only pays for the edges it consumed.
+     * Edges removed after the iterator was created are skipped.
+     */
+    private static final class AdjacencyIterator<E> implements Iterator<E> {
+
+        private final TinkerVertex vertex;
+        private final String[] edgeLabels;
+        private final boolean emitVertices;
+        private final boolean both;
+
+        private boolean out;
+        private Object[] labelEdges;
+        private int labelIndex = 0;
+        private Iterator<Edge> edges = Collections.emptyIterator();
+        private E next = null;
+
+        private AdjacencyIterator(final TinkerVertex vertex, final Direction direction, final String[] edgeLabels, final boolean emitVertices) {
+            this.vertex = vertex;
+            this.edgeLabels = edgeLabels;
+            this.emitVertices = emitVertices;
+            this.both = direction.equals(Direction.BOTH);
+            this.out = !direction.equals(Direction.IN);
+            this.labelEdges = this.getLabelEdges();
         }
-        if (direction.equals(Direction.IN) || direction.equals(Direction.BOTH)) {
-            if (vertex.inEdges != null) {
-                if (edgeLabels.length == 0)
-                    vertex.inEdges.values().forEach(edges::addAll);
-                else if (edgeLabels.length == 1)
-                    edges.addAll(vertex.inEdges.getOrDefault(edgeLabels[0], Collections.emptySet()));
-                else
-                    Stream.of(edgeLabels).map(vertex.inEdges::get).filter(Objects::nonNull).forEach(edges::addAll);
+
+        @Override
+        public boolean hasNext() {
+            while (null == this.next) {
+                if (this.edges.hasNext()) {
+                    final TinkerEdge edge = (TinkerEdge) this.edges.next();
+                    if (!edge.removed)
+                        this.next = (E) (this.emitVertices ? (this.out ? edge.inVertex : edge.outVertex) : edge);
+                } else if (!this.nextLabel())
+                    return false;
             }
+            return true;
         }
-        return (Iterator) edges.iterator();
-    }
 
-    public static Iterator<TinkerVertex> getVertices(final TinkerVertex vertex, final Direction direction, final String... edgeLabels) {
-        final List<Vertex> vertices = new ArrayList<>();
-        if (direction.equals(Direction.OUT) || direction.equals(Direction.BOTH)) {
-            if (vertex.outEdges != null) {
-                if (edgeLabels.length == 0)
-                    vertex.outEdges.values().forEach(set -> set.forEach(edge -> vertices.add(((TinkerEdge) edge).inVertex)));
-                else if (edgeLabels.length == 1)
-                    vertex.outEdges.getOrDefault(edgeLabels[0], Collections.emptySet()).forEach(edge -> vertices.add(((TinkerEdge) edge).inVertex));
-                else
-                    Stream.of(edgeLabels).map(vertex.outEdges::get).filter(Objects::nonNull).flatMap(Set::stream).forEach(edge -> vertices.add(((TinkerEdge) edge).inVertex));
+        @Override
+        public E next() {
+            if (!this.hasNext())
+                throw FastNoSuchElementException.instance();
+            final E e = this.next;
+            this.next = null;
+            return e;
+        }
+
+        private boolean nextLabel() {
+            while (true) {
+                final Collection<Edge> edges = this.nextLabelEdges();
+                if (null != edges) {
+                    this.edges = edges.iterator();
+                    return true;
+                } else if (this.both && this.out) {
+                    this.out = false;
+                    this.labelIndex = 0;
+                    this.labelEdges = this.getLabelEdges();
+                } else
+                    return false;
             }
         }
-        if (direction.equals(Direction.IN) || direction.equals(Direction.BOTH)) {
-            if (vertex.inEdges != null) {
-                if (edgeLabels.length == 0)
-                    vertex.inEdges.values().forEach(set -> set.forEach(edge -> vertices.add(((TinkerEdge) edge).outVertex)));
-                else if (edgeLabels.length == 1)
-                    vertex.inEdges.getOrDefault(edgeLabels[0], Collections.emptySet()).forEach(edge -> vertices.add(((TinkerEdge) edge).outVertex));
-                else
-                    Stream.of(edgeLabels).map(vertex.inEdges::get).filter(Objects::nonNull).flatMap(Set::stream).forEach(edge -> vertices.add(((TinkerEdge) edge).outVertex));
+
+        private Collection<Edge> nextLabelEdges() {
+            if (null != this.labelEdges)
+                return this.labelIndex < this.labelEdges.length ? (Collection<Edge>) this.labelEdges[this.labelIndex++] : null;
+            final Map<String, Collection<Edge>> adjacency = this.out ? this.vertex.outEdges : this.vertex.inEdges;
+            while (null != adjacency && this.labelIndex < this.edgeLabels.length) {
+                final Collection<Edge> edges = adjacency.get(this.edgeLabels[this.labelIndex++]);
+                if (null != edges) return edges;
             }
+            return null;
+        }
+
+        /**
+         * When no labels are given, all the label collections of the current direction are captured up front since
+         * adding an edge with a new label would otherwise change the map while it is being iterated.
+         */
+        private Object[] getLabelEdges() {
+            if (this.edgeLabels.length > 0) return null;
+            final Map<String, Collection<Edge>> adjacency = this.out ? this.vertex.outEdges : this.vertex.inEdges;
+            return null == adjacency ? EMPTY_LABEL_EDGES : adjacency.values().toArray();
         }
-        return (Iterator) vertices.iterator();
     }
 }
@@ -20,58 +20,249 @@ package org.apache.tinkerpop.gremlin.tinkergraph.structure;
 
 import org.apache.tinkerpop.gremlin.structure.Element;
 import org.apache.tinkerpop.gremlin.structure.Graph;
-import org.apache.tinkerpop.gremlin.structure.Property;
+import org.apache.commons.lang3.concurrent.BasicThreadFactory;
 import org.apache.tinkerpop.gremlin.structure.Vertex;
+import org.apache.tinkerpop.gremlin.util.iterator.IteratorUtils;
 
+import java.math.BigDecimal;
+import java.math.BigInteger;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
 import java.util.Collections;
+import java.util.Comparator;
+import java.util.ConcurrentModificationException;
 import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.NavigableMap;
 import java.util.Set;
+import java.util.concurrent.CancellationException;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
 
 /**
  * @author Marko A. Rodriguez (http://markorodriguez.com)
  */
 class TinkerIndex<T extends Element> {
 
+    /**
+     * Orders the values of a {@link TinkerGraph.IndexType#SORTED} index.  Numbers of all types are compared by their
+     * numeric value and come first.  All other values are grouped by class and compared naturally within their class,
+     * where values that are not {@link Comparable} are ordered by hash code (which may place unequal values in the
+     * same bucket, so index results must always be filtered against the original predicate).
+     */
+    protected static final Comparator<Object> VALUE_COMPARATOR = TinkerIndex::compareValues;
+
+    /**
+     * The number of times the mutations made during a build are caught up on while writes carry on, before writes
+     * are blocked to catch up on the last of them and switch the index over.
+     */
+    private static final int CATCH_UP_PASSES = 3;
+
+    private static final BasicThreadFactory threadFactoryBuild = new BasicThreadFactory.Builder().namingPattern("tinker-index-build-%d").daemon(true).build();
+    private static final ExecutorService buildPool = Executors.newCachedThreadPool(threadFactoryBuild);
+
     protected Map<String, Map<Object, Set<T>>> index = new ConcurrentHashMap<>();
+    protected Map<List<String>, Map<Object, Set<T>>> compositeIndex = new ConcurrentHashMap<>();
     protected final Class<T> indexClass;
-    private final Set<String> indexedKeys = new HashSet<>();
+    private final Set<String> indexedKeys = ConcurrentHashMap.newKeySet();
+    private final Set<List<String>> compositeIndexedKeys = ConcurrentHashMap.newKeySet();
     private final TinkerGraph graph;
 
+    /**
+     * The indices being built, by key (or list of keys for a composite index).  Mutations take the read lock, under
+     * which they check for builds, so that a mutation either completes before a build is registered (and so is seen
+     * by its walk), is recorded by the build or happens after its index is switched over.  Builds are registered and
+     * switched over under the write lock.
+     */
+    private final Map<Object, TinkerIndexBuild> builds = new ConcurrentHashMap<>();
+    private final ReadWriteLock switchLock = new ReentrantReadWriteLock();
+
+    /**
+     * The key/value pairs under which each element is indexed, stored flat as {@code [key, value, key, value, ...]},
+     * so that a removed element can be taken out of just the buckets that hold it.  The key of a composite index is
+     * its list of keys and the value is the list of values.
+     */
+    private final Map<T, Object[]> elementEntries = new ConcurrentHashMap<>();
+
+    /**
+     * The keys (or lists of keys) that have been indexed with more than one value for an element since their index was
+     * created.  It is not cleared when the element is left with one value again, so it may hold keys that no longer
+     * have such elements.
+     */
+    private final Set<Object> multiValuedKeys = ConcurrentHashMap.newKeySet();
+
+    /**
+     * The number of entries of each key (but not of composite indices) by the class of their values, which is kept as
+     * elements are indexed and removed so that {@link #isTotalOrder(String)} need not walk the buckets.
+     */
+    private final Map<String, Map<Class<?>, AtomicLong>> valueClassCounts = new ConcurrentHashMap<>();
+
     public TinkerIndex(final TinkerGraph graph, final Class<T> indexClass) {
         this.graph = graph;
         this.indexClass = indexClass;
     }
 
-    protected void put(final String key, final Object value, final T element) {
-        Map<Object, Set<T>> keyMap = this.index.get(key);
-        if (keyMap == null) {
-            keyMap = new ConcurrentHashMap<>();
-            this.index.put(key, keyMap);
-        }
-        Set<T> objects = keyMap.get(value);
-        if (null == objects) {
-            objects = new HashSet<>();
-            keyMap.put(value, objects);
+    protected void put(final Object key, final Object value, final T element) {
+        final Map<Object, Set<T>> keyMap = this.getBuckets(key);
+        if (null == keyMap)
+            return;
+        // buckets are only mutated under their own lock and only dropped from the index under it once empty, so a
+        // bucket that is still in the index once its lock is held can be added to, otherwise it is looked up again
+        while (true) {
+            final Set<T> set = keyMap.computeIfAbsent(value, v -> ConcurrentHashMap.newKeySet());
+            synchronized (set) {
+                if (keyMap.get(value) == set) {
+                    set.add(element);
+                    break;
+                }
+            }
         }
-        objects.add(element);
+        this.elementEntries.compute(element, (e, entries) -> {
+            if (hasOtherValue(entries, key, value))
+                this.multiValuedKeys.add(key);
+            final Object[] added = addEntry(entries, key, value);
+            if (added != entries)
+                this.countEntry(key, value, 1);
+            return added;
+        });
+    }
 
+    /**
+     * Get the elements that have the value for the key.  The returned collection is a live, unmodifiable view of the
+     * index bucket whose iterators are weakly consistent, which means that they never throw a
+     * {@code ConcurrentModificationException} and reflect the mutations made while they are in use on a best-effort
+     * basis.
+     */
+    public Collection<T> get(final String key, final Object value) {
+        return this.get((Object) key, value);
     }
 
-    public List<T> get(final String key, final Object value) {
-        final Map<Object, Set<T>> keyMap = this.index.get(key);
+    /**
+     * Get the elements that have the values for the keys of a composite index, as a live view in the same way as
+     * {@link #get(String, Object)}.
+     */
+    public Collection<T> get(final List<String> keys, final List<Object> values) {
+        return this.get((Object) keys, values);
+    }
+
+    private Collection<T> get(final Object key, final Object value) {
+        final Map<Object, Set<T>> keyMap = this.getBuckets(key);
         if (null == keyMap) {
             return Collections.emptyList();
         } else {
-            Set<T> set = keyMap.get(value);
-            if (null == set)
-                return Collections.emptyList();
-            else
-                return new ArrayList<>(set);
+            final Set<T> set = keyMap.get(value);
+            return null == set ? Collections.emptySet() : Collections.unmodifiableSet(set);
+        }
+    }
+
+    /**
+     * Get the elements whose value for the key falls in the specified range.  A {@code null} bound leaves that end of
+     * the range open.  Only values of the same type family as the bounds (i.e. numbers or the class of the bound) are
+     * returned.  Returns an empty collection if the key does not have a {@link TinkerGraph.IndexType#SORTED} index.
+     */
+    public Collection<T> getRange(final String key, final Object from, final boolean fromInclusive, final Object to, final boolean toInclusive) {
+        final NavigableMap<Object, Set<T>> range = this.getRangeBuckets(key, from, fromInclusive, to, toInclusive);
+        if (null == range)
+            return Collections.emptyList();
+        final Object bound = null == from ? to : from;
+        final Set<T> elements = new LinkedHashSet<>();
+        for (final Map.Entry<Object, Set<T>> entry : range.entrySet()) {
+            if (sameFamily(bound, entry.getKey()))
+                elements.addAll(entry.getValue());
+        }
+        return elements;
+    }
+
+    /**
+     * Count the elements that {@link #getRange(String, Object, boolean, Object, boolean)} would return, stopping
+     * once the count exceeds the limit so that a wide range costs no more than the alternative it is weighed against.
+     */
+    public long countRange(final String key, final Object from, final boolean fromInclusive, final Object to, final boolean toInclusive,
+                           final long limit) {
+        final NavigableMap<Object, Set<T>> range = this.getRangeBuckets(key, from, fromInclusive, to, toInclusive);
+        if (null == range)
+            return 0;
+        final Object bound = null == from ? to : from;
+        long count = 0;
+        for (final Map.Entry<Object, Set<T>> entry : range.entrySet()) {
+            if (sameFamily(bound, entry.getKey())) {
+                count = count + entry.getValue().size();
+                if (count > limit)
+                    break;
+            }
+        }
+        return count;
+    }
+
+    private NavigableMap<Object, Set<T>> getRangeBuckets(final String key, final Object from, final boolean fromInclusive,
+                                                         final Object to, final boolean toInclusive) {
+        final Map<Object, Set<T>> keyMap = this.index.get(key);
+        if (!(keyMap instanceof NavigableMap) || (null == from && null == to))
+            return null;
+        if (null != from && null != to && !sameFamily(from, to))
+            return null;
+
+        final NavigableMap<Object, Set<T>> map = (NavigableMap<Object, Set<T>>) keyMap;
+        if (null != from && null != to) {
+            final int comparison = VALUE_COMPARATOR.compare(from, to);
+            if (comparison > 0 || (comparison == 0 && !(fromInclusive && toInclusive)))
+                return null;
+            return map.subMap(from, fromInclusive, to, toInclusive);
+        } else if (null != from)
+            return map.tailMap(from, fromInclusive);
+        else
+            return map.headMap(to, toInclusive);
+    }
+
+    /**
+     * Lazily walk the elements that have a value for the key in the order of that value.  An element with multiple
+     * values for the key is returned once for each of them.  Returns an empty iterator if the key does not have a
+     * {@link TinkerGraph.IndexType#SORTED} index.
+     */
+    public Iterator<T> getOrdered(final String key, final boolean descending) {
+        final Map<Object, Set<T>> keyMap = this.index.get(key);
+        if (!(keyMap instanceof NavigableMap))
+            return Collections.emptyIterator();
+        final NavigableMap<Object, Set<T>> map = (NavigableMap<Object, Set<T>>) keyMap;
+        return IteratorUtils.flatMap((descending ? map.descendingMap() : map).values().iterator(), Set::iterator);
+    }
+
+    public boolean isSorted(final String key) {
+        return this.index.get(key) instanceof NavigableMap;
+    }
+
+    /**
+     * Determines if {@link #getOrdered} walks the elements in the order that sorting them by their value for the key
+     * would, which is when the key has a {@link TinkerGraph.IndexType#SORTED} index that is not being built, every
+     * element has exactly one value for the key and all the values are of the same {@link Comparable} class.
+     */
+    public boolean isTotalOrder(final String key) {
+        if (!this.isSorted(key) || this.builds.containsKey(key) || this.multiValuedKeys.contains(key))
+            return false;
+
+        long indexed = 0;
+        final Map<Class<?>, AtomicLong> counts = this.valueClassCounts.get(key);
+        if (null != counts) {
+            for (final Map.Entry<Class<?>, AtomicLong> count : counts.entrySet()) {
+                final long classCount = count.getValue().get();
+                if (0 == classCount)
+                    continue;
+                if (0 != indexed || !Comparable.class.isAssignableFrom(count.getKey()))
+                    return false;
+                indexed = classCount;
+            }
         }
+        // no element has more than one value, so the elements are all indexed if there are as many entries
+        return indexed == this.getElements().size();
     }
 
     public long count(final String key, final Object value) {
@@ -88,67 +279,470 @@ class TinkerIndex<T extends Element> {
     }
 
     public void remove(final String key, final Object value, final T element) {
-        final Map<Object, Set<T>> keyMap = this.index.get(key);
-        if (null != keyMap) {
-            Set<T> objects = keyMap.get(value);
-            if (null != objects) {
-                objects.remove(element);
-                if (objects.size() == 0) {
-                    keyMap.remove(value);
-                }
-            }
-        }
+        this.removeFromBucket(key, value, element);
+        this.elementEntries.computeIfPresent(element, (e, entries) -> removeEntries(entries, key, value));
     }
 
     public void removeElement(final T element) {
-        if (this.indexClass.isAssignableFrom(element.getClass())) {
-            for (Map<Object, Set<T>> map : index.values()) {
-                for (Set<T> set : map.values()) {
-                    set.remove(element);
-                }
+        if (!this.indexClass.isAssignableFrom(element.getClass()))
+            return;
+        this.switchLock.readLock().lock();
+        try {
+            this.removeElementEntries(element);
+            if (!this.builds.isEmpty())
+                this.builds.values().forEach(build -> build.mutatedElements.add(element));
+        } finally {
+            this.switchLock.readLock().unlock();
+        }
+    }
+
+    private void removeElementEntries(final T element) {
+        final Object[] entries = this.elementEntries.remove(element);
+        if (null != entries) {
+            for (int i = 0; i < entries.length; i = i + 2) {
+                this.removeFromBucket(entries[i], entries[i + 1], element);
+                this.countEntry(entries[i], entries[i + 1], -1);
             }
         }
     }
 
+    private void removeFromBucket(final Object key, final Object value, final T element) {
+        final Map<Object, Set<T>> keyMap = this.getBuckets(key);
+        if (null == keyMap)
+            return;
+        final Set<T> set = keyMap.get(value);
+        if (null == set)
+            return;
+        synchronized (set) {
+            set.remove(element);
+            // the bucket can only have been replaced once dropped, which is done under its lock
+            if (set.isEmpty() && keyMap.get(value) == set)
+                keyMap.remove(value);
+        }
+    }
+
     public void autoUpdate(final String key, final Object newValue, final Object oldValue, final T element) {
-        if (this.indexedKeys.contains(key)) {
+        this.switchLock.readLock().lock();
+        try {
+            this.update(key, newValue, oldValue, element);
+            this.recordMutation(key, element);
+        } finally {
+            this.switchLock.readLock().unlock();
+        }
+    }
+
+    public void autoRemove(final String key, final Object oldValue, final T element) {
+        this.switchLock.readLock().lock();
+        try {
+            this.update(key, null, oldValue, element);
+            this.recordMutation(key, element);
+        } finally {
+            this.switchLock.readLock().unlock();
+        }
+    }
+
+    private void update(final String key, final Object newValue, final Object oldValue, final T element) {
+        if (this.indexedKeys.contains(key) || this.builds.containsKey(key)) {
             if (oldValue != null)
                 this.remove(key, oldValue, element);
-            this.put(key, newValue, element);
+            if (newValue != null)
+                this.put(key, newValue, element);
+        }
+        // re-index the element in every composite index that contains the key
+        if (!this.compositeIndex.isEmpty()) {
+            for (final List<String> keys : this.compositeIndex.keySet()) {
+                if (keys.contains(key))
+                    this.reindex(keys, element);
+            }
         }
     }
 
-    public void autoRemove(final String key, final Object oldValue, final T element) {
-        if (this.indexedKeys.contains(key))
-            this.remove(key, oldValue, element);
+    private void recordMutation(final String key, final T element) {
+        if (this.builds.isEmpty())
+            return;
+        for (final TinkerIndexBuild build : this.builds.values()) {
+            if (build.getKeys().contains(key))
+                build.mutatedElements.add(element);
+        }
+    }
+
+    /**
+     * Replace the entries of the element in the index of the key (or list of keys for a composite index) with
+     * entries for its current values.
+     */
+    private void reindex(final Object key, final T element) {
+        final Object[] entries = this.elementEntries.get(element);
+        if (null != entries) {
+            for (int i = 0; i < entries.length; i = i + 2) {
+                if (entries[i].equals(key))
+                    this.removeFromBucket(key, entries[i + 1], element);
+            }
+            this.elementEntries.computeIfPresent(element, (e, es) -> removeEntries(es, key, null));
+        }
+        if (((TinkerElement) element).removed)
+            return;
+        if (key instanceof List) {
+            for (final List<Object> values : getValues(element, (List<String>) key)) {
+                this.put(key, values, element);
+            }
+        } else {
+            for (final Object value : getValues(element, (String) key)) {
+                this.put(key, value, element);
+            }
+        }
     }
 
     public void createKeyIndex(final String key) {
+        this.createKeyIndex(key, TinkerGraph.IndexType.HASH, false);
+    }
+
+    /**
+     * Create an index of the key, either on the calling thread or in the background.  Either way the index is kept
+     * up to date with the mutations made to the graph during the build and it is only used to answer lookups once
+     * the build has caught up with them.  If the key is already indexed with the same type, the returned build has
+     * completed (or is the build that is already running).
+     */
+    public TinkerIndexBuild createKeyIndex(final String key, final TinkerGraph.IndexType indexType, final boolean background) {
         if (null == key)
             throw Graph.Exceptions.argumentCanNotBeNull("key");
         if (key.isEmpty())
             throw new IllegalArgumentException("The key for the index cannot be an empty string");
 
-        if (this.indexedKeys.contains(key))
-            return;
-        this.indexedKeys.add(key);
+        final boolean sorted = TinkerGraph.IndexType.SORTED == indexType;
+        final TinkerIndexBuild build;
+        this.switchLock.writeLock().lock();
+        try {
+            if (this.indexedKeys.contains(key) || this.builds.containsKey(key)) {
+                if (this.isSorted(key) == sorted)
+                    return this.getBuild(key, background);
+                this.dropKeyIndex(key);
+            }
+            this.index.put(key, sorted ? new ConcurrentSkipListMap<>(VALUE_COMPARATOR) : new ConcurrentHashMap<>());
+            this.multiValuedKeys.remove(key);
+            this.valueClassCounts.remove(key);
+            build = new TinkerIndexBuild(Collections.singletonList(key), this.getElements().size());
+            this.builds.put(key, build);
+        } finally {
+            this.switchLock.writeLock().unlock();
+        }
+        return this.startBuild(key, build, background);
+    }
+
+    public TinkerIndexBuild createCompositeKeyIndex(final List<String> keys, final boolean background) {
+        if (null == keys)
+            throw Graph.Exceptions.argumentCanNotBeNull("keys");
+        if (keys.size() < 2)
+            throw new IllegalArgumentException("A composite index must have at least two keys: " + keys);
+        if (new HashSet<>(keys).size() != keys.size())
+            throw new IllegalArgumentException("The keys of a composite index must be unique: " + keys);
+        for (final String key : keys) {
+            if (null == key || key.isEmpty())
+                throw new IllegalArgumentException("The keys of a composite index cannot be null or empty strings: " + keys);
+        }
+
+        final List<String> compositeKeys = Collections.unmodifiableList(new ArrayList<>(keys));
+        final TinkerIndexBuild build;
+        this.switchLock.writeLock().lock();
+        try {
+            if (this.compositeIndex.containsKey(compositeKeys))
+                return this.getBuild(compositeKeys, background);
+            this.compositeIndex.put(compositeKeys, new ConcurrentHashMap<>());
+            build = new TinkerIndexBuild(compositeKeys, this.getElements().size());
+            this.builds.put(compositeKeys, build);
+        } finally {
+            this.switchLock.writeLock().unlock();
+        }
+        return this.startBuild(compositeKeys, build, background);
+    }
 
-        (Vertex.class.isAssignableFrom(this.indexClass) ?
-                this.graph.vertices.values().<T>parallelStream() :
-                this.graph.edges.values().<T>parallelStream())
-                .map(e -> new Object[]{((T) e).property(key), e})
-                .filter(a -> ((Property) a[0]).isPresent())
-                .forEach(a -> this.put(key, ((Property) a[0]).value(), (T) a[1]));
+    private TinkerIndexBuild getBuild(final Object key, final boolean background) {
+        final TinkerIndexBuild running = this.builds.get(key);
+        if (null != running) {
+            if (!background)
+                running.future.join();
+            return running;
+        }
+        final TinkerIndexBuild completed = new TinkerIndexBuild(key instanceof List ? (List<String>) key : Collections.singletonList((String) key), 0);
+        completed.future.complete(null);
+        return completed;
+    }
+
+    private TinkerIndexBuild startBuild(final Object key, final TinkerIndexBuild build, final boolean background) {
+        if (background)
+            buildPool.execute(() -> {
+                try {
+                    this.build(key, build, false);
+                } catch (final RuntimeException e) {
+                    // the failure is reported through the future of the build
+                }
+            });
+        else
+            this.build(key, build, true);
+        return build;
+    }
+
+    private void build(final Object key, final TinkerIndexBuild build, final boolean parallel) {
+        try {
+            final Collection<? extends Element> elements = this.getElements();
+            (parallel ? elements.parallelStream() : elements.stream()).forEach(element -> {
+                if (!build.cancelled) {
+                    this.reindex(key, (T) element, build);
+                    build.walkedElements.incrementAndGet();
+                }
+            });
+
+            // catch up on the elements mutated during the walk while writes carry on and then block writes for just
+            // the last of them, so that no mutation made before the switch-over can be missed by the index
+            for (int i = 0; i < CATCH_UP_PASSES && !build.mutatedElements.isEmpty() && !build.cancelled; i++) {
+                this.catchUp(key, build);
+            }
+            this.switchLock.writeLock().lock();
+            try {
+                if (build.cancelled)
+                    throw new CancellationException("The index was dropped before its build completed: " + build.getKeys());
+                this.catchUp(key, build);
+                if (key instanceof List)
+                    this.compositeIndexedKeys.add((List<String>) key);
+                else
+                    this.indexedKeys.add((String) key);
+                this.builds.remove(key);
+            } finally {
+                this.switchLock.writeLock().unlock();
+            }
+            build.future.complete(null);
+        } catch (final RuntimeException e) {
+            if (!build.cancelled) {
+                if (key instanceof List)
+                    this.dropCompositeKeyIndex((List<String>) key);
+                else
+                    this.dropKeyIndex((String) key);
+            }
+            build.future.completeExceptionally(e);
+            throw e;
+        }
+    }
+
+    private void catchUp(final Object key, final TinkerIndexBuild build) {
+        final Iterator<Element> mutated = build.mutatedElements.iterator();
+        while (mutated.hasNext()) {
+            final T element = (T) mutated.next();
+            mutated.remove();
+            this.reindex(key, element, build);
+        }
+    }
+
+    /**
+     * Re-index the element for a build.  The element may be mutated or removed by another thread while its values
+     * are read.  A read that fails with a {@code ConcurrentModificationException}, or that fails because the element
+     * is being removed, is left to the catch up, as the mutation is recorded by the build once it is done (or applied
+     * to the index as usual if it only completes after the switch-over).  Any other failure fails the build.
+     */
+    private void reindex(final Object key, final T element, final TinkerIndexBuild build) {
+        try {
+            this.reindex(key, element);
+        } catch (final ConcurrentModificationException e) {
+            build.mutatedElements.add(element);
+        } catch (final RuntimeException e) {
+            if (!((TinkerElement) element).removed)
+                throw e;
+            build.mutatedElements.add(element);
+        }
+    }
+
+    private Collection<? extends Element> getElements() {
+        return Vertex.class.isAssignableFrom(this.indexClass) ? this.graph.vertices.values() : this.graph.edges.values();
+    }
+
+    public void dropCompositeKeyIndex(final List<String> keys) {
+        this.switchLock.writeLock().lock();
+        try {
+            this.cancelBuild(keys);
+            this.compositeIndexedKeys.remove(keys);
+            final Map<Object, Set<T>> keyMap = this.compositeIndex.remove(keys);
+            if (null != keyMap) {
+                keyMap.clear();
+                this.removeEntries(keys);
+            }
+        } finally {
+            this.switchLock.writeLock().unlock();
+        }
+    }
+
+    private void cancelBuild(final Object key) {
+        final TinkerIndexBuild build = this.builds.remove(key);
+        if (null != build)
+            build.cancelled = true;
+    }
+
+    public Set<List<String>> getCompositeIndexedKeys() {
+        return Collections.unmodifiableSet(this.compositeIndexedKeys);
+    }
+
+    /**
+     * Get the number of elements with the values for the keys of a composite index, which is read straight from the
+     * size of the bucket and so is cheap enough to guide the choice of index for each lookup.
+     */
+    public long count(final List<String> keys, final List<Object> values) {
+        return this.get(keys, values).size();
     }
 
     public void dropKeyIndex(final String key) {
-        if (this.index.containsKey(key))
-            this.index.remove(key).clear();
+        this.switchLock.writeLock().lock();
+        try {
+            this.cancelBuild(key);
+            this.indexedKeys.remove(key);
+            if (this.index.containsKey(key))
+                this.index.remove(key).clear();
+            this.removeEntries(key);
+            this.multiValuedKeys.remove(key);
+            this.valueClassCounts.remove(key);
+        } finally {
+            this.switchLock.writeLock().unlock();
+        }
+    }
+
+    private void removeEntries(final Object key) {
+        for (final T element : this.elementEntries.keySet()) {
+            this.elementEntries.computeIfPresent(element, (e, entries) -> removeEntries(entries, key, null));
+        }
+    }
+
+    private Map<Object, Set<T>> getBuckets(final Object key) {
+        return key instanceof List ? this.compositeIndex.get(key) : this.index.get(key);
+    }
 
-        this.indexedKeys.remove(key);
+    /**
+     * Get the values of the key of the element, where the label is supported as a key and a vertex may have
+     * multiple values for a key.
+     */
+    private static List<Object> getValues(final Element element, final String key) {
+        if (key.equals(org.apache.tinkerpop.gremlin.structure.T.label.getAccessor()))
+            return Collections.singletonList(element.label());
+        final List<Object> values = new ArrayList<>(1);
+        element.properties(key).forEachRemaining(property -> values.add(property.value()));
+        return values;
+    }
+
+    /**
+     * Get the tuples of values of the keys of the element, which is the cross product of the values of each key, or
+     * nothing if the element is missing any of the keys.
+     */
+    private static List<List<Object>> getValues(final Element element, final List<String> keys) {
+        List<List<Object>> tuples = Collections.singletonList(Collections.emptyList());
+        for (final String key : keys) {
+            final List<Object> values = getValues(element, key);
+            if (values.isEmpty())
+                return Collections.emptyList();
+            final List<List<Object>> extended = new ArrayList<>(tuples.size() * values.size());
+            for (final List<Object> tuple : tuples) {
+                for (final Object value : values) {
+                    final List<Object> extendedTuple = new ArrayList<>(tuple.size() + 1);
+                    extendedTuple.addAll(tuple);
+                    extendedTuple.add(value);
+                    extended.add(extendedTuple);
+                }
+            }
+            tuples = extended;
+        }
+        return tuples;
     }
 
     public Set<String> getIndexedKeys() {
         return this.indexedKeys;
     }
+
+    private static boolean hasOtherValue(final Object[] entries, final Object key, final Object value) {
+        if (null == entries)
+            return false;
+        for (int i = 0; i < entries.length; i = i + 2) {
+            if (entries[i].equals(key) && !entries[i + 1].equals(value))
+                return true;
+        }
+        return false;
+    }
+
+    private static Object[] addEntry(final Object[] entries, final Object key, final Object value) {
+        if (null == entries)
+            return new Object[]{key, value};
+        for (int i = 0; i < entries.length; i = i + 2) {
+            if (entries[i].equals(key) && entries[i + 1].equals(value))
+                return entries;
+        }
+        final Object[] added = Arrays.copyOf(entries, entries.length + 2);
+        added[entries.length] = key;
+        added[entries.length + 1] = value;
+        return added;
+    }
+
+    /**
+     * Remove the entries of the key with the value (or with any value if the value is {@code null}), returning
+     * {@code null} when no entries remain.
+     */
+    private Object[] removeEntries(final Object[] entries, final Object key, final Object value) {
+        int remaining = 0;
+        final Object[] kept = new Object[entries.length];
+        for (int i = 0; i < entries.length; i = i + 2) {
+            if (!entries[i].equals(key) || (null != value && !entries[i + 1].equals(value))) {
+                kept[remaining++] = entries[i];
+                kept[remaining++] = entries[i + 1];
+            } else
+                this.countEntry(entries[i], entries[i + 1], -1);
+        }
+        return 0 == remaining ? null : remaining == entries.length ? entries : Arrays.copyOf(kept, remaining);
+    }
+
+    private void countEntry(final Object key, final Object value, final long delta) {
+        if (key instanceof List)
+            return;
+        this.valueClassCounts.computeIfAbsent((String) key, k -> new ConcurrentHashMap<>())
+                .computeIfAbsent(value.getClass(), c -> new AtomicLong(0l)).addAndGet(delta);
+    }
+
+    private static int compareValues(final Object a, final Object b) {
+        if (a instanceof Number && b instanceof Number)
+            return compareNumbers((Number) a, (Number) b);
+        else if (a instanceof Number)
+            return -1;
+        else if (b instanceof Number)
+            return 1;
+        else if (!a.getClass().equals(b.getClass()))
+            return a.getClass().getName().compareTo(b.getClass().getName());
+        else if (a instanceof Comparable)
+            return ((Comparable) a).compareTo(b);
+        else
+            return Integer.compare(a.hashCode(), b.hashCode());
+    }
+
+    private static int compareNumbers(final Number a, final Number b) {
+        if (isIntegral(a) && isIntegral(b))
+            return Long.compare(a.longValue(), b.longValue());
+        else if (isNonFinite(a) || isNonFinite(b))
+            return Double.compare(a.doubleValue(), b.doubleValue());
+        else
+            return toBigDecimal(a).compareTo(toBigDecimal(b));
+    }
+
+    private static boolean isIntegral(final Number number) {
+        return number instanceof Long || number instanceof Integer || number instanceof Short || number instanceof Byte;
+    }
+
+    private static boolean isNonFinite(final Number number) {
+        return (number instanceof Double || number instanceof Float) &&
+                (Double.isNaN(number.doubleValue()) || Double.isInfinite(number.doubleValue()));
+    }
+
+    private static BigDecimal toBigDecimal(final Number number) {
+        if (number instanceof BigDecimal)
+            return (BigDecimal) number;
+        else if (number instanceof BigInteger)
+            return new BigDecimal((BigInteger) number);
+        else if (isIntegral(number))
+            return BigDecimal.valueOf(number.longValue());
+        else
+            return new BigDecimal(number.doubleValue());
+    }
+
+    private static boolean sameFamily(final Object a, final Object b) {
+        return (a instanceof Number && b instanceof Number) || a.getClass().equals(b.getClass());
+    }
 }
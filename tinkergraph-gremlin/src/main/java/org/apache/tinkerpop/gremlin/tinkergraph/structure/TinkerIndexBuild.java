@@ -0,0 +1,97 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tinkerpop.gremlin.tinkergraph.structure;
+
+import org.apache.tinkerpop.gremlin.structure.Element;
+
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * The progress of building an index of a {@link TinkerGraph}.  While the index is being built it is kept up to date
+ * with the mutations made to the graph, but it is not used to answer lookups until the build completes and the index
+ * is switched over.
+ *
+ * @author agent
+ */
+public final class TinkerIndexBuild {
+
+    private final List<String> keys;
+    private final long totalElements;
+
+    final AtomicLong walkedElements = new AtomicLong(0);
+    final Set<Element> mutatedElements = ConcurrentHashMap.newKeySet();
+    final CompletableFuture<Void> future = new CompletableFuture<>();
+    volatile boolean cancelled = false;
+
+    TinkerIndexBuild(final List<String> keys, final long totalElements) {
+        this.keys = keys;
+        this.totalElements = totalElements;
+    }
+
+    /**
+     * Get the keys of the index being built, which is a single key unless the index is a composite index.
+     */
+    public List<String> getKeys() {
+        return this.keys;
+    }
+
+    /**
+     * Get the number of elements in the graph when the build started.
+     */
+    public long getTotalElements() {
+        return this.totalElements;
+    }
+
+    /**
+     * Get the number of elements the build has indexed so far.
+     */
+    public long getWalkedElements() {
+        return this.walkedElements.get();
+    }
+
+    /**
+     * Get the progress of the build as a fraction between 0 and 1, which is only 1 once the index is in use.
+     */
+    public double getProgress() {
+        if (this.future.isDone())
+            return 1.0d;
+        return 0 == this.totalElements ? 0.0d : Math.min(0.99d, (double) this.walkedElements.get() / this.totalElements);
+    }
+
+    public boolean isDone() {
+        return this.future.isDone();
+    }
+
+    /**
+     * Get a future that completes when the index is in use, or completes exceptionally if the build failed or the
+     * index was dropped before the build completed.
+     */
+    public CompletableFuture<Void> getFuture() {
+        return this.future;
+    }
+
+    @Override
+    public String toString() {
+        return "indexBuild" + this.keys + '[' + this.walkedElements.get() + '/' + this.totalElements + ']';
+    }
+}
@@ -22,6 +22,7 @@ import org.apache.tinkerpop.gremlin.structure.Direction;
 import org.apache.tinkerpop.gremlin.structure.Edge;
 import org.apache.tinkerpop.gremlin.structure.Element;
 import org.apache.tinkerpop.gremlin.structure.Graph;
+import org.apache.tinkerpop.gremlin.structure.T;
 import org.apache.tinkerpop.gremlin.structure.Vertex;
 import org.apache.tinkerpop.gremlin.structure.VertexProperty;
 import org.apache.tinkerpop.gremlin.structure.util.ElementHelper;
@@ -29,6 +30,7 @@ import org.apache.tinkerpop.gremlin.structure.util.StringFactory;
 import org.apache.tinkerpop.gremlin.util.iterator.IteratorUtils;
 
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.Iterator;
@@ -44,13 +46,15 @@ import java.util.stream.Collectors;
 public class TinkerVertex extends TinkerElement implements Vertex {
 
     protected Map<String, List<VertexProperty>> properties;
-    protected Map<String, Set<Edge>> outEdges;
-    protected Map<String, Set<Edge>> inEdges;
+    protected Map<String, Collection<Edge>> outEdges;
+    protected Map<String, Collection<Edge>> inEdges;
+    protected int computeOrdinal = -1;
     private final TinkerGraph graph;
 
     protected TinkerVertex(final Object id, final String label, final TinkerGraph graph) {
         super(id, label);
         this.graph = graph;
+        TinkerHelper.autoUpdateIndex(this, T.label.getAccessor(), this.label, null);
     }
 
     @Override
@@ -92,14 +96,15 @@ public class TinkerVertex extends TinkerElement implements Vertex {
         if (this.removed) throw Element.Exceptions.elementAlreadyRemoved(Vertex.class, this.id);
         ElementHelper.legalPropertyKeyValueArray(keyValues);
         ElementHelper.validateProperty(key, value);
+        // a single compute value is written over in place rather than removed and added again
+        if (VertexProperty.Cardinality.single == cardinality && 0 == keyValues.length && TinkerHelper.inComputerMode(this.graph))
+            return this.graph.graphView.setProperty(this, key, value);
         final Optional<Object> optionalId = ElementHelper.getIdValue(keyValues);
         final Optional<VertexProperty<V>> optionalVertexProperty = ElementHelper.stageVertexProperty(this, cardinality, key, value, keyValues);
         if (optionalVertexProperty.isPresent()) return optionalVertexProperty.get();
 
         if (TinkerHelper.inComputerMode(this.graph)) {
-            final VertexProperty<V> vertexProperty = (VertexProperty<V>) this.graph.graphView.addProperty(this, key, value);
-            ElementHelper.attachProperties(vertexProperty, keyValues);
-            return vertexProperty;
+            return (VertexProperty<V>) this.graph.graphView.addProperty(this, key, value, keyValues);
         } else {
             final Object idValue = optionalId.isPresent() ?
                     graph.vertexPropertyIdManager.convert(optionalId.get()) :
@@ -138,10 +143,11 @@ public class TinkerVertex extends TinkerElement implements Vertex {
         final List<Edge> edges = new ArrayList<>();
         this.edges(Direction.BOTH).forEachRemaining(edges::add);
         edges.stream().filter(edge -> !((TinkerEdge) edge).removed).forEach(Edge::remove);
+        // marked removed before its properties are cleared so that an index build can tell why reading them failed
+        this.removed = true;
         this.properties = null;
         TinkerHelper.removeElementIndex(this);
         this.graph.vertices.remove(this.id);
-        this.removed = true;
     }
 
     @Override
@@ -0,0 +1,115 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tinkerpop.gremlin.tinkergraph.process;
+
+import com.carrotsearch.junitbenchmarks.BenchmarkOptions;
+import com.carrotsearch.junitbenchmarks.BenchmarkRule;
+import com.carrotsearch.junitbenchmarks.annotation.AxisRange;
+import com.carrotsearch.junitbenchmarks.annotation.BenchmarkHistoryChart;
+import com.carrotsearch.junitbenchmarks.annotation.BenchmarkMethodChart;
+import com.carrotsearch.junitbenchmarks.annotation.LabelType;
+import org.apache.tinkerpop.gremlin.process.traversal.dsl.graph.GraphTraversalSource;
+import org.apache.tinkerpop.gremlin.process.traversal.engine.StandardTraversalEngine;
+import org.apache.tinkerpop.gremlin.structure.P;
+import org.apache.tinkerpop.gremlin.structure.Vertex;
+import org.apache.tinkerpop.gremlin.tinkergraph.structure.TinkerFactory;
+import org.apache.tinkerpop.gremlin.tinkergraph.structure.TinkerGraph;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TestRule;
+
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Compares traversals executed one traverser at a time with the same traversals executed with a
+ * {@link StandardTraversalEngine.Builder#batchSize(int)} over the {@link TinkerFactory} graphs and a generated graph
+ * of a million edges.
+ *
+ * @author agent
+ */
+@AxisRange(min = 0, max = 1)
+@BenchmarkMethodChart(filePrefix = "tinkergraph-batch-traversal")
+@BenchmarkHistoryChart(labelWith = LabelType.CUSTOM_KEY, maxRuns = 20, filePrefix = "hx-tinkergraph-batch-traversal")
+public class TinkerGraphBatchTraversalPerformanceTest {
+
+    private static final int BATCH_SIZE = 64;
+    private static final int VERTICES = 100000;
+    private static final int EDGES = 1000000;
+
+    private static final TinkerGraph modern = TinkerFactory.createModern();
+    private static final TinkerGraph crew = TinkerFactory.createTheCrew();
+    private static final TinkerGraph generated = generate();
+    private static final long generatedCount = traversal(generated, 1).V().out().has("age", P.gt(50)).values("name").count().next();
+
+    @Rule
+    public TestRule benchmarkRun = new BenchmarkRule();
+
+    @Test
+    @BenchmarkOptions(benchmarkRounds = 10, warmupRounds = 2, concurrency = BenchmarkOptions.CONCURRENCY_SEQUENTIAL)
+    public void g_V_out_out_name_overTinkerFactory() {
+        traverseTinkerFactory(1);
+    }
+
+    @Test
+    @BenchmarkOptions(benchmarkRounds = 10, warmupRounds = 2, concurrency = BenchmarkOptions.CONCURRENCY_SEQUENTIAL)
+    public void g_V_out_out_name_overTinkerFactoryInBatches() {
+        traverseTinkerFactory(BATCH_SIZE);
+    }
+
+    @Test
+    @BenchmarkOptions(benchmarkRounds = 10, warmupRounds = 2, concurrency = BenchmarkOptions.CONCURRENCY_SEQUENTIAL)
+    public void g_V_out_hasXage_gt_50X_name_count_overMillionEdges() {
+        assertEquals(generatedCount, traversal(generated, 1).V().out().has("age", P.gt(50)).values("name").count().next().longValue());
+    }
+
+    @Test
+    @BenchmarkOptions(benchmarkRounds = 10, warmupRounds = 2, concurrency = BenchmarkOptions.CONCURRENCY_SEQUENTIAL)
+    public void g_V_out_hasXage_gt_50X_name_count_overMillionEdgesInBatches() {
+        assertEquals(generatedCount, traversal(generated, BATCH_SIZE).V().out().has("age", P.gt(50)).values("name").count().next().longValue());
+    }
+
+    private static void traverseTinkerFactory(final int batchSize) {
+        final GraphTraversalSource g = traversal(modern, batchSize);
+        final GraphTraversalSource c = traversal(crew, batchSize);
+        for (int i = 0; i < 10000; i++) {
+            assertEquals(2, g.V().out().out().values("name").toList().size());
+            assertEquals(4, g.V().outE().inV().hasLabel("software").toList().size());
+            assertEquals(14, c.V().properties("location").toList().size());
+        }
+    }
+
+    private static GraphTraversalSource traversal(final TinkerGraph graph, final int batchSize) {
+        return graph.traversal(GraphTraversalSource.build().engine(StandardTraversalEngine.build().batchSize(batchSize)));
+    }
+
+    private static TinkerGraph generate() {
+        final TinkerGraph graph = TinkerGraph.open();
+        final Random random = new Random(123456789l);
+        final Vertex[] vertices = new Vertex[VERTICES];
+        for (int i = 0; i < VERTICES; i++) {
+            vertices[i] = graph.addVertex("name", "v" + i, "age", random.nextInt(100));
+        }
+        for (int i = 0; i < EDGES; i++) {
+            vertices[random.nextInt(VERTICES)].addEdge("knows", vertices[random.nextInt(VERTICES)]);
+        }
+        return graph;
+    }
+}
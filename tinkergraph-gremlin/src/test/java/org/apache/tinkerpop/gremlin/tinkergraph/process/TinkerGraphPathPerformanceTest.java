@@ -0,0 +1,129 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tinkerpop.gremlin.tinkergraph.process;
+
+import com.carrotsearch.junitbenchmarks.BenchmarkOptions;
+import com.carrotsearch.junitbenchmarks.BenchmarkRule;
+import com.carrotsearch.junitbenchmarks.annotation.AxisRange;
+import com.carrotsearch.junitbenchmarks.annotation.BenchmarkHistoryChart;
+import com.carrotsearch.junitbenchmarks.annotation.BenchmarkMethodChart;
+import com.carrotsearch.junitbenchmarks.annotation.LabelType;
+import org.apache.tinkerpop.gremlin.process.traversal.Path;
+import org.apache.tinkerpop.gremlin.process.traversal.step.util.ChunkedPath;
+import org.apache.tinkerpop.gremlin.process.traversal.step.util.ImmutablePath;
+import org.apache.tinkerpop.gremlin.process.traversal.step.util.MutablePath;
+import org.apache.tinkerpop.gremlin.structure.Vertex;
+import org.apache.tinkerpop.gremlin.tinkergraph.structure.TinkerGraph;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TestRule;
+
+import java.util.Collections;
+import java.util.Random;
+import java.util.Set;
+import java.util.function.Supplier;
+
+import static org.apache.tinkerpop.gremlin.process.traversal.dsl.graph.__.out;
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Compares {@link ChunkedPath} with {@link ImmutablePath} and {@link MutablePath} by replaying the path extensions of
+ * a deep {@code repeat(out()).times(n).path()} traversal, where each path is extended once per adjacent vertex and
+ * then read by index and by label, and measures the same traversal over a generated graph.
+ *
+ * @author agent
+ */
+@AxisRange(min = 0, max = 1)
+@BenchmarkMethodChart(filePrefix = "tinkergraph-path")
+@BenchmarkHistoryChart(labelWith = LabelType.CUSTOM_KEY, maxRuns = 20, filePrefix = "hx-tinkergraph-path")
+public class TinkerGraphPathPerformanceTest {
+
+    private static final int DEPTH = 12;
+    private static final int BRANCHES = 3;
+    private static final Set<String> LABELS = Collections.singleton("a");
+
+    private static final TinkerGraph graph = generate();
+
+    @Rule
+    public TestRule benchmarkRun = new BenchmarkRule();
+
+    @Test
+    @BenchmarkOptions(benchmarkRounds = 10, warmupRounds = 2, concurrency = BenchmarkOptions.CONCURRENCY_SEQUENTIAL)
+    public void extendAndReadImmutablePath() {
+        extendAndRead(ImmutablePath::make);
+    }
+
+    @Test
+    @BenchmarkOptions(benchmarkRounds = 10, warmupRounds = 2, concurrency = BenchmarkOptions.CONCURRENCY_SEQUENTIAL)
+    public void extendAndReadMutablePath() {
+        extendAndRead(MutablePath::make);
+    }
+
+    @Test
+    @BenchmarkOptions(benchmarkRounds = 10, warmupRounds = 2, concurrency = BenchmarkOptions.CONCURRENCY_SEQUENTIAL)
+    public void extendAndReadChunkedPath() {
+        extendAndRead(ChunkedPath::make);
+    }
+
+    @Test
+    @BenchmarkOptions(benchmarkRounds = 10, warmupRounds = 2, concurrency = BenchmarkOptions.CONCURRENCY_SEQUENTIAL)
+    public void g_V_repeatXoutX_timesX6X_path() {
+        long count = 0;
+        for (final Path path : graph.traversal().V().limit(100).repeat(out()).times(6).path().toList()) {
+            count = count + path.size();
+        }
+        assertEquals(0, count % 7);
+    }
+
+    private static void extendAndRead(final Supplier<Path> supplier) {
+        assertEquals((long) Math.pow(BRANCHES, DEPTH - 1), extendAndRead(supplier.get().extend(0, LABELS), 1));
+    }
+
+    /**
+     * Extends the path once for each branch (cloning it first, as a traverser does when it splits) down to the
+     * depth, and reads the complete paths by index and by label.
+     */
+    private static long extendAndRead(final Path path, final int depth) {
+        if (depth == DEPTH) {
+            long sum = 0;
+            for (int i = 0; i < path.size(); i++) {
+                sum = sum + path.<Integer>get(i);
+            }
+            return path.hasLabel("a") && sum >= 0 ? 1 : 0;
+        }
+        long paths = 0;
+        for (int i = 0; i < BRANCHES; i++) {
+            paths = paths + extendAndRead(path.clone().extend(depth * BRANCHES + i, Collections.emptySet()), depth + 1);
+        }
+        return paths;
+    }
+
+    private static TinkerGraph generate() {
+        final TinkerGraph graph = TinkerGraph.open();
+        final Random random = new Random(123456789l);
+        final Vertex[] vertices = new Vertex[1000];
+        for (int i = 0; i < vertices.length; i++) {
+            vertices[i] = graph.addVertex();
+        }
+        for (int i = 0; i < vertices.length * 4; i++) {
+            vertices[random.nextInt(vertices.length)].addEdge("knows", vertices[random.nextInt(vertices.length)]);
+        }
+        return graph;
+    }
+}
@@ -0,0 +1,102 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tinkerpop.gremlin.tinkergraph.process;
+
+import com.carrotsearch.junitbenchmarks.BenchmarkOptions;
+import com.carrotsearch.junitbenchmarks.BenchmarkRule;
+import com.carrotsearch.junitbenchmarks.annotation.AxisRange;
+import com.carrotsearch.junitbenchmarks.annotation.BenchmarkHistoryChart;
+import com.carrotsearch.junitbenchmarks.annotation.BenchmarkMethodChart;
+import com.carrotsearch.junitbenchmarks.annotation.LabelType;
+import org.apache.tinkerpop.gremlin.process.traversal.dsl.graph.GraphTraversalSource;
+import org.apache.tinkerpop.gremlin.process.traversal.engine.StandardTraversalEngine;
+import org.apache.tinkerpop.gremlin.structure.P;
+import org.apache.tinkerpop.gremlin.structure.Vertex;
+import org.apache.tinkerpop.gremlin.tinkergraph.structure.TinkerGraph;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TestRule;
+
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Compares traversals that clone a new traverser for every result of every step with the same traversals executed
+ * with {@link StandardTraversalEngine.Builder#reuseTraversers(boolean)} over a generated graph, where the garbage
+ * collections reported for each round are the allocations the reuse saves.
+ *
+ * @author agent
+ */
+@AxisRange(min = 0, max = 1)
+@BenchmarkMethodChart(filePrefix = "tinkergraph-traverser-reuse")
+@BenchmarkHistoryChart(labelWith = LabelType.CUSTOM_KEY, maxRuns = 20, filePrefix = "hx-tinkergraph-traverser-reuse")
+public class TinkerGraphTraverserReusePerformanceTest {
+
+    private static final int VERTICES = 10000;
+    private static final int EDGES = 50000;
+
+    private static final TinkerGraph graph = generate();
+    private static final long threeHopCount = traversal(false).V().out().out().out().count().next();
+    private static final long filteredCount = traversal(false).V().out().has("age", P.gt(50)).out().has("age", P.lt(20)).values("name").count().next();
+
+    @Rule
+    public TestRule benchmarkRun = new BenchmarkRule();
+
+    @Test
+    @BenchmarkOptions(benchmarkRounds = 10, warmupRounds = 2, concurrency = BenchmarkOptions.CONCURRENCY_SEQUENTIAL)
+    public void g_V_out_out_out_count() {
+        assertEquals(threeHopCount, traversal(false).V().out().out().out().count().next().longValue());
+    }
+
+    @Test
+    @BenchmarkOptions(benchmarkRounds = 10, warmupRounds = 2, concurrency = BenchmarkOptions.CONCURRENCY_SEQUENTIAL)
+    public void g_V_out_out_out_count_reusingTraversers() {
+        assertEquals(threeHopCount, traversal(true).V().out().out().out().count().next().longValue());
+    }
+
+    @Test
+    @BenchmarkOptions(benchmarkRounds = 10, warmupRounds = 2, concurrency = BenchmarkOptions.CONCURRENCY_SEQUENTIAL)
+    public void g_V_out_hasXage_gt_50X_out_hasXage_lt_20X_name_count() {
+        assertEquals(filteredCount, traversal(false).V().out().has("age", P.gt(50)).out().has("age", P.lt(20)).values("name").count().next().longValue());
+    }
+
+    @Test
+    @BenchmarkOptions(benchmarkRounds = 10, warmupRounds = 2, concurrency = BenchmarkOptions.CONCURRENCY_SEQUENTIAL)
+    public void g_V_out_hasXage_gt_50X_out_hasXage_lt_20X_name_count_reusingTraversers() {
+        assertEquals(filteredCount, traversal(true).V().out().has("age", P.gt(50)).out().has("age", P.lt(20)).values("name").count().next().longValue());
+    }
+
+    private static GraphTraversalSource traversal(final boolean reuseTraversers) {
+        return graph.traversal(GraphTraversalSource.build().engine(StandardTraversalEngine.build().reuseTraversers(reuseTraversers)));
+    }
+
+    private static TinkerGraph generate() {
+        final TinkerGraph graph = TinkerGraph.open();
+        final Random random = new Random(123456789l);
+        final Vertex[] vertices = new Vertex[VERTICES];
+        for (int i = 0; i < VERTICES; i++) {
+            vertices[i] = graph.addVertex("name", "v" + i, "age", random.nextInt(100));
+        }
+        for (int i = 0; i < EDGES; i++) {
+            vertices[random.nextInt(VERTICES)].addEdge("knows", vertices[random.nextInt(VERTICES)]);
+        }
+        return graph;
+    }
+}
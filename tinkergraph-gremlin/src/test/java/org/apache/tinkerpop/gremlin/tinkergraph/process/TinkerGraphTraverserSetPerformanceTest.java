@@ -0,0 +1,172 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tinkerpop.gremlin.tinkergraph.process;
+
+import com.carrotsearch.junitbenchmarks.BenchmarkOptions;
+import com.carrotsearch.junitbenchmarks.BenchmarkRule;
+import com.carrotsearch.junitbenchmarks.annotation.AxisRange;
+import com.carrotsearch.junitbenchmarks.annotation.BenchmarkHistoryChart;
+import com.carrotsearch.junitbenchmarks.annotation.BenchmarkMethodChart;
+import com.carrotsearch.junitbenchmarks.annotation.LabelType;
+import org.apache.tinkerpop.gremlin.process.traversal.Traverser;
+import org.apache.tinkerpop.gremlin.process.traversal.step.util.BulkSet;
+import org.apache.tinkerpop.gremlin.process.traversal.traverser.B_O_Traverser;
+import org.apache.tinkerpop.gremlin.process.traversal.traverser.util.TraverserSet;
+import org.apache.tinkerpop.gremlin.structure.Vertex;
+import org.apache.tinkerpop.gremlin.tinkergraph.structure.TinkerGraph;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TestRule;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Compares {@link TraverserSet} and {@link BulkSet} with the {@link LinkedHashMap} that each used to wrap, both as a
+ * queue of traversers (as in {@code ExpandableStepIterator}) and as a barrier that merges traversers and counts bulks
+ * (as in {@code CollectingBarrierStep} and {@code AggregateStep}).  The {@code GC.calls} and {@code GC.time} of each
+ * benchmark show the difference in allocation.  The traversals measure the same structures within TinkerGraph.
+ *
+ * @author agent
+ */
+@AxisRange(min = 0, max = 1)
+@BenchmarkMethodChart(filePrefix = "tinkergraph-traverser-set")
+@BenchmarkHistoryChart(labelWith = LabelType.CUSTOM_KEY, maxRuns = 20, filePrefix = "hx-tinkergraph-traverser-set")
+public class TinkerGraphTraverserSetPerformanceTest {
+
+    private static final int OBJECTS = 1000;
+    private static final int ADDS = 2000000;
+
+    private static final TinkerGraph graph = generate();
+
+    @Rule
+    public TestRule benchmarkRun = new BenchmarkRule();
+
+    @Test
+    @BenchmarkOptions(benchmarkRounds = 10, warmupRounds = 2, concurrency = BenchmarkOptions.CONCURRENCY_SEQUENTIAL)
+    public void queueWithTraverserSet() {
+        final TraverserSet<Integer> set = new TraverserSet<>();
+        long sum = 0;
+        for (int i = 0; i < ADDS; i++) {
+            set.add(new B_O_Traverser<>(i, 1l));
+            if (i % 4 == 3) {
+                while (!set.isEmpty()) {
+                    sum = sum + set.remove().get();
+                }
+            }
+        }
+        assertEquals((long) ADDS * (ADDS - 1) / 2, sum);
+    }
+
+    @Test
+    @BenchmarkOptions(benchmarkRounds = 10, warmupRounds = 2, concurrency = BenchmarkOptions.CONCURRENCY_SEQUENTIAL)
+    public void queueWithLinkedHashMap() {
+        final Map<Traverser.Admin<Integer>, Traverser.Admin<Integer>> map = new LinkedHashMap<>();
+        long sum = 0;
+        for (int i = 0; i < ADDS; i++) {
+            final Traverser.Admin<Integer> traverser = new B_O_Traverser<>(i, 1l);
+            map.put(traverser, traverser);
+            if (i % 4 == 3) {
+                while (!map.isEmpty()) {
+                    final Iterator<Traverser.Admin<Integer>> iterator = map.values().iterator();
+                    sum = sum + iterator.next().get();
+                    iterator.remove();
+                }
+            }
+        }
+        assertEquals((long) ADDS * (ADDS - 1) / 2, sum);
+    }
+
+    @Test
+    @BenchmarkOptions(benchmarkRounds = 10, warmupRounds = 2, concurrency = BenchmarkOptions.CONCURRENCY_SEQUENTIAL)
+    public void barrierWithTraverserSet() {
+        final TraverserSet<Integer> set = new TraverserSet<>();
+        for (int i = 0; i < ADDS; i++) {
+            set.add(new B_O_Traverser<>(i % OBJECTS, 1l));
+        }
+        assertEquals(ADDS, set.bulkSize());
+    }
+
+    @Test
+    @BenchmarkOptions(benchmarkRounds = 10, warmupRounds = 2, concurrency = BenchmarkOptions.CONCURRENCY_SEQUENTIAL)
+    public void barrierWithLinkedHashMap() {
+        final Map<Traverser.Admin<Integer>, Traverser.Admin<Integer>> map = new LinkedHashMap<>();
+        for (int i = 0; i < ADDS; i++) {
+            final Traverser.Admin<Integer> traverser = new B_O_Traverser<>(i % OBJECTS, 1l);
+            final Traverser.Admin<Integer> existing = map.get(traverser);
+            if (null == existing)
+                map.put(traverser, traverser);
+            else
+                existing.merge(traverser);
+        }
+        assertEquals(ADDS, map.values().stream().mapToLong(Traverser::bulk).sum());
+    }
+
+    @Test
+    @BenchmarkOptions(benchmarkRounds = 10, warmupRounds = 2, concurrency = BenchmarkOptions.CONCURRENCY_SEQUENTIAL)
+    public void countWithBulkSet() {
+        final BulkSet<Integer> set = new BulkSet<>();
+        long size = 0;
+        for (int i = 0; i < ADDS; i++) {
+            set.add(i % OBJECTS, 1l);
+            if (i % OBJECTS == 0)
+                size = set.longSize();
+        }
+        assertEquals(ADDS - OBJECTS + 1, size);
+    }
+
+    @Test
+    @BenchmarkOptions(benchmarkRounds = 10, warmupRounds = 2, concurrency = BenchmarkOptions.CONCURRENCY_SEQUENTIAL)
+    public void countWithLinkedHashMap() {
+        final Map<Integer, Long> map = new LinkedHashMap<>();
+        long size = 0;
+        for (int i = 0; i < ADDS; i++) {
+            final Integer key = i % OBJECTS;
+            final Long current = map.get(key);
+            map.put(key, null == current ? 1l : current + 1l);
+            if (i % OBJECTS == 0)
+                size = map.values().stream().mapToLong(Long::longValue).sum();
+        }
+        assertEquals(ADDS - OBJECTS + 1, size);
+    }
+
+    @Test
+    @BenchmarkOptions(benchmarkRounds = 10, warmupRounds = 2, concurrency = BenchmarkOptions.CONCURRENCY_SEQUENTIAL)
+    public void g_V_out_out_aggregateXxX_id_order_count() {
+        assertEquals(graph.traversal().V().out().out().count().next(),
+                graph.traversal().V().out().out().aggregate("x").id().order().count().next());
+    }
+
+    private static TinkerGraph generate() {
+        final TinkerGraph graph = TinkerGraph.open();
+        final Random random = new Random(123456789l);
+        final Vertex[] vertices = new Vertex[10000];
+        for (int i = 0; i < vertices.length; i++) {
+            vertices[i] = graph.addVertex();
+        }
+        for (int i = 0; i < vertices.length * 5; i++) {
+            vertices[random.nextInt(vertices.length)].addEdge("knows", vertices[random.nextInt(vertices.length)]);
+        }
+        return graph;
+    }
+}
@@ -0,0 +1,180 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tinkerpop.gremlin.tinkergraph.structure;
+
+import com.carrotsearch.junitbenchmarks.BenchmarkOptions;
+import com.carrotsearch.junitbenchmarks.BenchmarkRule;
+import com.carrotsearch.junitbenchmarks.annotation.AxisRange;
+import com.carrotsearch.junitbenchmarks.annotation.BenchmarkHistoryChart;
+import com.carrotsearch.junitbenchmarks.annotation.BenchmarkMethodChart;
+import com.carrotsearch.junitbenchmarks.annotation.LabelType;
+import org.apache.commons.configuration.BaseConfiguration;
+import org.apache.commons.configuration.Configuration;
+import org.apache.tinkerpop.gremlin.structure.Direction;
+import org.apache.tinkerpop.gremlin.structure.Edge;
+import org.apache.tinkerpop.gremlin.structure.T;
+import org.apache.tinkerpop.gremlin.structure.Vertex;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TestRule;
+
+import java.lang.management.ManagementFactory;
+import java.util.Iterator;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Compares the memory footprint and the write/read throughput of the default set-based adjacency of
+ * {@link TinkerVertex} with the array-based layout enabled by {@link TinkerGraph#CONFIG_COMPACT_ADJACENCY}, and
+ * measures the garbage generated by early-terminating traversals over the hubs of a power-law graph.
+ *
+ * @author agent
+ */
+@AxisRange(min = 0, max = 1)
+@BenchmarkMethodChart(filePrefix = "tinkergraph-adjacency")
+@BenchmarkHistoryChart(labelWith = LabelType.CUSTOM_KEY, maxRuns = 20, filePrefix = "hx-tinkergraph-adjacency")
+public class TinkerGraphAdjacencyPerformanceTest {
+
+    private static final int VERTICES = 10000;
+    private static final int EDGES = 500000;
+    private static final int POWER_LAW_VERTICES = 50000;
+    private static final int POWER_LAW_EDGES_PER_VERTEX = 5;
+
+    private static final TinkerGraph powerLawGraph = generatePowerLaw(false);
+    private static final TinkerGraph compactPowerLawGraph = generatePowerLaw(true);
+
+    @Rule
+    public TestRule benchmarkRun = new BenchmarkRule();
+
+    @Test
+    @BenchmarkOptions(benchmarkRounds = 10, warmupRounds = 2, concurrency = BenchmarkOptions.CONCURRENCY_SEQUENTIAL)
+    public void writeAndReadSetAdjacency() {
+        writeAndRead(false);
+    }
+
+    @Test
+    @BenchmarkOptions(benchmarkRounds = 10, warmupRounds = 2, concurrency = BenchmarkOptions.CONCURRENCY_SEQUENTIAL)
+    public void writeAndReadCompactAdjacency() {
+        writeAndRead(true);
+    }
+
+    @Test
+    @BenchmarkOptions(benchmarkRounds = 1, warmupRounds = 0, concurrency = BenchmarkOptions.CONCURRENCY_SEQUENTIAL)
+    public void compareMemoryFootprint() {
+        final long setBytes = retainedBytes(false);
+        final long compactBytes = retainedBytes(true);
+        System.out.println(String.format("adjacency memory for %s edges: set=%sKB compact=%sKB", EDGES, setBytes / 1024, compactBytes / 1024));
+    }
+
+    @Test
+    @BenchmarkOptions(benchmarkRounds = 10, warmupRounds = 2, concurrency = BenchmarkOptions.CONCURRENCY_SEQUENTIAL)
+    public void g_V_both_both_limitX10X_overHubsWithSetAdjacency() {
+        traverseHubs(powerLawGraph, "set");
+    }
+
+    @Test
+    @BenchmarkOptions(benchmarkRounds = 10, warmupRounds = 2, concurrency = BenchmarkOptions.CONCURRENCY_SEQUENTIAL)
+    public void g_V_both_both_limitX10X_overHubsWithCompactAdjacency() {
+        traverseHubs(compactPowerLawGraph, "compact");
+    }
+
+    private static void traverseHubs(final TinkerGraph graph, final String layout) {
+        final long allocated = allocatedBytes();
+        for (int i = 0; i < 1000; i++) {
+            // the lowest ids of a preferential attachment graph are its hubs
+            assertEquals(10, graph.traversal().V((long) (i % 10)).both().both().limit(10).toList().size());
+        }
+        System.out.println(String.format("%s adjacency allocated %sKB for 1000 hub traversals", layout, (allocatedBytes() - allocated) / 1024));
+    }
+
+    private static void writeAndRead(final boolean compact) {
+        final TinkerGraph graph = generate(compact);
+        long count = 0;
+        for (final Vertex vertex : graph.vertices.values()) {
+            final Iterator<Edge> edges = vertex.edges(Direction.BOTH);
+            while (edges.hasNext()) {
+                edges.next();
+                count++;
+            }
+        }
+        assertEquals(EDGES * 2, count);
+    }
+
+    private static long retainedBytes(final boolean compact) {
+        final long before = usedMemory();
+        final TinkerGraph graph = generate(compact);
+        final long after = usedMemory();
+        assertEquals(EDGES, graph.edges.size());
+        return after - before;
+    }
+
+    private static TinkerGraph generate(final boolean compact) {
+        final Configuration configuration = new BaseConfiguration();
+        configuration.setProperty(TinkerGraph.CONFIG_COMPACT_ADJACENCY, compact);
+        final TinkerGraph graph = TinkerGraph.open(configuration);
+        final Vertex[] vertices = new Vertex[VERTICES];
+        for (int i = 0; i < VERTICES; i++) {
+            vertices[i] = graph.addVertex();
+        }
+        final Random random = new Random(123456789l);
+        for (int i = 0; i < EDGES; i++) {
+            vertices[random.nextInt(VERTICES)].addEdge(i % 3 == 0 ? "knows" : "created", vertices[random.nextInt(VERTICES)]);
+        }
+        return graph;
+    }
+
+    /**
+     * Generates a graph with a power-law degree distribution by way of preferential attachment, where each new vertex
+     * links to vertices chosen with a probability proportional to their degree.
+     */
+    private static TinkerGraph generatePowerLaw(final boolean compact) {
+        final Configuration configuration = new BaseConfiguration();
+        configuration.setProperty(TinkerGraph.CONFIG_COMPACT_ADJACENCY, compact);
+        configuration.setProperty(TinkerGraph.CONFIG_VERTEX_ID, TinkerGraph.DefaultIdManager.LONG.name());
+        final TinkerGraph graph = TinkerGraph.open(configuration);
+        final Vertex[] vertices = new Vertex[POWER_LAW_VERTICES];
+        final int[] endpoints = new int[POWER_LAW_VERTICES * POWER_LAW_EDGES_PER_VERTEX * 2];
+        int totalEndpoints = 0;
+        final Random random = new Random(987654321l);
+        for (int i = 0; i < POWER_LAW_VERTICES; i++) {
+            vertices[i] = graph.addVertex(T.id, (long) i);
+            if (i == 0) continue;
+            for (int j = 0; j < POWER_LAW_EDGES_PER_VERTEX; j++) {
+                final int target = totalEndpoints == 0 ? 0 : endpoints[random.nextInt(totalEndpoints)];
+                vertices[i].addEdge("link", vertices[target]);
+                endpoints[totalEndpoints++] = i;
+                endpoints[totalEndpoints++] = target;
+            }
+        }
+        return graph;
+    }
+
+    private static long allocatedBytes() {
+        return ((com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean()).getThreadAllocatedBytes(Thread.currentThread().getId());
+    }
+
+    private static long usedMemory() {
+        final Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
@@ -18,19 +18,49 @@
  */
 package org.apache.tinkerpop.gremlin.tinkergraph.structure;
 
+import org.apache.commons.configuration.BaseConfiguration;
+import org.apache.commons.configuration.Configuration;
+import org.apache.tinkerpop.gremlin.process.computer.ComputerResult;
+import org.apache.tinkerpop.gremlin.process.computer.GraphComputer;
+import org.apache.tinkerpop.gremlin.process.computer.MessageScope;
+import org.apache.tinkerpop.gremlin.process.computer.ranking.pagerank.PageRankVertexProgram;
+import org.apache.tinkerpop.gremlin.process.computer.traversal.TraversalVertexProgram;
+import org.apache.tinkerpop.gremlin.process.traversal.Path;
+import org.apache.tinkerpop.gremlin.process.traversal.Step;
 import org.apache.tinkerpop.gremlin.process.traversal.Traversal;
 import org.apache.tinkerpop.gremlin.process.traversal.dsl.graph.GraphTraversalSource;
 import org.apache.tinkerpop.gremlin.process.traversal.dsl.graph.__;
+import org.apache.tinkerpop.gremlin.process.traversal.engine.StandardTraversalEngine;
+import org.apache.tinkerpop.gremlin.process.traversal.step.map.OrderGlobalStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.util.AbstractStep;
+import org.apache.tinkerpop.gremlin.process.traversal.traverser.util.TraverserPool;
+import org.apache.tinkerpop.gremlin.process.traversal.util.Metrics;
+import org.apache.tinkerpop.gremlin.process.traversal.util.TraversalHelper;
+import org.apache.tinkerpop.gremlin.process.traversal.util.TraversalMetrics;
 import org.apache.tinkerpop.gremlin.structure.*;
 import org.apache.tinkerpop.gremlin.structure.io.graphml.GraphMLIo;
+import org.apache.tinkerpop.gremlin.tinkergraph.process.computer.TinkerGraphComputer;
+import org.apache.tinkerpop.gremlin.util.iterator.IteratorUtils;
 import org.junit.Ignore;
 import org.junit.Test;
 
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.Random;
 import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.function.Supplier;
+import java.util.stream.Collectors;
 
 import static org.apache.tinkerpop.gremlin.process.traversal.Scope.local;
 import static org.apache.tinkerpop.gremlin.process.traversal.dsl.graph.__.*;
@@ -398,5 +428,566 @@ public class TinkerGraphTest {
         }, 0.5)).has("oid", "1").count().next());
     }
 
+    @Test
+    public void shouldExecutePageRankWithMultipleWorkers() throws Exception {
+        final TinkerGraph g = TinkerFactory.createModern();
+        final Map<Object, Double> single = new HashMap<>();
+        ((TinkerGraphComputer) g.compute()).workers(1).program(PageRankVertexProgram.build().create()).submit().get()
+                .graph().vertices().forEachRemaining(v -> single.put(v.id(), v.value(PageRankVertexProgram.PAGE_RANK)));
+
+        final ComputerResult result = ((TinkerGraphComputer) g.compute()).workers(4).program(PageRankVertexProgram.build().create()).submit().get();
+        assertEquals(30, result.memory().getIteration());
+        assertEquals(6, single.size());
+        result.graph().vertices().forEachRemaining(v -> assertEquals(single.get(v.id()), v.value(PageRankVertexProgram.PAGE_RANK), 0.00001d));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void shouldNotAllowComputerWithNoWorkers() {
+        ((TinkerGraphComputer) TinkerGraph.open().compute()).workers(0);
+    }
+
+    @Test
+    public void shouldAddAndRemoveEdgesWithCompactAdjacency() {
+        final Configuration conf = new BaseConfiguration();
+        conf.setProperty(TinkerGraph.CONFIG_COMPACT_ADJACENCY, true);
+        final TinkerGraph g = TinkerGraph.open(conf);
+
+        final Vertex a = g.addVertex();
+        final Vertex b = g.addVertex();
+        final List<Edge> edges = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            edges.add(a.addEdge(i % 2 == 0 ? "even" : "odd", b, "i", i));
+        }
+        edges.add(a.addEdge("self", a));
+
+        assertEquals(new Long(101), g.traversal().V(a).outE().count().next());
+        assertEquals(new Long(50), g.traversal().V(a).outE("even").count().next());
+        assertEquals(new Long(100), g.traversal().V(b).in().count().next());
+        assertEquals(new Long(1), g.traversal().V(a).in("self").count().next());
+
+        // removing while iterating must neither fail nor skip any live edge
+        g.traversal().V(a).outE("odd").has("i", P.lt(80)).drop().iterate();
+        assertEquals(new Long(10), g.traversal().V(a).outE("odd").count().next());
+        assertEquals(new Long(60), g.traversal().V(b).inE().count().next());
+
+        edges.get(100).remove();
+        assertEquals(new Long(0), g.traversal().V(a).bothE("self").count().next());
+
+        for (int i = 100; i < 110; i++) {
+            a.addEdge("odd", b, "i", i);
+        }
+        assertEquals(new Long(20), g.traversal().V(a).out("odd").count().next());
+        assertEquals(new Long(20), g.traversal().V(b).inE("odd").count().next());
+
+        a.remove();
+        assertEquals(new Long(0), g.traversal().V(b).bothE().count().next());
+        assertEquals(new Long(0), g.traversal().E().count().next());
+    }
+
+    @Test
+    public void shouldMutateAdjacentEdgesWhileIteratingThem() {
+        final TinkerGraph g = TinkerGraph.open();
+        final Vertex a = g.addVertex();
+        final Vertex b = g.addVertex();
+        for (int i = 0; i < 10; i++) {
+            a.addEdge("knows", b, "i", i);
+        }
+
+        final Iterator<Edge> edges = a.edges(Direction.OUT, "knows");
+        final Edge first = edges.next();
+        a.addEdge("knows", b, "i", 10);
+        a.addEdge("likes", b);
+        first.remove();
+        int count = 1;
+        while (edges.hasNext()) {
+            edges.next().remove();
+            count++;
+        }
+        assertEquals(10, count);
+        assertEquals(new Long(2), g.traversal().V(a).outE().count().next());
+        assertEquals(new Long(2), g.traversal().V(b).in().count().next());
+
+        g.traversal().V(a).outE().drop().iterate();
+        assertEquals(new Long(0), g.traversal().V(b).inE().count().next());
+    }
+
+    @Test
+    public void shouldMutateAdjacentEdgesInPlaceWhenAnIteratorIsAbandoned() {
+        final TinkerGraph g = TinkerGraph.open();
+        final Vertex a = g.addVertex();
+        final Vertex b = g.addVertex();
+        a.addEdge("knows", b);
+        a.addEdge("knows", b);
+        final Collection<Edge> knows = ((TinkerVertex) a).outEdges.get("knows");
+
+        // out().limit(1) leaves the adjacency iterator part way through
+        assertEquals(1, g.traversal().V(a).out("knows").limit(1).toList().size());
+        final Iterator<Edge> abandoned = a.edges(Direction.OUT, "knows");
+        final Edge first = abandoned.next();
+
+        for (int i = 0; i < 10; i++) {
+            a.addEdge("knows", b);
+        }
+        first.remove();
+        assertSame(knows, ((TinkerVertex) a).outEdges.get("knows"));
+        assertEquals(11l, IteratorUtils.count(a.edges(Direction.OUT, "knows")));
+
+        // the abandoned iterator still reads the edges it was created over that were not removed
+        assertEquals(1l, IteratorUtils.count(abandoned));
+    }
+
+    @Test
+    public void shouldUseSortedIndexForRangeLookups() {
+        final TinkerGraph g = TinkerGraph.open();
+        g.createIndex("age", Vertex.class, TinkerGraph.IndexType.SORTED);
+        g.addVertex("name", "marko", "age", 29);
+        g.addVertex("name", "vadas", "age", 27l);
+        g.addVertex("name", "josh", "age", 32.0d);
+        g.addVertex("name", "peter", "age", 35);
+        g.addVertex("name", "lop", "age", "old");
+        g.addVertex("name", "ripple");
+
+        // the spy on "name" only sees the vertices that the sorted index on "age" lets through
+        final List<Object> seen = new ArrayList<>();
+        assertEquals(Arrays.asList("josh", "marko"), g.traversal().V().has("age", P.between(29, 35)).has("name", P.test((t, u) -> seen.add(t), "spy"))
+                .<String>values("name").order().toList());
+        assertEquals(2, seen.size());
+
+        assertEquals(Arrays.asList("josh", "marko", "vadas"), g.traversal().V().has("age", P.lt(33)).<String>values("name").order().toList());
+        assertEquals(Arrays.asList("josh", "peter"), g.traversal().V().has("age", P.gt(29l)).<String>values("name").order().toList());
+        assertEquals(Arrays.asList("josh", "peter"), g.traversal().V().has("age", P.inside(29, 40)).<String>values("name").order().toList());
+        assertEquals(Arrays.asList("marko", "peter"), g.traversal().V().has("age", P.within(29, 35)).<String>values("name").order().toList());
+        assertEquals(Arrays.asList("marko", "peter"), g.traversal().V().has("age", P.gte(29)).has("age", P.lte(35)).has("age", P.neq(32.0d))
+                .<String>values("name").order().toList());
+        assertEquals(0, g.traversal().V().has("age", P.between(35, 29)).count().next().intValue());
+
+        // the index follows updates to the key
+        g.traversal().V().has("name", "peter").property("age", 25).iterate();
+        assertEquals(Arrays.asList("peter", "vadas"), g.traversal().V().has("age", P.lt(29)).<String>values("name").order().toList());
+
+        // switching to a hash index keeps equality lookups but range lookups fall back to a full scan, which can not
+        // compare numbers to strings the way the sorted index can
+        g.traversal().V().has("name", "lop").drop().iterate();
+        g.createIndex("age", Vertex.class);
+        assertEquals(Arrays.asList("peter", "vadas"), g.traversal().V().has("age", P.lt(29)).<String>values("name").order().toList());
+        assertEquals(Arrays.asList("marko"), g.traversal().V().has("age", 29).<String>values("name").toList());
+    }
+
+    @Test
+    public void shouldUseSortedIndexForOrderAndLimit() {
+        final TinkerGraph g = TinkerGraph.open();
+        g.createIndex("weight", Edge.class, TinkerGraph.IndexType.SORTED);
+        final Vertex v = g.addVertex();
+        for (int i = 0; i < 100; i++) {
+            v.addEdge(i % 2 == 0 ? "knows" : "created", v, "weight", (double) ((i * 37) % 100));
+        }
 
+        final Traversal<Edge, Object> traversal = g.traversal().E().order().by("weight", Order.decr).limit(3).values("weight");
+        assertEquals(Arrays.asList(99.0d, 98.0d, 97.0d), traversal.toList());
+        assertFalse(traversal.toString().contains("OrderGlobalStep"));
+        assertFalse(traversal.toString().contains("OrderRangeGlobalStep"));
+
+        assertEquals(Arrays.asList(1.0d, 3.0d), g.traversal().E().hasLabel("created").order().by("weight", Order.incr).limit(2).values("weight").toList());
+        assertEquals(Arrays.asList(4.0d, 6.0d), g.traversal().E().has("weight", P.gt(2.0d)).hasLabel("knows").order().by("weight", Order.incr).limit(2).values("weight").toList());
+
+        g.dropIndex("weight", Edge.class);
+        assertEquals(Arrays.asList(99.0d, 98.0d), g.traversal().E().has("weight").order().by("weight", Order.decr).limit(2).values("weight").toList());
+    }
+
+    @Test
+    public void shouldNotUseSortedIndexForOrderAndLimitUnlessItOrdersEveryElement() {
+        final TinkerGraph g = TinkerGraph.open();
+        g.createIndex("age", Vertex.class, TinkerGraph.IndexType.SORTED);
+        g.addVertex("age", 29);
+        g.addVertex("age", 27);
+        assertTrue(isOrderFolded(g.traversal().V().order().by("age", Order.incr).limit(1)));
+
+        // order() would fail on a vertex without the key rather than leave it out
+        final Vertex v = g.addVertex();
+        assertFalse(isOrderFolded(g.traversal().V().order().by("age", Order.incr).limit(1)));
+        assertEquals(Arrays.asList(27, 29), g.traversal().V().has("age").order().by("age", Order.incr).limit(2).values("age").toList());
+
+        // or on a vertex with more than one value for the key
+        v.property(VertexProperty.Cardinality.list, "age", 32);
+        v.property(VertexProperty.Cardinality.list, "age", 35);
+        assertFalse(isOrderFolded(g.traversal().V().order().by("age", Order.incr).limit(1)));
+
+        // or on values that cannot be compared to each other
+        g.createIndex("weight", Edge.class, TinkerGraph.IndexType.SORTED);
+        final Edge e = v.addEdge("knows", v, "weight", 0.5d);
+        v.addEdge("knows", v, "weight", 1.0d);
+        assertTrue(isOrderFolded(g.traversal().E().order().by("weight", Order.decr).limit(1)));
+        e.property("weight", 1);
+        assertFalse(isOrderFolded(g.traversal().E().order().by("weight", Order.decr).limit(1)));
+
+        // until the values are all of the same class again
+        e.property("weight", 0.25d);
+        assertTrue(isOrderFolded(g.traversal().E().order().by("weight", Order.decr).limit(1)));
+        e.property("weight").remove();
+        assertFalse(isOrderFolded(g.traversal().E().order().by("weight", Order.decr).limit(1)));
+        e.remove();
+        assertTrue(isOrderFolded(g.traversal().E().order().by("weight", Order.decr).limit(1)));
+    }
+
+    private static boolean isOrderFolded(final Traversal<?, ?> traversal) {
+        traversal.asAdmin().applyStrategies();
+        return !traversal.toString().contains("OrderGlobalStep") && !traversal.toString().contains("OrderRangeGlobalStep");
+    }
+
+    @Test
+    public void shouldMaintainIndexUnderConcurrentWrites() throws Exception {
+        final TinkerGraph g = TinkerGraph.open();
+        g.createIndex("tenant", Vertex.class);
+        g.createIndex("age", Vertex.class, TinkerGraph.IndexType.SORTED);
+
+        final int threads = 8;
+        final int verticesPerThread = 1000;
+        final ExecutorService executor = Executors.newFixedThreadPool(threads);
+        final List<Future<?>> futures = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            futures.add(executor.submit(() -> {
+                for (int i = 0; i < verticesPerThread; i++) {
+                    final Vertex v = g.addVertex("tenant", i % 2 == 0 ? "a" : "b", "age", i % 10);
+                    if (i % 4 == 1) v.remove();
+                }
+            }));
+        }
+        for (final Future<?> future : futures) {
+            future.get();
+        }
+        executor.shutdown();
+
+        assertEquals(threads * verticesPerThread / 2, g.traversal().V().has("tenant", "a").count().next().intValue());
+        assertEquals(threads * verticesPerThread / 4, g.traversal().V().has("tenant", "b").count().next().intValue());
+        assertEquals(threads * verticesPerThread * 3 / 4, g.traversal().V().has("age", P.gte(0)).count().next().intValue());
+
+        // removing elements takes them out of every index, including while an index lookup is being iterated
+        final Iterator<Vertex> tenants = g.traversal().V().has("tenant", "a");
+        while (tenants.hasNext()) {
+            tenants.next().remove();
+        }
+        assertEquals(0, g.traversal().V().has("tenant", "a").count().next().intValue());
+        assertEquals(threads * verticesPerThread / 4, g.traversal().V().has("age", P.gte(0)).count().next().intValue());
+    }
+
+    @Test
+    public void shouldUseMostSelectiveCompositeIndex() {
+        final TinkerGraph g = TinkerGraph.open();
+        for (int i = 0; i < 100; i++) {
+            g.addVertex(T.label, i % 2 == 0 ? "person" : "software", "tenant", i % 5, "externalId", i % 10, "name", "v" + i);
+        }
+        g.createCompositeIndex(Arrays.asList(T.label.getAccessor(), "tenant", "externalId"), Vertex.class);
+        g.createIndex("tenant", Vertex.class);
+        assertEquals(Collections.singleton(Arrays.asList(T.label.getAccessor(), "tenant", "externalId")), g.getCompositeIndexedKeys(Vertex.class));
+
+        // the spy on "name" only sees the vertices of the composite index bucket rather than those of the tenant index
+        final List<Object> seen = new ArrayList<>();
+        assertEquals(10, g.traversal().V().hasLabel("person").has("tenant", 2).has("externalId", 2)
+                .has("name", P.test((t, u) -> seen.add(t), "spy")).count().next().intValue());
+        assertEquals(10, seen.size());
+        assertEquals(0, g.traversal().V().hasLabel("software").has("tenant", 2).has("externalId", 2).count().next().intValue());
+
+        // the composite index follows updates to any of its keys and removals
+        final Vertex v = g.traversal().V().has("name", "v2").next();
+        v.property("externalId", 3);
+        assertEquals(9, g.traversal().V().hasLabel("person").has("tenant", 2).has("externalId", 2).count().next().intValue());
+        assertEquals(1, g.traversal().V().hasLabel("person").has("tenant", 2).has("externalId", 3).count().next().intValue());
+        v.property("externalId").remove();
+        assertEquals(0, g.traversal().V().hasLabel("person").has("tenant", 2).has("externalId", 3).count().next().intValue());
+        g.traversal().V().has("name", "v12").drop().iterate();
+        assertEquals(8, g.traversal().V().hasLabel("person").has("tenant", 2).has("externalId", 2).count().next().intValue());
+
+        g.dropCompositeIndex(Arrays.asList(T.label.getAccessor(), "tenant", "externalId"), Vertex.class);
+        assertEquals(0, g.getCompositeIndexedKeys(Vertex.class).size());
+        assertEquals(8, g.traversal().V().hasLabel("person").has("tenant", 2).has("externalId", 2).count().next().intValue());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void shouldNotCreateCompositeIndexWithOneKey() {
+        TinkerGraph.open().createCompositeIndex(Collections.singletonList("name"), Vertex.class);
+    }
+
+    @Test
+    public void shouldBuildIndexInBackgroundWhileGraphIsMutated() throws Exception {
+        final TinkerGraph g = TinkerGraph.open();
+        final List<Vertex> vertices = new ArrayList<>();
+        for (int i = 0; i < 20000; i++) {
+            vertices.add(g.addVertex("group", i % 10));
+        }
+
+        final AtomicBoolean writing = new AtomicBoolean(true);
+        final Thread writer = new Thread(() -> {
+            final Random random = new Random(123456789l);
+            while (writing.get()) {
+                final Vertex v = vertices.get(random.nextInt(vertices.size()));
+                if (((TinkerVertex) v).removed)
+                    continue;
+                final int action = random.nextInt(10);
+                if (action == 0)
+                    v.remove();
+                else if (action == 1)
+                    v.property("group").remove();
+                else if (action == 2)
+                    g.addVertex("group", random.nextInt(10));
+                else
+                    v.property("group", random.nextInt(10));
+            }
+        });
+        writer.start();
+
+        final TinkerIndexBuild build = g.createIndexInBackground("group", Vertex.class, TinkerGraph.IndexType.HASH);
+        build.getFuture().get();
+        assertEquals(1.0d, build.getProgress(), 0.0d);
+        assertTrue(g.getIndexedKeys(Vertex.class).contains("group"));
+        Thread.sleep(50);
+        writing.set(false);
+        writer.join();
+
+        for (int group = 0; group < 10; group++) {
+            final int value = group;
+            assertEquals(g.traversal().V().has("group", P.test((t, u) -> t.equals(u), value)).count().next(),
+                    g.traversal().V().has("group", value).count().next());
+        }
+    }
+
+    @Test
+    public void shouldHoldComputeKeysInGraphView() {
+        final TinkerGraph g = TinkerFactory.createModern();
+        final Vertex marko = g.traversal().V().has("name", "marko").next();
+        final Vertex josh = g.traversal().V().has("name", "josh").next();
+        TinkerHelper.createGraphView(g, GraphComputer.Isolation.BSP, new HashSet<>(Arrays.asList("rank", "paths", "tag")));
+
+        marko.property(VertexProperty.Cardinality.single, "rank", 0.15d);
+        marko.property(VertexProperty.Cardinality.single, "rank", 0.25d);
+        josh.property(VertexProperty.Cardinality.single, "paths", 3l);
+        josh.property(VertexProperty.Cardinality.list, "tag", "a");
+        josh.property(VertexProperty.Cardinality.list, "tag", "b", "since", 2010);
+
+        assertEquals(0.25d, marko.value("rank"), 0.0d);
+        assertEquals(marko.property("rank").id(), marko.property("rank").id());
+        assertNotEquals(marko.property("rank").id(), josh.property("paths").id());
+        assertFalse(josh.property("rank").isPresent());
+        assertEquals(3l, (long) josh.value("paths"));
+        assertEquals(Arrays.asList("a", "b"), IteratorUtils.list(josh.values("tag")));
+        assertEquals(2010, (int) IteratorUtils.list(josh.properties("tag")).get(1).value("since"));
+        assertEquals(5, IteratorUtils.count(josh.properties()));
+        assertEquals("josh", josh.value("name"));
+
+        josh.properties("tag").forEachRemaining(Property::remove);
+        marko.property("rank").remove();
+        assertFalse(josh.property("tag").isPresent());
+        assertFalse(marko.property("rank").isPresent());
+        assertEquals(3l, (long) josh.value("paths"));
+    }
+
+    @Test
+    public void shouldWriteSingleComputeKeysInPlace() {
+        final TinkerGraph g = TinkerFactory.createModern();
+        final Vertex josh = g.traversal().V().has("name", "josh").next();
+        TinkerHelper.createGraphView(g, GraphComputer.Isolation.BSP, new HashSet<>(Arrays.asList("rank", "tag")));
+
+        // the value is written over in place while the properties returned are snapshots of the value
+        final VertexProperty<Double> rank = josh.property(VertexProperty.Cardinality.single, "rank", 0.15d);
+        final VertexProperty<Double> updated = josh.property(VertexProperty.Cardinality.single, "rank", 0.25d);
+        assertEquals(0.15d, rank.value(), 0.0d);
+        assertEquals(0.25d, updated.value(), 0.0d);
+        assertEquals(rank.id(), updated.id());
+        assertEquals(0.25d, josh.<Double>value("rank"), 0.0d);
+        assertEquals(Collections.singletonList(0.25d), IteratorUtils.list(josh.values("rank")));
+        josh.property(VertexProperty.Cardinality.single, "rank", "high");
+        assertEquals("high", josh.value("rank"));
+        assertEquals(0.25d, updated.value(), 0.0d);
+
+        // a single value replaces all the values of the key
+        josh.property(VertexProperty.Cardinality.list, "tag", "a");
+        josh.property(VertexProperty.Cardinality.list, "tag", "b", "since", 2010);
+        josh.property(VertexProperty.Cardinality.single, "tag", "c");
+        assertEquals(Collections.singletonList("c"), IteratorUtils.list(josh.values("tag")));
+
+        josh.property("rank").remove();
+        assertFalse(josh.property("rank").isPresent());
+    }
+
+    @Test
+    public void shouldTraverseInBatches() {
+        final TinkerGraph g = TinkerFactory.createModern();
+        final GraphTraversalSource batched = g.traversal(GraphTraversalSource.build().engine(StandardTraversalEngine.build().batchSize(2)));
+        final GraphTraversalSource standard = g.traversal();
+        assertEquals(standard.V().out().out().values("name").toList(), batched.V().out().out().values("name").toList());
+        assertEquals(standard.V().as("a").outE().inV().has("lang").select("a").by("name").toList(),
+                batched.V().as("a").outE().inV().has("lang").select("a").by("name").toList());
+        assertEquals(standard.V().both().dedup().count().next(), batched.V().both().dedup().count().next());
+        assertEquals(standard.V().out().limit(3).toList(), batched.V().out().limit(3).toList());
+        assertEquals(standard.V().repeat(out()).times(2).path().toList().toString(), batched.V().repeat(out()).times(2).path().toList().toString());
+
+        // the leading steps are batched up to the first step with a lambda
+        final Traversal.Admin<Vertex, String> traversal = batched.V().out().has("age").map(t -> t.get().<String>value("name")).asAdmin();
+        traversal.applyStrategies();
+        final List<Step> steps = traversal.getSteps();
+        assertEquals(2, ((AbstractStep) steps.get(0)).getBatchSize());
+        assertEquals(2, ((AbstractStep) steps.get(steps.size() - 2)).getBatchSize());
+        assertEquals(1, ((AbstractStep) steps.get(steps.size() - 1)).getBatchSize());
+        assertEquals(Arrays.asList("josh", "vadas"), IteratorUtils.list(traversal).stream().sorted().collect(Collectors.toList()));
+
+        // a traversal with a range would read ahead of it so it is not batched
+        final Traversal.Admin<Vertex, Vertex> limited = batched.V().out().limit(1).asAdmin();
+        limited.applyStrategies();
+        limited.getSteps().forEach(step -> assertEquals(1, ((AbstractStep) step).getBatchSize()));
+    }
+
+    @Test
+    public void shouldReuseTraversers() {
+        final TinkerGraph g = TinkerFactory.createModern();
+        final GraphTraversalSource reusing = g.traversal(GraphTraversalSource.build().engine(StandardTraversalEngine.build().reuseTraversers(true)));
+        final GraphTraversalSource reusingInBatches = g.traversal(GraphTraversalSource.build().engine(StandardTraversalEngine.build().reuseTraversers(true).batchSize(2)));
+        final GraphTraversalSource standard = g.traversal();
+        for (final GraphTraversalSource reused : Arrays.asList(reusing, reusingInBatches)) {
+            assertEquals(standard.V().out().out().values("name").toList(), reused.V().out().out().values("name").toList());
+            assertEquals(standard.V().both().has("age", P.gt(29)).values("name").toList(), reused.V().both().has("age", P.gt(29)).values("name").toList());
+            assertEquals(standard.V().both().both().values("name").groupCount().next(), reused.V().both().both().values("name").groupCount().next());
+            assertEquals(standard.V().order().by("name", Order.decr).out().values("name").toList(), reused.V().order().by("name", Order.decr).out().values("name").toList());
+            assertEquals(standard.V().outE().inV().has("lang").count().next(), reused.V().outE().inV().has("lang").count().next());
+            assertEquals(standard.V().both().barrier().values("name").toList(), reused.V().both().barrier().values("name").toList());
+            assertEquals(standard.V().and(out().out()).values("name").toList(), reused.V().and(out().out()).values("name").toList());
+        }
+
+        final Traversal.Admin<Vertex, Object> traversal = reusing.V().out().values("name").asAdmin();
+        traversal.applyStrategies();
+        final TraverserPool traverserPool = ((AbstractStep) traversal.getSteps().get(1)).getTraverserPool();
+        assertNotNull(traverserPool);
+        traversal.getSteps().forEach(step -> assertSame(traverserPool, ((AbstractStep) step).getTraverserPool()));
+
+        // path traversers carry state that a reused traverser would have to reset so they are always cloned
+        final Traversal.Admin<Vertex, Path> pathTraversal = reusing.V().out().path().asAdmin();
+        pathTraversal.applyStrategies();
+        pathTraversal.getSteps().forEach(step -> assertNull(((AbstractStep) step).getTraverserPool()));
+    }
+
+    @Test
+    public void shouldSpillOrderAndGroupToDisk() {
+        final TinkerGraph g = TinkerFactory.createModern();
+        final GraphTraversalSource spilling = g.traversal(GraphTraversalSource.build().engine(StandardTraversalEngine.build().spillThreshold(2)));
+        final GraphTraversalSource standard = g.traversal();
+        assertEquals(standard.V().both().order().by("name").toList(), spilling.V().both().order().by("name").toList());
+        assertEquals(standard.V().both().values("name").order().by(Order.decr).toList(), spilling.V().both().values("name").order().by(Order.decr).toList());
+        assertEquals(standard.V().both().group().by(T.label).by("name").by(count(local)).next(), spilling.V().both().group().by(T.label).by("name").by(count(local)).next());
+        assertEquals(standard.V().both().group().by("name").by(identity()).by(count(local)).next(), spilling.V().both().group().by("name").by(identity()).by(count(local)).next());
+
+        final Traversal.Admin<Vertex, Vertex> ordered = spilling.V().both().order().by("name").asAdmin();
+        ordered.applyStrategies();
+        final OrderGlobalStep<Vertex> orderStep = TraversalHelper.getLastStepOfAssignableClass(OrderGlobalStep.class, ordered).get();
+        assertEquals(2l, orderStep.getSpillThreshold());
+        assertEquals(12, IteratorUtils.count(ordered));
+        assertTrue(orderStep.getSpillCount() > 0l);
+        assertTrue(orderStep.getSpillBytes() > 0l);
+
+        final TraversalMetrics metrics = spilling.V().both().order().by("name").profile().next();
+        final Metrics orderMetrics = metrics.getMetrics().stream().filter(m -> m.getName().startsWith(OrderGlobalStep.class.getSimpleName())).findAny().get();
+        assertTrue(orderMetrics.getCount(TraversalMetrics.SPILL_COUNT_ID) > 0l);
+        assertTrue(orderMetrics.getCount(TraversalMetrics.SPILL_BYTES_ID) > 0l);
+    }
+
+    @Test
+    public void shouldKeepWhatGryoCanNotSerializeInMemoryWhenSpilling() {
+        final TinkerGraph g = TinkerFactory.createModern();
+        final GraphTraversalSource spilling = g.traversal(GraphTraversalSource.build().engine(StandardTraversalEngine.build().spillThreshold(2)));
+        final GraphTraversalSource standard = g.traversal();
+        assertEquals(standard.V().both().<Unspillable>map(t -> new Unspillable(t.get().value("name"))).order().toList(),
+                spilling.V().both().<Unspillable>map(t -> new Unspillable(t.get().value("name"))).order().toList());
+        assertEquals(standard.V().both().group().by(T.label).by(map(t -> new Unspillable(((Vertex) t.get()).value("name")))).by(count(local)).next(),
+                spilling.V().both().group().by(T.label).by(map(t -> new Unspillable(((Vertex) t.get()).value("name")))).by(count(local)).next());
+    }
+
+    @Test
+    public void shouldApproximateDistinctCountsAndGroupCounts() {
+        final TinkerGraph g = TinkerFactory.createModern();
+        for (final GraphTraversalSource source : Arrays.asList(g.traversal(), g.traversal(GraphTraversalSource.computer()))) {
+            assertEquals(6l, source.V().both().approxDistinctCount().next().longValue());
+            assertEquals(g.traversal().V().both().both().values("name").dedup().count().next(), source.V().both().both().values("name").approxDistinctCount(0.05d).next());
+            assertEquals(g.traversal().V().both().groupCount().by("name").next(), source.V().both().approxGroupCount(10).by("name").next());
+            assertEquals(g.traversal().V().both().both().groupCount().by(T.label).next(), source.V().both().both().approxGroupCount(2).by(T.label).next());
+        }
+    }
+
+    @Test
+    public void shouldMessageTraversersWithAndWithoutDetachingThem() throws Exception {
+        final TinkerGraph g = TinkerFactory.createModern();
+        for (final boolean detachTraversers : Arrays.asList(true, false)) {
+            final Traversal.Admin<Vertex, String> names = g.traversal(GraphTraversalSource.computer()).V().both().out().<String>values("name").asAdmin();
+            names.applyStrategies();
+            final TraversalVertexProgram namesProgram = TraversalVertexProgram.build().traversal(names, false).detachTraversers(detachTraversers).create();
+            final Map<String, Long> nameCounts = new HashMap<>();
+            namesProgram.<Vertex, String>computerResultTraversal(g.compute().program(namesProgram).submit().get()).forEachRemaining(name -> nameCounts.merge(name, 1l, Long::sum));
+            assertEquals(g.traversal().V().both().out().values("name").groupCount().next(), nameCounts);
+
+            final Traversal.Admin<Vertex, Long> count = g.traversal(GraphTraversalSource.computer()).V().both().both().both().count().asAdmin();
+            count.applyStrategies();
+            final TraversalVertexProgram countProgram = TraversalVertexProgram.build().traversal(count, false).detachTraversers(detachTraversers).create();
+            assertEquals(g.traversal().V().both().both().both().count().next(), countProgram.<Vertex, Long>computerResultTraversal(g.compute().program(countProgram).submit().get()).next());
+        }
+    }
+
+    @Test
+    public void shouldMessageAdjacentTraversersAlongLocalMessageScopes() throws Exception {
+        final TinkerGraph g = TinkerGraph.open();
+        final Vertex a = g.addVertex("name", "a");
+        final Vertex b = g.addVertex("name", "b");
+        final Vertex c = g.addVertex("name", "c");
+        a.addEdge("knows", b);
+        a.addEdge("knows", b);
+        b.addEdge("knows", c);
+        c.addEdge("likes", c);
+        c.addEdge("likes", a);
+
+        final Traversal.Admin<Vertex, String> traversal = g.traversal(GraphTraversalSource.computer()).V().as("x").out("knows").both().select("x").<String>values("name").asAdmin();
+        traversal.applyStrategies();
+        final TraversalVertexProgram program = TraversalVertexProgram.build().traversal(traversal, false).create();
+        assertEquals(3, program.getMessageScopes(null).size());
+        assertEquals(2, program.getMessageScopes(null).stream().filter(scope -> scope instanceof MessageScope.Local).count());
+        final Map<String, Long> names = new HashMap<>();
+        program.<Vertex, String>computerResultTraversal(g.compute().program(program).submit().get()).forEachRemaining(name -> names.merge(name, 1l, Long::sum));
+        assertEquals(g.traversal().V().as("x").out("knows").both().select("x").values("name").groupCount().next(), names);
+
+        final GraphTraversalSource computer = g.traversal(GraphTraversalSource.computer());
+        assertSameResults(g.traversal().V().both().both().path(), computer.V().both().both().path());
+        assertSameResults(g.traversal().V().repeat(both("likes")).times(2).in().path(), computer.V().repeat(both("likes")).times(2).in().path());
+        assertSameResults(g.traversal().V().outE().inV().out().path(), computer.V().outE().inV().out().path());
+    }
+
+    /**
+     * A value of a class that is not registered with Gryo.
+     */
+    private static final class Unspillable implements Comparable<Unspillable> {
+
+        private final String name;
+
+        private Unspillable(final String name) {
+            this.name = name;
+        }
+
+        @Override
+        public int compareTo(final Unspillable other) {
+            return this.name.compareTo(other.name);
+        }
+
+        @Override
+        public boolean equals(final Object other) {
+            return other instanceof Unspillable && this.name.equals(((Unspillable) other).name);
+        }
+
+        @Override
+        public int hashCode() {
+            return this.name.hashCode();
+        }
+    }
+
+    private static void assertSameResults(final Traversal<?, ?> expected, final Traversal<?, ?> actual) {
+        final List<String> expectedResults = new ArrayList<>();
+        expected.forEachRemaining(result -> expectedResults.add(result.toString()));
+        Collections.sort(expectedResults);
+        final List<String> actualResults = new ArrayList<>();
+        actual.forEachRemaining(result -> actualResults.add(result.toString()));
+        Collections.sort(actualResults);
+        assertEquals(expectedResults, actualResults);
+    }
 }